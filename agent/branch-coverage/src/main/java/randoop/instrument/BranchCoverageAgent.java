@@ -0,0 +1,23 @@
+package randoop.instrument;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Defines the Java agent to instrument classes for branch-coverage feedback.
+ * Sets up {@code Instrumentation} for JVM so that bytecode first passed
+ * through a {@link BranchCoverageTransformer} that performs instrumentation.
+ *
+ * The agent argument, if any, is a comma-separated list of the prefixes of
+ * the names of the classes to instrument, such as
+ * {@code -javaagent:branch-coverage.jar=com.example.,org.example.util.}.
+ * Without it, all classes except those of the JDK, JUnit and Randoop are
+ * instrumented.
+ */
+public class BranchCoverageAgent {
+
+  public static void premain(String agentArgs, Instrumentation inst) {
+    String[] prefixes =
+        (agentArgs == null || agentArgs.isEmpty()) ? new String[0] : agentArgs.split(",");
+    inst.addTransformer(new BranchCoverageTransformer(prefixes));
+  }
+}
@@ -0,0 +1,194 @@
+package randoop.instrument;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+
+import main.java.randoop.BugInRandoopException;
+import main.java.randoop.instrument.BranchCoverageMap;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.CodeIterator;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.analysis.ControlFlow;
+
+/**
+ * A {@code java.lang.instrument.ClassTransformer} that instruments loaded
+ * classes to record the branches they take.
+ * Does the following instrumentation of each method and constructor:
+ * <ol>
+ * <li> Splits the code into basic blocks, and registers them with the
+ *      {@link BranchCoverageMap}, which gives them consecutive ids.
+ * <li> Inserts a call of {@link BranchCoverageMap#hit(int)}, with the id of
+ *      the block, at the start of each block. Jumps to a block go to the
+ *      inserted call, so that each branch taken is recorded.
+ * </ol>
+ * Avoids instrumenting JDK, JUnit and Randoop classes and skips interfaces.
+ * If prefixes are given, only the classes whose names start with one of them
+ * are instrumented.
+ *
+ * @see BranchCoverageAgent
+ */
+public class BranchCoverageTransformer implements ClassFileTransformer {
+
+  /** the class pool used to load class files */
+  private ClassPool pool;
+
+  /** the prefixes of the names of the classes to instrument, or empty for all */
+  private final String[] prefixes;
+
+  /** the name of the coverage map class, which must not be instrumented */
+  private final String mapName;
+
+  /**
+   * Create {@code BranchCoverageTransformer}.
+   * Loads the {@link BranchCoverageMap} class, so that it is loaded before the
+   * transformer is installed.
+   *
+   * @param prefixes  the prefixes of the names of the classes to instrument,
+   *          or an empty array to instrument all classes
+   */
+  public BranchCoverageTransformer(String[] prefixes) {
+    super();
+    pool = ClassPool.getDefault();
+    this.prefixes = Arrays.copyOf(prefixes, prefixes.length);
+    mapName = BranchCoverageMap.class.getName();
+  }
+
+  /**
+   * {@inheritDoc}
+   * Transforms bytecode for a class by adding branch-coverage
+   * instrumentation. Avoids JDK, JUnit and Randoop classes, interfaces and
+   * any "frozen" classes that have already been loaded.
+   */
+  @Override
+  public byte[] transform(
+      ClassLoader loader,
+      String className,
+      Class<?> classBeingRedefined,
+      ProtectionDomain protectionDomain,
+      byte[] classfileBuffer)
+      throws IllegalClassFormatException {
+
+    byte[] bytecode = null;
+
+    if (className == null || !isInstrumented(className.replace('/', '.'))) {
+      return bytecode;
+    }
+
+    CtClass cc = null;
+    try {
+      cc = pool.makeClassIfNew(new ByteArrayInputStream(classfileBuffer));
+    } catch (Exception e) {
+      throw new BugInRandoopException("Unable to instrument file: " + e);
+    }
+
+    if (cc.isFrozen() || cc.isInterface()) {
+      return bytecode;
+    }
+
+    // OK to transform bytecode
+    modifyClass(cc);
+    try {
+      bytecode = cc.toBytecode();
+    } catch (IOException e) {
+      throw new BugInRandoopException("Unable to convert instrumentation to bytecode: " + e);
+    } catch (CannotCompileException e) {
+      throw new BugInRandoopException("Error in instrumentation code: " + e);
+    }
+    cc.detach(); // done with class, remove from ClassPool
+
+    return bytecode;
+  }
+
+  /**
+   * Indicates whether the named class is to be instrumented.
+   *
+   * @param qualifiedName  the name of the class
+   * @return true if the class is to be instrumented
+   */
+  private boolean isInstrumented(String qualifiedName) {
+    if (prefixes.length > 0) {
+      for (String prefix : prefixes) {
+        if (qualifiedName.startsWith(prefix)) {
+          return !qualifiedName.equals(mapName);
+        }
+      }
+      return false;
+    }
+
+    // don't transform rt.jar classes, nor Randoop and the libraries it uses
+    return !(qualifiedName.startsWith("java.")
+        || qualifiedName.startsWith("javax.")
+        || qualifiedName.startsWith("jdk.")
+        || qualifiedName.startsWith("apple.")
+        || qualifiedName.startsWith("com.apple.")
+        || qualifiedName.startsWith("com.oracle.")
+        || qualifiedName.startsWith("com.sun.")
+        || qualifiedName.startsWith("org.ietf.")
+        || qualifiedName.startsWith("org.jcp.")
+        || qualifiedName.startsWith("org.omg.")
+        || qualifiedName.startsWith("org.w3c")
+        || qualifiedName.startsWith("org.xml.")
+        || qualifiedName.startsWith("sun.")
+        || qualifiedName.startsWith("org.junit.")
+        || qualifiedName.startsWith("org.gradle")
+        || qualifiedName.startsWith("javassist.")
+        || qualifiedName.startsWith("plume.")
+        || qualifiedName.startsWith("randoop.")
+        || qualifiedName.startsWith("main.java.randoop."));
+  }
+
+  /**
+   * Instruments the bytecode of the given class object to record the basic
+   * blocks entered by each method and constructor.
+   * @see #transform(ClassLoader, String, Class, ProtectionDomain, byte[])
+   *
+   * @param cc  the {@code javassist.CtClass} object
+   */
+  private void modifyClass(CtClass cc) {
+    ClassFile classFile = cc.getClassFile();
+    for (Object m : classFile.getMethods()) {
+      MethodInfo method = (MethodInfo) m;
+      CodeAttribute code = method.getCodeAttribute();
+      if (code == null) { // abstract or native
+        continue;
+      }
+      try {
+        ControlFlow.Block[] blocks = new ControlFlow(cc, method).basicBlocks();
+        if (blocks.length == 0) {
+          continue;
+        }
+        int[] positions = new int[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+          positions[i] = blocks[i].position();
+        }
+        Arrays.sort(positions);
+
+        // insert from the last block, so that the positions of the others
+        // do not move
+        int first = BranchCoverageMap.register(positions.length);
+        CodeIterator iterator = code.iterator();
+        for (int i = positions.length - 1; i >= 0; i--) {
+          Bytecode probe = new Bytecode(classFile.getConstPool());
+          probe.addIconst(first + i);
+          probe.addInvokestatic(mapName, "hit", "(I)V");
+          iterator.insertAt(positions[i], probe.get());
+        }
+        code.computeMaxStack();
+        method.rebuildStackMapIf6(pool, classFile);
+      } catch (BadBytecode e) {
+        throw new Error("error instrumenting method " + method.getName() + ": " + e);
+      }
+    }
+  }
+}
@@ -7,7 +7,8 @@ import java.lang.instrument.IllegalClassFormatException;
 import java.lang.reflect.Modifier;
 import java.security.ProtectionDomain;
 
-import randoop.BugInRandoopException;
+import main.java.randoop.BugInRandoopException;
+import main.java.randoop.instrument.ExercisedClassRegistry;
 
 import javassist.CannotCompileException;
 import javassist.ClassPool;
@@ -22,8 +23,9 @@ import javassist.CtMethod;
  * Does the following instrumentation of each class:
  * <ol>
  * <li> Adds a static boolean flag to the class. Initially set to false.
+ * <li> Registers the class with the {@link ExercisedClassRegistry}.
  * <li> Adds a statement at the beginning of each method and constructor that
- *      sets the flag.
+ *      sets the flag, and marks the class in the registry.
  * <li> Adds a static method that polls and resets the value of the flag.
  * </ol>
  * Avoids instrumenting JDK and JUnit classes and skips interfaces.
@@ -37,12 +39,18 @@ public class ExercisedClassTransformer implements ClassFileTransformer {
   /** the class pool used to load class files */
   private ClassPool pool;
 
+  /** the name of the registry class, which must not be instrumented */
+  private final String registryName;
+
   /**
    * Create {@code ExercisedClassTransformer}.
+   * Loads the {@link ExercisedClassRegistry} class, so that it is loaded
+   * before the transformer is installed.
    */
   public ExercisedClassTransformer() {
     super();
     pool = ClassPool.getDefault();
+    registryName = ExercisedClassRegistry.class.getName();
   }
 
   /**
@@ -81,7 +89,8 @@ public class ExercisedClassTransformer implements ClassFileTransformer {
         || qualifiedName.startsWith("org.xml.")
         || qualifiedName.startsWith("sun.") // end of rt.jar name prefixes
         || qualifiedName.startsWith("org.junit.")
-        || qualifiedName.startsWith("org.gradle")) {
+        || qualifiedName.startsWith("org.gradle")
+        || qualifiedName.equals(registryName)) {
       return bytecode;
     }
 
@@ -113,7 +122,8 @@ public class ExercisedClassTransformer implements ClassFileTransformer {
   /**
    * Instruments the bytecode of the given class object to track constructor and
    * method calls for the class. Modifies each method and constructor to set an
-   * inserted private field that keeps track.
+   * inserted private field that keeps track, and to mark the class in the
+   * {@link ExercisedClassRegistry}.
    * Adds a public method {@code boolean randoop_checkAndReset()}
    * @see #transform(ClassLoader, String, Class, ProtectionDomain, byte[])
    *
@@ -135,7 +145,15 @@ public class ExercisedClassTransformer implements ClassFileTransformer {
     String flagFieldAccess = cc.getName() + "#" + flagFieldName;
 
     // add code to entry of each method to indicate that called
-    String statementToSetFlag = flagFieldAccess + " = true" + ";";
+    int id = ExercisedClassRegistry.register(cc.getName());
+    String statementToSetFlag =
+        flagFieldAccess
+            + " = true"
+            + ";"
+            + ExercisedClassRegistry.class.getName()
+            + ".mark("
+            + id
+            + ");";
 
     // instrument methods *before* adding polling method
     try {
@@ -0,0 +1,129 @@
+package agenttest.java.randoop.instrument;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import main.java.randoop.instrument.BranchCoverageMap;
+
+/**
+ * Tests the branch-coverage agent, which must be given the prefix
+ * {@code randoop.instrument.testcase.Branch} so that only the classes used
+ * here are instrumented. The classes are loaded by name, so that the ids of
+ * their blocks are those registered while loading them.
+ */
+public class BranchCoverageTest {
+
+  // The blocks of the classes loaded by the tests, by class name.
+  private static final Map<String, Blocks> loaded = new HashMap<>();
+
+  @Test
+  public void recordsEachBranchOnce() throws Exception {
+    Blocks blocks = load("randoop.instrument.testcase.BranchTarget");
+    Method sign = blocks.type.getMethod("sign", int.class);
+    Method sum = blocks.type.getMethod("sum", int.class);
+
+    assertEquals(1, blocks.takesNewBranch(sign, 5));
+    assertEquals(1, blocks.takesNoNewBranch(sign, 7));
+    assertEquals(-1, blocks.takesNewBranch(sign, -5));
+    assertEquals(0, blocks.takesNewBranch(sign, 0));
+    assertEquals(0, blocks.takesNoNewBranch(sign, 0));
+
+    assertEquals(0, blocks.takesNewBranch(sum, 0));
+    assertEquals(6, blocks.takesNewBranch(sum, 3));
+    assertEquals(10, blocks.takesNoNewBranch(sum, 4));
+  }
+
+  @Test
+  public void recordsExceptionHandler() throws Exception {
+    Blocks blocks = load("randoop.instrument.testcase.BranchTarget");
+    Method parse = blocks.type.getMethod("parse", String.class);
+
+    blocks.takesNewBranch(parse, "12");
+    assertEquals(-1, blocks.takesNewBranch(parse, "x"));
+    assertEquals(-1, blocks.takesNoNewBranch(parse, "y"));
+    assertEquals(34, blocks.takesNoNewBranch(parse, "34"));
+  }
+
+  @Test
+  public void recordsBranchBeforeSuperCall() throws Exception {
+    Blocks blocks = load("randoop.instrument.testcase.BranchingConstructor");
+    Constructor<?> constructor = blocks.type.getConstructor(boolean.class);
+    Method getValue = blocks.type.getMethod("getValue");
+
+    Set<Integer> before = blocks.covered();
+    assertEquals(1, getValue.invoke(constructor.newInstance(true)));
+    Set<Integer> afterFirst = blocks.covered();
+    assertTrue("first branch covered", afterFirst.size() > before.size());
+    assertEquals(2, getValue.invoke(constructor.newInstance(false)));
+    assertTrue("second branch covered", blocks.covered().size() > afterFirst.size());
+  }
+
+  // Loads the named class, and records the ids registered for its blocks.
+  private static synchronized Blocks load(String className) throws ClassNotFoundException {
+    Blocks blocks = loaded.get(className);
+    if (blocks == null) {
+      int first = BranchCoverageMap.size();
+      Class<?> type = Class.forName(className);
+      int last = BranchCoverageMap.size();
+      assertTrue(className + " is instrumented", last > first);
+      blocks = new Blocks(type, first, last);
+      loaded.put(className, blocks);
+    }
+    return blocks;
+  }
+
+  /** The blocks of a class loaded by a test. */
+  private static class Blocks {
+    final Class<?> type;
+    final int first;
+    final int last;
+
+    Blocks(Class<?> type, int first, int last) {
+      this.type = type;
+      this.first = first;
+      this.last = last;
+    }
+
+    Set<Integer> covered() {
+      Set<Integer> covered = new LinkedHashSet<>();
+      for (int id = first; id < last; id++) {
+        if (BranchCoverageMap.isCovered(id)) {
+          covered.add(id);
+        }
+      }
+      return covered;
+    }
+
+    Object takesNewBranch(Method method, Object argument) throws Exception {
+      return invoke(method, argument, true);
+    }
+
+    Object takesNoNewBranch(Method method, Object argument) throws Exception {
+      return invoke(method, argument, false);
+    }
+
+    // Calls the static method, and checks whether it covered new blocks of
+    // this class, and that the covered count grew by the number of them.
+    private Object invoke(Method method, Object argument, boolean newBranch) throws Exception {
+      Set<Integer> before = covered();
+      long count = BranchCoverageMap.getCoveredCount();
+      Object result = method.invoke(null, argument);
+      int newBlocks = covered().size() - before.size();
+      assertTrue(
+          method.getName() + "(" + argument + ") " + (newBranch ? "covers" : "does not cover")
+              + " new blocks",
+          newBranch ? newBlocks > 0 : newBlocks == 0);
+      assertEquals(count + newBlocks, BranchCoverageMap.getCoveredCount());
+      return result;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package randoop.instrument.testcase;
+
+public class BranchBase {
+  private final int value;
+
+  public BranchBase(int value) {
+    this.value = value;
+  }
+
+  public int getValue() {
+    return value;
+  }
+}
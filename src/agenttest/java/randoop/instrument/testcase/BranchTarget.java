@@ -0,0 +1,29 @@
+package randoop.instrument.testcase;
+
+public class BranchTarget {
+
+  public static int sign(int value) {
+    if (value > 0) {
+      return 1;
+    } else if (value < 0) {
+      return -1;
+    }
+    return 0;
+  }
+
+  public static int sum(int n) {
+    int sum = 0;
+    for (int i = 1; i <= n; i++) {
+      sum += i;
+    }
+    return sum;
+  }
+
+  public static int parse(String s) {
+    try {
+      return Integer.parseInt(s);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package randoop.instrument.testcase;
+
+public class BranchingConstructor extends BranchBase {
+
+  // branches before the superclass constructor is called
+  public BranchingConstructor(boolean first) {
+    super(first ? 1 : 2);
+  }
+}
@@ -0,0 +1,83 @@
+package jmh.java.randoop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import main.java.randoop.DummyVisitor;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.test.DummyCheckGenerator;
+import main.java.randoop.test.TestCheckGenerator;
+import main.java.randoop.util.ReflectionExecutor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the execution of the generated sequences of a workload through
+ * {@link ReflectionExecutor}, with and without the default check generators.
+ * The executor parameter selects how reflective calls are run: "direct" in
+ * the calling thread (<code>--usethreads=false</code>), "thread" in a new
+ * thread per call (the default), or "reuse" in a long-lived thread
+ * (<code>--reuse-threads</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionBenchmark {
+
+  @Param({"direct", "thread", "reuse"})
+  public String executor;
+
+  private boolean oldUsethreads;
+  private boolean oldReuseThreads;
+
+  private TestCheckGenerator checkGenerator;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    oldUsethreads = ReflectionExecutor.usethreads;
+    oldReuseThreads = ReflectionExecutor.reuse_threads;
+    ReflectionExecutor.usethreads = !executor.equals("direct");
+    ReflectionExecutor.reuse_threads = executor.equals("reuse");
+    checkGenerator = Workloads.checkGenerator();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ReflectionExecutor.usethreads = oldUsethreads;
+    ReflectionExecutor.reuse_threads = oldReuseThreads;
+  }
+
+  @Benchmark
+  public void execute(WorkloadState state, Blackhole bh) {
+    for (Sequence s : state.sequences) {
+      ExecutableSequence es = new ExecutableSequence(s);
+      es.execute(new DummyVisitor(), new DummyCheckGenerator());
+      bh.consume(es);
+    }
+  }
+
+  @Benchmark
+  public void executeWithChecks(WorkloadState state, Blackhole bh) {
+    for (Sequence s : state.sequences) {
+      ExecutableSequence es = new ExecutableSequence(s);
+      es.execute(new DummyVisitor(), checkGenerator);
+      bh.consume(es.getChecks());
+    }
+  }
+}
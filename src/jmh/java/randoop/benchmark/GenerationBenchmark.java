@@ -0,0 +1,54 @@
+package jmh.java.randoop.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import main.java.randoop.generation.ForwardGenerator;
+import main.java.randoop.operation.ConcreteOperation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the whole generation loop of {@link ForwardGenerator}: selecting
+ * inputs, building, executing and checking a fixed number of sequences.
+ * Replaces the time-limited loop of <code>ForwardExplorerPerformanceTest</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+
+  @Param({"java2.util2", "ps1", "bh", "mst"})
+  public String workload;
+
+  @Param({"200"})
+  public int sequences;
+
+  private List<ConcreteOperation> operations;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    operations = Workloads.operations(workload);
+  }
+
+  @Benchmark
+  public int generate() {
+    ForwardGenerator explorer = Workloads.generator(operations, sequences);
+    explorer.explore();
+    return explorer.numGeneratedSequences();
+  }
+}
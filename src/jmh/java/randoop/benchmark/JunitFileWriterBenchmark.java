@@ -0,0 +1,72 @@
+package jmh.java.randoop.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import main.java.randoop.JunitFileWriter;
+import main.java.randoop.sequence.ExecutableSequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks writing the regression tests of a workload as JUnit files with
+ * {@link JunitFileWriter}, in classes of at most 100 tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JunitFileWriterBenchmark {
+
+  private static final int TESTS_PER_FILE = 100;
+
+  private File outputDir;
+
+  private List<List<ExecutableSequence>> partition;
+
+  @Setup(Level.Trial)
+  public void setUp(WorkloadState state) throws IOException {
+    outputDir = Files.createTempDirectory("randoop-jmh").toFile();
+    partition = new ArrayList<>();
+    List<ExecutableSequence> tests = state.regressionSequences;
+    for (int i = 0; i < tests.size(); i += TESTS_PER_FILE) {
+      partition.add(tests.subList(i, Math.min(i + TESTS_PER_FILE, tests.size())));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    File[] files = outputDir.listFiles();
+    if (files != null) {
+      for (File f : files) {
+        f.delete();
+      }
+    }
+    outputDir.delete();
+  }
+
+  @Benchmark
+  public List<File> writeJUnitTestFiles() {
+    JunitFileWriter writer = new JunitFileWriter(outputDir.getPath(), "", "RegressionTest");
+    List<File> files = writer.writeJUnitTestFiles(partition);
+    files.add(writer.writeDriverFile());
+    return files;
+  }
+}
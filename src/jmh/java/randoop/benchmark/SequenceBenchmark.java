@@ -0,0 +1,98 @@
+package jmh.java.randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import main.java.randoop.sequence.Sequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link Sequence} operations that Randoop performs for every
+ * candidate sequence: building it from components, and checking whether it
+ * was already generated. Each invocation processes every generated sequence
+ * of the workload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceBenchmark {
+
+  // Pairs of consecutive generated sequences, concatenated.
+  private List<Sequence> concatenated;
+
+  // Separately built copies of the concatenated sequences, so that equals
+  // compares every statement.
+  private List<Sequence> copies;
+
+  @Setup(Level.Trial)
+  public void setUp(WorkloadState state) {
+    concatenated = new ArrayList<>();
+    copies = new ArrayList<>();
+    for (int i = 0; i + 1 < state.sequences.size(); i++) {
+      List<Sequence> pair = Arrays.asList(state.sequences.get(i), state.sequences.get(i + 1));
+      concatenated.add(Sequence.concatenate(pair));
+      copies.add(Sequence.concatenate(pair));
+    }
+  }
+
+  @Benchmark
+  public void concatenate(WorkloadState state, Blackhole bh) {
+    List<Sequence> sequences = state.sequences;
+    for (int i = 0; i + 1 < sequences.size(); i++) {
+      bh.consume(Sequence.concatenate(Arrays.asList(sequences.get(i), sequences.get(i + 1))));
+    }
+  }
+
+  /** Appends the last statement of each sequence again, on the same inputs. */
+  @Benchmark
+  public void extend(WorkloadState state, Blackhole bh) {
+    for (Sequence s : state.sequences) {
+      int last = s.size() - 1;
+      bh.consume(s.extend(s.getStatement(last), s.getInputs(last)));
+    }
+  }
+
+  /** Random access to the statements of concatenated sequences. */
+  @Benchmark
+  public void getStatement(Blackhole bh) {
+    for (Sequence s : concatenated) {
+      for (int i = 0; i < s.size(); i++) {
+        bh.consume(s.getStatement(i));
+      }
+    }
+  }
+
+  @Benchmark
+  public void hashSetAdd(WorkloadState state, Blackhole bh) {
+    Set<Sequence> set = new HashSet<>();
+    for (Sequence s : state.sequences) {
+      bh.consume(set.add(s));
+    }
+  }
+
+  @Benchmark
+  public void equalsCopy(Blackhole bh) {
+    for (int i = 0; i < concatenated.size(); i++) {
+      bh.consume(concatenated.get(i).equals(copies.get(i)));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package jmh.java.randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.SequenceCollection;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.util.SimpleList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the selection of input sequences from a
+ * {@link SequenceCollection}: finding the sequences compatible with each input
+ * type of the workload, and picking elements from the resulting lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceCollectionBenchmark {
+
+  // The results of getSequencesForType for each input type.
+  private List<SimpleList<Sequence>> candidates;
+
+  @Setup(Level.Trial)
+  public void setUp(WorkloadState state) {
+    candidates = new ArrayList<>();
+    for (ConcreteType type : state.inputTypes) {
+      candidates.add(state.collection.getSequencesForType(type, false));
+    }
+  }
+
+  @Benchmark
+  public void getSequencesForType(WorkloadState state, Blackhole bh) {
+    for (ConcreteType type : state.inputTypes) {
+      bh.consume(state.collection.getSequencesForType(type, false));
+    }
+  }
+
+  /**
+   * Adds a sequence before each query, so that cached results cannot be
+   * reused.
+   */
+  @Benchmark
+  public void addAndGetSequencesForType(WorkloadState state, Blackhole bh) {
+    SequenceCollection collection = new SequenceCollection();
+    int i = 0;
+    for (Sequence s : state.sequences) {
+      collection.add(s);
+      bh.consume(
+          collection.getSequencesForType(state.inputTypes.get(i++ % state.inputTypes.size()), false));
+    }
+  }
+
+  @Benchmark
+  public void listOfListsGet(Blackhole bh) {
+    for (SimpleList<Sequence> list : candidates) {
+      for (int i = 0; i < list.size(); i++) {
+        bh.consume(list.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package jmh.java.randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import main.java.randoop.DummyVisitor;
+import main.java.randoop.generation.ForwardGenerator;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.SequenceCollection;
+import main.java.randoop.test.DummyCheckGenerator;
+import main.java.randoop.types.ConcreteType;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The operations of a workload and the sequences that Randoop generates for
+ * them, shared by the benchmarks that measure individual parts of generation.
+ */
+@State(Scope.Benchmark)
+public class WorkloadState {
+
+  /** The number of sequences generated in the setup of each trial. */
+  static final int SEQUENCE_LIMIT = 500;
+
+  @Param({"java2.util2", "ps1", "bh", "mst"})
+  public String workload;
+
+  List<ConcreteOperation> operations;
+
+  /**
+   * The sequences generated for the workload that execute normally, in
+   * generation order. Sequences that throw or time out are left out so that
+   * they can be executed without a timeout.
+   */
+  List<Sequence> sequences;
+
+  /** The generated sequences that would be output as regression tests. */
+  List<ExecutableSequence> regressionSequences;
+
+  /** A collection holding the generated sequences. */
+  SequenceCollection collection;
+
+  /** The input types of the operations of the workload. */
+  List<ConcreteType> inputTypes;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    operations = Workloads.operations(workload);
+    ForwardGenerator explorer = Workloads.generator(operations, SEQUENCE_LIMIT);
+    explorer.explore();
+    sequences = new ArrayList<>();
+    for (Sequence s : explorer.getAllSequences()) {
+      ExecutableSequence es = new ExecutableSequence(s);
+      es.execute(new DummyVisitor(), new DummyCheckGenerator());
+      if (es.isNormalExecution()) {
+        sequences.add(s);
+      }
+    }
+    regressionSequences = new ArrayList<>(explorer.getRegressionSequences());
+    collection = new SequenceCollection(sequences);
+
+    Set<ConcreteType> types = new LinkedHashSet<>();
+    for (ConcreteOperation operation : operations) {
+      for (int i = 0; i < operation.getInputTypes().size(); i++) {
+        types.add(operation.getInputTypes().get(i));
+      }
+    }
+    inputTypes = new ArrayList<>(types);
+  }
+}
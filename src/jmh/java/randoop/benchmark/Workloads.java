@@ -0,0 +1,153 @@
+package jmh.java.randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import main.java.randoop.BugInRandoopException;
+import main.java.randoop.contract.EqualsHashcode;
+import main.java.randoop.contract.EqualsReflexive;
+import main.java.randoop.contract.EqualsSymmetric;
+import main.java.randoop.contract.EqualsToNullRetFalse;
+import main.java.randoop.contract.ObjectContract;
+import main.java.randoop.generation.ComponentManager;
+import main.java.randoop.generation.ForwardGenerator;
+import main.java.randoop.generation.SeedSequences;
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.main.GenTests;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.reflection.DefaultReflectionPredicate;
+import main.java.randoop.reflection.ModelCollections;
+import main.java.randoop.reflection.OperationExtractor;
+import main.java.randoop.reflection.PublicVisibilityPredicate;
+import main.java.randoop.reflection.ReflectionManager;
+import main.java.randoop.reflection.TypedOperationManager;
+import main.java.randoop.test.TestCheckGenerator;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.util.MultiMap;
+import main.java.randoop.util.Randomness;
+
+/**
+ * The classes under test used as benchmark workloads, and helpers to build
+ * an operation model and generate sequences for them.
+ *
+ * The Olden treeadd classes are not used: <code>TreeNode(int)</code> builds a
+ * tree with 2^n nodes, which exhausts the heap for random arguments, and
+ * <code>TreeAdd.infiniteLoop()</code> does not terminate.
+ */
+public final class Workloads {
+
+  private Workloads() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /**
+   * Returns the names of the classes under test for the named workload.
+   *
+   * @param workload  one of "java2.util2", "ps1", "bh" or "mst"
+   * @return the names of the classes in the workload
+   */
+  public static List<String> classNames(String workload) {
+    switch (workload) {
+      case "java2.util2":
+        return Arrays.asList(
+            "java2.util2.ArrayList",
+            "java2.util2.LinkedList",
+            "java2.util2.HashMap",
+            "java2.util2.TreeSet",
+            "java2.util2.Stack");
+      case "ps1":
+        return Arrays.asList("ps1.RatNum", "ps1.RatPoly", "ps1.RatTerm", "ps1.RatTermVec");
+      case "bh":
+        return Arrays.asList(
+            "test.java.randoop.test.bh.BH",
+            "test.java.randoop.test.bh.Body",
+            "test.java.randoop.test.bh.Cell",
+            "test.java.randoop.test.bh.MathVector",
+            "test.java.randoop.test.bh.Node",
+            "test.java.randoop.test.bh.Tree");
+      case "mst":
+        return Arrays.asList(
+            "randoop.test.mst.Graph",
+            "randoop.test.mst.Hashtable",
+            "randoop.test.mst.MST",
+            "randoop.test.mst.Vertex");
+      default:
+        throw new IllegalArgumentException("unknown workload: " + workload);
+    }
+  }
+
+  /**
+   * Returns the operations of the classes in the named workload.
+   */
+  public static List<ConcreteOperation> operations(String workload) {
+    final List<ConcreteOperation> model = new ArrayList<>();
+    TypedOperationManager operationManager =
+        new TypedOperationManager(
+            new ModelCollections() {
+              @Override
+              public void addConcreteOperation(
+                  ConcreteType declaringType, ConcreteOperation operation) {
+                model.add(operation);
+              }
+            });
+    ReflectionManager mgr = new ReflectionManager(new PublicVisibilityPredicate());
+    mgr.add(new OperationExtractor(operationManager, new DefaultReflectionPredicate()));
+    for (String name : classNames(workload)) {
+      try {
+        mgr.apply(Class.forName(name));
+      } catch (ClassNotFoundException e) {
+        throw new BugInRandoopException("workload class not found: " + name);
+      }
+    }
+    return model;
+  }
+
+  /**
+   * Returns a generator over the given operations that stops after
+   * {@code limit} sequences, with the random seed reset so that every run
+   * generates the same sequences.
+   */
+  public static ForwardGenerator generator(List<ConcreteOperation> operations, int limit) {
+    Randomness.reset(Randomness.SEED);
+    ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+    ForwardGenerator explorer =
+        new ForwardGenerator(
+            operations,
+            new LinkedHashSet<ConcreteOperation>(),
+            Long.MAX_VALUE,
+            limit,
+            limit,
+            mgr,
+            null,
+            null);
+    explorer.addTestCheckGenerator(checkGenerator());
+    return explorer;
+  }
+
+  /**
+   * Returns the check generator that Randoop uses by default, with the default
+   * contracts and no observers. Flaky sequences are ignored rather than
+   * reported as errors, since a benchmark must not stop part way.
+   */
+  public static TestCheckGenerator checkGenerator() {
+    LinkedHashSet<ObjectContract> contracts = new LinkedHashSet<>();
+    contracts.add(new EqualsReflexive());
+    contracts.add(new EqualsSymmetric());
+    contracts.add(new EqualsHashcode());
+    contracts.add(new EqualsToNullRetFalse());
+    boolean oldIgnoreFlakyTests = GenInputsAbstract.ignore_flaky_tests;
+    GenInputsAbstract.ignore_flaky_tests = true;
+    try {
+      return (new GenTests())
+          .createTestCheckGenerator(
+              new PublicVisibilityPredicate(),
+              contracts,
+              new MultiMap<ConcreteType, ConcreteOperation>(),
+              new LinkedHashSet<ConcreteOperation>());
+    } finally {
+      GenInputsAbstract.ignore_flaky_tests = oldIgnoreFlakyTests;
+    }
+  }
+}
@@ -8,6 +8,9 @@ public abstract class ExecutionOutcome {
 
   String output = null;
 
+  // The captured output, not yet decoded into output, or null.
+  private byte[] outputBytes = null;
+
   public ExecutionOutcome() {}
 
   /**
@@ -24,6 +27,30 @@ public abstract class ExecutionOutcome {
    */
   public void set_output(String output) {
     this.output = output;
+    this.outputBytes = null;
+  }
+
+  /**
+   * Set the output of the statement, as captured. The bytes are only decoded
+   * if {@link #get_output()} is called.
+   *
+   * @param outputBytes  the statement output, in the platform's default
+   *          encoding
+   */
+  public void set_output(byte[] outputBytes) {
+    this.output = null;
+    this.outputBytes = outputBytes;
+  }
+
+  /**
+   * Set the output of the statement to that of another outcome, without
+   * decoding it.
+   *
+   * @param other  the outcome whose output to copy
+   */
+  public void copy_output(ExecutionOutcome other) {
+    this.output = other.output;
+    this.outputBytes = other.outputBytes;
   }
 
   /**
@@ -32,6 +59,10 @@ public abstract class ExecutionOutcome {
    * @return the statement output
    */
   public String get_output() {
+    if (outputBytes != null) {
+      output = new String(outputBytes);
+      outputBytes = null;
+    }
     return output;
   }
 }
@@ -3,6 +3,11 @@ package main.java.randoop;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -10,6 +15,12 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.sequence.ExecutableSequence;
@@ -22,6 +33,10 @@ import main.java.randoop.util.Log;
  * by first running writeJUnitTestFiles and then writeSuiteFile or
  * writeDriverFile. Alternatively, a single test file can be written using the
  * static method writeJUnitTestFile.
+ * <p>
+ * The test classes of a suite are rendered and written in parallel, one class
+ * per task, and the files are the same as if they were written one after the
+ * other.
  */
 public class JunitFileWriter {
 
@@ -110,8 +125,51 @@ public class JunitFileWriter {
 
     createOutputDir();
 
-    for (List<ExecutableSequence> partition : seqPartition) {
-      ret.add(writeTestClass(partition, classNameGen.next()));
+    int threads = Math.min(Runtime.getRuntime().availableProcessors(), seqPartition.size());
+    if (threads <= 1) {
+      for (List<ExecutableSequence> partition : seqPartition) {
+        ret.add(writeTestClass(partition, classNameGen.next()));
+      }
+    } else {
+      List<String> classNames = new ArrayList<>();
+      List<Future<Void>> writes = new ArrayList<>();
+      ExecutorService executor =
+          Executors.newFixedThreadPool(
+              threads,
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                  Thread thread = new Thread(r, "randoop-junit-writer");
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+      try {
+        for (final List<ExecutableSequence> partition : seqPartition) {
+          final String className = classNameGen.next();
+          final File file = new File(getDir(), className + ".java");
+          classNames.add(className);
+          ret.add(file);
+          writes.add(
+              executor.submit(
+                  new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                      writeFile(file, testClassCode(partition, className));
+                      return null;
+                    }
+                  }));
+        }
+        for (Future<Void> write : writes) {
+          awaitWrite(write);
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      // in the order of the partitions, for the driver file
+      for (int i = 0; i < classNames.size(); i++) {
+        classMethodCounts.put(classNames.get(i), seqPartition.get(i).size());
+      }
     }
 
     testClassCount = classNameGen.nameCount();
@@ -119,6 +177,41 @@ public class JunitFileWriter {
     return ret;
   }
 
+  private static void awaitWrite(Future<Void> write) {
+    try {
+      write.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new Error("Interrupted while writing JUnit files", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new Error(cause);
+    }
+  }
+
+  /**
+   * writeNextJUnitTestFile writes one more test class file, named after the
+   * classes previously written by this writer. Used to write a suite one class
+   * at a time while tests are generated; the suite and driver files include
+   * every class written this way.
+   *
+   * @param sequences
+   *          list of executable sequences for the methods of the test class
+   * @return File object for the generated java file
+   */
+  public File writeNextJUnitTestFile(List<ExecutableSequence> sequences) {
+    createOutputDir();
+    File file = writeTestClass(sequences, masterTestClassName + testClassCount);
+    testClassCount++;
+    return file;
+  }
+
   /**
    * writeTestClass writes a code sequence as a JUnit4 test class to a .java
    * file. Tests are executed in ascending alphabetical order by test method
@@ -131,53 +224,62 @@ public class JunitFileWriter {
    * @return File object for generated java file.
    */
   private File writeTestClass(List<ExecutableSequence> sequences, String testClassName) {
+    File file = new File(getDir(), testClassName + ".java");
+    writeFile(file, testClassCode(sequences, testClassName));
+    classMethodCounts.put(testClassName, sequences.size());
+    return file;
+  }
 
-    String className = testClassName;
-    File file = new File(getDir(), className + ".java");
-    PrintStream out = createTextOutputStream(file);
+  /**
+   * Returns the code of a JUnit4 test class with a test method for each
+   * sequence.
+   *
+   * @param sequences
+   *          list of executable sequences for method bodies.
+   * @param className
+   *          name of test class.
+   * @return the code of the test class.
+   */
+  private String testClassCode(List<ExecutableSequence> sequences, String className) {
+    int length = 512;
+    for (ExecutableSequence s : sequences) {
+      length += 256 + 80 * s.sequence.size();
+    }
+    StringBuilder out = new StringBuilder(length);
 
     NameGenerator methodNameGen = new NameGenerator("test", 1, numDigits(sequences.size()));
 
-    try {
-      outputPackageName(out, packageName);
-      out.println();
-      out.println("import org.junit.FixMethodOrder;");
-      out.println("import org.junit.Test;");
-      out.println("import org.junit.runners.MethodSorters;");
-      out.println();
-      out.println("@FixMethodOrder(MethodSorters.NAME_ASCENDING)");
-      out.println("public class " + className + " {");
-      out.println();
-      out.println("  public static boolean debug = false;");
-      out.println();
-
-      for (ExecutableSequence s : sequences) {
-        if (includeParseableString) {
-          out.println("/*");
-          out.println(s.sequence.toString());
-          out.println("*/");
-        }
-
-        writeTest(out, className, methodNameGen.next(), s);
-        out.println();
+    outputPackageName(out, packageName);
+    println(out);
+    println(out, "import org.junit.FixMethodOrder;");
+    println(out, "import org.junit.Test;");
+    println(out, "import org.junit.runners.MethodSorters;");
+    println(out);
+    println(out, "@FixMethodOrder(MethodSorters.NAME_ASCENDING)");
+    println(out, "public class " + className + " {");
+    println(out);
+    println(out, "  public static boolean debug = false;");
+    println(out);
+
+    for (ExecutableSequence s : sequences) {
+      if (includeParseableString) {
+        println(out, "/*");
+        println(out, s.sequence.toString());
+        println(out, "*/");
       }
-      out.println("}");
-      classMethodCounts.put(className, methodNameGen.nameCount());
-    } finally {
-      if (out != null) out.close();
-    }
 
-    return file;
+      writeTest(out, className, methodNameGen.next(), s);
+      println(out);
+    }
+    println(out, "}");
+    return out.toString();
   }
 
-  /*
-   *
-   */
   /**
-   * Writes a test method to the output stream for the sequence s.
+   * Appends a test method for the sequence s to the code of a test class.
    *
    * @param out
-   *          the output stream for test class file.
+   *          the code of the test class.
    * @param className
    *          the name of test class.
    * @param methodName
@@ -186,20 +288,22 @@ public class JunitFileWriter {
    *          the {@link ExecutableSequence} for test method.
    */
   private void writeTest(
-      PrintStream out, String className, String methodName, ExecutableSequence s) {
-    out.println("  @Test");
-    out.println("  public void " + methodName + "() throws Throwable {");
-    out.println();
-    out.println(
-        indent(
-            "if (debug) { System.out.format(\"%n%s%n\",\""
-                + className
-                + "."
-                + methodName
-                + "\"); }"));
-    out.println();
-    out.println(indent(s.toCodeString()));
-    out.println("  }");
+      StringBuilder out, String className, String methodName, ExecutableSequence s) {
+    println(out, "  @Test");
+    println(out, "  public void " + methodName + "() throws Throwable {");
+    println(out);
+    appendIndented(
+        out,
+        "if (debug) { System.out.format(\"%n%s%n\",\""
+            + className
+            + "."
+            + methodName
+            + "\"); }");
+    println(out);
+    println(out);
+    appendIndented(out, s.toCodeString());
+    println(out);
+    println(out, "  }");
   }
 
   /**
@@ -410,19 +514,78 @@ public class JunitFileWriter {
 
   // TODO document and move to util directory.
   public static String indent(String codeString) {
-    StringBuilder indented = new StringBuilder();
-    String[] lines = codeString.split(Globals.lineSep);
-    for (String line : lines) {
-      indented.append("    " + line + Globals.lineSep);
-    }
+    StringBuilder indented = new StringBuilder(codeString.length() + 64);
+    appendIndented(indented, codeString);
     return indented.toString();
   }
 
+  /**
+   * Appends the lines of the code, each indented by four spaces and ended by a
+   * line separator. Like {@code codeString.split(Globals.lineSep)}, drops
+   * trailing empty lines.
+   */
+  private static void appendIndented(StringBuilder out, String codeString) {
+    String sep = Globals.lineSep;
+    if (codeString.isEmpty()) {
+      out.append("    ").append(sep);
+      return;
+    }
+    int end = codeString.length();
+    while (end >= sep.length() && codeString.startsWith(sep, end - sep.length())) {
+      end -= sep.length();
+    }
+    int start = 0;
+    while (start < end) {
+      int next = codeString.indexOf(sep, start);
+      if (next < 0 || next > end) {
+        next = end;
+      }
+      out.append("    ").append(codeString, start, next).append(sep);
+      start = next + sep.length();
+    }
+  }
+
+  private static void println(StringBuilder out) {
+    out.append(Globals.lineSep);
+  }
+
+  private static void println(StringBuilder out, String line) {
+    out.append(line).append(Globals.lineSep);
+  }
+
   private static void outputPackageName(PrintStream out, String packageName) {
     boolean isDefaultPackage = packageName.length() == 0;
     if (!isDefaultPackage) out.println("package " + packageName + ";");
   }
 
+  private static void outputPackageName(StringBuilder out, String packageName) {
+    boolean isDefaultPackage = packageName.length() == 0;
+    if (!isDefaultPackage) println(out, "package " + packageName + ";");
+  }
+
+  /**
+   * Writes the text to the file in the default charset, as a
+   * {@code PrintStream} would.
+   */
+  private static void writeFile(File file, CharSequence text) {
+    ByteBuffer bytes = Charset.defaultCharset().encode(CharBuffer.wrap(text));
+    try (FileChannel channel =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    } catch (IOException e) {
+      Log.out.println("Exception thrown while writing text file:" + file.getName());
+      e.printStackTrace();
+      System.exit(1);
+      throw new Error("This can't happen");
+    }
+  }
+
   private static PrintStream createTextOutputStream(File file) {
     try {
       return new PrintStream(file);
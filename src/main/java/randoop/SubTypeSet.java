@@ -72,6 +72,22 @@ public class SubTypeSet {
     }
   }
 
+  /**
+   * Removes the given type from this set, for instance when the last sequence
+   * that creates a value of the type is removed from the collection.
+   *
+   * @param c  the type to remove
+   */
+  public void remove(ConcreteType c) {
+    if (c == null) throw new IllegalArgumentException("c cannot be null.");
+    if (!typesWithsequences.contains(c)) return;
+    typesWithsequences.remove(c);
+
+    for (ConcreteType cls : subTypesWithsequences.keySet()) {
+      if (subTypesWithsequences.getValues(cls).contains(c)) subTypesWithsequences.remove(cls, c);
+    }
+  }
+
   private void addQueryType(ConcreteType type) {
     if (type == null) throw new IllegalArgumentException("c cannot be null.");
     Set<ConcreteType> keySet = subTypesWithsequences.keySet();
@@ -1,11 +1,15 @@
 package main.java.randoop.contract;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import main.java.randoop.ExecutionOutcome;
 import main.java.randoop.ExceptionalExecution;
 import main.java.randoop.NormalExecution;
 import main.java.randoop.sequence.Variable;
 import main.java.randoop.util.ReflectionCode;
 import main.java.randoop.util.ReflectionExecutor;
+import main.java.randoop.util.TimeoutExceededException;
 import main.java.randoop.util.Timer;
 
 /**
@@ -68,6 +72,105 @@ public class ObjectContractUtils {
     return new NormalExecution(refl.getReturnVariable(), timer.getTimeElapsedMillis());
   }
 
+  /**
+   * Executes the given contracts via reflection, the k-th contract on the k-th
+   * array of values. All the contracts are evaluated in one guarded execution,
+   * so the thread hand-off and the timeout of {@link ReflectionExecutor} are
+   * paid once for the batch rather than once per contract. If an evaluation
+   * does not finish in time, its outcome is the exception that stopped it, and
+   * the remaining contracts are evaluated in a new guarded execution.
+   *
+   * @param contracts
+   *          the contracts to execute.
+   * @param values
+   *          for each contract, the values to substitute for its variables.
+   * @return the outcomes of the executions, in the order of the contracts
+   */
+  public static List<ExecutionOutcome> execute(
+      List<ObjectContract> contracts, List<Object[]> values) {
+    if (contracts.size() != values.size()) {
+      throw new IllegalArgumentException("contracts and values must have the same size");
+    }
+    List<ExecutionOutcome> outcomes = new ArrayList<>(contracts.size());
+    while (outcomes.size() < contracts.size()) {
+      BatchCode batch = new BatchCode(contracts, values, outcomes.size());
+      Timer timer = new Timer();
+      timer.startTiming();
+      Throwable t = ReflectionExecutor.executeReflectionCode(batch, System.out);
+      timer.stopTiming();
+      int completed = batch.completed;
+      for (int k = outcomes.size(); k < completed; k++) {
+        outcomes.add(batch.outcomes[k]);
+      }
+      if (outcomes.size() < contracts.size()) {
+        // The evaluation in progress was stopped.
+        if (t == null) {
+          t = new TimeoutExceededException();
+        }
+        outcomes.add(new ExceptionalExecution(t, timer.getTimeElapsedMillis()));
+      }
+    }
+    return outcomes;
+  }
+
+  /**
+   * Evaluates a list of contracts, starting at a given position, recording
+   * the outcome of each evaluation as soon as it is known.
+   */
+  private static final class BatchCode extends ReflectionCode {
+
+    private final List<ObjectContract> contracts;
+    private final List<Object[]> values;
+    private final int start;
+
+    final ExecutionOutcome[] outcomes;
+
+    // The number of contracts evaluated so far, counting from 0. Read by the
+    // calling thread after the executor thread finished or was stopped.
+    volatile int completed;
+
+    BatchCode(List<ObjectContract> contracts, List<Object[]> values, int start) {
+      this.contracts = contracts;
+      this.values = values;
+      this.start = start;
+      this.outcomes = new ExecutionOutcome[contracts.size()];
+      this.completed = start;
+    }
+
+    @Override
+    public Throwable getExceptionThrown() {
+      return null;
+    }
+
+    @Override
+    public Object getReturnVariable() {
+      return null;
+    }
+
+    @Override
+    protected void runReflectionCodeRaw() {
+      try {
+        for (int k = start; k < contracts.size(); k++) {
+          long startTime = System.nanoTime();
+          ExecutionOutcome outcome;
+          try {
+            Object result = contracts.get(k).evaluate(values.get(k));
+            outcome = new NormalExecution(result, (System.nanoTime() - startTime) / 1000000);
+          } catch (ThreadDeath e) {
+            // The executor stopped this thread; do not go on to the next one.
+            throw e;
+          } catch (Throwable e) {
+            outcome = new ExceptionalExecution(e, (System.nanoTime() - startTime) / 1000000);
+          }
+          outcomes[k] = outcome;
+          completed = k + 1;
+        }
+      } finally {
+        setRunAlready();
+      }
+    }
+  }
+
   /**
    * Replace dummy variables such as "x0" in the code by their real names.
    *
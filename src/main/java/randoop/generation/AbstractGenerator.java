@@ -4,21 +4,28 @@ import plume.Option;
 import plume.OptionGroup;
 import plume.Unpublicized;
 import main.java.randoop.*;
+import main.java.randoop.instrument.BranchCoverageMap;
 import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.PrefixStateCache;
 import main.java.randoop.sequence.Sequence;
 import main.java.randoop.test.TestCheckGenerator;
 import main.java.randoop.util.Log;
 import main.java.randoop.util.ProgressDisplay;
+import main.java.randoop.util.Randomness;
 import main.java.randoop.util.ReflectionExecutor;
 import main.java.randoop.util.Timer;
 import main.java.randoop.util.predicate.AlwaysFalse;
 import main.java.randoop.util.predicate.Predicate;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Algorithm template for implementing a test generator.
@@ -28,6 +35,13 @@ import java.util.Set;
  * stops the process when the time or sequence limit expires. The process of
  * generating a new sequences is left abstract.
  *
+ * With <code>--generation-threads</code> greater than one, several threads run
+ * the loop concurrently, sharing the component manager. Each call to
+ * {@link #step()} is then made without holding any lock, so subclasses must
+ * keep their generation state safe for concurrent use; the bookkeeping done in
+ * <code>explore()</code> (counters, output lists and listener notifications)
+ * is synchronized on the generator.
+ *
  * @see ForwardGenerator
  */
 public abstract class AbstractGenerator {
@@ -76,7 +90,7 @@ public abstract class AbstractGenerator {
    * declarations, etc.) used to generate sequences. In other words, statements
    * specifies the universe of operations from which sequences are generated.
    */
-  public List<ConcreteOperation> operations;
+  public volatile List<ConcreteOperation> operations;
 
   /**
    * Container for execution visitors used during execution of sequences.
@@ -106,24 +120,45 @@ public abstract class AbstractGenerator {
   private ProgressDisplay progressDisplay;
 
   /**
-   * This field is set by Randoop to point to the sequence currently being
-   * executed. In the event that Randoop appears to hang, this sequence is
-   * printed out to console to help the user debug the cause of the hanging
-   * behavior.
+   * The live measurements of this generator, published through JMX with
+   * <code>--jmx-metrics</code>, or null if that option is not set.
    */
-  public static Sequence currSeq = null;
+  protected final GenerationMetrics metrics;
+
+  /**
+   * Maps each generation thread to the sequence it is currently executing. In
+   * the event that Randoop appears to hang, these sequences are printed out to
+   * console to help the user debug the cause of the hanging behavior.
+   */
+  private static final Map<Thread, Sequence> currSeqs = new ConcurrentHashMap<>();
 
   /**
    * The list of error test sequences to be output as JUnit tests. May include
    * subsequences of other sequences in the list.
    */
-  public List<ExecutableSequence> outErrorSeqs = new ArrayList<>();
+  public List<ExecutableSequence> outErrorSeqs = Collections.synchronizedList(new ArrayList<ExecutableSequence>());
 
   /**
    * The list of regression sequences to be output as JUnit tests. May include
    * subsequences of other sequences in the list.
    */
-  public List<ExecutableSequence> outRegressionSeqs = new ArrayList<>();
+  public List<ExecutableSequence> outRegressionSeqs = Collections.synchronizedList(new ArrayList<ExecutableSequence>());
+
+  /**
+   * The writers of the error and regression tests when tests are written
+   * during generation (see {@link #streamTests}), or null if the sequences are
+   * kept in the output lists until generation ends.
+   */
+  private JunitFileWriter errorTestWriter = null;
+  private JunitFileWriter regressionTestWriter = null;
+
+  // The test class files written during generation.
+  private final List<File> streamedFiles = new ArrayList<>();
+
+  // The number of sequences written during generation, and removed from the
+  // output lists.
+  private int num_streamed_error_seqs = 0;
+  private int num_streamed_regression_seqs = 0;
 
   /**
    * A filter to determine whether a sequence should be added to the output
@@ -185,6 +220,7 @@ public abstract class AbstractGenerator {
 
     this.stopper = stopper;
     this.listenerMgr = listenerManager;
+    this.metrics = GenInputsAbstract.jmx_metrics ? new GenerationMetrics(this) : null;
   }
 
   /**
@@ -267,7 +303,17 @@ public abstract class AbstractGenerator {
    *         output
    */
   public int numOutputSequences() {
-    return outErrorSeqs.size() + outRegressionSeqs.size();
+    return outputSequenceCount();
+  }
+
+  /**
+   * Returns the live measurements of this generator.
+   *
+   * @return the generation metrics, or null if <code>--jmx-metrics</code> was
+   *         not set when this generator was created
+   */
+  public GenerationMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -308,17 +354,141 @@ public abstract class AbstractGenerator {
       listenerMgr.explorationStart();
     }
 
-    while (!stop()) {
+    if (metrics != null) {
+      metrics.start();
+      metrics.register();
+    }
+
+    currSeqs.clear();
+    try {
+      if (GenInputsAbstract.generation_threads <= 1) {
+        while (!stop()) {
+          generationStep();
+        }
+      } else {
+        exploreInParallel(GenInputsAbstract.generation_threads);
+      }
+    } finally {
+      if (metrics != null) {
+        metrics.unregister();
+      }
+    }
+
+    if (!GenInputsAbstract.noprogressdisplay && progressDisplay != null) {
+      progressDisplay.display();
+      progressDisplay.shouldStop = true;
+    }
+
+    if (!GenInputsAbstract.noprogressdisplay) {
+      System.out.println();
+      System.out.println("Normal method executions:" + ReflectionExecutor.normalExecs());
+      System.out.println("Exceptional method executions:" + ReflectionExecutor.excepExecs());
+      System.out.println();
+      System.out.println(
+          "Average method execution time (normal termination):      "
+              + String.format("%.3g", ReflectionExecutor.normalExecAvgMillis()));
+      System.out.println(
+          "Average method execution time (exceptional termination): "
+              + String.format("%.3g", ReflectionExecutor.excepExecAvgMillis()));
+      System.out.println(
+          "Average executor overhead per call:                      "
+              + String.format("%.3g", ReflectionExecutor.overheadAvgMillis()));
+      System.out.println("Executor threads started:" + ReflectionExecutor.threadsStarted());
+      if (PrefixStateCache.prefix_cache) {
+        System.out.println("Prefix cache hits:" + PrefixStateCache.hits());
+        System.out.println("Prefix cache misses:" + PrefixStateCache.misses());
+      }
+    }
+
+    // Notify listeners that exploration is ending.
+    if (listenerMgr != null) {
+      listenerMgr.explorationEnd();
+    }
+  }
+
+  /**
+   * Runs the generation loop in the given number of threads, and waits for all
+   * of them to finish. Each thread makes its random choices with its own
+   * generator (see {@link Randomness#resetForWorker(int)}), but the threads
+   * share the component pool without coordination, so what each thread
+   * generates depends on how the threads interleave, and the results are not
+   * reproducible. If a thread fails, the others stop at their next step and
+   * the failure is rethrown.
+   *
+   * @param numThreads  the number of generation threads
+   */
+  private void exploreInParallel(int numThreads) {
+    final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+    List<Thread> workers = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      final int workerId = i;
+      workers.add(
+          new Thread("RandoopGenerator-" + workerId) {
+            @Override
+            public void run() {
+              Randomness.resetForWorker(workerId);
+              BranchCoverageMap.startThreadCount();
+              try {
+                while (failures.isEmpty()) {
+                  synchronized (AbstractGenerator.this) {
+                    if (AbstractGenerator.this.stop()) {
+                      break;
+                    }
+                  }
+                  generationStep();
+                }
+              } catch (Throwable e) {
+                failures.add(e);
+              }
+            }
+          });
+    }
+
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new Error("Interrupted while waiting for generation threads", e);
+      }
+    }
+
+    if (!failures.isEmpty()) {
+      Throwable failure = failures.get(0);
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      throw new Error(failure);
+    }
+  }
 
+  /**
+   * Performs one generation step: creates and executes a new sequence by
+   * calling {@link #step()}, and records the outcome.
+   */
+  private void generationStep() {
+    synchronized (this) {
       // Notify listeners we are about to perform a generation step.
       if (listenerMgr != null) {
         listenerMgr.generationStepPre();
       }
 
       num_steps++;
+    }
 
-      ExecutableSequence eSeq = step();
+    ExecutableSequence eSeq = step();
 
+    // The sequences to write as test classes once the lock is released.
+    List<ExecutableSequence> errorTests = null;
+    List<ExecutableSequence> regressionTests = null;
+
+    synchronized (this) {
       if (dump_sequences) {
         System.out.printf("seq before run: %s%n", eSeq);
       }
@@ -328,7 +498,12 @@ public abstract class AbstractGenerator {
         listenerMgr.generationStepPost(eSeq);
       }
 
-      if (eSeq == null) continue;
+      if (eSeq == null) {
+        if (metrics != null) {
+          metrics.stepFinished(0);
+        }
+        return;
+      }
 
       num_sequences_generated++;
 
@@ -336,15 +511,25 @@ public abstract class AbstractGenerator {
         num_failing_sequences++;
       }
 
+      long outputStart = System.nanoTime();
       if (outputTest.test(eSeq)) {
         if (!eSeq.hasInvalidBehavior()) {
           if (eSeq.hasFailure()) {
             outErrorSeqs.add(eSeq);
+            if (errorTestWriter != null) {
+              errorTests = takeErrorTests(false);
+            }
           } else {
             outRegressionSeqs.add(eSeq);
+            if (regressionTestWriter != null) {
+              regressionTests = takeRegressionTests(false);
+            }
           }
         }
       }
+      if (metrics != null) {
+        metrics.stepFinished(System.nanoTime() - outputStart);
+      }
 
       if (dump_sequences) {
         System.out.printf("Sequence after execution:%n%s%n", eSeq.toString());
@@ -357,27 +542,11 @@ public abstract class AbstractGenerator {
       }
     }
 
-    if (!GenInputsAbstract.noprogressdisplay && progressDisplay != null) {
-      progressDisplay.display();
-      progressDisplay.shouldStop = true;
+    if (errorTests != null) {
+      writeStreamedTests(errorTestWriter, errorTests);
     }
-
-    if (!GenInputsAbstract.noprogressdisplay) {
-      System.out.println();
-      System.out.println("Normal method executions:" + ReflectionExecutor.normalExecs());
-      System.out.println("Exceptional method executions:" + ReflectionExecutor.excepExecs());
-      System.out.println();
-      System.out.println(
-          "Average method execution time (normal termination):      "
-              + String.format("%.3g", ReflectionExecutor.normalExecAvgMillis()));
-      System.out.println(
-          "Average method execution time (exceptional termination): "
-              + String.format("%.3g", ReflectionExecutor.excepExecAvgMillis()));
-    }
-
-    // Notify listeners that exploration is ending.
-    if (listenerMgr != null) {
-      listenerMgr.explorationEnd();
+    if (regressionTests != null) {
+      writeStreamedTests(regressionTestWriter, regressionTests);
     }
   }
 
@@ -399,6 +568,17 @@ public abstract class AbstractGenerator {
     throw new Error("subsumed_sequences not supported for " + this.getClass());
   }
 
+  /**
+   * Tests whether the given sequence is used as an input in another sequence.
+   * By default, looks the sequence up in {@link #getSubsumedSequences()}.
+   *
+   * @param sequence  the sequence to test
+   * @return true if the sequence is subsumed by another sequence
+   */
+  public boolean isSubsumed(Sequence sequence) {
+    return getSubsumedSequences().contains(sequence);
+  }
+
   /**
    * Returns the generated regression test sequences for output. Filters out
    * subsequences, which can be retrieved using {@link #getSubsumedSequences()}
@@ -408,9 +588,8 @@ public abstract class AbstractGenerator {
   // TODO replace this with filtering during generation
   public List<ExecutableSequence> getRegressionSequences() {
     List<ExecutableSequence> unique_seqs = new ArrayList<>();
-    Set<Sequence> subsumed_seqs = this.getSubsumedSequences();
     for (ExecutableSequence es : outRegressionSeqs) {
-      if (!subsumed_seqs.contains(es.sequence)) {
+      if (!isSubsumed(es.sequence)) {
         unique_seqs.add(es);
       }
     }
@@ -433,7 +612,146 @@ public abstract class AbstractGenerator {
    * @return the total number of test sequences saved for output
    */
   public int outputSequenceCount() {
-    return outRegressionSeqs.size() + outErrorSeqs.size();
+    return outRegressionSeqs.size()
+        + outErrorSeqs.size()
+        + num_streamed_regression_seqs
+        + num_streamed_error_seqs;
+  }
+
+  /**
+   * Writes output sequences as JUnit test classes during generation, each time
+   * there are <code>--testsperfile</code> of them, instead of keeping them
+   * until generation ends. The written sequences are removed from the output
+   * lists, so their runtime values can be reclaimed. Regression sequences are
+   * filtered as in {@link #getRegressionSequences()} before they are written;
+   * a sequence that is subsumed by a sequence generated after it was written
+   * remains in the output. Call {@link #flushStreamedTests()} after generation
+   * to write the remaining sequences.
+   *
+   * @param errorWriter
+   *          the writer for error-revealing tests, or null to keep them in the
+   *          output list
+   * @param regressionWriter
+   *          the writer for regression tests, or null to keep them in the
+   *          output list
+   */
+  public void streamTests(JunitFileWriter errorWriter, JunitFileWriter regressionWriter) {
+    this.errorTestWriter = errorWriter;
+    this.regressionTestWriter = regressionWriter;
+  }
+
+  /**
+   * Writes the output sequences that remain after generation to the writers
+   * given to {@link #streamTests}.
+   *
+   * @return the test class files written since generation started
+   */
+  public List<File> flushStreamedTests() {
+    List<ExecutableSequence> errorTests = null;
+    List<ExecutableSequence> regressionTests = null;
+    synchronized (this) {
+      if (errorTestWriter != null) {
+        errorTests = takeErrorTests(true);
+      }
+      if (regressionTestWriter != null) {
+        regressionTests = takeRegressionTests(true);
+      }
+    }
+    if (errorTests != null) {
+      writeStreamedTests(errorTestWriter, errorTests);
+    }
+    if (regressionTests != null) {
+      writeStreamedTests(regressionTestWriter, regressionTests);
+    }
+    synchronized (streamedFiles) {
+      return new ArrayList<>(streamedFiles);
+    }
+  }
+
+  /**
+   * Returns the writer of error-revealing tests given to {@link #streamTests},
+   * or null.
+   */
+  public JunitFileWriter getErrorTestWriter() {
+    return errorTestWriter;
+  }
+
+  /**
+   * Returns the writer of regression tests given to {@link #streamTests}, or
+   * null.
+   */
+  public JunitFileWriter getRegressionTestWriter() {
+    return regressionTestWriter;
+  }
+
+  /**
+   * Returns the number of error-revealing test sequences written during
+   * generation.
+   */
+  public synchronized int numStreamedErrorTests() {
+    return num_streamed_error_seqs;
+  }
+
+  /**
+   * Returns the number of regression test sequences written during
+   * generation.
+   */
+  public synchronized int numStreamedRegressionTests() {
+    return num_streamed_regression_seqs;
+  }
+
+  // Removes and returns the error sequences to write as a test class, if
+  // there are enough for one or all is true, and null otherwise. Called with
+  // the lock on this generator held; the caller writes them after releasing
+  // it.
+  private List<ExecutableSequence> takeErrorTests(boolean all) {
+    if (outErrorSeqs.isEmpty()
+        || (!all && outErrorSeqs.size() < GenInputsAbstract.testsperfile)) {
+      return null;
+    }
+    List<ExecutableSequence> tests = new ArrayList<>(outErrorSeqs);
+    outErrorSeqs.clear();
+    num_streamed_error_seqs += tests.size();
+    return tests;
+  }
+
+  // Removes and returns the regression sequences that are not subsumed, if
+  // there are enough for a test class or all is true, and null otherwise.
+  // Called with the lock on this generator held; the caller writes them after
+  // releasing it.
+  private List<ExecutableSequence> takeRegressionTests(boolean all) {
+    if (!all && outRegressionSeqs.size() < GenInputsAbstract.testsperfile) {
+      return null;
+    }
+    List<ExecutableSequence> tests = getRegressionSequences();
+    outRegressionSeqs.clear();
+    if (tests.isEmpty() || (!all && tests.size() < GenInputsAbstract.testsperfile)) {
+      // Wait for more sequences.
+      outRegressionSeqs.addAll(tests);
+      return null;
+    }
+    num_streamed_regression_seqs += tests.size();
+    return tests;
+  }
+
+  // Writes the sequences as test classes. Called without the lock on this
+  // generator held, so that other threads keep generating; the lock on the
+  // writer keeps its class numbering consistent.
+  private void writeStreamedTests(JunitFileWriter writer, List<ExecutableSequence> tests) {
+    for (int i = 0; i < tests.size(); i += GenInputsAbstract.testsperfile) {
+      List<ExecutableSequence> chunk =
+          tests.subList(i, Math.min(i + GenInputsAbstract.testsperfile, tests.size()));
+      File file;
+      synchronized (writer) {
+        file = writer.writeNextJUnitTestFile(chunk);
+      }
+      synchronized (streamedFiles) {
+        streamedFiles.add(file);
+      }
+      if (Log.isLoggingOn()) {
+        Log.logLine("Wrote " + chunk.size() + " tests to " + file);
+      }
+    }
   }
 
   /**
@@ -443,6 +761,16 @@ public abstract class AbstractGenerator {
    *          the current sequence
    */
   protected void setCurrentSequence(Sequence s) {
-    currSeq = s;
+    currSeqs.put(Thread.currentThread(), s);
+  }
+
+  /**
+   * Returns the sequences currently being executed, one per generation thread
+   * that has started executing a sequence.
+   *
+   * @return the sequences currently under execution
+   */
+  public static List<Sequence> getCurrentSequences() {
+    return new ArrayList<>(currSeqs.values());
   }
 }
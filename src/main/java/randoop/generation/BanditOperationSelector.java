@@ -0,0 +1,93 @@
+package main.java.randoop.generation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.util.FenwickTree;
+import main.java.randoop.util.Randomness;
+
+/**
+ * Favors cheap, productive operations, treating operation selection as a
+ * multi-armed bandit.
+ *
+ * An attempt with an operation pays off if it yields a sequence that is added
+ * to the component pool or that reveals an error. The weight of an operation
+ * is its estimated payoff rate, starting at 1/2 for an operation that was
+ * never tried, scaled down by its average execution time. Operations that
+ * keep throwing exceptions, failing to find inputs, or producing duplicates
+ * lose weight, but never below a minimum, so that every operation keeps being
+ * tried now and then.
+ *
+ * The weights are kept in a {@link FenwickTree}, so that selecting an
+ * operation and updating its weight take time logarithmic in the number of
+ * operations.
+ */
+public class BanditOperationSelector extends OperationSelector {
+
+  // The weight below which no operation falls.
+  private static final double MIN_WEIGHT = 0.01;
+
+  // The execution time, in nanoseconds, at which the weight of an operation
+  // is halved.
+  private static final double HALF_WEIGHT_NANOS = 1000000;
+
+  private final OperationStatistics statistics;
+
+  // The operations the weights were computed for, and their positions.
+  private List<ConcreteOperation> operations = null;
+  private Map<ConcreteOperation, Integer> positions = new HashMap<>();
+  private FenwickTree weights = new FenwickTree();
+
+  /**
+   * Creates a selector that weights operations by the given statistics.
+   *
+   * @param statistics  the statistics recorded by the generator
+   */
+  public BanditOperationSelector(OperationStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public synchronized ConcreteOperation selectOperation(List<ConcreteOperation> operations) {
+    if (operations == null || operations.isEmpty())
+      throw new IllegalArgumentException("Expected non-empty list");
+    // The generator replaces its list when it removes an operation.
+    if (operations != this.operations) {
+      this.operations = operations;
+      this.positions = new HashMap<>();
+      this.weights = new FenwickTree();
+      for (int i = 0; i < operations.size(); i++) {
+        positions.put(operations.get(i), i);
+        weights.add(weight(operations.get(i)));
+      }
+    }
+    double point = Randomness.nextRandomDouble() * weights.total();
+    return operations.get(weights.find(point));
+  }
+
+  @Override
+  public synchronized void outcomeRecorded(ConcreteOperation operation) {
+    Integer position = positions.get(operation);
+    if (position != null) {
+      weights.set(position, weight(operation));
+    }
+  }
+
+  /**
+   * Returns the weight of the given operation given its statistics.
+   *
+   * @param operation  the operation
+   * @return the positive weight of the operation
+   */
+  protected double weight(ConcreteOperation operation) {
+    OperationStatistics.Entry entry = statistics.getEntry(operation);
+    long attempts = entry.getSelections();
+    long payoffs =
+        entry.getNewComponents() + entry.getCount(OperationStatistics.Outcome.FAILURE);
+    double rate = (payoffs + 1) / (double) (attempts + 2);
+    double cost = HALF_WEIGHT_NANOS / (HALF_WEIGHT_NANOS + entry.getAverageExecutionNanos());
+    return Math.max(MIN_WEIGHT, rate * cost);
+  }
+}
@@ -0,0 +1,98 @@
+package main.java.randoop.generation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.SequenceFingerprint;
+
+/**
+ * A Bloom filter of sequence fingerprints, whose memory does not grow with
+ * the number of sequences. A sequence that was added is always found; a
+ * sequence that was not added is found with the false-positive rate given
+ * when the filter was created, as long as it holds no more sequences than its
+ * capacity. The filter is safe for use by several threads.
+ */
+public class BloomSequenceSet extends SequenceSet {
+
+  private final AtomicLongArray bits;
+
+  private final long bitCount;
+
+  private final int hashCount;
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Creates a filter sized for the given number of sequences and
+   * false-positive rate.
+   *
+   * @param capacity  the number of sequences the filter is sized for
+   * @param falsePositiveRate  the false-positive rate at capacity, between 0
+   *          and 1
+   */
+  public BloomSequenceSet(int capacity, double falsePositiveRate) {
+    if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException(
+          "invalid Bloom filter parameters: " + capacity + ", " + falsePositiveRate);
+    }
+    double ln2 = Math.log(2);
+    long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / 64);
+    if (words > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Bloom filter too large: " + capacity + ", " + falsePositiveRate);
+    }
+    this.bits = new AtomicLongArray((int) words);
+    this.bitCount = words * 64;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+  }
+
+  @Override
+  public boolean add(Sequence sequence) {
+    SequenceFingerprint fingerprint = sequence.getFingerprint();
+    boolean added = false;
+    for (int i = 0; i < hashCount; i++) {
+      long index = index(fingerprint, i);
+      int word = (int) (index >>> 6);
+      long mask = 1L << index;
+      while (true) {
+        long old = bits.get(word);
+        if ((old & mask) != 0) {
+          break;
+        }
+        if (bits.compareAndSet(word, old, old | mask)) {
+          added = true;
+          break;
+        }
+      }
+    }
+    if (added) {
+      size.incrementAndGet();
+    }
+    return added;
+  }
+
+  @Override
+  public boolean contains(Sequence sequence) {
+    SequenceFingerprint fingerprint = sequence.getFingerprint();
+    for (int i = 0; i < hashCount; i++) {
+      long index = index(fingerprint, i);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size.get();
+  }
+
+  // The position of the i-th bit of the given fingerprint, by double hashing
+  // with the two halves of the fingerprint.
+  private long index(SequenceFingerprint fingerprint, int i) {
+    long hash = fingerprint.getHigh() + i * (fingerprint.getLow() | 1);
+    return (hash >>> 1) % bitCount;
+  }
+}
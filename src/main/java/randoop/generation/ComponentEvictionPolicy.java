@@ -0,0 +1,188 @@
+package main.java.randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Chooses the component sequences that {@link ComponentManager} evicts when a
+ * pool grows beyond its bound.
+ *
+ * The component manager reports every sequence it adds to the pool, and the
+ * generator reports every time a component is used as an input of a new
+ * sequence, and every time such a sequence becomes a component itself. A
+ * policy gives each component a score from these events, and the components
+ * with the lowest scores are evicted first. A policy is shared by all
+ * generation threads.
+ *
+ * @see GenInputsAbstract#component_eviction
+ */
+public abstract class ComponentEvictionPolicy {
+
+  // What is known about a component.
+  private static class Usage {
+    final long birth;
+    int uses = 0;
+    int yields = 0;
+
+    Usage(long birth) {
+      this.birth = birth;
+    }
+  }
+
+  // The components added and not yet evicted. Sequences are compared by
+  // identity, since structural equality is expensive to check.
+  private final Map<Sequence, Usage> usages = new IdentityHashMap<>();
+
+  // The number of uses of all components so far.
+  private long clock = 0;
+
+  /**
+   * Returns the score of the given component. Components with lower scores
+   * are evicted first.
+   *
+   * @param sequence  the component
+   * @return the score of the component
+   */
+  protected abstract double score(Sequence sequence);
+
+  /**
+   * Called after a sequence is added to the component pool.
+   *
+   * @param sequence  the new component
+   */
+  public synchronized void sequenceAdded(Sequence sequence) {
+    if (!usages.containsKey(sequence)) {
+      usages.put(sequence, new Usage(clock));
+    }
+  }
+
+  /**
+   * Called when a sequence is used as an input of a new sequence.
+   *
+   * @param sequence  the input sequence
+   */
+  public synchronized void sequenceUsed(Sequence sequence) {
+    clock++;
+    Usage usage = usages.get(sequence);
+    if (usage != null) {
+      usage.uses++;
+    }
+  }
+
+  /**
+   * Called when a new sequence that used the given sequence as an input is
+   * added to the component pool.
+   *
+   * @param sequence  the input sequence
+   */
+  public synchronized void sequenceYielded(Sequence sequence) {
+    Usage usage = usages.get(sequence);
+    if (usage != null) {
+      usage.yields++;
+    }
+  }
+
+  /**
+   * Forgets all components, for instance after the component pool is cleared.
+   */
+  public synchronized void clear() {
+    usages.clear();
+  }
+
+  /**
+   * Returns the number of times the given component was used as an input.
+   *
+   * @param sequence  the component
+   * @return the number of uses of the component
+   */
+  protected int getUses(Sequence sequence) {
+    Usage usage = usages.get(sequence);
+    return usage == null ? 0 : usage.uses;
+  }
+
+  /**
+   * Returns the number of new components that used the given component as
+   * an input.
+   *
+   * @param sequence  the component
+   * @return the number of new components built from the component
+   */
+  protected int getYields(Sequence sequence) {
+    Usage usage = usages.get(sequence);
+    return usage == null ? 0 : usage.yields;
+  }
+
+  /**
+   * Returns the number of uses of any component since the given component was
+   * added, which measures its age in generation steps.
+   *
+   * @param sequence  the component
+   * @return the age of the component
+   */
+  protected long getAge(Sequence sequence) {
+    Usage usage = usages.get(sequence);
+    return usage == null ? clock : clock - usage.birth;
+  }
+
+  /**
+   * Chooses the components to evict among the given candidates, and forgets
+   * them. Candidates with equal scores are evicted in the order given.
+   *
+   * @param candidates  the components that may be evicted
+   * @param count  the number of components to evict
+   * @return the evicted components, at most <code>count</code>
+   */
+  public synchronized List<Sequence> selectVictims(Collection<Sequence> candidates, int count) {
+    final Sequence[] sequences = candidates.toArray(new Sequence[candidates.size()]);
+    // Compute the scores once, since they may change during the sort.
+    final double[] scores = new double[sequences.length];
+    Integer[] order = new Integer[sequences.length];
+    for (int i = 0; i < sequences.length; i++) {
+      scores[i] = score(sequences[i]);
+      order[i] = i;
+    }
+    Arrays.sort(
+        order,
+        new Comparator<Integer>() {
+          @Override
+          public int compare(Integer i, Integer j) {
+            return Double.compare(scores[i], scores[j]);
+          }
+        });
+
+    List<Sequence> victims = new ArrayList<>();
+    for (int i = 0; i < Math.min(count, order.length); i++) {
+      Sequence victim = sequences[order[i]];
+      victims.add(victim);
+      usages.remove(victim);
+    }
+    return victims;
+  }
+
+  /**
+   * Returns the policy for the given mode.
+   *
+   * @param policy  the eviction policy
+   * @return a new policy
+   */
+  public static ComponentEvictionPolicy create(GenInputsAbstract.EvictionPolicy policy) {
+    switch (policy) {
+      case LRU:
+        return new LeastRecentlyUsedEvictionPolicy();
+      case LFU:
+        return new LeastFrequentlyUsedEvictionPolicy();
+      case LOWEST_YIELD:
+        return new LowestYieldEvictionPolicy();
+      default:
+        throw new IllegalArgumentException("unknown eviction policy: " + policy);
+    }
+  }
+}
@@ -8,11 +8,14 @@ import main.java.randoop.sequence.SequenceCollection;
 import main.java.randoop.types.ConcreteType;
 import main.java.randoop.types.PrimitiveTypes;
 import main.java.randoop.util.ListOfLists;
+import main.java.randoop.util.Log;
 import main.java.randoop.util.SimpleList;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,10 +34,22 @@ import java.util.Set;
  *
  * SEED SEQUENCES. Seed sequences are sequences that were not created during the
  * generation process but obtained via other means. They include (1) sequences
- * passed via the constructor, (2) class literals, and (3) package literals. The
+ * passed via the constructor or {@link #addPinnedSequence(Sequence)}, such as
+ * literals for all classes, (2) class literals, and (3) package literals. The
  * only different treatment of seed sequences is during calls to the
  * clearGeneratedSequences() method, which removes only general, non-seed
- * components from the collection.
+ * components from the collection, and during eviction.
+ *
+ * EVICTION. If an eviction policy is set (see
+ * {@link #setEvictionPolicy(ComponentEvictionPolicy, int, int)}), the number
+ * of general components of each type, and of all types together, is bounded.
+ * When a new component exceeds a bound, components are evicted until half of
+ * the bound is left. Each eviction drops the cached lists of compatible
+ * sequences and the weights that input selectors keep for them, so evicting
+ * many components at once lets them be rebuilt only once every many
+ * additions, instead of on nearly every addition once the pool is full.
+ * Seed sequences are never evicted, and neither are class or
+ * package literals, which are kept apart from the general components.
  */
 public class ComponentManager {
 
@@ -52,8 +67,9 @@ public class ComponentManager {
    */
   // Seeds are all contained in gralComponents. This list
   // is kept to restore seeds if the user calls
-  // clearGeneratedSequences().
-  private final Collection<Sequence> gralSeeds;
+  // clearGeneratedSequences(), and to spare them from eviction.
+  // Modified only while holding the lock on gralComponents.
+  private final Set<Sequence> gralSeeds;
 
   /**
    * A set of additional components representing literals that should only be
@@ -69,12 +85,19 @@ public class ComponentManager {
   // May be null, which represents no package literals present.
   private PackageLiterals packageLiterals = null;
 
+  // May be null, which represents unbounded pools.
+  private ComponentEvictionPolicy evictionPolicy = null;
+
+  // The bounds on the number of general components; 0 for no bound.
+  private int maxSequencesPerType = 0;
+  private int maxSequences = 0;
+
   /**
    * Create an empty component manager, with an empty seed sequence set.
    */
   public ComponentManager() {
     gralComponents = new SequenceCollection();
-    gralSeeds = Collections.unmodifiableSet(Collections.<Sequence>emptySet());
+    gralSeeds = new LinkedHashSet<>();
   }
 
   /**
@@ -88,7 +111,7 @@ public class ComponentManager {
   public ComponentManager(Collection<Sequence> generalSeeds) {
     Set<Sequence> seedSet = new LinkedHashSet<>(generalSeeds.size());
     seedSet.addAll(generalSeeds);
-    this.gralSeeds = Collections.unmodifiableSet(seedSet);
+    this.gralSeeds = seedSet;
     gralComponents = new SequenceCollection(seedSet);
   }
 
@@ -130,22 +153,125 @@ public class ComponentManager {
     packageLiterals.addSequence(pkg, seq);
   }
 
+  /**
+   * Add a component sequence that is treated as a seed sequence: it is never
+   * evicted, and it is kept by {@link #clearGeneratedSequences()}.
+   *
+   * @param sequence  the sequence
+   */
+  public void addPinnedSequence(Sequence sequence) {
+    synchronized (gralComponents) {
+      gralSeeds.add(sequence);
+      gralComponents.add(sequence);
+    }
+  }
+
   /**
    * Add a component sequence.
    *
    * @param sequence - the sequence
    */
   public void addGeneratedSequence(Sequence sequence) {
-    gralComponents.add(sequence);
+    if (evictionPolicy == null) {
+      gralComponents.add(sequence);
+      return;
+    }
+    synchronized (gralComponents) {
+      gralComponents.add(sequence);
+      evictionPolicy.sequenceAdded(sequence);
+      if (maxSequencesPerType > 0) {
+        for (ConcreteType type : new LinkedHashSet<>(sequence.getTypesForLastStatement())) {
+          SimpleList<Sequence> pool = gralComponents.getSequencesForType(type, true);
+          if (pool.size() > maxSequencesPerType) {
+            evict(pool.toJDKList(), pool.size() - maxSequencesPerType / 2);
+          }
+        }
+      }
+      if (maxSequences > 0 && gralComponents.size() > maxSequences) {
+        evict(gralComponents.getAllSequences(), gralComponents.size() - maxSequences / 2);
+      }
+    }
+  }
+
+  // Evicts the given number of non-seed sequences from the given pool.
+  private void evict(Collection<Sequence> pool, int count) {
+    List<Sequence> candidates = new ArrayList<>(pool.size());
+    for (Sequence sequence : pool) {
+      if (!gralSeeds.contains(sequence)) {
+        candidates.add(sequence);
+      }
+    }
+    List<Sequence> victims = evictionPolicy.selectVictims(candidates, count);
+    gralComponents.removeAll(victims);
+    if (Log.isLoggingOn(Log.Category.COMPONENTS))
+      Log.logLine(Log.Category.COMPONENTS, "Evicted " + victims.size() + " components.");
+  }
+
+  /**
+   * Bounds the number of general components, and sets the policy that
+   * chooses the components to evict when a bound is exceeded.
+   *
+   * @param evictionPolicy  the eviction policy
+   * @param maxSequencesPerType  the maximum number of components that create
+   *          values of each type, or 0 for no bound
+   * @param maxSequences  the maximum number of components of all types
+   *          together, or 0 for no bound
+   */
+  public void setEvictionPolicy(
+      ComponentEvictionPolicy evictionPolicy, int maxSequencesPerType, int maxSequences) {
+    if (evictionPolicy == null) throw new IllegalArgumentException("evictionPolicy is null");
+    if (maxSequencesPerType < 0 || maxSequences < 0)
+      throw new IllegalArgumentException("bounds must be non-negative");
+    this.evictionPolicy = evictionPolicy;
+    this.maxSequencesPerType = maxSequencesPerType;
+    this.maxSequences = maxSequences;
+  }
+
+  /**
+   * Records that the given sequence was used as an input of a new sequence.
+   *
+   * @param sequence  the input sequence
+   */
+  public void componentUsed(Sequence sequence) {
+    if (evictionPolicy != null) {
+      evictionPolicy.sequenceUsed(sequence);
+    }
+  }
+
+  /**
+   * Records that a new component was built from the given input sequence.
+   *
+   * @param sequence  the input sequence
+   */
+  public void componentYielded(Sequence sequence) {
+    if (evictionPolicy != null) {
+      evictionPolicy.sequenceYielded(sequence);
+    }
   }
 
   /**
    * Removes any components sequences added so far, except for seed sequences,
-   * which are preserved.
+   * which are preserved. Other generation threads never observe the collection
+   * without its seeds.
    */
   public void clearGeneratedSequences() {
-    gralComponents.clear();
-    gralComponents.addAll(this.gralSeeds);
+    synchronized (gralComponents) {
+      gralComponents.clear();
+      gralComponents.addAll(this.gralSeeds);
+      if (evictionPolicy != null) {
+        evictionPolicy.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of general components, including seeds, that create
+   * values of each type.
+   *
+   * @return a map from each type with components to its number of components
+   */
+  public Map<ConcreteType, Integer> getSequenceCounts() {
+    return gralComponents.getSequenceCounts();
   }
 
   /*
@@ -0,0 +1,30 @@
+package main.java.randoop.generation;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Favors sequences that covered something new when they were created. The
+ * weight of a sequence is one more than the coverage it added, as reported by
+ * the generator through {@link #createdSequence(Sequence, int)}.
+ */
+public class CoverageInputSequenceSelector extends WeightedInputSequenceSelector {
+
+  // The new coverage of the sequences that added any.
+  private final Map<Sequence, Integer> newCoverage = new WeakHashMap<>();
+
+  @Override
+  public synchronized void createdSequence(Sequence sequence, int newCoverage) {
+    if (newCoverage > 0) {
+      this.newCoverage.put(sequence, newCoverage);
+    }
+  }
+
+  @Override
+  protected synchronized double weight(Sequence sequence) {
+    Integer coverage = newCoverage.get(sequence);
+    return coverage == null ? 1 : 1 + coverage;
+  }
+}
@@ -1,24 +1,143 @@
 package main.java.randoop.generation;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
+import main.java.randoop.util.ReflectionCode;
+import main.java.randoop.util.ReflectionExecutor;
+
+/**
+ * Matches objects with their <code>equals</code> and <code>hashCode</code>
+ * methods. Only objects of the same class are compared, since objects of
+ * different classes, such as an <code>ArrayList</code> and a
+ * <code>LinkedList</code>, may be equal but are not interchangeable as
+ * inputs.
+ * <p>
+ * <code>equals</code> and <code>hashCode</code> are code under test, so they
+ * run through {@link ReflectionExecutor}, with its timeout, and outside of the
+ * lock of the matcher, so that a call that does not terminate only holds up
+ * the calling thread. An object whose <code>equals</code> or
+ * <code>hashCode</code> throws an exception or times out is considered new.
+ * Two equal objects added at the same time by different threads may both be
+ * considered new.
+ * <p>
+ * New objects are kept through soft references, so that the garbage collector
+ * can reclaim them when memory runs low; an object that is equal to a
+ * reclaimed one is considered new.
+ */
 public class EqualsMethodMatcher implements StateMatcher {
 
-  Set<Object> cache = new LinkedHashSet<>();
+  // The objects seen, by class and hash code.
+  private final Map<Class<?>, Map<Integer, List<SoftReference<Object>>>> cache = new HashMap<>();
+
+  private int size = 0;
 
   @Override
   public boolean add(Object object) {
-    try {
-      return this.cache.add(object);
-    } catch (Throwable e) {
+    MatchCode code = new MatchCode(object);
+    Throwable t = ReflectionExecutor.executeReflectionCode(code, System.out);
+    if (t != null || code.exception != null || !code.finished) {
       // This could happen, because we're actually running code under test.
+      return true;
+    }
+    if (code.matched) {
       return false;
     }
+    synchronized (this) {
+      getObjects(object.getClass(), code.hashCode).add(new SoftReference<>(object));
+      size++;
+    }
+    return true;
   }
 
   @Override
-  public int size() {
-    return this.cache.size();
+  public synchronized int size() {
+    return size;
+  }
+
+  // Returns the objects of the given class and hash code that have not been
+  // reclaimed, dropping the references to reclaimed ones.
+  private synchronized List<Object> getCandidates(Class<?> c, int hashCode) {
+    List<Object> candidates = new ArrayList<>();
+    Iterator<SoftReference<Object>> it = getObjects(c, hashCode).iterator();
+    while (it.hasNext()) {
+      Object candidate = it.next().get();
+      if (candidate == null) {
+        it.remove();
+      } else {
+        candidates.add(candidate);
+      }
+    }
+    return candidates;
+  }
+
+  // Returns the list of references to objects of the given class and hash
+  // code. Must be called with the lock of this matcher held.
+  private List<SoftReference<Object>> getObjects(Class<?> c, int hashCode) {
+    Map<Integer, List<SoftReference<Object>>> byHash = cache.get(c);
+    if (byHash == null) {
+      byHash = new HashMap<>();
+      cache.put(c, byHash);
+    }
+    List<SoftReference<Object>> objects = byHash.get(hashCode);
+    if (objects == null) {
+      objects = new ArrayList<>(1);
+      byHash.put(hashCode, objects);
+    }
+    return objects;
+  }
+
+  /**
+   * Computes the hash code of an object and compares it with the objects seen
+   * with the same class and hash code.
+   */
+  private final class MatchCode extends ReflectionCode {
+
+    private final Object object;
+
+    // Read by the calling thread after the executor thread finished or was
+    // stopped.
+    volatile int hashCode;
+    volatile boolean matched = false;
+    volatile boolean finished = false;
+    volatile Throwable exception;
+
+    MatchCode(Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public Throwable getExceptionThrown() {
+      return exception;
+    }
+
+    @Override
+    public Object getReturnVariable() {
+      return null;
+    }
+
+    @Override
+    protected void runReflectionCodeRaw() {
+      try {
+        hashCode = object.hashCode();
+        for (Object candidate : getCandidates(object.getClass(), hashCode)) {
+          if (object.equals(candidate)) {
+            matched = true;
+            break;
+          }
+        }
+        finished = true;
+      } catch (ThreadDeath e) {
+        throw e;
+      } catch (Throwable e) {
+        exception = e;
+      } finally {
+        setRunAlready();
+      }
+    }
   }
 }
@@ -5,13 +5,13 @@ public class EverythingIsDifferentMatcher implements StateMatcher {
   int size = 0;
 
   @Override
-  public boolean add(Object object) {
+  public synchronized boolean add(Object object) {
     size++;
     return true;
   }
 
   @Override
-  public int size() {
+  public synchronized int size() {
     return size;
   }
 }
@@ -0,0 +1,45 @@
+package main.java.randoop.generation;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Keeps the sequences themselves and compares them statement by statement.
+ * Without concurrency, the sequences are kept in the order they were added.
+ */
+public class ExactSequenceSet extends SequenceSet {
+
+  private final Set<Sequence> sequences;
+
+  public ExactSequenceSet(boolean concurrent) {
+    if (concurrent) {
+      this.sequences = Collections.newSetFromMap(new ConcurrentHashMap<Sequence, Boolean>());
+    } else {
+      this.sequences = new LinkedHashSet<>();
+    }
+  }
+
+  @Override
+  public boolean add(Sequence sequence) {
+    return sequences.add(sequence);
+  }
+
+  @Override
+  public boolean contains(Sequence sequence) {
+    return sequences.contains(sequence);
+  }
+
+  @Override
+  public int size() {
+    return sequences.size();
+  }
+
+  @Override
+  public Set<Sequence> getSequences() {
+    return sequences;
+  }
+}
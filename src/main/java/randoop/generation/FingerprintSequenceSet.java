@@ -0,0 +1,44 @@
+package main.java.randoop.generation;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.SequenceFingerprint;
+
+/**
+ * Keeps the 128-bit fingerprint of each sequence instead of the sequence.
+ * Two different sequences have the same fingerprint with negligible
+ * probability, so this set behaves like {@link ExactSequenceSet}, but does
+ * not keep sequences from being reclaimed and never compares statements.
+ */
+public class FingerprintSequenceSet extends SequenceSet {
+
+  private final Set<SequenceFingerprint> fingerprints;
+
+  public FingerprintSequenceSet(boolean concurrent) {
+    if (concurrent) {
+      this.fingerprints =
+          Collections.newSetFromMap(new ConcurrentHashMap<SequenceFingerprint, Boolean>());
+    } else {
+      this.fingerprints = new HashSet<>();
+    }
+  }
+
+  @Override
+  public boolean add(Sequence sequence) {
+    return fingerprints.add(sequence.getFingerprint());
+  }
+
+  @Override
+  public boolean contains(Sequence sequence) {
+    return fingerprints.contains(sequence.getFingerprint());
+  }
+
+  @Override
+  public int size() {
+    return fingerprints.size();
+  }
+}
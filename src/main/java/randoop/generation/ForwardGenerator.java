@@ -5,16 +5,20 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import main.java.randoop.BugInRandoopException;
 import main.java.randoop.DummyVisitor;
+import main.java.randoop.ExecutionOutcome;
 import main.java.randoop.Globals;
 import main.java.randoop.NormalExecution;
 import main.java.randoop.SubTypeSet;
+import main.java.randoop.instrument.BranchCoverageMap;
 import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.operation.Operation;
 import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.PrefixStateCache;
 import main.java.randoop.sequence.Sequence;
 import main.java.randoop.sequence.Statement;
 import main.java.randoop.sequence.Variable;
@@ -40,11 +44,11 @@ public class ForwardGenerator extends AbstractGenerator {
    * The set of ALL sequences ever generated, including sequences that were
    * executed and then discarded.
    */
-  private final Set<Sequence> allSequences;
+  private final SequenceSet allSequences;
   private final Set<ConcreteOperation> observers;
 
   /** Sequences that are used in other sequences (and are thus redundant) **/
-  private Set<Sequence> subsumed_sequences = new LinkedHashSet<>();
+  private final SequenceSet subsumed_sequences;
 
   // For testing purposes only. If Globals.randooptestrun==false then the array
   // is never populated or queried. This set contains the same set of
@@ -58,7 +62,24 @@ public class ForwardGenerator extends AbstractGenerator {
   // The set of all primitive values seen during generation and execution
   // of sequences. This set is used to tell if a new primitive value has
   // been generated, to add the value to the components.
-  private Set<Object> runtimePrimitivesSeen = new LinkedHashSet<>();
+  private final Set<Object> runtimePrimitivesSeen;
+
+  // Selects the sequences that are concatenated into a new sequence.
+  private InputSequenceSelector inputSelector;
+
+  // The outcomes of the attempts with each operation.
+  private final OperationStatistics operationStatistics = new OperationStatistics();
+
+  // Selects the operation of each new sequence.
+  private OperationSelector operationSelector;
+
+  // The operations that have been executed normally as the last statement
+  // of a sequence, used to report new coverage to the input selector.
+  private final Set<ConcreteOperation> coveredOperations;
+
+  // Deactivates values in the same state as earlier values, or null if
+  // values are not compared.
+  private final ObjectCache objectCache;
 
   public ForwardGenerator(
           List<ConcreteOperation> operations,
@@ -91,11 +112,38 @@ public class ForwardGenerator extends AbstractGenerator {
         listenerManager);
 
     this.observers = observers;
-    this.allSequences = new LinkedHashSet<>();
+    this.allSequences =
+        SequenceSet.create(
+            GenInputsAbstract.duplicate_detection, GenInputsAbstract.generation_threads > 1);
+    this.subsumed_sequences =
+        SequenceSet.create(
+            GenInputsAbstract.duplicate_detection, GenInputsAbstract.generation_threads > 1);
+    this.runtimePrimitivesSeen = newSet();
+    this.coveredOperations = newSet();
+    this.objectCache =
+        ObjectCache.create(
+            GenInputsAbstract.state_matching, GenInputsAbstract.state_matching_depth);
+    this.inputSelector = InputSequenceSelector.create(GenInputsAbstract.getInputSelectionMode());
+    this.operationSelector =
+        OperationSelector.create(GenInputsAbstract.operation_selection, operationStatistics);
+    PrefixStateCache.clear();
 
     initializeRuntimePrimitivesSeen();
   }
 
+  /**
+   * Creates a set for the generator state that is shared by all generation
+   * threads. With a single thread, the set preserves insertion order as
+   * before; otherwise it is a concurrent set, and callers rely on the result
+   * of <code>add</code> rather than on a separate <code>contains</code> check.
+   */
+  private static <T> Set<T> newSet() {
+    if (GenInputsAbstract.generation_threads > 1) {
+      return Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
+    }
+    return new LinkedHashSet<>();
+  }
+
   /**
    * The runtimePrimitivesSeen set contains primitive values seen during
    * generation/execution and is used to determine new values that should be
@@ -107,12 +155,70 @@ public class ForwardGenerator extends AbstractGenerator {
     for (Sequence s : componentManager.getAllPrimitiveSequences()) {
       ExecutableSequence es = new ExecutableSequence(s);
       es.execute(new DummyVisitor(), new DummyCheckGenerator());
+      if (PrefixStateCache.prefix_cache) {
+        PrefixStateCache.add(es);
+      }
       NormalExecution e = (NormalExecution) es.getResult(0);
       Object runtimeValue = e.getRuntimeValue();
       runtimePrimitivesSeen.add(runtimeValue);
     }
   }
 
+  /**
+   * Sets the selector that chooses the sequences that are concatenated into a
+   * new sequence, replacing the one given by
+   * <code>--input-selection</code>.
+   *
+   * @param inputSelector
+   *          the input sequence selector
+   */
+  public void setInputSequenceSelector(InputSequenceSelector inputSelector) {
+    if (inputSelector == null) throw new IllegalArgumentException("inputSelector is null");
+    this.inputSelector = inputSelector;
+  }
+
+  /**
+   * Sets the selector that chooses the operation of each new sequence,
+   * replacing the one given by <code>--operation-selection</code>.
+   *
+   * @param operationSelector
+   *          the operation selector
+   */
+  public void setOperationSelector(OperationSelector operationSelector) {
+    if (operationSelector == null)
+      throw new IllegalArgumentException("operationSelector is null");
+    this.operationSelector = operationSelector;
+  }
+
+  /**
+   * Returns the statistics of the operations selected so far.
+   *
+   * @return the per-operation statistics
+   */
+  public OperationStatistics getOperationStatistics() {
+    return operationStatistics;
+  }
+
+  /**
+   * Returns the cache that deactivates values in the same state as values
+   * created before.
+   *
+   * @return the object cache, or null if <code>--state-matching=NONE</code>
+   */
+  public ObjectCache getObjectCache() {
+    return objectCache;
+  }
+
+  // Records an outcome that did not execute a sequence, and lets the
+  // operation selector adapt to it.
+  private void recordOutcome(ConcreteOperation operation, OperationStatistics.Outcome outcome) {
+    operationStatistics.record(operation, outcome);
+    operationSelector.outcomeRecorded(operation);
+    if (metrics != null) {
+      metrics.outcome(outcome);
+    }
+  }
+
   @Override
   public ExecutableSequence step() {
 
@@ -124,11 +230,20 @@ public class ForwardGenerator extends AbstractGenerator {
     ExecutableSequence eSeq = createNewUniqueSequence();
 
     if (eSeq == null) {
+      if (metrics != null) {
+        metrics.generated(System.nanoTime() - startTime);
+      }
       return null;
     }
 
+    ConcreteOperation operation = eSeq.sequence.getLastStatement().getOperation();
+
     if (GenInputsAbstract.dontexecute) {
       this.componentManager.addGeneratedSequence(eSeq.sequence);
+      recordOutcome(operation, OperationStatistics.Outcome.NOT_EXECUTED);
+      if (metrics != null) {
+        metrics.generated(System.nanoTime() - startTime);
+      }
       return null;
     }
 
@@ -138,6 +253,8 @@ public class ForwardGenerator extends AbstractGenerator {
     long gentime = endTime - startTime;
     startTime = endTime; // reset start time.
 
+    long coveredBefore = BranchCoverageMap.getThreadCoveredCount();
+
     eSeq.execute(executionVisitor, checkGenerator);
 
     endTime = System.nanoTime();
@@ -145,22 +262,55 @@ public class ForwardGenerator extends AbstractGenerator {
     eSeq.exectime = endTime - startTime;
     startTime = endTime; // reset start time.
 
+    int newBranches = (int) (BranchCoverageMap.getThreadCoveredCount() - coveredBefore);
+
     processSequence(eSeq);
 
-    if (eSeq.sequence.hasActiveFlags()) {
+    boolean addedToComponents = eSeq.sequence.hasActiveFlags();
+    int newCoverage = 0;
+    if (addedToComponents) {
+      newCoverage = (coveredOperations.add(operation) ? 1 : 0) + newBranches;
+      if (GenInputsAbstract.branch_coverage_filter && newCoverage == 0) {
+        addedToComponents = false;
+      }
+    }
+    if (addedToComponents) {
+      inputSelector.createdSequence(eSeq.sequence, newCoverage);
+      if (eSeq.getInputSequences() != null) {
+        for (Sequence is : eSeq.getInputSequences()) {
+          componentManager.componentYielded(is);
+        }
+      }
       componentManager.addGeneratedSequence(eSeq.sequence);
+      if (PrefixStateCache.prefix_cache) {
+        PrefixStateCache.add(eSeq);
+      }
+    }
+    OperationStatistics.Outcome outcome = OperationStatistics.Outcome.of(eSeq);
+    operationStatistics.recordExecution(operation, outcome, eSeq.exectime, addedToComponents);
+    operationSelector.outcomeRecorded(operation);
+    if (metrics != null) {
+      metrics.outcome(outcome);
     }
 
     endTime = System.nanoTime();
     gentime += endTime - startTime;
     eSeq.gentime = gentime;
+    if (metrics != null) {
+      metrics.executed(operation, gentime, eSeq.exectime - eSeq.checktime, eSeq.checktime);
+    }
 
     return eSeq;
   }
 
+  /**
+   * {@inheritDoc}
+   * Empty unless <code>--duplicate-detection=SEQUENCES</code>, since the
+   * other modes do not keep the sequences.
+   */
   @Override
   public Set<Sequence> getAllSequences() {
-    return Collections.unmodifiableSet(this.allSequences);
+    return Collections.unmodifiableSet(this.allSequences.getSequences());
   }
 
   /**
@@ -180,10 +330,12 @@ public class ForwardGenerator extends AbstractGenerator {
   private void processSequence(ExecutableSequence seq) {
 
     if (seq.hasNonExecutedStatements()) {
-      if (Log.isLoggingOn()) {
+      if (Log.isLoggingOn(Log.Category.EXECUTION)) {
         Log.logLine(
+            Log.Category.EXECUTION,
             "Making all indices inactive (sequence has non-executed statements, so judging it inadequate for further extension).");
         Log.logLine(
+            Log.Category.EXECUTION,
             "Non-executed statement: " + seq.statementToCodeString(seq.getNonExecutedIndex()));
       }
       seq.sequence.clearAllActiveFlags();
@@ -191,29 +343,34 @@ public class ForwardGenerator extends AbstractGenerator {
     }
 
     if (seq.hasFailure()) {
-      if (Log.isLoggingOn()) {
+      if (Log.isLoggingOn(Log.Category.EXECUTION)) {
         Log.logLine(
+            Log.Category.EXECUTION,
             "Making all indices inactive (sequence reveals a failure, so judging it inadequate for further extension)");
-        Log.logLine("Failing sequence: " + seq.toCodeString());
+        Log.logLine(Log.Category.EXECUTION, "Failing sequence: " + seq.toCodeString());
       }
       seq.sequence.clearAllActiveFlags();
       return;
     }
 
     if (seq.hasInvalidBehavior()) {
-      if (Log.isLoggingOn()) {
-        Log.logLine("Making all indices inactive (sequence has invalid behavior)");
-        Log.logLine("Invalid sequence: " + seq.toCodeString());
+      if (Log.isLoggingOn(Log.Category.EXECUTION)) {
+        Log.logLine(
+            Log.Category.EXECUTION,
+            "Making all indices inactive (sequence has invalid behavior)");
+        Log.logLine(Log.Category.EXECUTION, "Invalid sequence: " + seq.toCodeString());
       }
       seq.sequence.clearAllActiveFlags();
       return;
     }
 
     if (!seq.isNormalExecution()) {
-      if (Log.isLoggingOn()) {
+      if (Log.isLoggingOn(Log.Category.EXECUTION)) {
         Log.logLine(
+            Log.Category.EXECUTION,
             "Making all indices inactive (exception thrown, or failure revealed during execution).");
         Log.logLine(
+            Log.Category.EXECUTION,
             "Statement with non-normal execution: "
                 + seq.statementToCodeString(seq.getNonNormalExecutionIndex()));
       }
@@ -222,6 +379,7 @@ public class ForwardGenerator extends AbstractGenerator {
     }
 
     // Clear the active flags of some statements
+    boolean matched = false;
     for (int i = 0; i < seq.sequence.size(); i++) {
 
       // If there is no return value, clear its active flag
@@ -230,8 +388,8 @@ public class ForwardGenerator extends AbstractGenerator {
       NormalExecution e = (NormalExecution) seq.getResult(i);
       Object runtimeValue = e.getRuntimeValue();
       if (runtimeValue == null) {
-        if (Log.isLoggingOn()) {
-          Log.logLine("Making index " + i + " inactive (value is null)");
+        if (Log.isLoggingOn(Log.Category.EXECUTION)) {
+          Log.logLine(Log.Category.EXECUTION, "Making index " + i + " inactive (value is null)");
         }
         seq.sequence.clearActiveFlag(i);
         continue;
@@ -253,8 +411,10 @@ public class ForwardGenerator extends AbstractGenerator {
       // and if the value is new, add a sequence corresponding to that value.
       Class<?> objectClass = runtimeValue.getClass();
       if (PrimitiveTypes.isBoxedOrPrimitiveOrStringType(objectClass)) {
-        if (Log.isLoggingOn()) {
-          Log.logLine("Making index " + i + " inactive (value is a primitive)");
+        if (Log.isLoggingOn(Log.Category.EXECUTION)) {
+          Log.logLine(
+              Log.Category.EXECUTION,
+              "Making index " + i + " inactive (value is a primitive)");
         }
         seq.sequence.clearActiveFlag(i);
 
@@ -269,12 +429,18 @@ public class ForwardGenerator extends AbstractGenerator {
           componentManager.addGeneratedSequence(
               Sequence.createSequenceForPrimitive(runtimeValue));
         }
+      } else if (objectCache != null && seq.sequence.isActive(i)) {
+        matched |= objectCache.setActiveFlags(seq, i);
       } else {
-        if (Log.isLoggingOn()) {
-          Log.logLine("Making index " + i + " active.");
+        if (Log.isLoggingOn(Log.Category.EXECUTION)) {
+          Log.logLine(Log.Category.EXECUTION, "Making index " + i + " active.");
         }
       }
     }
+
+    if (matched && !seq.sequence.hasActiveFlags()) {
+      objectCache.sequenceDiscarded();
+    }
   }
 
   /**
@@ -287,10 +453,13 @@ public class ForwardGenerator extends AbstractGenerator {
 
     if (Log.isLoggingOn()) Log.logLine("-------------------------------------------");
 
-    if (this.operations.isEmpty()) return null;
+    // Read the field once, since another generation thread may replace it.
+    List<ConcreteOperation> currentOperations = this.operations;
+    if (currentOperations.isEmpty()) return null;
 
     // Select a StatementInfo
-    ConcreteOperation operation = Randomness.randomMember(this.operations);
+    ConcreteOperation operation = operationSelector.selectOperation(currentOperations);
+    operationStatistics.selected(operation);
     if (Log.isLoggingOn()) Log.logLine("Selected operation: " + operation.toString());
 
     // jhp: add flags here
@@ -298,6 +467,7 @@ public class ForwardGenerator extends AbstractGenerator {
 
     if (!sequences.success) {
       if (Log.isLoggingOn()) Log.logLine("Failed to find inputs for statement.");
+      recordOutcome(operation, OperationStatistics.Outcome.INPUTS_NOT_FOUND);
       return null;
     }
 
@@ -323,7 +493,7 @@ public class ForwardGenerator extends AbstractGenerator {
     // will all be redundant, so just remove it from list of statements.
     // XXX does this make sense? especially in presence of side-effects
     if (operation.getInputTypes().size() == 0) {
-      operations.remove(operation);
+      removeOperation(operation);
     }
 
     // Discard if sequence is larger than size limit
@@ -334,25 +504,37 @@ public class ForwardGenerator extends AbstractGenerator {
                 + newSequence.size()
                 + " exceeds maximum allowed size "
                 + GenInputsAbstract.maxsize);
+      recordOutcome(operation, OperationStatistics.Outcome.TOO_LARGE);
       return null;
     }
 
-    randoopConsistencyTests(newSequence);
+    boolean isNew;
+    if (GenInputsAbstract.debug_checks) {
+      // The consistency tests compare allSequences with its mirrors, so
+      // other generation threads must not add a sequence in between.
+      synchronized (allsequencesAsCode) {
+        randoopConsistencyTests(newSequence);
+        isNew = this.allSequences.add(newSequence);
+        if (isNew) {
+          randoopConsistencyTest2(newSequence);
+        }
+      }
+    } else {
+      isNew = this.allSequences.add(newSequence);
+    }
 
-    if (this.allSequences.contains(newSequence)) {
+    if (!isNew) {
       if (Log.isLoggingOn())
         Log.logLine("Sequence discarded because the same sequence was previously created.");
+      recordOutcome(operation, OperationStatistics.Outcome.DUPLICATE);
       return null;
     }
 
-    this.allSequences.add(newSequence);
-
     for (Sequence s : sequences.sequences) {
       s.lastTimeUsed = java.lang.System.currentTimeMillis();
+      componentManager.componentUsed(s);
     }
 
-    randoopConsistencyTest2(newSequence);
-
     if (Log.isLoggingOn()) {
       Log.logLine(
           String.format("Successfully created new unique sequence:%n%s%n", newSequence.toString()));
@@ -366,7 +548,37 @@ public class ForwardGenerator extends AbstractGenerator {
       subsumed_sequences.add(is);
     }
 
-    return new ExecutableSequence(newSequence);
+    ExecutableSequence eSeq = new ExecutableSequence(newSequence);
+    eSeq.setInputSequences(sequences.sequences);
+
+    // The input sequences were concatenated in order, so their statements
+    // start at consecutive offsets of the new sequence.
+    if (PrefixStateCache.prefix_cache) {
+      int start = 0;
+      for (Sequence is : sequences.sequences) {
+        List<ExecutionOutcome> outcomes = PrefixStateCache.lookup(is);
+        if (outcomes != null) {
+          eSeq.addKnownOutcomes(start, outcomes);
+        }
+        start += is.size();
+      }
+    }
+
+    return eSeq;
+  }
+
+  /**
+   * Removes the given operation from the operations used for generation. The
+   * list is replaced rather than modified, because other generation threads
+   * may be selecting from it.
+   *
+   * @param operation  the operation to remove
+   */
+  private synchronized void removeOperation(ConcreteOperation operation) {
+    List<ConcreteOperation> remaining = new ArrayList<>(this.operations);
+    if (remaining.remove(operation)) {
+      this.operations = remaining;
+    }
   }
 
   /**
@@ -580,8 +792,10 @@ public class ForwardGenerator extends AbstractGenerator {
         // of type T (list l1), but also try to directly build some sequences
         // that create arrays (list l2).
         SimpleList<Sequence> l1 = componentManager.getSequencesForType(operation, i);
-        if (Log.isLoggingOn())
-          Log.logLine("Array creation heuristic: will create helper array of type " + inputType);
+        if (Log.isLoggingOn(Log.Category.COMPONENTS))
+          Log.logLine(
+              Log.Category.COMPONENTS,
+              "Array creation heuristic: will create helper array of type " + inputType);
         SimpleList<Sequence> l2 = HelperSequenceCreator.createSequence(componentManager, inputType);
         l = new ListOfLists<>(l1, l2);
 
@@ -589,12 +803,16 @@ public class ForwardGenerator extends AbstractGenerator {
 
         // 2. COMMON CASE: ask the component manager for all sequences that
         // yield the required type.
-        if (Log.isLoggingOn()) Log.logLine("Will query component set for objects of type" + inputType);
+        if (Log.isLoggingOn(Log.Category.COMPONENTS))
+          Log.logLine(
+              Log.Category.COMPONENTS,
+              "Will query component set for objects of type" + inputType);
         l = componentManager.getSequencesForType(operation, i);
       }
       assert l != null;
 
-      if (Log.isLoggingOn()) Log.logLine("components: " + l.size());
+      if (Log.isLoggingOn(Log.Category.COMPONENTS))
+        Log.logLine(Log.Category.COMPONENTS, "components: " + l.size());
 
       // If we were not able to find (or create) any sequences of type
       // inputTypes[i], and we are
@@ -602,11 +820,14 @@ public class ForwardGenerator extends AbstractGenerator {
       // return with failure.
       if (l.size() == 0) {
         if (isReceiver || GenInputsAbstract.forbid_null) {
-          if (Log.isLoggingOn())
-            Log.logLine("forbid-null option is true. Failed to create new sequence.");
+          if (Log.isLoggingOn(Log.Category.COMPONENTS))
+            Log.logLine(
+                Log.Category.COMPONENTS,
+                "forbid-null option is true. Failed to create new sequence.");
           return new InputsAndSuccessFlag(false, null, null);
         } else {
-          if (Log.isLoggingOn()) Log.logLine("Will use null as " + i + "-th input");
+          if (Log.isLoggingOn(Log.Category.COMPONENTS))
+            Log.logLine(Log.Category.COMPONENTS, "Will use null as " + i + "-th input");
           ConcreteOperation st = ConcreteOperation.createNullOrZeroInitializationForType(inputType);
           Sequence seq = new Sequence().extend(st, new ArrayList<Variable>());
           variables.add(totStatements);
@@ -627,8 +848,10 @@ public class ForwardGenerator extends AbstractGenerator {
       if (!isReceiver
           && GenInputsAbstract.null_ratio != 0
           && Randomness.weighedCoinFlip(GenInputsAbstract.null_ratio)) {
-        if (Log.isLoggingOn())
-          Log.logLine("null-ratio option given. Randomly decided to use null as input.");
+        if (Log.isLoggingOn(Log.Category.COMPONENTS))
+          Log.logLine(
+              Log.Category.COMPONENTS,
+              "null-ratio option given. Randomly decided to use null as input.");
         ConcreteOperation st = ConcreteOperation.createNullOrZeroInitializationForType(inputType);
         Sequence seq = new Sequence().extend(st, new ArrayList<Variable>());
         variables.add(totStatements);
@@ -641,12 +864,7 @@ public class ForwardGenerator extends AbstractGenerator {
       // At this point, we have a list of candidate sequences and need to select
       // a
       // randomly-chosen sequence from the list.
-      Sequence chosenSeq;
-      if (GenInputsAbstract.small_tests) {
-        chosenSeq = Randomness.randomMemberWeighted(l);
-      } else {
-        chosenSeq = Randomness.randomMember(l);
-      }
+      Sequence chosenSeq = inputSelector.selectSequence(l);
 
       // Now, find values that satisfy the constraint set.
       Variable randomVariable = chosenSeq.randomVariableForTypeLastStatement(inputType);
@@ -697,11 +915,18 @@ public class ForwardGenerator extends AbstractGenerator {
 
   /**
    * Returns the set of sequences that are included in other sequences to
-   * generate inputs (and, so, are subsumed by another sequence).
+   * generate inputs (and, so, are subsumed by another sequence). Empty unless
+   * <code>--duplicate-detection=SEQUENCES</code>; use
+   * {@link #isSubsumed(Sequence)} to test a sequence.
    */
   @Override
   public Set<Sequence> getSubsumedSequences() {
-    return subsumed_sequences;
+    return subsumed_sequences.getSequences();
+  }
+
+  @Override
+  public boolean isSubsumed(Sequence sequence) {
+    return subsumed_sequences.contains(sequence);
   }
 
   @Override
@@ -0,0 +1,308 @@
+package main.java.randoop.generation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import main.java.randoop.instrument.BranchCoverageMap;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.types.ConcreteType;
+
+/**
+ * Live measurements of a generator: its throughput, the outcomes of its
+ * steps, the execution times of each operation, the size of the component
+ * pool, branch coverage, garbage collection, and how its time splits between
+ * generation, execution, checking and output.
+ *
+ * The generator updates the metrics as it goes, from all generation threads.
+ * With <code>--jmx-metrics</code>, {@link AbstractGenerator#explore()}
+ * publishes them as an MXBean named {@value #OBJECT_NAME} for the duration of
+ * the exploration.
+ *
+ * @see GenerationMetricsMXBean
+ */
+public class GenerationMetrics implements GenerationMetricsMXBean {
+
+  /** The JMX name of the metrics. */
+  public static final String OBJECT_NAME = "randoop:type=GenerationMetrics";
+
+  // The number of buckets of each execution time histogram.
+  private static final int LATENCY_BUCKETS = 24;
+
+  private final AbstractGenerator generator;
+
+  private final AtomicLong steps = new AtomicLong();
+
+  private final AtomicLongArray outcomes =
+      new AtomicLongArray(OperationStatistics.Outcome.values().length);
+
+  private final ConcurrentMap<ConcreteOperation, AtomicLongArray> latencies =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong generationNanos = new AtomicLong();
+  private final AtomicLong executionNanos = new AtomicLong();
+  private final AtomicLong checkingNanos = new AtomicLong();
+  private final AtomicLong outputNanos = new AtomicLong();
+
+  private volatile long startNanos = System.nanoTime();
+  private volatile long startGcCount = 0;
+  private volatile long startGcMillis = 0;
+
+  // The step count and time of the previous call to getRecentStepsPerSecond.
+  private long sampleSteps = 0;
+  private long sampleNanos = startNanos;
+
+  // The name under which the metrics are registered, or null.
+  private ObjectName registeredName = null;
+
+  /**
+   * Create the metrics of the given generator.
+   *
+   * @param generator  the generator
+   */
+  public GenerationMetrics(AbstractGenerator generator) {
+    this.generator = generator;
+  }
+
+  /**
+   * Restarts the clocks and the garbage collection counts, when exploration
+   * starts.
+   */
+  public synchronized void start() {
+    startNanos = System.nanoTime();
+    sampleNanos = startNanos;
+    sampleSteps = steps.get();
+    startGcCount = totalGcCount();
+    startGcMillis = totalGcMillis();
+  }
+
+  /**
+   * Publishes these metrics through the platform MBean server.
+   *
+   * @return true if the metrics were published
+   */
+  public synchronized boolean register() {
+    try {
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+      registeredName = name;
+      return true;
+    } catch (JMException e) {
+      System.out.printf("Unable to publish generation metrics: %s%n", e);
+      return false;
+    }
+  }
+
+  /**
+   * Withdraws these metrics from the platform MBean server, if they were
+   * published.
+   */
+  public synchronized void unregister() {
+    if (registeredName == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+    } catch (JMException e) {
+      // Already withdrawn by another generator.
+    }
+    registeredName = null;
+  }
+
+  /**
+   * Records that a generation step finished.
+   *
+   * @param outputNanos  the time spent selecting and writing output tests
+   */
+  public void stepFinished(long outputNanos) {
+    steps.incrementAndGet();
+    this.outputNanos.addAndGet(outputNanos);
+  }
+
+  /**
+   * Records the outcome of a step.
+   *
+   * @param outcome  the outcome
+   */
+  public void outcome(OperationStatistics.Outcome outcome) {
+    outcomes.incrementAndGet(outcome.ordinal());
+  }
+
+  /**
+   * Records the time spent building a sequence that was not executed.
+   *
+   * @param generationNanos  the time spent building the sequence
+   */
+  public void generated(long generationNanos) {
+    this.generationNanos.addAndGet(generationNanos);
+  }
+
+  /**
+   * Records the times spent on a sequence that was executed.
+   *
+   * @param operation  the last operation of the sequence
+   * @param generationNanos  the time spent building the sequence
+   * @param executionNanos  the time spent executing the sequence
+   * @param checkingNanos  the time spent checking the execution
+   */
+  public void executed(
+      ConcreteOperation operation, long generationNanos, long executionNanos, long checkingNanos) {
+    this.generationNanos.addAndGet(generationNanos);
+    this.executionNanos.addAndGet(executionNanos);
+    this.checkingNanos.addAndGet(checkingNanos);
+
+    AtomicLongArray histogram = latencies.get(operation);
+    if (histogram == null) {
+      AtomicLongArray newHistogram = new AtomicLongArray(LATENCY_BUCKETS);
+      histogram = latencies.putIfAbsent(operation, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+    long micros = TimeUnit.NANOSECONDS.toMicros(executionNanos);
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    histogram.incrementAndGet(Math.min(bucket, LATENCY_BUCKETS - 1));
+  }
+
+  @Override
+  public long getSteps() {
+    return steps.get();
+  }
+
+  @Override
+  public double getStepsPerSecond() {
+    return steps.get() / seconds(System.nanoTime() - startNanos);
+  }
+
+  @Override
+  public synchronized double getRecentStepsPerSecond() {
+    long now = System.nanoTime();
+    long currentSteps = steps.get();
+    double rate = (currentSteps - sampleSteps) / seconds(now - sampleNanos);
+    sampleSteps = currentSteps;
+    sampleNanos = now;
+    return rate;
+  }
+
+  @Override
+  public long getInputSelectionFailures() {
+    return outcomes.get(OperationStatistics.Outcome.INPUTS_NOT_FOUND.ordinal());
+  }
+
+  @Override
+  public double getDuplicateRate() {
+    long n = steps.get();
+    if (n == 0) {
+      return 0;
+    }
+    return outcomes.get(OperationStatistics.Outcome.DUPLICATE.ordinal()) / (double) n;
+  }
+
+  @Override
+  public Map<String, Long> getOutcomeCounts() {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    for (OperationStatistics.Outcome outcome : OperationStatistics.Outcome.values()) {
+      counts.put(outcome.name(), outcomes.get(outcome.ordinal()));
+    }
+    return counts;
+  }
+
+  @Override
+  public Map<String, long[]> getExecutionLatencyHistograms() {
+    Map<String, long[]> histograms = new LinkedHashMap<>();
+    for (Map.Entry<ConcreteOperation, AtomicLongArray> entry : latencies.entrySet()) {
+      AtomicLongArray histogram = entry.getValue();
+      long[] counts = new long[histogram.length()];
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = histogram.get(i);
+      }
+      histograms.put(entry.getKey().toParseableString(), counts);
+    }
+    return histograms;
+  }
+
+  @Override
+  public Map<String, Integer> getPoolSizes() {
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    ComponentManager componentManager = generator.componentManager;
+    if (componentManager != null) {
+      for (Map.Entry<ConcreteType, Integer> entry :
+          componentManager.getSequenceCounts().entrySet()) {
+        sizes.put(entry.getKey().getName(), entry.getValue());
+      }
+    }
+    return sizes;
+  }
+
+  @Override
+  public long getCoveredBlocks() {
+    return BranchCoverageMap.getCoveredCount();
+  }
+
+  @Override
+  public long getGcCount() {
+    return totalGcCount() - startGcCount;
+  }
+
+  @Override
+  public double getGcTimeFraction() {
+    double elapsed = seconds(System.nanoTime() - startNanos);
+    return (totalGcMillis() - startGcMillis) / 1000.0 / elapsed;
+  }
+
+  @Override
+  public double getGenerationSeconds() {
+    return seconds(generationNanos.get());
+  }
+
+  @Override
+  public double getExecutionSeconds() {
+    return seconds(executionNanos.get());
+  }
+
+  @Override
+  public double getCheckingSeconds() {
+    return seconds(checkingNanos.get());
+  }
+
+  @Override
+  public double getOutputSeconds() {
+    return seconds(outputNanos.get());
+  }
+
+  // Converts nanoseconds to seconds, never returning 0 so that it can be
+  // used as a divisor.
+  private static double seconds(long nanos) {
+    return Math.max(nanos, 1) / 1e9;
+  }
+
+  private static long totalGcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(gc.getCollectionCount(), 0);
+    }
+    return count;
+  }
+
+  private static long totalGcMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(gc.getCollectionTime(), 0);
+    }
+    return millis;
+  }
+}
@@ -0,0 +1,69 @@
+package main.java.randoop.generation;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link GenerationMetrics}, which a JMX client
+ * such as <code>jconsole</code> can read while Randoop generates tests. Times
+ * are in seconds, and counts are since the start of generation.
+ */
+public interface GenerationMetricsMXBean {
+
+  /** @return the number of generation steps completed */
+  long getSteps();
+
+  /** @return the average number of steps per second since the start */
+  double getStepsPerSecond();
+
+  /**
+   * @return the number of steps per second since the previous call of this
+   *         method, or since the start for the first call
+   */
+  double getRecentStepsPerSecond();
+
+  /** @return the number of steps that found no inputs for their operation */
+  long getInputSelectionFailures();
+
+  /** @return the fraction of steps that built a sequence built before */
+  double getDuplicateRate();
+
+  /** @return the number of steps with each outcome */
+  Map<String, Long> getOutcomeCounts();
+
+  /**
+   * Returns a histogram of the execution times of the sequences that end
+   * with each operation. Element <code>i</code> of a histogram counts the
+   * executions that took less than <code>2^i</code> microseconds, and at
+   * least <code>2^(i-1)</code>; the last element also counts the longer ones.
+   *
+   * @return a map from each executed operation to its histogram
+   */
+  Map<String, long[]> getExecutionLatencyHistograms();
+
+  /** @return the number of components that create values of each type */
+  Map<String, Integer> getPoolSizes();
+
+  /**
+   * @return the number of basic blocks covered, when Randoop runs with the
+   *         branch-coverage agent, and 0 otherwise
+   */
+  long getCoveredBlocks();
+
+  /** @return the number of garbage collections since the start */
+  long getGcCount();
+
+  /** @return the fraction of the time since the start spent in garbage collection */
+  double getGcTimeFraction();
+
+  /** @return the time spent building new sequences */
+  double getGenerationSeconds();
+
+  /** @return the time spent executing new sequences */
+  double getExecutionSeconds();
+
+  /** @return the time spent checking the executions of new sequences */
+  double getCheckingSeconds();
+
+  /** @return the time spent selecting and writing output tests */
+  double getOutputSeconds();
+}
@@ -0,0 +1,150 @@
+package main.java.randoop.generation;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import main.java.randoop.types.PrimitiveTypes;
+
+/**
+ * Matches objects by the shape of the heap reachable from them: the classes
+ * of the objects, the values of their primitive and string fields, and which
+ * references point to the same object, up to a given number of references
+ * from the matched object. Unlike {@link EqualsMethodMatcher}, it does not
+ * run code of the classes under test, and it keeps only a string form of
+ * each shape rather than the objects themselves.
+ *
+ * An object with a field that cannot be read by reflection is always
+ * considered new.
+ */
+public class HeapShapeMatcher implements StateMatcher {
+
+  // Thrown when a field of an object cannot be read.
+  private static final class InaccessibleFieldException extends Exception {
+    private static final long serialVersionUID = 1L;
+  }
+
+  private final int depth;
+
+  private final Set<String> shapes = new HashSet<>();
+
+  // The instance fields of each class, including inherited ones, or null if
+  // some of them cannot be made accessible.
+  private final Map<Class<?>, Field[]> fields = new HashMap<>();
+
+  /**
+   * Create a matcher that follows the given number of references from each
+   * matched object.
+   *
+   * @param depth  the number of references to follow
+   */
+  public HeapShapeMatcher(int depth) {
+    if (depth < 0) throw new IllegalArgumentException("depth must be non-negative: " + depth);
+    this.depth = depth;
+  }
+
+  @Override
+  public synchronized boolean add(Object object) {
+    StringBuilder shape = new StringBuilder();
+    try {
+      appendShape(shape, object, depth, new IdentityHashMap<Object, Integer>());
+    } catch (InaccessibleFieldException e) {
+      return true;
+    }
+    return shapes.add(shape.toString());
+  }
+
+  @Override
+  public synchronized int size() {
+    return shapes.size();
+  }
+
+  // Appends the shape of the given object. An object already visited is
+  // represented by the order in which it was first visited, so that aliasing
+  // is part of the shape.
+  private void appendShape(
+      StringBuilder shape, Object object, int depth, Map<Object, Integer> visited)
+      throws InaccessibleFieldException {
+    if (object == null) {
+      shape.append("null");
+      return;
+    }
+    Class<?> c = object.getClass();
+    if (PrimitiveTypes.isBoxedOrPrimitiveOrStringType(c)) {
+      String value = object.toString();
+      shape.append(c.getName()).append(':').append(value.length()).append(':').append(value);
+      return;
+    }
+    Integer index = visited.get(object);
+    if (index != null) {
+      shape.append('#').append(index);
+      return;
+    }
+    visited.put(object, visited.size());
+
+    shape.append(c.getName());
+    if (object instanceof Enum) {
+      shape.append('.').append(((Enum<?>) object).name());
+      return;
+    }
+    if (object instanceof Class) {
+      shape.append(':').append(((Class<?>) object).getName());
+      return;
+    }
+    if (depth == 0) {
+      return;
+    }
+
+    shape.append('{');
+    if (c.isArray()) {
+      int length = Array.getLength(object);
+      shape.append(length).append(':');
+      for (int i = 0; i < length; i++) {
+        appendShape(shape, Array.get(object, i), depth - 1, visited);
+        shape.append(',');
+      }
+    } else {
+      for (Field field : getFields(c)) {
+        try {
+          appendShape(shape, field.get(object), depth - 1, visited);
+        } catch (IllegalAccessException e) {
+          throw new InaccessibleFieldException();
+        }
+        shape.append(',');
+      }
+    }
+    shape.append('}');
+  }
+
+  private Field[] getFields(Class<?> c) throws InaccessibleFieldException {
+    if (!fields.containsKey(c)) {
+      List<Field> instanceFields = new ArrayList<>();
+      try {
+        for (Class<?> k = c; k != null; k = k.getSuperclass()) {
+          for (Field field : k.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+              field.setAccessible(true);
+              instanceFields.add(field);
+            }
+          }
+        }
+        fields.put(c, instanceFields.toArray(new Field[instanceFields.size()]));
+      } catch (RuntimeException e) {
+        // A security manager, or a module that does not open the package.
+        fields.put(c, null);
+      }
+    }
+    Field[] result = fields.get(c);
+    if (result == null) {
+      throw new InaccessibleFieldException();
+    }
+    return result;
+  }
+}
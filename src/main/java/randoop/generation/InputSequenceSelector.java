@@ -0,0 +1,58 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.util.SimpleList;
+
+/**
+ * Chooses the sequences that {@link ForwardGenerator} concatenates to build
+ * the inputs of a new sequence.
+ *
+ * The generator asks for one sequence from a list of candidates each time
+ * it needs a value of a given type, and reports every sequence it adds to the
+ * component pool, so that a selector can keep its own state about the pool.
+ * A selector is shared by all generation threads.
+ *
+ * @see GenInputsAbstract#input_selection
+ */
+public abstract class InputSequenceSelector {
+
+  /**
+   * Selects a sequence from the given candidates.
+   *
+   * @param candidates  the non-empty list of candidate sequences
+   * @return the selected sequence
+   */
+  public abstract Sequence selectSequence(SimpleList<Sequence> candidates);
+
+  /**
+   * Called before the generator adds a new sequence to the component pool.
+   * Does nothing by default.
+   *
+   * @param sequence  the new sequence
+   * @param newCoverage  the number of coverage items, such as operations, that
+   *          the sequence covered for the first time
+   */
+  public void createdSequence(Sequence sequence, int newCoverage) {}
+
+  /**
+   * Returns the selector for the given mode.
+   *
+   * @param mode  the selection mode
+   * @return a new selector
+   */
+  public static InputSequenceSelector create(GenInputsAbstract.InputSelectionMode mode) {
+    switch (mode) {
+      case UNIFORM:
+        return new UniformInputSequenceSelector();
+      case SMALL_TESTS:
+        return new SmallTestsInputSequenceSelector();
+      case RECENCY:
+        return new RecencyInputSequenceSelector();
+      case COVERAGE:
+        return new CoverageInputSequenceSelector();
+      default:
+        throw new IllegalArgumentException("unknown input selection mode: " + mode);
+    }
+  }
+}
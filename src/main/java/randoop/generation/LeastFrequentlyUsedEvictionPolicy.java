@@ -0,0 +1,17 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Evicts the components that were used as inputs least often. The frequency
+ * of a component is its number of uses divided by its age, both counted from
+ * one, so that a new component is not evicted just because it has not had a
+ * chance to be used yet.
+ */
+public class LeastFrequentlyUsedEvictionPolicy extends ComponentEvictionPolicy {
+
+  @Override
+  protected double score(Sequence sequence) {
+    return (getUses(sequence) + 1) / (double) (getAge(sequence) + 1);
+  }
+}
@@ -0,0 +1,16 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Evicts the components that were used as inputs least recently (see
+ * {@link Sequence#lastTimeUsed}), or created least recently if they were
+ * never used.
+ */
+public class LeastRecentlyUsedEvictionPolicy extends ComponentEvictionPolicy {
+
+  @Override
+  protected double score(Sequence sequence) {
+    return sequence.lastTimeUsed;
+  }
+}
@@ -0,0 +1,18 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Evicts the components whose uses as inputs led to the fewest new
+ * components. The yield of a component is the number of new components built
+ * from it divided by its number of uses, both counted from one, so that a
+ * component that has not been used yet has the same yield as one that
+ * always led to a new component.
+ */
+public class LowestYieldEvictionPolicy extends ComponentEvictionPolicy {
+
+  @Override
+  protected double score(Sequence sequence) {
+    return (getYields(sequence) + 1) / (double) (getUses(sequence) + 1);
+  }
+}
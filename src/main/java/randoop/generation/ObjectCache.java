@@ -1,18 +1,63 @@
 package main.java.randoop.generation;
 
 import main.java.randoop.NormalExecution;
+import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.sequence.ExecutableSequence;
 import main.java.randoop.util.Log;
 
+/**
+ * Deactivates the values of executed sequences that are in the same state as
+ * a value created before, as decided by a {@link StateMatcher}, so that they
+ * are not used as inputs to new sequences. The cache is shared by all
+ * generation threads, and counts how many values and sequences it kept out of
+ * the component pool.
+ *
+ * @see GenInputsAbstract#state_matching
+ */
 public class ObjectCache {
 
   private StateMatcher sm;
 
+  private long matchedValues = 0;
+
+  private long discardedSequences = 0;
+
   public ObjectCache(StateMatcher sm) {
     this.sm = sm;
   }
 
-  public void setActiveFlags(ExecutableSequence sequence, int i) {
+  /**
+   * Returns the cache for the given mode.
+   *
+   * @param mode  the state matching mode
+   * @param depth  the depth of the heap shapes, for
+   *          {@link GenInputsAbstract.StateMatchingMode#HEAP_SHAPE}
+   * @return a new cache, or null if <code>mode</code> is
+   *         {@link GenInputsAbstract.StateMatchingMode#NONE}
+   */
+  public static ObjectCache create(GenInputsAbstract.StateMatchingMode mode, int depth) {
+    switch (mode) {
+      case NONE:
+        return null;
+      case EQUALS:
+        return new ObjectCache(new EqualsMethodMatcher());
+      case HEAP_SHAPE:
+        return new ObjectCache(new HeapShapeMatcher(depth));
+      default:
+        throw new IllegalArgumentException("unknown state matching mode: " + mode);
+    }
+  }
+
+  /**
+   * Clears the active flag of the i-th value of the given sequence if an
+   * equal value was seen before. The value is matched without holding the
+   * lock of this cache, since the matcher may run code under test.
+   *
+   * @param sequence  the executed sequence
+   * @param i  the index of a value that executed normally
+   * @return true if the flag was cleared
+   */
+  public boolean setActiveFlags(ExecutableSequence sequence, int i) {
 
     assert sequence.getResult(i) instanceof NormalExecution;
     NormalExecution e = (NormalExecution) sequence.getResult(i);
@@ -28,10 +73,52 @@ public class ObjectCache {
                 + "th output).");
       }
       sequence.sequence.clearActiveFlag(i);
+      synchronized (this) {
+        matchedValues++;
+      }
+      return true;
     } else {
       if (Log.isLoggingOn()) {
         Log.logLine("Making index " + i + " active (new value)");
       }
+      return false;
     }
   }
+
+  /**
+   * Records that a sequence was not added to the component pool because all
+   * of its values matched values seen before.
+   */
+  public synchronized void sequenceDiscarded() {
+    discardedSequences++;
+  }
+
+  /**
+   * Returns the number of values deactivated because they matched a value
+   * seen before.
+   *
+   * @return the number of matched values
+   */
+  public synchronized long getMatchedValues() {
+    return matchedValues;
+  }
+
+  /**
+   * Returns the number of sequences kept out of the component pool because
+   * all of their values matched values seen before.
+   *
+   * @return the number of discarded sequences
+   */
+  public synchronized long getDiscardedSequences() {
+    return discardedSequences;
+  }
+
+  /**
+   * Returns the number of distinct states seen.
+   *
+   * @return the number of states seen
+   */
+  public int size() {
+    return sm.size();
+  }
 }
@@ -0,0 +1,54 @@
+package main.java.randoop.generation;
+
+import java.util.List;
+
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.operation.ConcreteOperation;
+
+/**
+ * Chooses the operation that {@link ForwardGenerator} calls at the end of
+ * the next new sequence.
+ *
+ * The generator reports each outcome of an operation, so that a selector can
+ * adapt to how productive the operation has been. A selector is shared by all
+ * generation threads.
+ *
+ * @see GenInputsAbstract#operation_selection
+ */
+public abstract class OperationSelector {
+
+  /**
+   * Selects an operation from the given operations.
+   *
+   * @param operations  the non-empty list of operations
+   * @return the selected operation
+   */
+  public abstract ConcreteOperation selectOperation(List<ConcreteOperation> operations);
+
+  /**
+   * Called after the generator recorded an outcome of the given operation in
+   * its {@link OperationStatistics}. Does nothing by default.
+   *
+   * @param operation  the operation
+   */
+  public void outcomeRecorded(ConcreteOperation operation) {}
+
+  /**
+   * Returns the selector for the given mode.
+   *
+   * @param mode  the selection mode
+   * @param statistics  the statistics that the generator records
+   * @return a new selector
+   */
+  public static OperationSelector create(
+      GenInputsAbstract.OperationSelectionMode mode, OperationStatistics statistics) {
+    switch (mode) {
+      case UNIFORM:
+        return new UniformOperationSelector();
+      case BANDIT:
+        return new BanditOperationSelector(statistics);
+      default:
+        throw new IllegalArgumentException("unknown operation selection mode: " + mode);
+    }
+  }
+}
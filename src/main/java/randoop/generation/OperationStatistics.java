@@ -0,0 +1,216 @@
+package main.java.randoop.generation;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.sequence.ExecutableSequence;
+
+/**
+ * Counts, for each operation, how often {@link ForwardGenerator} selected it
+ * and what became of the sequences it tried to build with it: whether inputs
+ * were found, whether the new sequence was a duplicate, how it executed, how
+ * long it took, and whether it was added to the component pool.
+ *
+ * The statistics are updated by all generation threads.
+ */
+public class OperationStatistics {
+
+  /**
+   * The outcome of an attempt to build and execute a sequence that ends with
+   * an operation.
+   */
+  public enum Outcome {
+    /** no input sequences were found for the operation */
+    INPUTS_NOT_FOUND,
+    /** the new sequence exceeded the maximum sequence size */
+    TOO_LARGE,
+    /** the new sequence was generated before */
+    DUPLICATE,
+    /** the new sequence was not executed */
+    NOT_EXECUTED,
+    /** the new sequence executed normally */
+    NORMAL,
+    /** the new sequence threw an exception that is expected behavior */
+    EXCEPTION,
+    /** the new sequence revealed an error */
+    FAILURE,
+    /** the new sequence had invalid behavior */
+    INVALID;
+
+    /**
+     * Returns the outcome of the given executed sequence.
+     *
+     * @param eSeq  the executed sequence
+     * @return the outcome of the execution
+     */
+    public static Outcome of(ExecutableSequence eSeq) {
+      if (eSeq.hasFailure()) return FAILURE;
+      if (eSeq.hasInvalidBehavior()) return INVALID;
+      if (eSeq.isNormalExecution()) return NORMAL;
+      return EXCEPTION;
+    }
+  }
+
+  /**
+   * The statistics of one operation.
+   */
+  public static final class Entry {
+
+    private long selections = 0;
+
+    private final long[] outcomes = new long[Outcome.values().length];
+
+    private long newComponents = 0;
+
+    private long executions = 0;
+
+    private long executionNanos = 0;
+
+    /** @return the number of times the operation was selected */
+    public synchronized long getSelections() {
+      return selections;
+    }
+
+    /**
+     * @param outcome  an outcome
+     * @return the number of attempts with the operation that had the outcome
+     */
+    public synchronized long getCount(Outcome outcome) {
+      return outcomes[outcome.ordinal()];
+    }
+
+    /**
+     * @return the number of sequences ending with the operation that were
+     *         added to the component pool
+     */
+    public synchronized long getNewComponents() {
+      return newComponents;
+    }
+
+    /** @return the number of executed sequences ending with the operation */
+    public synchronized long getExecutions() {
+      return executions;
+    }
+
+    /**
+     * @return the average execution time of the sequences ending with the
+     *         operation, in nanoseconds, or 0 if none was executed
+     */
+    public synchronized double getAverageExecutionNanos() {
+      return executions == 0 ? 0 : executionNanos / (double) executions;
+    }
+  }
+
+  private final Map<ConcreteOperation, Entry> entries = new ConcurrentHashMap<>();
+
+  // The operations in the order they were first selected.
+  private final List<ConcreteOperation> order = new ArrayList<>();
+
+  /**
+   * Returns the statistics of the given operation.
+   *
+   * @param operation  the operation
+   * @return the statistics of the operation, all zero if it was never selected
+   */
+  public Entry getEntry(ConcreteOperation operation) {
+    Entry entry = entries.get(operation);
+    if (entry == null) {
+      synchronized (order) {
+        entry = entries.get(operation);
+        if (entry == null) {
+          entry = new Entry();
+          entries.put(operation, entry);
+          order.add(operation);
+        }
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Records that the given operation was selected for a new sequence.
+   *
+   * @param operation  the selected operation
+   */
+  public void selected(ConcreteOperation operation) {
+    Entry entry = getEntry(operation);
+    synchronized (entry) {
+      entry.selections++;
+    }
+  }
+
+  /**
+   * Records the outcome of an attempt with the given operation that did not
+   * execute a sequence.
+   *
+   * @param operation  the selected operation
+   * @param outcome  the outcome of the attempt
+   */
+  public void record(ConcreteOperation operation, Outcome outcome) {
+    Entry entry = getEntry(operation);
+    synchronized (entry) {
+      entry.outcomes[outcome.ordinal()]++;
+    }
+  }
+
+  /**
+   * Records the execution of a new sequence that ends with the given operation.
+   *
+   * @param operation  the selected operation
+   * @param outcome  the outcome of the execution
+   * @param nanos  the execution time of the sequence, in nanoseconds
+   * @param addedToComponents  whether the sequence was added to the component
+   *          pool
+   */
+  public void recordExecution(
+      ConcreteOperation operation, Outcome outcome, long nanos, boolean addedToComponents) {
+    Entry entry = getEntry(operation);
+    synchronized (entry) {
+      entry.outcomes[outcome.ordinal()]++;
+      entry.executions++;
+      entry.executionNanos += nanos;
+      if (addedToComponents) {
+        entry.newComponents++;
+      }
+    }
+  }
+
+  /**
+   * Writes the statistics as comma-separated values, with a header line and
+   * one line per operation, in the order the operations were first selected.
+   *
+   * @param out  the stream to write to
+   */
+  public void write(PrintStream out) {
+    StringBuilder header = new StringBuilder("operation,selections");
+    for (Outcome outcome : Outcome.values()) {
+      header.append(',').append(outcome.name().toLowerCase(Locale.ROOT));
+    }
+    header.append(",new_components,average_execution_nanos");
+    out.println(header);
+
+    List<ConcreteOperation> operations;
+    synchronized (order) {
+      operations = new ArrayList<>(order);
+    }
+    for (ConcreteOperation operation : operations) {
+      Entry entry = entries.get(operation);
+      StringBuilder line = new StringBuilder();
+      line.append('"').append(operation.toString().replace("\"", "\"\"")).append('"');
+      synchronized (entry) {
+        line.append(',').append(entry.selections);
+        for (long count : entry.outcomes) {
+          line.append(',').append(count);
+        }
+        line.append(',').append(entry.newComponents);
+        line.append(',').append(Math.round(entry.getAverageExecutionNanos()));
+      }
+      out.println(line);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.util.SimpleList;
+
+/**
+ * Favors sequences that have not been used as inputs recently. The weight of
+ * a sequence halves for each second between a base time and the time at which
+ * the sequence was last used (see {@link Sequence#lastTimeUsed}), or created
+ * if it was never used. So the ratio of the weights of two sequences only
+ * depends on how long apart they were last used, however long Randoop has
+ * been running, and using a sequence lowers its weight, as stored weights
+ * require.
+ * <p>
+ * To keep the weights in range, the base time is moved to the current time
+ * every 16 seconds, and the stored weights are computed again. Sequences last
+ * used more than 16 seconds before the base time all have the largest weight.
+ */
+public class RecencyInputSequenceSelector extends WeightedInputSequenceSelector {
+
+  // The time between the uses of two sequences whose weights differ by 2.
+  private static final double HALF_WEIGHT_MILLIS = 1000;
+
+  // The number of half-lives after which the base time is moved.
+  private static final int REBASE_HALF_LIVES = 16;
+
+  // The time from which the age of a use is measured.
+  private volatile double baseTime = System.currentTimeMillis();
+
+  @Override
+  public Sequence selectSequence(SimpleList<Sequence> candidates) {
+    double now = System.currentTimeMillis();
+    synchronized (this) {
+      if (now - baseTime > REBASE_HALF_LIVES * HALF_WEIGHT_MILLIS) {
+        baseTime = now;
+        resetWeights();
+      }
+    }
+    return super.selectSequence(candidates);
+  }
+
+  @Override
+  protected double weight(Sequence sequence) {
+    double halfLives = (baseTime - sequence.lastTimeUsed) / HALF_WEIGHT_MILLIS;
+    return Math.pow(2, Math.max(-REBASE_HALF_LIVES, Math.min(REBASE_HALF_LIVES, halfLives)));
+  }
+}
@@ -0,0 +1,72 @@
+package main.java.randoop.generation;
+
+import java.util.Collections;
+import java.util.Set;
+
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * A set of sequences that {@link ForwardGenerator} uses to recognize a
+ * sequence it generated before, and an input sequence that is part of a
+ * longer test. Implementations differ in what they keep of each sequence.
+ *
+ * @see GenInputsAbstract#duplicate_detection
+ */
+public abstract class SequenceSet {
+
+  /**
+   * Adds the given sequence to this set.
+   *
+   * @param sequence  the sequence to add
+   * @return true if the sequence was not in this set
+   */
+  public abstract boolean add(Sequence sequence);
+
+  /**
+   * Tests whether the given sequence is in this set.
+   *
+   * @param sequence  the sequence to look for
+   * @return true if the sequence is in this set
+   */
+  public abstract boolean contains(Sequence sequence);
+
+  /**
+   * Returns the number of sequences added to this set.
+   *
+   * @return the number of sequences in this set
+   */
+  public abstract int size();
+
+  /**
+   * Returns the sequences in this set, if this set keeps them, and an empty
+   * set otherwise.
+   *
+   * @return the sequences in this set
+   */
+  public Set<Sequence> getSequences() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * Returns an empty set for the given mode.
+   *
+   * @param mode  how the set recognizes sequences
+   * @param concurrent  whether the set is shared by several threads
+   * @return a new empty set
+   */
+  public static SequenceSet create(
+      GenInputsAbstract.DuplicateDetectionMode mode, boolean concurrent) {
+    switch (mode) {
+      case SEQUENCES:
+        return new ExactSequenceSet(concurrent);
+      case FINGERPRINTS:
+        return new FingerprintSequenceSet(concurrent);
+      case BLOOM:
+        return new BloomSequenceSet(
+            GenInputsAbstract.bloom_capacity, GenInputsAbstract.bloom_false_positive_rate);
+      default:
+        throw new IllegalArgumentException("unknown duplicate detection mode: " + mode);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.sequence.Sequence;
+
+/**
+ * Favors shorter sequences: selects a candidate sequence with probability
+ * proportional to the inverse of its size (see {@link Sequence#getWeight()}).
+ */
+public class SmallTestsInputSequenceSelector extends WeightedInputSequenceSelector {
+
+  @Override
+  protected double weight(Sequence sequence) {
+    return sequence.getWeight();
+  }
+}
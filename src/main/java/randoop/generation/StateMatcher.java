@@ -1,5 +1,10 @@
 package main.java.randoop.generation;
 
+/**
+ * Decides whether an object is in the same state as an object seen before.
+ * A matcher is shared by all generation threads, so implementations must be
+ * thread-safe.
+ */
 public interface StateMatcher {
 
   boolean add(Object object);
@@ -0,0 +1,16 @@
+package main.java.randoop.generation;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.util.Randomness;
+import main.java.randoop.util.SimpleList;
+
+/**
+ * Selects each candidate sequence with the same probability.
+ */
+public class UniformInputSequenceSelector extends InputSequenceSelector {
+
+  @Override
+  public Sequence selectSequence(SimpleList<Sequence> candidates) {
+    return Randomness.randomMember(candidates);
+  }
+}
@@ -0,0 +1,17 @@
+package main.java.randoop.generation;
+
+import java.util.List;
+
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.util.Randomness;
+
+/**
+ * Selects each operation with the same probability.
+ */
+public class UniformOperationSelector extends OperationSelector {
+
+  @Override
+  public ConcreteOperation selectOperation(List<ConcreteOperation> operations) {
+    return Randomness.randomMember(operations);
+  }
+}
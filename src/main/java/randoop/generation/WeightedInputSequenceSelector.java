@@ -0,0 +1,147 @@
+package main.java.randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.util.FenwickTree;
+import main.java.randoop.util.ListOfLists;
+import main.java.randoop.util.Randomness;
+import main.java.randoop.util.SimpleList;
+
+/**
+ * Selects a candidate sequence with probability proportional to its weight.
+ *
+ * <p>
+ * IMPLEMENTATION NOTE.
+ * <p>
+ *
+ * The candidates are usually a {@link ListOfLists} view over the lists of the
+ * component pool, which only grow by appending sequences. This class keeps a
+ * {@link FenwickTree} of weights for each of these lists, and extends it
+ * with the weights of new sequences when the list has grown. A selection
+ * first picks a list by its total weight and then searches its tree, so it
+ * takes time logarithmic in the number of candidates, plus linear in the
+ * number of lists.
+ *
+ * <p>
+ *
+ * The weight of a sequence may go down after it is stored in a tree, for
+ * instance when it is used. A stored weight is therefore only an upper bound:
+ * a selected sequence is kept with probability equal to its current weight
+ * divided by its stored weight, and otherwise its stored weight is corrected
+ * and the selection is repeated. This keeps the selection exact without
+ * updating every tree that holds the sequence.
+ *
+ * <p>
+ *
+ * Each tree is guarded by its own lock, so generation threads that select from
+ * different lists do not wait for each other.
+ */
+public abstract class WeightedInputSequenceSelector extends InputSequenceSelector {
+
+  // The trees for the lists seen so far; discarded with their lists.
+  private final Map<SimpleList<Sequence>, FenwickTree> trees =
+      Collections.synchronizedMap(new WeakHashMap<SimpleList<Sequence>, FenwickTree>());
+
+  /**
+   * Returns the current weight of the given sequence. The weight must be
+   * positive, and should not increase after the sequence is added to the
+   * component pool, unless {@link #resetWeights()} is called. May be called
+   * by several threads at once.
+   *
+   * @param sequence  the candidate sequence
+   * @return the weight of the sequence
+   */
+  protected abstract double weight(Sequence sequence);
+
+  /**
+   * Discards the stored weights of all sequences, so that they are computed
+   * again. Called by a subclass when the weights of the sequences may have
+   * increased.
+   */
+  protected void resetWeights() {
+    trees.clear();
+  }
+
+  @Override
+  public Sequence selectSequence(SimpleList<Sequence> candidates) {
+    if (candidates == null || candidates.size() == 0)
+      throw new IllegalArgumentException("Expected non-empty list");
+    List<SimpleList<Sequence>> lists = new ArrayList<>();
+    addLists(candidates, lists);
+    List<FenwickTree> listTrees = new ArrayList<>(lists.size());
+    for (SimpleList<Sequence> l : lists) {
+      listTrees.add(treeFor(l));
+    }
+
+    double[] totals = new double[lists.size()];
+    while (true) {
+      double total = 0;
+      for (int k = 0; k < listTrees.size(); k++) {
+        FenwickTree tree = listTrees.get(k);
+        synchronized (tree) {
+          totals[k] = tree.total();
+        }
+        total += totals[k];
+      }
+      double point = Randomness.nextRandomDouble() * total;
+      int k = 0;
+      while (k < lists.size() - 1 && point >= totals[k]) {
+        point -= totals[k];
+        k++;
+      }
+      FenwickTree tree = listTrees.get(k);
+      synchronized (tree) {
+        // Another thread may have changed the tree since its total was read.
+        int index = tree.find(Math.max(0, Math.min(point, tree.total())));
+        Sequence sequence = lists.get(k).get(index);
+
+        double storedWeight = tree.get(index);
+        double currentWeight = weight(sequence);
+        if (currentWeight >= storedWeight) {
+          if (currentWeight > storedWeight) {
+            tree.set(index, currentWeight);
+          }
+          return sequence;
+        }
+        if (Randomness.nextRandomDouble() * storedWeight < currentWeight) {
+          return sequence;
+        }
+        tree.set(index, currentWeight);
+      }
+    }
+  }
+
+  // Collects the lists that make up the given list, in order.
+  private static void addLists(SimpleList<Sequence> list, List<SimpleList<Sequence>> result) {
+    if (list instanceof ListOfLists) {
+      for (SimpleList<Sequence> l : ((ListOfLists<Sequence>) list).lists) {
+        addLists(l, result);
+      }
+    } else if (list.size() > 0) {
+      result.add(list);
+    }
+  }
+
+  // Returns the tree for the given list, extended to the size of the list.
+  private FenwickTree treeFor(SimpleList<Sequence> list) {
+    FenwickTree tree;
+    synchronized (trees) {
+      tree = trees.get(list);
+      if (tree == null || tree.size() > list.size()) {
+        tree = new FenwickTree();
+        trees.put(list, tree);
+      }
+    }
+    synchronized (tree) {
+      for (int i = tree.size(); i < list.size(); i++) {
+        tree.add(weight(list.get(i)));
+      }
+    }
+    return tree;
+  }
+}
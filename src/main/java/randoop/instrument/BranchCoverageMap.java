@@ -0,0 +1,151 @@
+package main.java.randoop.instrument;
+
+import java.util.Arrays;
+
+/**
+ * The coverage map shared by the branch-coverage agent and the generator.
+ * The agent gives each basic block of each method it instruments a dense id
+ * with {@link #register(int)}, and inserts a call of {@link #hit(int)} with
+ * the id at the start of the block. Since a block that a branch jumps to is
+ * entered through that branch, covering the blocks covers the branches.
+ *
+ * <p>
+ * Each block has one byte in the map, set when the block is first covered.
+ * A call of {@link #hit(int)} for a block covered before is a single array
+ * read, so the instrumentation costs little once the code under test has
+ * been covered. The generator compares {@link #getThreadCoveredCount()}
+ * before and after executing a sequence to find how many blocks the sequence
+ * covered for the first time. Each generation thread calls
+ * {@link #startThreadCount()}, and a block is credited to the count of the
+ * thread that covered it, which threads share with the threads they start.
+ * So the blocks covered by the threads that execute code under test for a
+ * generation thread are credited to that generation thread, and not to the
+ * sequences other generation threads execute at the same time.
+ *
+ * <p>
+ * The map is split into pages that are allocated as ids are assigned, so
+ * that growing it never loses the blocks covered concurrently.
+ */
+public final class BranchCoverageMap {
+
+  // The number of bits of an id that index within a page.
+  private static final int PAGE_BITS = 16;
+
+  // The number of blocks of a page.
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+  // The pages of the map. Replaced, not modified, when a page is added.
+  private static volatile byte[][] pages = new byte[0][];
+
+  // The number of ids assigned, guarded by the class lock.
+  private static int size = 0;
+
+  // The number of blocks covered, written under the class lock.
+  private static volatile long covered = 0;
+
+  // The count of blocks covered by each thread, shared with the threads it
+  // starts. Accessed under the class lock.
+  private static final InheritableThreadLocal<long[]> threadCovered =
+      new InheritableThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+          return new long[1];
+        }
+      };
+
+  private BranchCoverageMap() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /**
+   * Assigns consecutive ids to the given number of blocks.
+   *
+   * @param blocks  the number of blocks, such as the basic blocks of a method
+   * @return the id of the first block
+   */
+  public static synchronized int register(int blocks) {
+    if (blocks < 0) {
+      throw new IllegalArgumentException("number of blocks must be non-negative: " + blocks);
+    }
+    int first = size;
+    size += blocks;
+    int lastPage = (size - 1) >>> PAGE_BITS;
+    if (blocks > 0 && lastPage >= pages.length) {
+      byte[][] newPages = Arrays.copyOf(pages, lastPage + 1);
+      for (int i = pages.length; i < newPages.length; i++) {
+        newPages[i] = new byte[PAGE_SIZE];
+      }
+      pages = newPages;
+    }
+    return first;
+  }
+
+  /**
+   * Records that the block with the given id was entered.
+   *
+   * @param id  the id of the block
+   */
+  public static void hit(int id) {
+    if (pages[id >>> PAGE_BITS][id & (PAGE_SIZE - 1)] == 0) {
+      cover(id);
+    }
+  }
+
+  // Records that the block with the given id was covered for the first time.
+  private static synchronized void cover(int id) {
+    byte[] page = pages[id >>> PAGE_BITS];
+    if (page[id & (PAGE_SIZE - 1)] == 0) {
+      page[id & (PAGE_SIZE - 1)] = 1;
+      covered++;
+      threadCovered.get()[0]++;
+    }
+  }
+
+  /**
+   * Returns the number of blocks registered by the agent, which is 0 when
+   * Randoop runs without the branch-coverage agent.
+   *
+   * @return the number of blocks registered
+   */
+  public static synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of blocks covered so far.
+   *
+   * @return the number of blocks covered
+   */
+  public static long getCoveredCount() {
+    return covered;
+  }
+
+  /**
+   * Starts a separate count of covered blocks for the current thread, shared
+   * with the threads it starts from now on. Without it, a thread shares the
+   * count of the thread that started it.
+   */
+  public static synchronized void startThreadCount() {
+    threadCovered.set(new long[1]);
+  }
+
+  /**
+   * Returns the number of blocks covered so far by the threads that share the
+   * count of the current thread.
+   *
+   * @return the number of blocks covered in the count of the current thread
+   */
+  public static synchronized long getThreadCoveredCount() {
+    return threadCovered.get()[0];
+  }
+
+  /**
+   * Indicates whether the block with the given id was covered.
+   *
+   * @param id  the id of the block
+   * @return true if the block was covered
+   */
+  public static boolean isCovered(int id) {
+    return pages[id >>> PAGE_BITS][id & (PAGE_SIZE - 1)] != 0;
+  }
+}
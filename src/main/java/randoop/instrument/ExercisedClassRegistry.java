@@ -0,0 +1,105 @@
+package main.java.randoop.instrument;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The registry of the classes instrumented by the exercised-class agent. The
+ * agent gives each class it instruments a dense id with
+ * {@link #register(String)}, and the instrumented methods and constructors
+ * call {@link #mark(int)} with the id of their class, which sets the bit of
+ * the class in a shared bitmap. {@link ExercisedClassVisitor} reads and
+ * clears the bits of the classes it polls, a word of 64 classes at a time.
+ *
+ * <p>
+ * The bitmap is split into pages that are allocated as ids are assigned, so
+ * that growing it never loses the bits set in it concurrently.
+ */
+public final class ExercisedClassRegistry {
+
+  // The number of bits of an id that index within a page.
+  private static final int PAGE_BITS = 16;
+
+  // The number of words of a page.
+  private static final int PAGE_WORDS = 1 << (PAGE_BITS - 6);
+
+  // The pages of the bitmap. Replaced, not modified, when a page is added.
+  private static volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+
+  // The id of each registered class name, guarded by the class lock.
+  private static final Map<String, Integer> ids = new HashMap<>();
+
+  private ExercisedClassRegistry() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /**
+   * Returns the id of the named class, assigning the next id if the class
+   * has none.
+   *
+   * @param className  the binary name of the class
+   * @return the id of the class
+   */
+  public static synchronized int register(String className) {
+    Integer id = ids.get(className);
+    if (id != null) {
+      return id;
+    }
+    int newId = ids.size();
+    int page = newId >>> PAGE_BITS;
+    if (page >= pages.length) {
+      AtomicLongArray[] newPages = Arrays.copyOf(pages, page + 1);
+      newPages[page] = new AtomicLongArray(PAGE_WORDS);
+      pages = newPages;
+    }
+    ids.put(className, newId);
+    return newId;
+  }
+
+  /**
+   * Returns the id of the named class.
+   *
+   * @param className  the binary name of the class
+   * @return the id of the class, or -1 if it was not registered
+   */
+  public static synchronized int getId(String className) {
+    Integer id = ids.get(className);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Records that the class with the given id was exercised.
+   *
+   * @param id  the id of the class, as returned by {@link #register(String)}
+   */
+  public static void mark(int id) {
+    AtomicLongArray page = pages[id >>> PAGE_BITS];
+    int word = (id >>> 6) & (PAGE_WORDS - 1);
+    long bit = 1L << id;
+    long bits = page.get(word);
+    while ((bits & bit) == 0 && !page.compareAndSet(word, bits, bits | bit)) {
+      bits = page.get(word);
+    }
+  }
+
+  /**
+   * Clears the given bits of a word of the bitmap. Word <code>w</code> holds
+   * the bits of ids <code>64 * w</code> to <code>64 * w + 63</code>, with the
+   * bit of id <code>i</code> at position <code>i % 64</code>.
+   *
+   * @param word  the index of the word
+   * @param mask  the bits to clear
+   * @return the bits of <code>mask</code> that were set
+   */
+  public static long checkAndReset(int word, long mask) {
+    AtomicLongArray page = pages[word >>> (PAGE_BITS - 6)];
+    int index = word & (PAGE_WORDS - 1);
+    long bits = page.get(index);
+    while ((bits & mask) != 0 && !page.compareAndSet(index, bits, bits & ~mask)) {
+      bits = page.get(index);
+    }
+    return bits & mask;
+  }
+}
@@ -2,7 +2,10 @@ package main.java.randoop.instrument;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import main.java.randoop.ExecutionVisitor;
 import main.java.randoop.sequence.ExecutableSequence;
@@ -11,11 +14,25 @@ import main.java.randoop.sequence.ExecutableSequence;
  * A {@link ExecutionVisitor} that polls a set of coverage instrumented classes
  * and adds each covered class to an {@link ExecutableSequence} after it is
  * executed.
+ *
+ * The classes registered with the {@link ExercisedClassRegistry} are polled
+ * by reading and clearing their bits in the registry, a word of 64 classes at
+ * a time. Any other class is polled by calling its
+ * <code>randoop_checkAndReset</code> method.
  */
 public class ExercisedClassVisitor implements ExecutionVisitor {
 
-  /** The classes to be polled. */
-  private Set<Class<?>> classes;
+  /** The indices of the registry words that hold the bits of polled classes. */
+  private final int[] words;
+
+  /** The bits of the polled classes in each word of {@link #words}. */
+  private final long[] masks;
+
+  /** The polled classes, by registry id. */
+  private final Map<Integer, Class<?>> registeredClasses;
+
+  /** The polling methods of the classes not in the registry. */
+  private final Map<Class<?>, Method> unregisteredClasses;
 
   /**
    * Creates a visitor to poll the given classes for coverage by sequence
@@ -25,7 +42,27 @@ public class ExercisedClassVisitor implements ExecutionVisitor {
    *          the set of classes to poll for coverage by a sequence
    */
   public ExercisedClassVisitor(Set<Class<?>> classes) {
-    this.classes = classes;
+    TreeMap<Integer, Long> wordMasks = new TreeMap<>();
+    registeredClasses = new HashMap<>();
+    unregisteredClasses = new HashMap<>();
+    for (Class<?> c : classes) {
+      int id = ExercisedClassRegistry.getId(c.getName());
+      if (id < 0) {
+        unregisteredClasses.put(c, getPollingMethod(c));
+        continue;
+      }
+      registeredClasses.put(id, c);
+      Long mask = wordMasks.get(id >>> 6);
+      wordMasks.put(id >>> 6, (mask == null ? 0 : mask) | (1L << id));
+    }
+    words = new int[wordMasks.size()];
+    masks = new long[wordMasks.size()];
+    int i = 0;
+    for (Map.Entry<Integer, Long> entry : wordMasks.entrySet()) {
+      words[i] = entry.getKey();
+      masks[i] = entry.getValue();
+      i++;
+    }
   }
 
   /**
@@ -34,29 +71,50 @@ public class ExercisedClassVisitor implements ExecutionVisitor {
    */
   @Override
   public void visitAfterSequence(ExecutableSequence executableSequence) {
-    for (Class<?> c : classes) {
-      if (checkAndReset(c)) {
-        executableSequence.addCoveredClass(c);
+    for (int i = 0; i < words.length; i++) {
+      long bits = ExercisedClassRegistry.checkAndReset(words[i], masks[i]);
+      while (bits != 0) {
+        int id = (words[i] << 6) + Long.numberOfTrailingZeros(bits);
+        executableSequence.addCoveredClass(registeredClasses.get(id));
+        bits &= bits - 1;
+      }
+    }
+    for (Map.Entry<Class<?>, Method> entry : unregisteredClasses.entrySet()) {
+      if (checkAndReset(entry.getValue())) {
+        executableSequence.addCoveredClass(entry.getKey());
       }
     }
   }
 
   /**
-   * Calls the coverage instrumentation method.
+   * Finds the coverage instrumentation method of a class.
    *
    * @param c
-   *          the class for which method is to be called
-   * @return true if the instrumentation method is true, false otherwise
+   *          the class for which method is to be found
+   * @return the instrumentation method
    */
-  private boolean checkAndReset(Class<?> c) {
+  private static Method getPollingMethod(Class<?> c) {
     try {
       Method m = c.getMethod("randoop_checkAndReset", new Class<?>[0]);
       m.setAccessible(true);
-      return (boolean) m.invoke(null, new Object[0]);
+      return m;
     } catch (NoSuchMethodException e) {
       throw new Error("Cannot find instrumentation method: " + e);
     } catch (SecurityException e) {
       throw new Error("Security error when accessing instrumentation method: " + e);
+    }
+  }
+
+  /**
+   * Calls the coverage instrumentation method.
+   *
+   * @param m
+   *          the instrumentation method of a class
+   * @return true if the instrumentation method is true, false otherwise
+   */
+  private static boolean checkAndReset(Method m) {
+    try {
+      return (boolean) m.invoke(null, new Object[0]);
     } catch (IllegalAccessException e) {
       throw new Error("Cannot access instrumentation method: " + e);
     } catch (IllegalArgumentException e) {
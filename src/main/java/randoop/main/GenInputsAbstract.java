@@ -4,8 +4,10 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -15,6 +17,7 @@ import plume.OptionGroup;
 import plume.Options;
 import plume.Unpublicized;
 
+import main.java.randoop.util.Log;
 import main.java.randoop.util.Randomness;
 import main.java.randoop.util.Util;
 
@@ -398,6 +401,15 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("A file containing literal values to be used as inputs to methods under test")
   public static List<String> literals_file = new ArrayList<>();
 
+  /**
+   * A directory in which to cache the literals that
+   * <code>--literals-file=CLASSES</code> extracts from class files. Each class
+   * file is looked up by the hash of its contents, so a later run only scans
+   * the class files that changed. If not specified, nothing is cached.
+   */
+  @Option("<dirname> Directory in which to cache literals extracted from class files")
+  public static File literals_cache = null;
+
   /**
    * How to use literal values that are specified via the
    * <code>--literals-file</code> command-line option.
@@ -471,6 +483,107 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Favor shorter tests during generation")
   public static boolean small_tests = false;
 
+  /**
+   * How to select the sequences that are combined into a new sequence.
+   *
+   * <p>
+   * Randoop builds the inputs of a new call from previously-generated
+   * sequences. By default, each candidate sequence is equally likely to be
+   * selected. The other modes weight the candidates, and select a sequence in
+   * time logarithmic in the number of candidates.
+   * </p>
+   *
+   * @see InputSelectionMode
+   */
+  @Option("How to select input sequences: UNIFORM, SMALL_TESTS, RECENCY, or COVERAGE")
+  public static InputSelectionMode input_selection = InputSelectionMode.UNIFORM;
+
+  /**
+   * The possible values of the input_selection command-line argument.
+   *
+   * @see #input_selection
+   */
+  public enum InputSelectionMode {
+    /** select each candidate sequence with the same probability */
+    UNIFORM,
+    /** favor shorter sequences; the same as <code>--small-tests</code> */
+    SMALL_TESTS,
+    /** favor sequences that have not been used as inputs recently */
+    RECENCY,
+    /**
+     * favor sequences that exercised an operation for the first time, or
+     * that covered new branches when run with the branch-coverage agent
+     */
+    COVERAGE
+  }
+
+  /**
+   * Only add sequences that cover something new to the component pool: an
+   * operation executed for the first time, or a branch taken for the first
+   * time. Requires the branch-coverage agent; if the agent is not loaded or
+   * instruments none of the classes under test, the option is ignored with a
+   * warning.
+   *
+   * <p>
+   * Tests are still output for every sequence that is executed. Combined with
+   * <code>--input-selection=COVERAGE</code>, which favors the sequences that
+   * covered the most branches, this reaches the same coverage with fewer
+   * executed sequences on code that has many branches.
+   * </p>
+   */
+  @Option("Only add sequences that cover new branches to the component pool")
+  public static boolean branch_coverage_filter = false;
+
+  /**
+   * How to select the operation that is called at the end of each new
+   * sequence.
+   *
+   * <p>
+   * By default, each operation is equally likely to be selected, even if it
+   * always throws an exception or never finds inputs. With BANDIT, Randoop
+   * keeps statistics of how often each operation yields a new sequence and how
+   * long it takes to execute, and favors cheap, productive operations.
+   * </p>
+   *
+   * @see OperationSelectionMode
+   */
+  @Option("How to select operations: UNIFORM or BANDIT")
+  public static OperationSelectionMode operation_selection = OperationSelectionMode.UNIFORM;
+
+  /**
+   * The possible values of the operation_selection command-line argument.
+   *
+   * @see #operation_selection
+   */
+  public enum OperationSelectionMode {
+    /** select each operation with the same probability */
+    UNIFORM,
+    /** favor operations that often yield new sequences and execute quickly */
+    BANDIT
+  }
+
+  /**
+   * Name of a file to which to write statistics about each operation at the
+   * end of generation, as comma-separated values: how often the operation was
+   * selected, how the attempts with it ended, how many sequences it added to
+   * the component pool, and its average execution time.
+   */
+  @Option("<filename> File to which to write per-operation statistics")
+  public static String operation_stats = null;
+
+  /**
+   * Returns the input selection mode given by <code>--input-selection</code>
+   * and <code>--small-tests</code>.
+   *
+   * @return the input selection mode
+   */
+  public static InputSelectionMode getInputSelectionMode() {
+    if (small_tests) {
+      return InputSelectionMode.SMALL_TESTS;
+    }
+    return input_selection;
+  }
+
   /**
    * Clear the component set each time it contains the given number of inputs.
    *
@@ -484,6 +597,106 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Clear the component set when it gets this big")
   public static int clear = 100000000;
 
+  /**
+   * Maximum number of component sequences that create values of each type.
+   *
+   * <p>
+   * Unlike <code>--clear</code>, which discards all components at once, a
+   * bound on the pool evicts components of a type when the type has too many,
+   * until half of the bound is left, choosing them according to
+   * <code>--component-eviction</code>. Seed sequences and literals are never
+   * evicted. A value of 0 means no bound.
+   * </p>
+   */
+  @Option("Maximum number of component sequences per type; 0 for no bound")
+  public static int component_pool_size = 0;
+
+  /**
+   * Maximum number of component sequences in all the pools together. When it
+   * is exceeded, components of any type are evicted according to
+   * <code>--component-eviction</code>, until half of the budget is left. A
+   * value of 0 means no bound.
+   *
+   * <p>
+   * The budget counts sequences, not bytes: it bounds memory use only as far
+   * as sequences have similar sizes. Seed sequences and literals count towards
+   * the budget but are never evicted.
+   * </p>
+   */
+  @Option("Maximum number of component sequences of all types; 0 for no bound")
+  public static int component_budget = 0;
+
+  /**
+   * How to choose the component sequences that are evicted when a pool
+   * exceeds <code>--component-pool-size</code> or
+   * <code>--component-budget</code>.
+   *
+   * @see EvictionPolicy
+   */
+  @Option("How to choose evicted components: LRU, LFU, or LOWEST_YIELD")
+  public static EvictionPolicy component_eviction = EvictionPolicy.LRU;
+
+  /**
+   * The possible values of the component_eviction command-line argument.
+   *
+   * @see #component_eviction
+   */
+  public enum EvictionPolicy {
+    /** evict the components that were used as inputs least recently */
+    LRU,
+    /** evict the components that were used as inputs least often */
+    LFU,
+    /**
+     * evict the components that contributed to the fewest new components
+     */
+    LOWEST_YIELD
+  }
+
+  /**
+   * How to recognize values that are equal to a value created before.
+   *
+   * <p>
+   * After a sequence executes normally, Randoop compares each object it
+   * creates with the objects created by earlier sequences. An object in the
+   * same state as an earlier one is not used as an input to new sequences,
+   * and a sequence that creates no new object is not added to the component
+   * pool. By default, no objects are compared.
+   * </p>
+   *
+   * @see StateMatchingMode
+   */
+  @Option("How to match object states: NONE, EQUALS, or HEAP_SHAPE")
+  public static StateMatchingMode state_matching = StateMatchingMode.NONE;
+
+  /**
+   * The possible values of the state_matching command-line argument.
+   *
+   * @see #state_matching
+   */
+  public enum StateMatchingMode {
+    /** consider every object new */
+    NONE,
+    /**
+     * compare objects of the same class with their <code>equals</code> and
+     * <code>hashCode</code> methods, run with <code>--timeout</code>; an
+     * object for which they throw or time out is considered new, and new
+     * objects are kept through soft references
+     */
+    EQUALS,
+    /**
+     * compare the values of the fields of objects, and of the objects they
+     * refer to, up to <code>--state-matching-depth</code>
+     */
+    HEAP_SHAPE
+  }
+
+  /**
+   * The number of references that <code>--state-matching=HEAP_SHAPE</code>
+   * follows from an object. Objects further away are compared by class only.
+   */
+  @Option("Depth of the object graphs compared by --state-matching=HEAP_SHAPE")
+  public static int state_matching_depth = 3;
+
   ///////////////////////////////////////////////////////////////////
   @OptionGroup("Outputting the JUnit tests")
 
@@ -542,6 +755,16 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("If true, use JUnit's reflective invocation; if false, use direct method calls")
   public static boolean junit_reflection_allowed = true;
 
+  /**
+   * Write each JUnit file as soon as <code>--testsperfile</code> tests are
+   * available for it, instead of keeping all tests in memory until generation
+   * ends. Reduces memory use in long runs. A test that is written before it
+   * becomes a subsequence of a later test is not removed, so the output may
+   * contain some tests that would otherwise be omitted.
+   */
+  @Option("Write JUnit files during generation instead of at the end")
+  public static boolean stream_tests = false;
+
   ///////////////////////////////////////////////////////////////////
   @OptionGroup("Runtime environment")
   // We do this rather than using java -D so that we can easily pass these
@@ -567,6 +790,70 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Capture all output to stdout and stderr")
   public static boolean capture_output = false;
 
+  /**
+   * Number of threads that generate and execute sequences concurrently. All
+   * threads share the pool of previously-generated sequences. Each thread
+   * makes its random choices with its own generator, derived from
+   * <code>--randomseed</code> and the thread's index. But what a thread
+   * chooses from depends on the sequences the other threads have added to the
+   * shared pool so far, which depends on how the threads are scheduled. So
+   * with more than one thread, the generated tests are not determined by
+   * <code>--randomseed</code>, and two runs with the same options generate
+   * different tests; only a value of 1 gives a reproducible test suite.
+   */
+  @Option("Number of concurrent generation threads; with more than 1, runs are not reproducible")
+  public static int generation_threads = 1;
+
+  /**
+   * How to recognize a sequence that was generated before, and an input
+   * sequence that is part of a longer test.
+   *
+   * <p>
+   * By default, Randoop keeps every sequence it generates. For long runs, this
+   * is the largest structure in memory. The other modes keep only a 128-bit
+   * fingerprint of each sequence, or only a Bloom filter of fixed size.
+   * </p>
+   *
+   * @see DuplicateDetectionMode
+   */
+  @Option("How to detect duplicate sequences: SEQUENCES, FINGERPRINTS, or BLOOM")
+  public static DuplicateDetectionMode duplicate_detection = DuplicateDetectionMode.SEQUENCES;
+
+  /**
+   * The possible values of the duplicate_detection command-line argument.
+   *
+   * @see #duplicate_detection
+   */
+  public enum DuplicateDetectionMode {
+    /** keep all generated sequences and compare them statement by statement */
+    SEQUENCES,
+    /** keep the fingerprint of each sequence; collisions are negligible */
+    FINGERPRINTS,
+    /**
+     * keep a Bloom filter of fingerprints, sized by
+     * <code>--bloom-capacity</code> and
+     * <code>--bloom-false-positive-rate</code>; a false positive discards a
+     * new sequence, or omits a test as if it were part of a longer one
+     */
+    BLOOM
+  }
+
+  /**
+   * The number of sequences for which the Bloom filter of
+   * <code>--duplicate-detection=BLOOM</code> is sized. With more sequences,
+   * its false-positive rate is higher than requested.
+   */
+  @Option("Number of sequences for which to size the Bloom filter")
+  public static int bloom_capacity = 1000000;
+
+  /**
+   * The false-positive rate of the Bloom filter of
+   * <code>--duplicate-detection=BLOOM</code> when it holds
+   * <code>--bloom-capacity</code> sequences.
+   */
+  @Option("False-positive rate of the Bloom filter")
+  public static double bloom_false_positive_rate = 0.000001;
+
   /**
    * The random seed to use in the generation process. Note that Randoop is
    * deterministic: running it twice will produce the same test suite. If you
@@ -586,6 +873,17 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Display progress message every <int> milliseconds")
   public static long progressinterval = 5000;
 
+  /**
+   * Publish live generation metrics through JMX, as the MXBean
+   * <code>randoop:type=GenerationMetrics</code>: steps per second, outcome
+   * counts, execution time histograms per operation, component pool sizes,
+   * garbage collection, and the time spent in generation, execution,
+   * checking and output. Connect with a JMX client such as
+   * <code>jconsole</code> while Randoop runs.
+   */
+  @Option("Publish generation metrics through JMX")
+  public static boolean jmx_metrics = false;
+
   /**
    * Install the given runtime visitor. See class randoop.ExecutionVisitor.
    */
@@ -606,6 +904,38 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("<filename> Name of a file to which to log lots of information")
   public static FileWriter log = null;
 
+  /**
+   * The categories of messages to write to the log: GENERAL, RANDOMNESS,
+   * COMPONENTS, EXECUTION, or CHECKS. May be given more than once. If not
+   * given, all categories are logged. The categories RANDOMNESS and COMPONENTS
+   * log several lines for every generated sequence.
+   *
+   * @see Log.Category
+   */
+  @Option("Category of messages to log: GENERAL, RANDOMNESS, COMPONENTS, EXECUTION, or CHECKS")
+  public static List<String> log_category = new ArrayList<>();
+
+  /**
+   * Returns the categories of messages to log, as selected by
+   * {@link #log_category}.
+   *
+   * @return the categories to log
+   */
+  public static Set<Log.Category> getLogCategories() {
+    if (log_category.isEmpty()) {
+      return EnumSet.allOf(Log.Category.class);
+    }
+    Set<Log.Category> categories = EnumSet.noneOf(Log.Category.class);
+    for (String category : log_category) {
+      try {
+        categories.add(Log.Category.valueOf(category.trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        throw new RuntimeException("Unknown log category: " + category);
+      }
+    }
+    return categories;
+  }
+
   ///////////////////////////////////////////////////////////////////
   // Options used when testing Randoop.
 
@@ -649,6 +979,52 @@ public abstract class GenInputsAbstract extends CommandHandler {
       throw new RuntimeException(
           "Invalid parameter combination: specified a class literal file but --use-class-literals=NONE");
     }
+
+    if (generation_threads <= 0) {
+      throw new RuntimeException(
+          "Number of generation threads must be greater than zero but was " + generation_threads);
+    }
+
+    if (bloom_capacity <= 0) {
+      throw new RuntimeException(
+          "Bloom filter capacity must be greater than zero but was " + bloom_capacity);
+    }
+
+    if (bloom_false_positive_rate <= 0 || bloom_false_positive_rate >= 1) {
+      throw new RuntimeException(
+          "Bloom filter false-positive rate must be between 0 and 1, exclusive, but was "
+              + bloom_false_positive_rate);
+    }
+
+    if (component_pool_size < 0) {
+      throw new RuntimeException(
+          "Component pool size must be non-negative but was " + component_pool_size);
+    }
+
+    if (component_budget < 0) {
+      throw new RuntimeException(
+          "Component budget must be non-negative but was " + component_budget);
+    }
+
+    if (state_matching_depth < 0) {
+      throw new RuntimeException(
+          "State matching depth must be non-negative but was " + state_matching_depth);
+    }
+
+    if (small_tests
+        && input_selection != InputSelectionMode.UNIFORM
+        && input_selection != InputSelectionMode.SMALL_TESTS) {
+      throw new RuntimeException(
+          "Invalid parameter combination: specified --small-tests but --input-selection="
+              + input_selection);
+    }
+
+    if (testsperfile <= 0) {
+      throw new RuntimeException(
+          "Number of tests per file must be greater than zero but was " + testsperfile);
+    }
+
+    getLogCategories();
   }
 
   public static Set<String> getClassnamesFromArgs() {
@@ -1,6 +1,8 @@
 package main.java.randoop.main;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -15,6 +17,7 @@ import java.util.regex.Pattern;
 import plume.Options;
 import plume.Options.ArgException;
 import plume.SimpleLog;
+import main.java.randoop.generation.ComponentEvictionPolicy;
 import main.java.randoop.generation.ComponentManager;
 import main.java.randoop.DummyVisitor;
 import main.java.randoop.ExecutionVisitor;
@@ -23,6 +26,7 @@ import main.java.randoop.MultiVisitor;
 import main.java.randoop.generation.RandoopListenerManager;
 import main.java.randoop.generation.SeedSequences;
 import main.java.randoop.contract.ObjectContract;
+import main.java.randoop.instrument.BranchCoverageMap;
 import main.java.randoop.instrument.ExercisedClassVisitor;
 import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.operation.Operation;
@@ -36,6 +40,8 @@ import main.java.randoop.reflection.VisibilityPredicate;
 import main.java.randoop.generation.AbstractGenerator;
 import main.java.randoop.sequence.ExecutableSequence;
 import main.java.randoop.generation.ForwardGenerator;
+import main.java.randoop.generation.ObjectCache;
+import main.java.randoop.sequence.PrefixStateCache;
 import main.java.randoop.sequence.Sequence;
 import main.java.randoop.sequence.SequenceExceptionError;
 import main.java.randoop.test.ContractCheckingVisitor;
@@ -109,6 +115,7 @@ public class GenTests extends GenInputsAbstract {
           GenTests.class,
           GenInputsAbstract.class,
           ReflectionExecutor.class,
+          PrefixStateCache.class,
           ForwardGenerator.class,
           AbstractGenerator.class);
 
@@ -130,6 +137,8 @@ public class GenTests extends GenInputsAbstract {
 
       checkOptionsValid();
 
+      Log.setCategories(GenInputsAbstract.getLogCategories());
+
       Randomness.reset(randomseed);
 
       java.security.Policy policy = java.security.Policy.getPolicy();
@@ -226,6 +235,16 @@ public class GenTests extends GenInputsAbstract {
         System.out.println("PUBLIC MEMBERS=" + model.size());
       }
 
+      // The classes under test are loaded now, so the branch-coverage agent,
+      // if it is loaded, has registered their blocks. Without them, the filter
+      // would only keep the first sequence that executes each operation.
+      if (GenInputsAbstract.branch_coverage_filter && BranchCoverageMap.size() == 0) {
+        System.out.println(
+            "WARNING: --branch-coverage-filter is ignored, because the branch-coverage agent "
+                + "is not loaded or instruments none of the classes under test.");
+        GenInputsAbstract.branch_coverage_filter = false;
+      }
+
       /*
        * Initialize components:
        * - Add default seeds for primitive types
@@ -236,6 +255,12 @@ public class GenTests extends GenInputsAbstract {
       components.addAll(operationModel.getAnnotatedTestValues());
 
       ComponentManager componentMgr = new ComponentManager(components);
+      if (GenInputsAbstract.component_pool_size > 0 || GenInputsAbstract.component_budget > 0) {
+        componentMgr.setEvictionPolicy(
+            ComponentEvictionPolicy.create(GenInputsAbstract.component_eviction),
+            GenInputsAbstract.component_pool_size,
+            GenInputsAbstract.component_budget);
+      }
       operationModel.addClassLiterals(
           componentMgr, GenInputsAbstract.literals_file, GenInputsAbstract.literals_level);
 
@@ -259,7 +284,7 @@ public class GenTests extends GenInputsAbstract {
       /*
        * Create the generator for this session.
        */
-      AbstractGenerator explorer;
+      ForwardGenerator explorer;
       explorer =
           new ForwardGenerator(
               model, observers, timelimit * 1000, inputlimit, outputlimit, componentMgr, listenerMgr);
@@ -341,6 +366,22 @@ public class GenTests extends GenInputsAbstract {
 
       explorer.addExecutionVisitor(visitor);
 
+      if (GenInputsAbstract.stream_tests && !GenInputsAbstract.dont_output_tests) {
+        JunitFileWriter errorWriter = null;
+        if (!GenInputsAbstract.no_error_revealing_tests) {
+          errorWriter =
+              new JunitFileWriter(
+                  junit_output_dir, junit_package_name, GenInputsAbstract.error_test_basename);
+        }
+        JunitFileWriter regressionWriter = null;
+        if (!GenInputsAbstract.no_regression_tests) {
+          regressionWriter =
+              new JunitFileWriter(
+                  junit_output_dir, junit_package_name, GenInputsAbstract.regression_test_basename);
+        }
+        explorer.streamTests(errorWriter, regressionWriter);
+      }
+
       if (!GenInputsAbstract.noprogressdisplay) {
         System.out.printf("Explorer = %s\n", explorer);
       }
@@ -355,9 +396,35 @@ public class GenTests extends GenInputsAbstract {
         System.exit(1);
       }
 
+      ObjectCache objectCache = explorer.getObjectCache();
+      if (objectCache != null && !GenInputsAbstract.noprogressdisplay) {
+        System.out.println("Distinct object states:" + objectCache.size());
+        System.out.println("Values deactivated by state matching:" + objectCache.getMatchedValues());
+        System.out.println(
+            "Sequences kept out of the component pool by state matching:"
+                + objectCache.getDiscardedSequences());
+      }
+
+      if (BranchCoverageMap.size() > 0 && !GenInputsAbstract.noprogressdisplay) {
+        System.out.println(
+            "Basic blocks covered:"
+                + BranchCoverageMap.getCoveredCount()
+                + "/"
+                + BranchCoverageMap.size());
+      }
+
+      if (GenInputsAbstract.operation_stats != null) {
+        writeOperationStatistics(explorer, GenInputsAbstract.operation_stats);
+      }
+
       /* post generation */
       if (GenInputsAbstract.dont_output_tests) return true;
 
+      if (GenInputsAbstract.stream_tests) {
+        outputStreamedTests(explorer);
+        return true;
+      }
+
       if (!GenInputsAbstract.no_error_revealing_tests) {
         List<ExecutableSequence> errorSequences = explorer.getErrorTestSequences();
         if (errorSequences.size() > 0) {
@@ -423,6 +490,20 @@ public class GenTests extends GenInputsAbstract {
       Log.log(String.format("Full sequence:%n%s%n", e.getSequence()));
       Log.log(String.format("Input subsequence:%n%s%n", subsequence.toCodeString()));
 
+      if (GenInputsAbstract.duplicate_detection
+          != GenInputsAbstract.DuplicateDetectionMode.SEQUENCES) {
+        // The other modes do not keep the sequences that were executed.
+        String history =
+            String.format(
+                "Operations performed since subsequence first executed are not recorded "
+                    + "with --duplicate-detection=%s.%n"
+                    + "To list them, rerun with --duplicate-detection=SEQUENCES.%n",
+                GenInputsAbstract.duplicate_detection);
+        System.out.printf(history);
+        Log.log(history);
+        return;
+      }
+
       Set<String> callSet = new TreeSet<>();
 
       Iterator<Sequence> s_i = explorer.getAllSequences().iterator();
@@ -520,6 +601,69 @@ public class GenTests extends GenInputsAbstract {
     writeJUnitTests(junit_output_dir, sequences, null, junitPrefix);
   }
 
+  /**
+   * Writes the tests that remain after generation, when tests were written
+   * during generation, together with the suite or driver files.
+   *
+   * @param explorer
+   *          the generator that wrote the tests
+   */
+  private void outputStreamedTests(ForwardGenerator explorer) {
+    List<File> files = explorer.flushStreamedTests();
+    if (!GenInputsAbstract.noprogressdisplay) {
+      if (!GenInputsAbstract.no_error_revealing_tests) {
+        System.out.printf("%nError-revealing test count: %d%n", explorer.numStreamedErrorTests());
+      }
+      if (!GenInputsAbstract.no_regression_tests) {
+        System.out.printf("Regression test count: %d%n", explorer.numStreamedRegressionTests());
+      }
+    }
+    if (!GenInputsAbstract.no_error_revealing_tests && explorer.numStreamedErrorTests() > 0) {
+      files.add(writeSuiteOrDriverFile(explorer.getErrorTestWriter()));
+    }
+    if (!GenInputsAbstract.no_regression_tests && explorer.numStreamedRegressionTests() > 0) {
+      files.add(writeSuiteOrDriverFile(explorer.getRegressionTestWriter()));
+    }
+    if (files.isEmpty()) {
+      System.out.println("No tests were created. No JUnit class created.");
+    }
+    if (!GenInputsAbstract.noprogressdisplay) {
+      System.out.println();
+      for (File f : files) {
+        System.out.println("Created file: " + f.getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * Writes the per-operation statistics of the generator to the given file.
+   *
+   * @param explorer
+   *          the generator
+   * @param filename
+   *          the name of the file to write
+   */
+  private static void writeOperationStatistics(ForwardGenerator explorer, String filename) {
+    try (PrintStream out = new PrintStream(new File(filename))) {
+      explorer.getOperationStatistics().write(out);
+    } catch (IOException e) {
+      System.out.println("Error while writing operation statistics to " + filename);
+      System.out.println("Exception message: " + e.getMessage());
+      return;
+    }
+    if (!GenInputsAbstract.noprogressdisplay) {
+      System.out.println("Wrote operation statistics to " + filename);
+    }
+  }
+
+  private static File writeSuiteOrDriverFile(JunitFileWriter jfw) {
+    if (GenInputsAbstract.junit_reflection_allowed) {
+      return jfw.writeSuiteFile(null);
+    } else {
+      return jfw.writeDriverFile();
+    }
+  }
+
   /**
    * Creates the test check generator for this run based on the command-line
    * arguments. The goal of the generator is to produce all appropriate checks
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import main.java.randoop.generation.AbstractGenerator;
+import main.java.randoop.sequence.Sequence;
 
 /**
  * Main entry point for Randoop. Asks the command handlers who can handle the
@@ -84,7 +85,9 @@ public class Main {
           if (!success) {
               System.out.println();
               System.out.println("Randoop failed.");
-              System.out.println("Last sequence under execution: " + AbstractGenerator.currSeq);
+              for (Sequence s : AbstractGenerator.getCurrentSequences()) {
+                  System.out.println("Last sequence under execution: " + s);
+              }
               System.exit(1);
           }
       }
@@ -194,6 +194,9 @@ public final class MethodCall extends CallableOperation {
   /**
    * {@inheritDoc}
    * The descriptor for a method is a string representing the method signature.
+   * The method is named by the declaring type of the operation, which is the
+   * subclass for an inherited method, so that the descriptor parses back to
+   * the same operation.
    *
    * Examples:
    *  java.util.ArrayList.get(int)
@@ -202,7 +205,7 @@ public final class MethodCall extends CallableOperation {
   @Override
   public String toParseableString(ConcreteType declaringType, ConcreteTypeTuple inputTypes, ConcreteType outputType) {
     StringBuilder sb = new StringBuilder();
-    sb.append(method.getDeclaringClass().getName()).append(".");
+    sb.append(declaringType.getRuntimeClass().getName()).append(".");
     sb.append(method.getName()).append("(");
     Class<?>[] params = method.getParameterTypes();
     TypeArguments.getTypeArgumentString(sb, params);
@@ -250,8 +253,6 @@ public final class MethodCall extends CallableOperation {
       throw new OperationParseException(msg);
     }
 
-    System.out.println("Looking for: " + opname + " args: " + arguments);
-
     Class<?>[] typeArguments = TypeArguments.getTypeArgumentsForString(arguments);
     Method m = null;
     String msg = "Method " + methodString + " not found: ";
@@ -1,10 +1,18 @@
 package main.java.randoop.reflection;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.operation.NonreceiverTerm;
@@ -18,19 +26,88 @@ import main.java.randoop.util.MultiMap;
 /**
  * {@code ClassLiteralExtractor} is a {@link ClassVisitor} that extracts literals from the bytecode
  * of each class visited, adding a sequence for each to a map associating a sequence with a type.
+ * <p>
+ * The class files are scanned in parallel, and the map is only complete after {@link #finish()}
+ * is called. The literals are added to the map in the order the classes were visited.
  */
 class ClassLiteralExtractor implements ClassVisitor {
 
   private MultiMap<ConcreteType, Sequence> literalMap;
 
-  ClassLiteralExtractor(MultiMap<ConcreteType, Sequence> literalMap) {
+  // The directory of the cache of scanned class files, or null.
+  private final File cacheDirectory;
+
+  private final ExecutorService executor;
+
+  // The scans of the visited classes, in the order the classes were visited.
+  private final List<Future<ClassFileConstants.ConstantSet>> scans = new ArrayList<>();
+
+  ClassLiteralExtractor(MultiMap<ConcreteType, Sequence> literalMap, File cacheDirectory) {
     this.literalMap = literalMap;
+    this.cacheDirectory = cacheDirectory;
+    this.executor =
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactory() {
+              @Override
+              public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "randoop-literal-extractor");
+                thread.setDaemon(true);
+                return thread;
+              }
+            });
   }
 
   @Override
-  public void visitBefore(Class<?> c) {
+  public void visitBefore(final Class<?> c) {
+    scans.add(
+        executor.submit(
+            new Callable<ClassFileConstants.ConstantSet>() {
+              @Override
+              public ClassFileConstants.ConstantSet call() {
+                return ClassFileConstants.getConstants(c.getName(), cacheDirectory);
+              }
+            }));
+  }
+
+  /**
+   * Waits for the scans of all visited classes and adds their literals to the map.
+   *
+   * @throws Error if a class file cannot be read
+   */
+  void finish() {
+    try {
+      for (Future<ClassFileConstants.ConstantSet> scan : scans) {
+        addLiterals(getScan(scan));
+      }
+    } finally {
+      scans.clear();
+      executor.shutdownNow();
+    }
+  }
+
+  private static ClassFileConstants.ConstantSet getScan(
+      Future<ClassFileConstants.ConstantSet> scan) {
+    try {
+      return scan.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new Error("Interrupted while extracting class literals", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new Error(cause);
+    }
+  }
+
+  private void addLiterals(ClassFileConstants.ConstantSet constants) {
     Collection<ClassFileConstants.ConstantSet> constList = new ArrayList<>();
-    constList.add(ClassFileConstants.getConstants(c.getName()));
+    constList.add(constants);
     MultiMap<Class<?>, NonreceiverTerm> constantMap = ClassFileConstants.toMap(constList);
     for (Class<?> constantClass : constantMap.keySet()) {
       assert constantClass.isPrimitive() : "encountered non-primitive constant type";
@@ -15,6 +15,7 @@ import main.java.randoop.contract.EqualsToNullRetFalse;
 import main.java.randoop.contract.ObjectContract;
 import main.java.randoop.generation.ComponentManager;
 import main.java.randoop.main.ClassNameErrorHandler;
+import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.operation.ConstructorCall;
 import main.java.randoop.operation.GenericOperation;
@@ -33,7 +34,6 @@ import main.java.randoop.types.Substitution;
 import main.java.randoop.types.TypeBound;
 import main.java.randoop.types.TypeNames;
 import main.java.randoop.util.MultiMap;
-import main.java.randoop.util.Randomness;
 
 import static main.java.randoop.main.GenInputsAbstract.ClassLiteralsMode;
 
@@ -124,8 +124,11 @@ public class OperationModel extends ModelCollections {
     mgr.add(new InputTypeExtractor(inputTypes));
     mgr.add(new TestValueExtractor(model.annotatedTestValues));
     mgr.add(new CheckRepExtractor(model.contracts));
+    ClassLiteralExtractor literalExtractor = null;
     if (literalsFileList.contains("CLASSES")) {
-      mgr.add(new ClassLiteralExtractor(model.classLiteralMap));
+      literalExtractor =
+          new ClassLiteralExtractor(model.classLiteralMap, GenInputsAbstract.literals_cache);
+      mgr.add(literalExtractor);
     }
 
     // Collect classes under test
@@ -160,6 +163,10 @@ public class OperationModel extends ModelCollections {
       }
     }
 
+    if (literalExtractor != null) {
+      literalExtractor.finish();
+    }
+
     // Collect exercised classes
     for (String classname : exercisedClassnames) {
       if (!classnames.contains(classname)) {
@@ -191,9 +198,8 @@ public class OperationModel extends ModelCollections {
 
   private void refineGenericClassTypes(Set<ConcreteType> inputTypes) throws RandoopTypeException {
     for (GenericClassType classType : genericClassTypes.keySet()) {
-      List<Substitution> substitutions = getSubstitutions(inputTypes, classType);
-      assert  substitutions.size() > 0 : "didn't find types to satisfy bounds on generic";
-      Substitution substitution = Randomness.randomMember(substitutions);
+      Substitution substitution = selectSubstitution(inputTypes, classType);
+      assert substitution != null : "didn't find types to satisfy bounds on generic";
       GeneralType refinedClassType = classType.apply(substitution);
       if (! refinedClassType.isGeneric()) {
         classTypes.add((ConcreteType)refinedClassType);
@@ -210,14 +216,22 @@ public class OperationModel extends ModelCollections {
     }
   }
 
-  private List<Substitution> getSubstitutions(Set<ConcreteType> inputTypes, GenericClassType classType) throws RandoopTypeException {
+  /**
+   * Selects a random substitution of input types for the type parameters of
+   * the generic class that satisfies their bounds.
+   *
+   * @param inputTypes  the set of input types
+   * @param classType  the generic class
+   * @return the substitution, or null if no input types satisfy the bounds
+   */
+  private Substitution selectSubstitution(Set<ConcreteType> inputTypes, GenericClassType classType) throws RandoopTypeException {
     List<TypeBound> bounds = classType.getBounds();
     TypeTupleSet candidateSet = new TypeTupleSet();
     for (TypeBound bound : bounds) {
       List<ConcreteType> candidateTypes = selectCandidates(bound, inputTypes);
       candidateSet.extend(candidateTypes);
     }
-    return candidateSet.filter(classType.getTypeParameters());
+    return candidateSet.sample(classType.getTypeParameters());
   }
 
   /**
@@ -308,7 +322,7 @@ public class OperationModel extends ModelCollections {
               compMgr.addPackageLevelLiteral(pkg, seq);
               break;
             case ALL:
-              compMgr.addGeneratedSequence(seq);
+              compMgr.addPinnedSequence(seq);
               break;
             default:
               throw new Error(
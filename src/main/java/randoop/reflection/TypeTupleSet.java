@@ -1,53 +1,169 @@
 package main.java.randoop.reflection;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import main.java.randoop.types.ConcreteType;
 import main.java.randoop.types.RandoopTypeException;
 import main.java.randoop.types.Substitution;
 import main.java.randoop.types.TypeParameter;
+import main.java.randoop.util.Randomness;
 
 /**
- * Created by bjkeller on 4/12/16.
+ * The tuples of candidate types for the type parameters of a generic class,
+ * from which the substitutions that satisfy the bounds of the parameters are
+ * selected.
+ *
+ * The tuples are never built as a whole. Both {@link #filter(List)} and
+ * {@link #sample(List)} extend a tuple one parameter at a time, and check the
+ * bound of each parameter as soon as the tuple has a type for each type
+ * variable in the bound, so that no tuple is extended from a prefix that
+ * already violates a bound.
  */
 public class TypeTupleSet {
 
-  private List<List<ConcreteType>> typeTuples;
+  /** The candidate types for each type parameter, in order. */
+  private final List<List<ConcreteType>> candidates;
 
   public TypeTupleSet() {
-    typeTuples = new ArrayList<>();
-    typeTuples.add(new ArrayList<ConcreteType>());
+    candidates = new ArrayList<>();
   }
 
-
+  /**
+   * Adds the candidate types for the next type parameter.
+   *
+   * @param types  the candidate types
+   */
   public void extend(List<ConcreteType> types) {
-    List<List<ConcreteType>> tupleList = new ArrayList<>();
-    for (List<ConcreteType> tuple : typeTuples) {
-      for (ConcreteType type : types) {
-        List<ConcreteType> extTuple = new ArrayList<>(tuple);
-        extTuple.add(type);
-        tupleList.add(extTuple);
+    candidates.add(new ArrayList<>(types));
+  }
+
+  /**
+   * Returns the substitutions of the candidate types for the given type
+   * parameters that satisfy the bounds of the parameters.
+   *
+   * @param typeParameters  the type parameters, one for each call of
+   *          {@link #extend(List)}
+   * @return the substitutions that satisfy the bounds, in the order of the
+   *         candidates
+   * @throws RandoopTypeException if a bound cannot be evaluated
+   */
+  public List<Substitution> filter(List<TypeParameter> typeParameters)
+      throws RandoopTypeException {
+    List<Substitution> substitutions = new ArrayList<>();
+    new Search(typeParameters, false, substitutions).extend(0);
+    return substitutions;
+  }
+
+  /**
+   * Selects a random substitution of the candidate types for the given type
+   * parameters that satisfies the bounds of the parameters.
+   *
+   * The candidates for each parameter are tried in random order, and the
+   * search only backtracks when a prefix has no extension that satisfies the
+   * bounds. So, when the bound of each parameter can be satisfied whatever the
+   * types of the others, this takes time linear in the number of candidates,
+   * and selects each satisfying substitution with the same probability.
+   *
+   * @param typeParameters  the type parameters, one for each call of
+   *          {@link #extend(List)}
+   * @return a substitution that satisfies the bounds, or null if there is none
+   * @throws RandoopTypeException if a bound cannot be evaluated
+   */
+  public Substitution sample(List<TypeParameter> typeParameters) throws RandoopTypeException {
+    List<Substitution> substitutions = new ArrayList<>(1);
+    new Search(typeParameters, true, substitutions).extend(0);
+    return substitutions.isEmpty() ? null : substitutions.get(0);
+  }
+
+  /**
+   * A depth-first search of the tuples of candidates.
+   */
+  private class Search {
+
+    private final List<TypeParameter> typeParameters;
+
+    private final boolean random;
+
+    private final List<Substitution> found;
+
+    // The types of the current prefix.
+    private final List<ConcreteType> tuple;
+
+    // The length of the prefix at which the bound of each parameter can be
+    // checked, or -1 if not determined yet. Only the type variables of the
+    // prefix decide it, not their types, so it is the same for all prefixes.
+    private final int[] checkLength;
+
+    Search(List<TypeParameter> typeParameters, boolean random, List<Substitution> found) {
+      if (typeParameters.size() != candidates.size()) {
+        throw new IllegalArgumentException(
+            "number of type parameters and candidate lists must agree");
       }
+      this.typeParameters = typeParameters;
+      this.random = random;
+      this.found = found;
+      this.tuple = new ArrayList<>(candidates.size());
+      this.checkLength = new int[candidates.size()];
+      Arrays.fill(checkLength, -1);
     }
-    typeTuples = tupleList;
-  }
 
-  public List<Substitution> filter(List<TypeParameter> typeParameters) throws RandoopTypeException {
-    List<Substitution> substitutionSet = new ArrayList<>();
-    List<List<ConcreteType>> tupleList = new ArrayList<>();
-    for (List<ConcreteType> tuple : typeTuples) {
-      Substitution substitution = Substitution.forArgs(typeParameters, tuple);
-      int i = 0;
-      while (i < tuple.size() && typeParameters.get(i).getBound().isSatisfiedBy(tuple.get(i), substitution)) {
-        i++;
+    /**
+     * Extends the current prefix, of the given length, with each candidate
+     * for the next parameter.
+     *
+     * @param length  the length of the prefix
+     * @return true if the search is done
+     */
+    boolean extend(int length) throws RandoopTypeException {
+      if (length == candidates.size()) {
+        found.add(Substitution.forArgs(typeParameters, tuple));
+        return random;
       }
-      if (i == tuple.size()) {
-        substitutionSet.add(substitution);
-        tupleList.add(tuple);
+      List<ConcreteType> types = candidates.get(length);
+      int[] order = new int[types.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      for (int i = 0; i < order.length; i++) {
+        if (random) {
+          int j = i + Randomness.nextRandomInt(order.length - i);
+          int swap = order[i];
+          order[i] = order[j];
+          order[j] = swap;
+        }
+        tuple.add(types.get(order[i]));
+        boolean done = satisfiesBounds(length + 1) && extend(length + 1);
+        tuple.remove(length);
+        if (done) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Checks the bounds that can be checked for the first time on the
+     * current prefix, of the given length.
+     *
+     * @param length  the length of the prefix
+     * @return false if the prefix violates a bound
+     */
+    private boolean satisfiesBounds(int length) throws RandoopTypeException {
+      Substitution substitution = Substitution.forArgs(typeParameters.subList(0, length), tuple);
+      for (int i = 0; i < length; i++) {
+        if (checkLength[i] == -1
+            && (length == candidates.size()
+                || typeParameters.get(i).getBound().isInstantiatedBy(substitution))) {
+          checkLength[i] = length;
+        }
+        if (checkLength[i] == length
+            && !typeParameters.get(i).getBound().isSatisfiedBy(tuple.get(i), substitution)) {
+          return false;
+        }
       }
+      return true;
     }
-    typeTuples = tupleList;
-    return substitutionSet;
   }
 }
@@ -1,11 +1,13 @@
 package main.java.randoop.sequence;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import main.java.randoop.ExceptionalExecution;
 import main.java.randoop.ExecutionOutcome;
@@ -17,7 +19,8 @@ import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.test.Check;
 import main.java.randoop.test.TestCheckGenerator;
 import main.java.randoop.test.TestChecks;
-import main.java.randoop.util.ProgressDisplay;
+import main.java.randoop.types.PrimitiveTypes;
+import main.java.randoop.util.OutputCapture;
 
 /**
  * An ExecutableSequence wraps a {@link Sequence} with functionality for
@@ -109,15 +112,34 @@ public class ExecutableSequence {
    */
   public long exectime = -1;
 
+  /**
+   * How long the visitors and the check generator took to examine the last
+   * execution of this sequence, in nanoseconds. Set by
+   * {@link #execute(ExecutionVisitor, TestCheckGenerator, boolean)}; part of
+   * {@link #exectime} when the generator measures the whole execution.
+   */
+  public long checktime = -1;
+
   /**
    * Flag to record whether execution of sequence has a null input. [this is
    * wonky really belongs to execution]
    */
   private boolean hasNullInput;
 
-  /** Output buffer used to capture the output from the executed sequence **/
-  private static ByteArrayOutputStream output_buffer = new ByteArrayOutputStream();
-  private static PrintStream ps_output_buffer = new PrintStream(output_buffer);
+  /**
+   * Outcomes of statements that are known from executing the same statements
+   * before (see {@link PrefixStateCache}), indexed by statement, or null if all
+   * statements must be executed. Used once, by the next call to
+   * <code>execute</code>.
+   */
+  private transient ExecutionOutcome[] knownOutcomes = null;
+
+  /**
+   * The sequences that were concatenated, in order, to form the first
+   * statements of this sequence, or null if unknown. Used by check generators
+   * to avoid checking values again that were checked for an input sequence.
+   */
+  private List<Sequence> inputSequences = null;
 
   /**
    * Create an executable sequence that executes the given sequence.
@@ -205,7 +227,7 @@ public class ExecutableSequence {
    * @return the sequence as a string
    */
   public String toCodeString() {
-    StringBuilder b = new StringBuilder();
+    StringBuilder b = new StringBuilder(sequence.size() * 64);
     for (int i = 0; i < sequence.size(); i++) {
 
       // Only print primitive declarations if the last/only statement
@@ -215,26 +237,34 @@ public class ExecutableSequence {
         continue;
       }
 
-      StringBuilder oneStatement = new StringBuilder();
-      sequence.appendCode(oneStatement, i);
-
       if (i == sequence.size() - 1 && checks != null) {
-        // Print exception check first, if present.
+        // Each check wraps the code of the ones before it, with the exception
+        // check innermost, so the pre-statement code is emitted in reverse.
         Check exObs = checks.getExceptionCheck();
+        List<Check> others = new ArrayList<>(checks.get().keySet());
+        for (int j = others.size() - 1; j >= 0; j--) {
+          b.append(others.get(j).toCodeStringPreStatement());
+        }
         if (exObs != null) {
-          oneStatement.insert(0, exObs.toCodeStringPreStatement());
-          oneStatement.append(exObs.toCodeStringPostStatement());
-          oneStatement.append(Globals.lineSep);
+          b.append(exObs.toCodeStringPreStatement());
+        }
+
+        sequence.appendCode(b, i);
+
+        // Print exception check first, if present.
+        if (exObs != null) {
+          b.append(exObs.toCodeStringPostStatement());
+          b.append(Globals.lineSep);
         }
 
         // Print the rest of the checks.
-        for (Check d : checks.get().keySet()) {
-          oneStatement.insert(0, d.toCodeStringPreStatement());
-          oneStatement.append(d.toCodeStringPostStatement());
-          oneStatement.append(Globals.lineSep);
+        for (Check d : others) {
+          b.append(d.toCodeStringPostStatement());
+          b.append(Globals.lineSep);
         }
+      } else {
+        sequence.appendCode(b, i);
       }
-      b.append(oneStatement);
     }
     return b.toString();
   }
@@ -250,6 +280,136 @@ public class ExecutableSequence {
     return oneStatement.toString();
   }
 
+  /**
+   * Supplies the outcomes of a run of consecutive statements, so that the next
+   * call to <code>execute</code> uses them instead of executing the
+   * statements. The statements must not use values from outside the run.
+   *
+   * @param start
+   *          the index of the first statement of the run
+   * @param outcomes
+   *          the outcomes of the statements of the run, in order
+   */
+  public void addKnownOutcomes(int start, List<ExecutionOutcome> outcomes) {
+    if (start < 0 || start + outcomes.size() > sequence.size()) {
+      throw new IllegalArgumentException("outcomes do not fit in the sequence");
+    }
+    if (knownOutcomes == null) {
+      knownOutcomes = new ExecutionOutcome[sequence.size()];
+    }
+    for (int i = 0; i < outcomes.size(); i++) {
+      knownOutcomes[start + i] = outcomes.get(i);
+    }
+  }
+
+  /**
+   * Records the sequences that were concatenated, in order, to form the first
+   * statements of this sequence. The statements after them use values of the
+   * input sequences, but the input sequences do not use values of each other.
+   *
+   * @param inputSequences
+   *          the input sequences of this sequence
+   */
+  public void setInputSequences(List<Sequence> inputSequences) {
+    int size = 0;
+    for (Sequence is : inputSequences) {
+      size += is.size();
+    }
+    if (size > sequence.size()) {
+      throw new IllegalArgumentException("input sequences do not fit in the sequence");
+    }
+    this.inputSequences = new ArrayList<>(inputSequences);
+  }
+
+  /**
+   * Returns the sequences that were concatenated to form the first statements
+   * of this sequence.
+   *
+   * @return the input sequences, in order, or null if they are unknown
+   */
+  public List<Sequence> getInputSequences() {
+    return inputSequences;
+  }
+
+  /**
+   * Returns, for each statement of this sequence, the number (counting from
+   * 1) of the input sequence that defines it, if the statements after the
+   * input sequence use none of its values; and 0 otherwise. A later statement
+   * uses a value if it takes the variable of the value as input, or if one of
+   * its inputs is the same object at run time, for instance because both were
+   * returned by the same static factory. All 0 if the input sequences are
+   * unknown. Must be called after this sequence is executed.
+   * <p>
+   * The values of such an input sequence are created by the same statements
+   * as when the input sequence was executed alone, and nothing in this
+   * sequence used them since, so they end up in the same state.
+   *
+   * @return the unchanged input sequence of each statement, or 0
+   */
+  public int[] getUnchangedInputSequences() {
+    int[] unchanged = new int[sequence.size()];
+    if (inputSequences == null) {
+      return unchanged;
+    }
+    int[] starts = new int[inputSequences.size() + 1];
+    for (int k = 0; k < inputSequences.size(); k++) {
+      starts[k + 1] = starts[k] + inputSequences.get(k).size();
+      Arrays.fill(unchanged, starts[k], starts[k + 1], k + 1);
+    }
+    int end = starts[inputSequences.size()];
+    for (int j = end; j < sequence.size(); j++) {
+      for (int input : sequence.getInputsAsAbsoluteIndices(j)) {
+        int k = input < end ? unchanged[input] : 0;
+        if (k != 0) {
+          // The statement may have changed any value of the input sequence.
+          Arrays.fill(unchanged, starts[k - 1], starts[k], 0);
+        }
+      }
+    }
+
+    Set<Object> laterInputs = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    addMutableInputs(laterInputs, end, sequence.size());
+    for (int k = inputSequences.size() - 1; k >= 0; k--) {
+      for (int i = starts[k]; i < starts[k + 1] && !laterInputs.isEmpty(); i++) {
+        Object value = mutableValue(i);
+        if (unchanged[i] != 0 && value != null && laterInputs.contains(value)) {
+          Arrays.fill(unchanged, starts[k], starts[k + 1], 0);
+          break;
+        }
+      }
+      addMutableInputs(laterInputs, starts[k], starts[k + 1]);
+    }
+    return unchanged;
+  }
+
+  // Adds to the set the mutable runtime values that the statements from
+  // index from (inclusive) to index to (exclusive) take as inputs.
+  private void addMutableInputs(Set<Object> values, int from, int to) {
+    for (int j = from; j < to; j++) {
+      for (int input : sequence.getInputsAsAbsoluteIndices(j)) {
+        Object value = mutableValue(input);
+        if (value != null) {
+          values.add(value);
+        }
+      }
+    }
+  }
+
+  // Returns the runtime value created by the statement at the given index, or
+  // null if the statement did not execute normally or its value is null, a
+  // boxed primitive or a String, which cannot change.
+  private Object mutableValue(int index) {
+    ExecutionOutcome outcome = executionResults.get(index);
+    if (!(outcome instanceof NormalExecution)) {
+      return null;
+    }
+    Object value = ((NormalExecution) outcome).getRuntimeValue();
+    if (value == null || PrimitiveTypes.isBoxedPrimitiveTypeOrString(value.getClass())) {
+      return null;
+    }
+    return value;
+  }
+
   /**
    * Executes sequence, stopping on exceptions.
    *
@@ -304,6 +464,9 @@ public class ExecutableSequence {
     for (int i = 0; i < sequence.size(); i++) {
       executionResults.theList.add(NotExecuted.create());
     }
+    ExecutionOutcome[] known = knownOutcomes;
+    knownOutcomes = null;
+    long checkNanos = 0;
 
     for (int i = 0; i < this.sequence.size(); i++) {
 
@@ -314,7 +477,11 @@ public class ExecutableSequence {
       inputVariables = getRuntimeInputs(sequence, executionResults.theList, i, inputs);
 
       visitor.visitBeforeStatement(this, i);
-      executeStatement(sequence, executionResults.theList, i, inputVariables);
+      if (known != null && known[i] != null) {
+        executionResults.theList.set(i, known[i]);
+      } else {
+        executeStatement(sequence, executionResults.theList, i, inputVariables);
+      }
 
       // make sure statement executed
       ExecutionOutcome statementResult = getResult(i);
@@ -337,12 +504,16 @@ public class ExecutableSequence {
         }
       }
 
+      long checkStart = System.nanoTime();
       visitor.visitAfterStatement(this, i);
+      checkNanos += System.nanoTime() - checkStart;
     }
 
+    long checkStart = System.nanoTime();
     visitor.visitAfterSequence(this);
 
     checks = gen.visit(this);
+    checktime = checkNanos + System.nanoTime() - checkStart;
   }
 
   private Object[] getRuntimeInputs(
@@ -394,31 +565,26 @@ public class ExecutableSequence {
           Sequence s, List<ExecutionOutcome> outcome, int index, Object[] inputVariables) {
     Statement statement = s.getStatement(index);
 
-    // Capture any output Synchronize with ProgressDisplay so that
-    // we don't capture its output as well.
-    synchronized (ProgressDisplay.print_synchro) {
-      PrintStream orig_out = System.out;
-      PrintStream orig_err = System.err;
-      if (GenInputsAbstract.capture_output) {
-        System.out.flush();
-        System.err.flush();
-        System.setOut(ps_output_buffer);
-        System.setErr(ps_output_buffer);
-      }
-
-      // assert ((statement.isMethodCall() && !statement.isStatic()) ?
-      // inputVariables[0] != null : true);
-
+    if (!GenInputsAbstract.capture_output) {
       ExecutionOutcome r = statement.execute(inputVariables, Globals.blackHole);
       assert r != null;
-      if (GenInputsAbstract.capture_output) {
-        System.setOut(orig_out);
-        System.setErr(orig_err);
-        r.set_output(output_buffer.toString());
-        output_buffer.reset();
-      }
       outcome.set(index, r);
+      return;
+    }
+
+    // Capture the output of this thread only, so that generation threads
+    // need not exclude each other or ProgressDisplay.
+    OutputCapture capture = OutputCapture.begin();
+    byte[] output;
+    ExecutionOutcome r;
+    try {
+      r = statement.execute(inputVariables, Globals.blackHole);
+    } finally {
+      output = capture.end();
     }
+    assert r != null;
+    r.set_output(output);
+    outcome.set(index, r);
   }
 
   /**
@@ -0,0 +1,184 @@
+package main.java.randoop.sequence;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import main.java.randoop.ExecutionOutcome;
+import main.java.randoop.NormalExecution;
+import main.java.randoop.types.PrimitiveTypes;
+
+import plume.Option;
+import plume.OptionGroup;
+
+/**
+ * Caches the outcomes of executing component sequences, so that a new sequence
+ * built from components only needs to execute the statements that are not
+ * covered by the cache (typically only the last one).
+ *
+ * Reusing an outcome is only sound if the runtime values it holds are in the
+ * same state as they would be after re-executing the component. A sequence is
+ * therefore only cached if every statement terminated normally, and every
+ * value is null, a primitive, boxed primitive, string or enum, an instance of
+ * a class listed with <code>--prefix-cache-immutable</code> (shared as is), or
+ * an instance of a class listed with <code>--prefix-cache-cloneable</code>
+ * (copied with its public <code>clone()</code> method each time it is reused).
+ * Static state changed by a component is not restored, so the cache should
+ * only be used when the code under test does not depend on such state.
+ */
+public final class PrefixStateCache {
+
+  private PrefixStateCache() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /**
+   * Reuse the runtime values of previously executed component sequences
+   * instead of re-executing them when they appear as the prefix of a new
+   * sequence.
+   */
+  @OptionGroup("Prefix state caching")
+  @Option("Reuse the runtime values of previously executed component sequences")
+  public static boolean prefix_cache = false;
+
+  @Option("Class whose instances are immutable and may be shared between sequences")
+  public static List<String> prefix_cache_immutable = new ArrayList<>();
+
+  @Option("Class whose instances may be copied with clone() for reuse between sequences")
+  public static List<String> prefix_cache_cloneable = new ArrayList<>();
+
+  @Option("Maximum number of component sequences whose outcomes are cached")
+  public static int prefix_cache_size = 10000;
+
+  // Least recently used sequences are evicted first.
+  private static final Map<Sequence, List<ExecutionOutcome>> cache =
+      Collections.synchronizedMap(
+          new LinkedHashMap<Sequence, List<ExecutionOutcome>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Sequence, List<ExecutionOutcome>> eldest) {
+              return size() > prefix_cache_size;
+            }
+          });
+
+  private static Set<String> immutableClasses = null;
+  private static Set<String> cloneableClasses = null;
+
+  // Statistics.
+  private static long hits = 0;
+  private static long misses = 0;
+
+  public static synchronized long hits() {
+    return hits;
+  }
+
+  public static synchronized long misses() {
+    return misses;
+  }
+
+  /** Removes all cached outcomes and resets the statistics. */
+  public static synchronized void clear() {
+    cache.clear();
+    immutableClasses = null;
+    cloneableClasses = null;
+    hits = 0;
+    misses = 0;
+  }
+
+  /**
+   * Records the outcomes of the given executed sequence, if they can be reused.
+   *
+   * @param es  an executed sequence
+   */
+  public static void add(ExecutableSequence es) {
+    List<ExecutionOutcome> outcomes = new ArrayList<>(es.sequence.size());
+    for (int i = 0; i < es.sequence.size(); i++) {
+      ExecutionOutcome outcome = es.getResult(i);
+      if (!(outcome instanceof NormalExecution)
+          || !isReusable(((NormalExecution) outcome).getRuntimeValue())) {
+        return;
+      }
+      outcomes.add(outcome);
+    }
+    cache.put(es.sequence, outcomes);
+  }
+
+  /**
+   * Returns outcomes for the statements of the given sequence that are
+   * equivalent to executing it, with cloneable values copied so that the
+   * caller may modify them.
+   *
+   * @param sequence  the sequence
+   * @return the outcomes for the statements of the sequence, or null if the
+   *         sequence must be executed
+   */
+  public static List<ExecutionOutcome> lookup(Sequence sequence) {
+    List<ExecutionOutcome> cached = cache.get(sequence);
+    List<ExecutionOutcome> result = cached == null ? null : copy(cached);
+    synchronized (PrefixStateCache.class) {
+      if (result == null) {
+        misses++;
+      } else {
+        hits++;
+      }
+    }
+    return result;
+  }
+
+  // Copies the values that are not shared, preserving aliasing among them.
+  private static List<ExecutionOutcome> copy(List<ExecutionOutcome> outcomes) {
+    Map<Object, Object> copies = new IdentityHashMap<>();
+    List<ExecutionOutcome> result = new ArrayList<>(outcomes.size());
+    for (ExecutionOutcome outcome : outcomes) {
+      NormalExecution normal = (NormalExecution) outcome;
+      Object value = normal.getRuntimeValue();
+      if (value == null || !isCloneable(value.getClass())) {
+        result.add(outcome);
+        continue;
+      }
+      Object copy = copies.get(value);
+      if (copy == null) {
+        try {
+          Method clone = value.getClass().getMethod("clone");
+          copy = clone.invoke(value);
+        } catch (Exception e) {
+          return null;
+        }
+        copies.put(value, copy);
+      }
+      NormalExecution copied = new NormalExecution(copy, normal.getExecutionTime());
+      copied.copy_output(normal);
+      result.add(copied);
+    }
+    return result;
+  }
+
+  private static boolean isReusable(Object value) {
+    if (value == null) return true;
+    Class<?> c = value.getClass();
+    return PrimitiveTypes.isBoxedOrPrimitiveOrStringType(c)
+        || value instanceof Enum
+        || classes(true).contains(c.getName())
+        || isCloneable(c);
+  }
+
+  private static boolean isCloneable(Class<?> c) {
+    return Cloneable.class.isAssignableFrom(c) && classes(false).contains(c.getName());
+  }
+
+  private static synchronized Set<String> classes(boolean immutable) {
+    if (immutableClasses == null) {
+      immutableClasses = new LinkedHashSet<>(prefix_cache_immutable);
+      cloneableClasses = new LinkedHashSet<>(prefix_cache_cloneable);
+    }
+    return immutable ? immutableClasses : cloneableClasses;
+  }
+}
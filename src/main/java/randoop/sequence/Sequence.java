@@ -3,6 +3,7 @@ package main.java.randoop.sequence;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,8 +21,7 @@ import main.java.randoop.types.ConcreteType;
 import main.java.randoop.types.ConcreteTypes;
 import main.java.randoop.types.PrimitiveTypes;
 import main.java.randoop.util.ArrayListSimpleList;
-import main.java.randoop.util.ListOfLists;
-import main.java.randoop.util.OneMoreElementList;
+import main.java.randoop.util.FlattenedList;
 import main.java.randoop.util.Randomness;
 import main.java.randoop.types.Match;
 import main.java.randoop.util.SimpleList;
@@ -137,9 +137,10 @@ public final class Sequence implements WeightedElement {
    * The inputs for the ith statement. Includes the receiver.
    */
   public List<Variable> getInputs(int statementIndex) {
-    List<Variable> inputsAsVariables = new ArrayList<>();
-    for (RelativeNegativeIndex relIndex : this.statements.get(statementIndex).inputs)
-      inputsAsVariables.add(getVariableForInput(statementIndex, relIndex));
+    Statement statement = this.statements.get(statementIndex);
+    List<Variable> inputsAsVariables = new ArrayList<>(statement.getInputCount());
+    for (int i = 0; i < statement.getInputCount(); i++)
+      inputsAsVariables.add(getVariableForInput(statementIndex, statement.getInputIndex(i)));
     return inputsAsVariables;
   }
 
@@ -349,7 +350,11 @@ public final class Sequence implements WeightedElement {
    * the statement at position statementPosition.
    */
   public Variable getVariableForInput(int statementPosition, RelativeNegativeIndex input) {
-    int absoluteIndex = statementPosition + input.index;
+    return getVariableForInput(statementPosition, input.index);
+  }
+
+  private Variable getVariableForInput(int statementPosition, int relativeIndex) {
+    int absoluteIndex = statementPosition + relativeIndex;
     if (absoluteIndex < 0) {
       throw new IllegalArgumentException(
           "invalid index (expecting non-negative): " + absoluteIndex);
@@ -359,7 +364,7 @@ public final class Sequence implements WeightedElement {
 
   /** Create a new, empty sequence. */
   public Sequence() {
-    this(new ArrayListSimpleList<Statement>(), 0, 0);
+    this(new ArrayListSimpleList<Statement>(), 0, 0, 0, 0);
   }
 
   /**
@@ -372,7 +377,12 @@ public final class Sequence implements WeightedElement {
 
   // Create a sequence with the given statements.
   /* package */ public Sequence(SimpleList<Statement> statements) {
-    this(statements, computeHashcode(statements), computeNetSize(statements));
+    this(
+        statements,
+        computeHashcode(statements),
+        computeNetSize(statements),
+        computeFingerprint(statements, FINGERPRINT_HIGH_BASE, true),
+        computeFingerprint(statements, FINGERPRINT_LOW_BASE, false));
   }
 
   // The hashcode of a sequence is the sum of each statement's hashcode.
@@ -389,6 +399,38 @@ public final class Sequence implements WeightedElement {
     return hashCode;
   }
 
+  // The fingerprint of a sequence is a polynomial in the fingerprints of its
+  // statements, computed separately for each half: extending a sequence
+  // multiplies its fingerprint by the base and adds the fingerprint of the
+  // new statement. Unlike the hashCode, it depends on the order of the
+  // statements, and the fingerprint of a concatenation is still computed from
+  // the fingerprints of the parts.
+  private static final long FINGERPRINT_HIGH_BASE = 0x9e3779b97f4a7c15L;
+  private static final long FINGERPRINT_LOW_BASE = 0xc2b2ae3d27d4eb4fL;
+
+  private static long computeFingerprint(
+      SimpleList<Statement> statements, long base, boolean high) {
+    long fingerprint = 0;
+    for (int i = 0; i < statements.size(); i++) {
+      SequenceFingerprint s = statements.get(i).getFingerprint();
+      fingerprint = fingerprint * base + (high ? s.getHigh() : s.getLow());
+    }
+    return fingerprint;
+  }
+
+  // Returns base to the given power, modulo 2^64.
+  private static long power(long base, int exponent) {
+    long result = 1;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+      exponent >>= 1;
+    }
+    return result;
+  }
+
   /**
    * Counts the number of statements in a list that are not initializations with
    * a primitive type. For instance <code>int var7 = 0</code>.
@@ -411,12 +453,19 @@ public final class Sequence implements WeightedElement {
   // for optimization).
   //
   // See comment at computeHashCode method for notes on hashCode.
-  private Sequence(SimpleList<Statement> statements, int hashCode, int netSize) {
+  private Sequence(
+      SimpleList<Statement> statements,
+      int hashCode,
+      int netSize,
+      long fingerprintHigh,
+      long fingerprintLow) {
     if (statements == null)
       throw new IllegalArgumentException("`statements' argument cannot be null");
     this.statements = statements;
     this.savedHashCode = hashCode;
     this.savedNetSize = netSize;
+    this.fingerprintHigh = fingerprintHigh;
+    this.fingerprintLow = fingerprintLow;
     computeLastStatementInfo();
     this.activeFlags = new BitSet(this.size());
     setAllActiveFlags();
@@ -440,8 +489,8 @@ public final class Sequence implements WeightedElement {
       }
 
       // Process input arguments.
-      if (lastStatement.inputs.size() != lastStatement.getInputTypes().size())
-        throw new RuntimeException(lastStatement.inputs + ", " + lastStatement.getInputTypes() + ", " + lastStatement.toString());
+      if (lastStatement.getInputCount() != lastStatement.getInputTypes().size())
+        throw new RuntimeException(lastStatement.getInputCount() + ", " + lastStatement.getInputTypes() + ", " + lastStatement.toString());
 
       List<Variable> v = this.getInputs(lastStatementIndex);
       if (v.size() != lastStatement.getInputTypes().size()) throw new RuntimeException();
@@ -472,25 +521,22 @@ public final class Sequence implements WeightedElement {
       if (statementWithInputs == null)
         throw new IllegalStateException(
             "Null statement in sequence:" + Globals.lineSep + this.toString());
-      if (statementWithInputs.inputs == null)
-        throw new IllegalArgumentException("parameters cannot be null.");
 
       // The inputs to the statement are valid: there's the right number
       // of them,
       // and they refer to appropriate input values.
-      if (statementWithInputs.getInputTypes().size() != statementWithInputs.inputs.size())
+      if (statementWithInputs.getInputTypes().size() != statementWithInputs.getInputCount())
         throw new IllegalArgumentException(
             "statement.getInputConstraints().size()="
                 + statementWithInputs.getInputTypes().size()
                 + " is different from inputIndices.length="
-                + statementWithInputs.inputs.size()
+                + statementWithInputs.getInputCount()
                 + ", sequence: "
                 + this.toString());
-      for (int i = 0; i < statementWithInputs.inputs.size(); i++) {
-        int index = statementWithInputs.inputs.get(i).index;
+      for (int i = 0; i < statementWithInputs.getInputCount(); i++) {
+        int index = statementWithInputs.getInputIndex(i);
         if (index >= 0) throw new IllegalStateException();
-        ConcreteType newRefConstraint =
-            statements.get(si + statementWithInputs.inputs.get(i).index).getOutputType();
+        ConcreteType newRefConstraint = statements.get(si + index).getOutputType();
         if (newRefConstraint == null) throw new IllegalStateException();
         if (!(statementWithInputs
             .getInputTypes()
@@ -556,6 +602,22 @@ public final class Sequence implements WeightedElement {
     return savedNetSize;
   }
 
+  // The halves of this sequence's fingerprint.
+  private final long fingerprintHigh;
+  private final long fingerprintLow;
+
+  /**
+   * Returns the fingerprint of this sequence. Equal sequences have equal
+   * fingerprints, and different sequences almost certainly do not.
+   *
+   * @return the 128-bit fingerprint of this sequence
+   */
+  public final SequenceFingerprint getFingerprint() {
+    // The length is mixed in, since a statement with fingerprint 0 would
+    // otherwise not change the fingerprint of a prefix.
+    return new SequenceFingerprint(fingerprintHigh, fingerprintLow ^ ((long) size() << 56));
+  }
+
   // See comment at computeHashCode method for notes on hashCode.
   @Override
   public final int hashCode() {
@@ -628,16 +690,27 @@ public final class Sequence implements WeightedElement {
    */
   public final Sequence extend(ConcreteOperation operation, List<Variable> inputVariables) {
     checkInputs(operation, inputVariables);
-    List<RelativeNegativeIndex> indexList = new ArrayList<>(1);
-    for (Variable v : inputVariables) {
-      indexList.add(getRelativeIndexForVariable(size(), v));
+    int[] indices = new int[inputVariables.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = getRelativeIndexForVariable(size(), inputVariables.get(i)).index;
     }
-    Statement statement = new Statement(operation, indexList);
+    Statement statement = Statement.intern(operation, indices);
     int newNetSize = (operation.isNonreceivingValue()) ? this.savedNetSize : this.savedNetSize + 1;
+    // Appending to a flattened list shares its array with this sequence, so
+    // a chain of extensions does not copy the statements each time.
+    FlattenedList<Statement> prefix;
+    if (this.statements instanceof FlattenedList) {
+      prefix = (FlattenedList<Statement>) this.statements;
+    } else {
+      prefix = flatten(Collections.singletonList(this.statements));
+    }
+    SequenceFingerprint statementFingerprint = statement.getFingerprint();
     return new Sequence(
-        new OneMoreElementList<>(this.statements, statement),
+        prefix.append(statement),
         this.savedHashCode + statement.hashCode(),
-        newNetSize);
+        newNetSize,
+        this.fingerprintHigh * FINGERPRINT_HIGH_BASE + statementFingerprint.getHigh(),
+        this.fingerprintLow * FINGERPRINT_LOW_BASE + statementFingerprint.getLow());
   }
 
   /**
@@ -750,12 +823,34 @@ public final class Sequence implements WeightedElement {
     List<SimpleList<Statement>> statements1 = new ArrayList<>();
     int newHashCode = 0;
     int newNetSize = 0;
+    long newFingerprintHigh = 0;
+    long newFingerprintLow = 0;
     for (Sequence c : sequences) {
       newHashCode += c.savedHashCode;
       newNetSize += c.savedNetSize;
+      newFingerprintHigh =
+          newFingerprintHigh * power(FINGERPRINT_HIGH_BASE, c.size()) + c.fingerprintHigh;
+      newFingerprintLow =
+          newFingerprintLow * power(FINGERPRINT_LOW_BASE, c.size()) + c.fingerprintLow;
       statements1.add(c.statements);
     }
-    return new Sequence(new ListOfLists<>(statements1), newHashCode, newNetSize);
+    if (statements1.size() == 1) {
+      return new Sequence(
+          statements1.get(0), newHashCode, newNetSize, newFingerprintHigh, newFingerprintLow);
+    }
+    return new Sequence(
+        flatten(statements1), newHashCode, newNetSize, newFingerprintHigh, newFingerprintLow);
+  }
+
+  /**
+   * Copies the statements of the given lists into a single array-backed
+   * list. Sequences are built by concatenating and extending other
+   * sequences, so keeping the nested lists would make statement access
+   * slower with each generation. Only the references are copied, so the
+   * statements themselves are still shared.
+   */
+  private static FlattenedList<Statement> flatten(List<SimpleList<Statement>> lists) {
+    return new FlattenedList<>(lists);
   }
 
   // TODO inline and remove; used only in one place and confusing.
@@ -769,9 +864,10 @@ public final class Sequence implements WeightedElement {
    * that the input is the value created by the x-th statement in the sequence.
    */
   public List<Integer> getInputsAsAbsoluteIndices(int i) {
-    List<Integer> inputsAsVariables = new ArrayList<>();
-    for (RelativeNegativeIndex relIndex : this.statements.get(i).inputs)
-      inputsAsVariables.add(getVariableForInput(i, relIndex).index);
+    Statement statement = this.statements.get(i);
+    List<Integer> inputsAsVariables = new ArrayList<>(statement.getInputCount());
+    for (int j = 0; j < statement.getInputCount(); j++)
+      inputsAsVariables.add(getVariableForInput(i, statement.getInputIndex(j)).index);
     return inputsAsVariables;
   }
 
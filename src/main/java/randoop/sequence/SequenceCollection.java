@@ -2,6 +2,9 @@ package main.java.randoop.sequence;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -12,7 +15,7 @@ import main.java.randoop.Globals;
 import main.java.randoop.SubTypeSet;
 import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.types.ConcreteType;
-import main.java.randoop.util.ArrayListSimpleList;
+import main.java.randoop.util.AppendOnlyList;
 import main.java.randoop.util.ListOfLists;
 import main.java.randoop.util.Log;
 import main.java.randoop.util.SimpleList;
@@ -48,16 +51,42 @@ import main.java.randoop.util.SimpleList;
  * uses the <code>SubTypeSet</code> to find the set <code>S</code> of feasible
  * subtypes in set of sequences, and returns the range of <code>S</code> in the
  * sequence map.
+ *
+ * <p>
+ *
+ * The collection is shared by all generation threads (see
+ * <code>--generation-threads</code>), so its methods are synchronized. The
+ * lists returned by {@link #getSequencesForType(ConcreteType, boolean)} are
+ * views of {@link AppendOnlyList} objects, so they remain valid and can be
+ * read without locking while other threads add sequences. Removing sequences
+ * (see {@link #removeAll(Collection)}) replaces the lists instead.
+ *
+ * <p>
+ *
+ * Since the same types are requested over and over during generation, the
+ * list of compatible sequences for a type is cached, and each sequence added
+ * to a compatible type is appended to it, so that broad queries such as
+ * <code>Object</code> are not rebuilt on every generation step. A cached list
+ * is an {@link AppendOnlyList}, so callers holding it see new sequences at the
+ * end but never a change below the size they read. Removing sequences of a
+ * compatible type drops the cached list, which is rebuilt on the next query.
  */
 public class SequenceCollection {
 
   // We make it a list to make it easier to pick out an element at random.
-  private Map<ConcreteType, ArrayListSimpleList<Sequence>> sequenceMap = new LinkedHashMap<>();
+  private Map<ConcreteType, AppendOnlyList<Sequence>> sequenceMap = new LinkedHashMap<>();
 
   private SubTypeSet typeSet = new SubTypeSet(false);
 
   private int sequenceCount = 0;
 
+  // The cached result of getSequencesForType(type, false) for each type.
+  private Map<ConcreteType, AppendOnlyList<Sequence>> compatibleSequences = new HashMap<>();
+
+  // For each type with sequences, the types whose cached results include
+  // its sequences.
+  private Map<ConcreteType, Set<ConcreteType>> cachedQueries = new HashMap<>();
+
   private void checkRep() {
     if (!GenInputsAbstract.debug_checks) return;
     if (sequenceMap.size() != typeSet.size()) {
@@ -69,17 +98,20 @@ public class SequenceCollection {
     }
   }
 
-  public int size() {
+  public synchronized int size() {
     return sequenceCount;
   }
 
   /**
    * Removes all sequences from this collection.
    */
-  public void clear() {
-    if (Log.isLoggingOn()) Log.logLine("Clearing sequence collection.");
+  public synchronized void clear() {
+    if (Log.isLoggingOn(Log.Category.COMPONENTS))
+      Log.logLine(Log.Category.COMPONENTS, "Clearing sequence collection.");
     this.sequenceMap = new LinkedHashMap<>();
     this.typeSet = new SubTypeSet(false);
+    this.compatibleSequences = new HashMap<>();
+    this.cachedQueries = new HashMap<>();
     sequenceCount = 0;
     checkRep();
   }
@@ -103,7 +135,7 @@ public class SequenceCollection {
     checkRep();
   }
 
-  public void addAll(Collection<Sequence> col) {
+  public synchronized void addAll(Collection<Sequence> col) {
     if (col == null) {
       throw new IllegalArgumentException("col is null");
     }
@@ -112,10 +144,12 @@ public class SequenceCollection {
     }
   }
 
-  public void addAll(SequenceCollection components) {
-    for (ArrayListSimpleList<Sequence> s : components.sequenceMap.values()) {
-      for (Sequence seq : s.theList) {
-        add(seq);
+  public synchronized void addAll(SequenceCollection components) {
+    synchronized (components) {
+      for (AppendOnlyList<Sequence> s : components.sequenceMap.values()) {
+        for (int i = 0; i < s.size(); i++) {
+          add(s.get(i));
+        }
       }
     }
   }
@@ -130,7 +164,7 @@ public class SequenceCollection {
    * returned by the query). How a value is deemed useful or not is left up to
    * the client.
    */
-  public void add(Sequence sequence) {
+  public synchronized void add(Sequence sequence) {
     List<ConcreteType> formalTypes = sequence.getTypesForLastStatement();
     List<Variable> arguments = sequence.getVariablesOfLastStatement();
     assert formalTypes.size() == arguments.size();
@@ -149,15 +183,101 @@ public class SequenceCollection {
   }
 
   private void updateCompatibleMap(Sequence sequence, ConcreteType type) {
-      ArrayListSimpleList<Sequence> set = this.sequenceMap.get(type);
+      AppendOnlyList<Sequence> set = this.sequenceMap.get(type);
       if (set == null) {
-        set = new ArrayListSimpleList<>();
+        set = new AppendOnlyList<>();
         this.sequenceMap.put(type, set);
+        // The cached results for supertypes of the new type now include it.
+        Set<ConcreteType> queries = new LinkedHashSet<>();
+        for (ConcreteType query : this.compatibleSequences.keySet()) {
+          if (query.isAssignableFrom(type)) {
+            queries.add(query);
+          }
+        }
+        if (!queries.isEmpty()) {
+          this.cachedQueries.put(type, queries);
+        }
       }
-      if (Log.isLoggingOn()) Log.logLine("Adding sequence of type " + type);
+      if (Log.isLoggingOn(Log.Category.COMPONENTS))
+        Log.logLine(Log.Category.COMPONENTS, "Adding sequence of type " + type);
       boolean added = set.add(sequence);
       sequenceCount++;
       assert added;
+
+      Set<ConcreteType> queries = this.cachedQueries.get(type);
+      if (queries != null) {
+        for (ConcreteType query : queries) {
+          // null if dropped by removeAll since
+          AppendOnlyList<Sequence> compatible = this.compatibleSequences.get(query);
+          if (compatible != null) {
+            compatible.add(sequence);
+          }
+        }
+      }
+  }
+
+  // Forgets the cached results that include sequences of the given type.
+  private void invalidateCachedQueries(ConcreteType type) {
+    Set<ConcreteType> queries = this.cachedQueries.remove(type);
+    if (queries != null) {
+      for (ConcreteType query : queries) {
+        this.compatibleSequences.remove(query);
+      }
+    }
+  }
+
+  /**
+   * Removes the given sequences from this collection. The lists of the
+   * affected types are replaced rather than modified, so lists returned
+   * earlier by {@link #getSequencesForType(ConcreteType, boolean)} keep
+   * seeing the removed sequences.
+   *
+   * @param sequences  the sequences to remove
+   */
+  public synchronized void removeAll(Collection<Sequence> sequences) {
+    Set<Sequence> removed = Collections.newSetFromMap(new IdentityHashMap<Sequence, Boolean>());
+    removed.addAll(sequences);
+
+    // The types under which add(Sequence) stored the sequences.
+    Set<ConcreteType> types = new LinkedHashSet<>();
+    for (Sequence sequence : removed) {
+      List<ConcreteType> formalTypes = sequence.getTypesForLastStatement();
+      List<Variable> arguments = sequence.getVariablesOfLastStatement();
+      for (int i = 0; i < formalTypes.size(); i++) {
+        if (sequence.isActive(arguments.get(i).getDeclIndex())) {
+          types.add(formalTypes.get(i));
+        }
+      }
+    }
+
+    for (ConcreteType type : types) {
+      AppendOnlyList<Sequence> current = this.sequenceMap.get(type);
+      if (current == null) {
+        continue;
+      }
+      AppendOnlyList<Sequence> remaining = new AppendOnlyList<>();
+      for (int i = 0; i < current.size(); i++) {
+        Sequence sequence = current.get(i);
+        if (!removed.contains(sequence)) {
+          remaining.add(sequence);
+        }
+      }
+      sequenceCount -= current.size() - remaining.size();
+      if (remaining.size() == 0) {
+        this.sequenceMap.remove(type);
+        typeSet.remove(type);
+        this.compatibleSequences.clear();
+        this.cachedQueries.clear();
+      } else {
+        this.sequenceMap.put(type, remaining);
+        invalidateCachedQueries(type);
+      }
+      if (Log.isLoggingOn(Log.Category.COMPONENTS))
+        Log.logLine(
+            Log.Category.COMPONENTS,
+            "Removed " + (current.size() - remaining.size()) + " sequences of type " + type);
+    }
+    checkRep();
   }
 
   /**
@@ -168,42 +288,85 @@ public class SequenceCollection {
    * @return list of sequence objects that are of typp 'type' and abide by the
    *         constraints defined by nullOk.
    */
-  public SimpleList<Sequence> getSequencesForType(ConcreteType type, boolean exactMatch) {
+  public synchronized SimpleList<Sequence> getSequencesForType(ConcreteType type, boolean exactMatch) {
 
     if (type == null) throw new IllegalArgumentException("type cannot be null.");
 
-    if (Log.isLoggingOn()) {
-      Log.logLine("getSequencesForType: entering method, type=" + type.toString());
+    if (Log.isLoggingOn(Log.Category.COMPONENTS)) {
+      Log.logLine(
+          Log.Category.COMPONENTS,
+          "getSequencesForType: entering method, type=" + type.toString());
     }
 
-    List<SimpleList<Sequence>> resultList = new ArrayList<>();
+    if (!exactMatch) {
+      AppendOnlyList<Sequence> cached = this.compatibleSequences.get(type);
+      if (cached != null) {
+        if (Log.isLoggingOn(Log.Category.COMPONENTS))
+          Log.logLine(
+              Log.Category.COMPONENTS,
+              "getSequencesForType: returning " + cached.size() + " cached sequences.");
+        return cached;
+      }
+    }
 
+    SimpleList<Sequence> selector;
     if (exactMatch) {
+      List<SimpleList<Sequence>> resultList = new ArrayList<>();
       SimpleList<Sequence> l = this.sequenceMap.get(type);
       if (l != null) {
         resultList.add(l);
       }
+      selector = new ListOfLists<>(resultList);
     } else {
+      // Copied once; add(Sequence) keeps the copy up to date.
+      AppendOnlyList<Sequence> compatible = new AppendOnlyList<>();
       for (ConcreteType compatibleType : typeSet.getMatches(type)) {
-        resultList.add(this.sequenceMap.get(compatibleType));
+        AppendOnlyList<Sequence> sequences = this.sequenceMap.get(compatibleType);
+        for (int i = 0; i < sequences.size(); i++) {
+          compatible.add(sequences.get(i));
+        }
+        Set<ConcreteType> queries = this.cachedQueries.get(compatibleType);
+        if (queries == null) {
+          queries = new LinkedHashSet<>();
+          this.cachedQueries.put(compatibleType, queries);
+        }
+        queries.add(type);
       }
+      this.compatibleSequences.put(type, compatible);
+      selector = compatible;
     }
 
-    if (resultList.isEmpty()) {
-      if (Log.isLoggingOn())
-        Log.logLine("getSequencesForType: found no sequences matching type " + type);
+    if (selector.size() == 0) {
+      if (Log.isLoggingOn(Log.Category.COMPONENTS))
+        Log.logLine(
+            Log.Category.COMPONENTS,
+            "getSequencesForType: found no sequences matching type " + type);
     }
-    SimpleList<Sequence> selector = new ListOfLists<>(resultList);
-    if (Log.isLoggingOn())
-      Log.logLine("getSequencesForType: returning " + selector.size() + " sequences.");
+    if (Log.isLoggingOn(Log.Category.COMPONENTS))
+      Log.logLine(
+          Log.Category.COMPONENTS,
+          "getSequencesForType: returning " + selector.size() + " sequences.");
     return selector;
   }
 
 
-  public Set<Sequence> getAllSequences() {
+  /**
+   * Returns the number of sequences stored for each type.
+   *
+   * @return a map from each type with sequences to its number of sequences
+   */
+  public synchronized Map<ConcreteType, Integer> getSequenceCounts() {
+    Map<ConcreteType, Integer> counts = new LinkedHashMap<>();
+    for (Map.Entry<ConcreteType, AppendOnlyList<Sequence>> entry : sequenceMap.entrySet()) {
+      counts.put(entry.getKey(), entry.getValue().size());
+    }
+    return counts;
+  }
+
+  public synchronized Set<Sequence> getAllSequences() {
     Set<Sequence> result = new LinkedHashSet<>();
-    for (ArrayListSimpleList<Sequence> a : sequenceMap.values()) {
-      result.addAll(a.theList);
+    for (AppendOnlyList<Sequence> a : sequenceMap.values()) {
+      result.addAll(a.toJDKList());
     }
     return result;
   }
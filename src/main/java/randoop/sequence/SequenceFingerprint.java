@@ -0,0 +1,75 @@
+package main.java.randoop.sequence;
+
+/**
+ * A 128-bit hash of a statement or a sequence. Equal sequences have equal
+ * fingerprints, and the chance that two different sequences have equal
+ * fingerprints is negligible, so a set of fingerprints can stand in for a
+ * set of sequences without keeping the sequences.
+ *
+ * @see Sequence#getFingerprint()
+ */
+public final class SequenceFingerprint {
+
+  private final long high;
+  private final long low;
+
+  SequenceFingerprint(long high, long low) {
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * Returns the fingerprint of the given string. The two halves are computed
+   * with different multipliers, so that they are independent of each other.
+   */
+  static SequenceFingerprint of(String s) {
+    long high = 0xcbf29ce484222325L;
+    long low = 0x84222325cbf29ce4L;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      high = (high ^ c) * 0x100000001b3L;
+      low = (low ^ c) * 0x9e3779b97f4a7c15L;
+    }
+    return new SequenceFingerprint(mix(high), mix(low ^ s.length()));
+  }
+
+  // The finalization step of MurmurHash3, which makes every bit of the
+  // result depend on every bit of the argument.
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /** Returns the upper 64 bits of this fingerprint. */
+  public long getHigh() {
+    return high;
+  }
+
+  /** Returns the lower 64 bits of this fingerprint. */
+  public long getLow() {
+    return low;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof SequenceFingerprint)) {
+      return false;
+    }
+    SequenceFingerprint other = (SequenceFingerprint) obj;
+    return high == other.high && low == other.low;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (low ^ (low >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%016x%016x", high, low);
+  }
+}
@@ -1,7 +1,10 @@
 package main.java.randoop.sequence;
 
 import java.io.PrintStream;
-import java.util.ArrayList;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.List;
 
 import main.java.randoop.ExecutionOutcome;
@@ -29,20 +32,189 @@ public final class Statement {
    */
   private final ConcreteOperation operation;
 
-  // The list of values used as input to the statement.
+  // The values used as input to the statement.
   //
   // NOTE that the inputs to a statement are not a list
-  // of Variables, but a list of RelativeNegativeIndex objects.
-  // See that class for an explanation.
-  final List<RelativeNegativeIndex> inputs;
+  // of Variables, but the indices of RelativeNegativeIndex objects.
+  // See that class for an explanation. They are stored as an array
+  // since there is a statement for every generated sequence.
+  private final int[] inputs;
+
+  // Statements are hashed each time a sequence is created, so the hash code
+  // is computed once.
+  private final int hashCode;
+
+  // The fingerprint of this statement, computed when first needed. Interned
+  // statements are shared, so it is computed once for most statements.
+  private volatile SequenceFingerprint fingerprint = null;
+
+  // The canonical instances of the statements created with intern, split in
+  // stripes by hash code so that threads extending sequences rarely wait on
+  // each other.
+  private static final InternStripe[] canonical = new InternStripe[64];
+
+  static {
+    for (int i = 0; i < canonical.length; i++) {
+      canonical[i] = new InternStripe();
+    }
+  }
 
   /**
    * Create a new statement of type statement that takes as input the given
    * values.
    */
   public Statement(ConcreteOperation operation, List<RelativeNegativeIndex> inputVariables) {
+    this(operation, toIndices(inputVariables));
+  }
+
+  private Statement(ConcreteOperation operation, int[] inputs) {
     this.operation = operation;
-    this.inputs = new ArrayList<>(inputVariables);
+    this.inputs = inputs;
+    this.hashCode = 31 * operation.hashCode() + Arrays.hashCode(inputs);
+  }
+
+  private static int[] toIndices(List<RelativeNegativeIndex> inputVariables) {
+    int[] indices = new int[inputVariables.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = inputVariables.get(i).index;
+    }
+    return indices;
+  }
+
+  /**
+   * Returns the canonical statement for the operation and inputs, so that
+   * equal statements of different sequences share one object.
+   *
+   * @param operation
+   *          the operation of the statement
+   * @param inputs
+   *          the inputs, as the relative negative indices of the statements
+   *          that create them; not modified afterwards
+   * @return a statement equal to {@code new Statement(operation, inputs)}
+   */
+  static Statement intern(ConcreteOperation operation, int[] inputs) {
+    int hashCode = 31 * operation.hashCode() + Arrays.hashCode(inputs);
+    InternStripe stripe = canonical[(hashCode ^ (hashCode >>> 16)) & (canonical.length - 1)];
+    return stripe.intern(operation, inputs, hashCode);
+  }
+
+  /**
+   * A hash table of canonical statements. Entries are weak, so that
+   * statements of discarded sequences can be reclaimed, and a lookup compares
+   * the operation and inputs directly, so no statement is created for a
+   * statement that is already interned.
+   */
+  private static final class InternStripe {
+
+    private static final class Entry extends WeakReference<Statement> {
+      final int hashCode;
+      Entry next;
+
+      Entry(Statement statement, ReferenceQueue<Statement> queue, Entry next) {
+        super(statement, queue);
+        this.hashCode = statement.hashCode;
+        this.next = next;
+      }
+    }
+
+    private final ReferenceQueue<Statement> reclaimed = new ReferenceQueue<>();
+
+    private Entry[] table = new Entry[16];
+
+    private int count = 0;
+
+    synchronized Statement intern(ConcreteOperation operation, int[] inputs, int hashCode) {
+      int bucket = hashCode & (table.length - 1);
+      for (Entry e = table[bucket]; e != null; e = e.next) {
+        Statement s = e.get();
+        if (e.hashCode == hashCode
+            && s != null
+            && Arrays.equals(inputs, s.inputs)
+            && operation.equals(s.operation)) {
+          return s;
+        }
+      }
+      removeReclaimed();
+      if (count >= table.length - (table.length >> 2)) {
+        resize();
+      }
+      Statement statement = new Statement(operation, inputs);
+      bucket = hashCode & (table.length - 1);
+      table[bucket] = new Entry(statement, reclaimed, table[bucket]);
+      count++;
+      return statement;
+    }
+
+    private void removeReclaimed() {
+      Reference<? extends Statement> ref;
+      while ((ref = reclaimed.poll()) != null) {
+        Entry entry = (Entry) ref;
+        int bucket = entry.hashCode & (table.length - 1);
+        Entry previous = null;
+        for (Entry e = table[bucket]; e != null; previous = e, e = e.next) {
+          if (e == entry) {
+            if (previous == null) {
+              table[bucket] = e.next;
+            } else {
+              previous.next = e.next;
+            }
+            count--;
+            break;
+          }
+        }
+      }
+    }
+
+    private void resize() {
+      Entry[] newTable = new Entry[table.length * 2];
+      for (Entry e : table) {
+        while (e != null) {
+          Entry next = e.next;
+          int bucket = e.hashCode & (newTable.length - 1);
+          e.next = newTable[bucket];
+          newTable[bucket] = e;
+          e = next;
+        }
+      }
+      table = newTable;
+    }
+  }
+
+  /**
+   * Returns the fingerprint of this statement. Equal statements have equal
+   * fingerprints.
+   */
+  SequenceFingerprint getFingerprint() {
+    SequenceFingerprint result = fingerprint;
+    if (result == null) {
+      // The types make operations with the same parseable form different.
+      result =
+          SequenceFingerprint.of(
+              operation.toParseableString()
+                  + " "
+                  + operation.getDeclaringType()
+                  + " "
+                  + operation.getInputTypes()
+                  + " "
+                  + operation.getOutputType()
+                  + " "
+                  + Arrays.toString(inputs));
+      fingerprint = result;
+    }
+    return result;
+  }
+
+  /** Returns the number of inputs of this statement. */
+  int getInputCount() {
+    return inputs.length;
+  }
+
+  /**
+   * Returns the relative negative index of the statement that creates the
+   * given input of this statement.
+   */
+  int getInputIndex(int i) {
+    return inputs[i];
   }
 
   /**
@@ -52,7 +224,7 @@ public final class Statement {
    *          the operation for action of this statement.
    */
   public Statement(ConcreteOperation operation) {
-    this(operation, new ArrayList<RelativeNegativeIndex>());
+    this(operation, new int[0]);
   }
 
   /**
@@ -79,23 +251,14 @@ public final class Statement {
       return true;
     }
     Statement s = (Statement) obj;
-    if (!operation.equals(s.operation)) {
-      return false;
-    }
-    if (inputs.size() != s.inputs.size()) {
-      return false;
-    }
-    for (int j = 0; j < inputs.size(); j++) {
-      if (!inputs.get(j).equals(s.inputs.get(j))) {
-        return false;
-      }
-    }
-    return true;
+    return hashCode == s.hashCode
+        && Arrays.equals(inputs, s.inputs)
+        && operation.equals(s.operation);
   }
 
   @Override
   public int hashCode() {
-    return java.util.Objects.hash(operation, inputs);
+    return hashCode;
   }
 
   public ConcreteType getOutputType() {
@@ -1,7 +1,11 @@
 package main.java.randoop.test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import main.java.randoop.BugInRandoopException;
 import main.java.randoop.ExceptionalExecution;
@@ -11,6 +15,7 @@ import main.java.randoop.NotExecuted;
 import main.java.randoop.contract.ObjectContract;
 import main.java.randoop.contract.ObjectContractUtils;
 import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
 import main.java.randoop.test.predicate.ExceptionPredicate;
 import main.java.randoop.types.ConcreteType;
 import main.java.randoop.types.ConcreteTypes;
@@ -26,12 +31,22 @@ import main.java.randoop.util.MultiMap;
  * visitor generates a {@code NoExceptionCheck} indicating that the statement
  * threw an exception in error. For each contract violation, the visitor adds a
  * {@code Check} to the {@code TestChecks} object that is returned.
+ * <p>
+ * All contract evaluations for a sequence are executed as one batch (see
+ * {@link ObjectContractUtils#execute(List, List)}). Values of an input
+ * sequence that this visitor already checked, and that the rest of the
+ * sequence does not use, are not checked again.
  */
 public final class ContractCheckingVisitor implements TestCheckGenerator {
 
   private Set<ObjectContract> contracts;
   private ExceptionPredicate exceptionPredicate;
 
+  // The sequences whose values this visitor has checked. Shared by all
+  // generation threads; the sequences are kept alive by the component pool.
+  private final Set<Sequence> checkedSequences =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Sequence, Boolean>()));
+
   /**
    * Create a new visitor that checks the given contracts after the last
    * statement in a sequence is executed.
@@ -85,22 +100,38 @@ public final class ContractCheckingVisitor implements TestCheckGenerator {
     } else {
       // Otherwise, normal execution, check contracts
       MultiMap<ConcreteType, Integer> idxmap = indicesToCheck(s);
+      int[] checked = checkedInputSequences(s);
+      List<ObjectContract> batchContracts = new ArrayList<>();
+      List<Object[]> batchValues = new ArrayList<>();
+      List<int[]> batchIndices = new ArrayList<>();
       for (ConcreteType cls : idxmap.keySet()) {
         for (ObjectContract c : contracts) {
           if (c.getArity() == 1) {
-            checkUnary(s, c, idxmap.getValues(cls), checks);
+            addUnary(s, c, idxmap.getValues(cls), checked, batchContracts, batchValues, batchIndices);
           } else {
-            checkBinary(s, c, idxmap.getValues(cls), checks);
+            addBinary(s, c, idxmap.getValues(cls), checked, batchContracts, batchValues, batchIndices);
           }
         }
       }
+      List<ExecutionOutcome> outcomes = ObjectContractUtils.execute(batchContracts, batchValues);
+      for (int k = 0; k < outcomes.size(); k++) {
+        ObjectContract c = batchContracts.get(k);
+        int[] indices = batchIndices.get(k);
+        if (c.getArity() == 1) {
+          checkUnary(s, c, indices[0], outcomes.get(k), checks);
+        } else {
+          checkBinary(s, c, indices[0], indices[1], outcomes.get(k), checks);
+        }
+      }
+      checkedSequences.add(s.sequence);
     }
     return checks;
   }
 
   /**
-   * Checks a binary contract over the set of values defined in the sequence,
-   * and attaches failing checks at final statement of the sequence.
+   * Adds the evaluations of a binary contract over the set of values defined
+   * in the sequence to a batch, skipping pairs of values from the same input
+   * sequence if that sequence was checked before and is unchanged.
    *
    * @param s
    *          the executable sequence
@@ -108,63 +139,44 @@ public final class ContractCheckingVisitor implements TestCheckGenerator {
    *          the contract to check
    * @param values
    *          the set of positions defining values to check
-   * @param checks
-   *          the {@code TestChecks} to which new checks are added
+   * @param checked
+   *          for each position, the number of the checked input sequence that
+   *          defines it, or 0
+   * @param batchContracts
+   *          the contracts of the batch
+   * @param batchValues
+   *          the values of the batch
+   * @param batchIndices
+   *          the positions of the values of the batch
    */
-  private void checkBinary(
-      ExecutableSequence s, ObjectContract c, Set<Integer> values, ErrorRevealingChecks checks) {
+  private static void addBinary(
+      ExecutableSequence s,
+      ObjectContract c,
+      Set<Integer> values,
+      int[] checked,
+      List<ObjectContract> batchContracts,
+      List<Object[]> batchValues,
+      List<int[]> batchIndices) {
     for (Integer i : values) {
       for (Integer j : values) {
-
-        ExecutionOutcome result1 = s.getResult(i);
-        ExecutionOutcome result2 = s.getResult(j);
-
-        if (!((result1 instanceof NormalExecution) && (result2 instanceof NormalExecution))) {
-          throw new Error("Abnormal execution in sequence: " + s);
-        }
-
-        if (Log.isLoggingOn())
-          Log.logLine("Checking contract " + c.getClass() + " on " + i + ", " + j);
-
-        ExecutionOutcome exprOutcome =
-            ObjectContractUtils.execute(
-                c,
-                ((NormalExecution) result1).getRuntimeValue(),
-                ((NormalExecution) result2).getRuntimeValue());
-
-        if (exprOutcome instanceof NormalExecution) {
-          NormalExecution e = (NormalExecution) exprOutcome;
-          if (e.getRuntimeValue().equals(true)) {
-            if (Log.isLoggingOn()) Log.logLine("Contract returned true.");
-            // Behavior ok.
-          } else {
-            if (Log.isLoggingOn())
-              Log.logLine("Contract returned false. Will add ExpressionEqFalse check");
-            // Create an check that records the actual value
-            // returned by the expression, marking it as invalid
-            // behavior.
-            checks.add(new ObjectCheck(c, i, s.sequence.getVariable(i), s.sequence.getVariable(j)));
-          }
-        } else if (exprOutcome instanceof ExceptionalExecution) {
-          Throwable e = ((ExceptionalExecution) exprOutcome).getException();
-          if (Log.isLoggingOn()) Log.logLine("Contract threw exception: " + e.getMessage());
-          if (e instanceof BugInRandoopException) {
-            throw new BugInRandoopException(e);
-          }
-          // Execution of contract resulted in exception. Do not create
-          // a contract-violation decoration.
-          // TODO are there cases where exception in contract check is a
-          // failure?
-        } else {
-          throw new Error("Contract failed to execute during evaluation");
+        if (checked[i] != 0 && checked[i] == checked[j]) {
+          continue;
         }
+        if (Log.isLoggingOn(Log.Category.CHECKS))
+          Log.logLine(
+              Log.Category.CHECKS,
+              "Checking contract " + c.getClass() + " on " + i + ", " + j);
+        batchContracts.add(c);
+        batchValues.add(new Object[] {runtimeValue(s, i), runtimeValue(s, j)});
+        batchIndices.add(new int[] {i, j});
       }
     }
   }
 
   /**
-   * Checks a unary contract over the set of values defined in a sequence, and
-   * attaches failing checks to the final statement of the sequence.
+   * Adds the evaluations of a unary contract over the set of values defined in
+   * a sequence to a batch, skipping values of input sequences that were
+   * checked before and are unchanged.
    *
    * @param s
    *          the executable sequence where values are defined
@@ -172,50 +184,173 @@ public final class ContractCheckingVisitor implements TestCheckGenerator {
    *          the contract to check
    * @param values
    *          the set of positions with values to check
+   * @param checked
+   *          for each position, the number of the checked input sequence that
+   *          defines it, or 0
+   * @param batchContracts
+   *          the contracts of the batch
+   * @param batchValues
+   *          the values of the batch
+   * @param batchIndices
+   *          the positions of the values of the batch
+   */
+  private static void addUnary(
+      ExecutableSequence s,
+      ObjectContract c,
+      Set<Integer> values,
+      int[] checked,
+      List<ObjectContract> batchContracts,
+      List<Object[]> batchValues,
+      List<int[]> batchIndices) {
+    for (Integer i : values) {
+      if (checked[i] != 0) {
+        continue;
+      }
+      batchContracts.add(c);
+      batchValues.add(new Object[] {runtimeValue(s, i)});
+      batchIndices.add(new int[] {i});
+    }
+  }
+
+  /**
+   * Attaches a failing check for the outcome of a binary contract to the final
+   * statement of the sequence.
+   *
+   * @param s
+   *          the executable sequence
+   * @param c
+   *          the contract checked
+   * @param i
+   *          the position of the first value
+   * @param j
+   *          the position of the second value
+   * @param exprOutcome
+   *          the outcome of the contract evaluation
    * @param checks
    *          the {@code TestChecks} to which new checks are added
    */
-  private void checkUnary(
-      ExecutableSequence s, ObjectContract c, Set<Integer> values, ErrorRevealingChecks checks) {
+  private static void checkBinary(
+      ExecutableSequence s,
+      ObjectContract c,
+      int i,
+      int j,
+      ExecutionOutcome exprOutcome,
+      ErrorRevealingChecks checks) {
+    if (exprOutcome instanceof NormalExecution) {
+      NormalExecution e = (NormalExecution) exprOutcome;
+      if (e.getRuntimeValue().equals(true)) {
+        if (Log.isLoggingOn(Log.Category.CHECKS))
+          Log.logLine(Log.Category.CHECKS, "Contract returned true.");
+        // Behavior ok.
+      } else {
+        if (Log.isLoggingOn(Log.Category.CHECKS))
+          Log.logLine(
+              Log.Category.CHECKS,
+              "Contract returned false. Will add ExpressionEqFalse check");
+        // Create an check that records the actual value
+        // returned by the expression, marking it as invalid
+        // behavior.
+        checks.add(new ObjectCheck(c, i, s.sequence.getVariable(i), s.sequence.getVariable(j)));
+      }
+    } else if (exprOutcome instanceof ExceptionalExecution) {
+      Throwable e = ((ExceptionalExecution) exprOutcome).getException();
+      if (Log.isLoggingOn(Log.Category.CHECKS))
+        Log.logLine(Log.Category.CHECKS, "Contract threw exception: " + e.getMessage());
+      if (e instanceof BugInRandoopException) {
+        throw new BugInRandoopException(e);
+      }
+      // Execution of contract resulted in exception. Do not create
+      // a contract-violation decoration.
+      // TODO are there cases where exception in contract check is a
+      // failure?
+    } else {
+      throw new Error("Contract failed to execute during evaluation");
+    }
+  }
 
-    for (Integer i : values) {
+  /**
+   * Attaches a failing check for the outcome of a unary contract to the final
+   * statement of the sequence.
+   *
+   * @param s
+   *          the executable sequence where values are defined
+   * @param c
+   *          the contract checked
+   * @param i
+   *          the position of the value
+   * @param exprOutcome
+   *          the outcome of the contract evaluation
+   * @param checks
+   *          the {@code TestChecks} to which new checks are added
+   */
+  private static void checkUnary(
+      ExecutableSequence s,
+      ObjectContract c,
+      int i,
+      ExecutionOutcome exprOutcome,
+      ErrorRevealingChecks checks) {
 
-      ExecutionOutcome result = s.getResult(i);
-      if (!(result instanceof NormalExecution)) {
-        throw new Error("Abnormal execution in sequence: " + s);
+    if (exprOutcome instanceof NormalExecution) {
+      NormalExecution e = (NormalExecution) exprOutcome;
+      if (e.getRuntimeValue().equals(true)) {
+        return; // Behavior ok
       }
+    } else if (exprOutcome instanceof ExceptionalExecution) {
+      // Execution of contract resulted in exception. Do not create
+      // a contract-violation decoration.
+      Throwable e = ((ExceptionalExecution) exprOutcome).getException();
+      if (Log.isLoggingOn(Log.Category.CHECKS))
+        Log.logLine(Log.Category.CHECKS, "Contract threw exception: " + e.getMessage());
+      if (e instanceof BugInRandoopException) {
+        throw new BugInRandoopException(e);
+      }
+      if (!c.evalExceptionMeansFailure()) {
+        return; // not violation
+      }
+    } else {
+      throw new Error("Contract failed to execute during evaluation");
+    }
 
-      ExecutionOutcome exprOutcome =
-          ObjectContractUtils.execute(c, ((NormalExecution) result).getRuntimeValue());
+    // If we get here, either the contract returned false or resulted
+    // in an exception that is considered a failure. Add
+    // a contract violation check.
+    // Create an check that records the actual value
+    // returned by the expression, marking it as invalid
+    // behavior.
+    checks.add(new ObjectCheck(c, i, s.sequence.getVariable(i)));
+  }
 
-      if (exprOutcome instanceof NormalExecution) {
-        NormalExecution e = (NormalExecution) exprOutcome;
-        if (e.getRuntimeValue().equals(true)) {
-          continue; // Behavior ok, move to next value
-        }
-      } else if (exprOutcome instanceof ExceptionalExecution) {
-        // Execution of contract resulted in exception. Do not create
-        // a contract-violation decoration.
-        Throwable e = ((ExceptionalExecution) exprOutcome).getException();
-        if (Log.isLoggingOn()) Log.logLine("Contract threw exception: " + e.getMessage());
-        if (e instanceof BugInRandoopException) {
-          throw new BugInRandoopException(e);
-        }
-        if (!c.evalExceptionMeansFailure()) {
-          continue; // not violation, move to next value
-        }
-      } else {
-        throw new Error("Contract failed to execute during evaluation");
-      }
+  private static Object runtimeValue(ExecutableSequence s, int i) {
+    ExecutionOutcome result = s.getResult(i);
+    if (!(result instanceof NormalExecution)) {
+      throw new Error("Abnormal execution in sequence: " + s);
+    }
+    return ((NormalExecution) result).getRuntimeValue();
+  }
 
-      // If we get here, either the contract returned false or resulted
-      // in an exception that is considered a failure. Add
-      // a contract violation check.
-      // Create an check that records the actual value
-      // returned by the expression, marking it as invalid
-      // behavior.
-      checks.add(new ObjectCheck(c, i, s.sequence.getVariable(i)));
+  /**
+   * Returns, for each statement of the sequence, the number (counting from 1)
+   * of the input sequence that defines it, if this visitor checked that input
+   * sequence before and the sequence leaves its values unchanged (see
+   * {@link ExecutableSequence#getUnchangedInputSequences()}); and 0 otherwise.
+   * <p>
+   * Checking the contracts of such values again would give the same result.
+   * Values of different input sequences are not independent of each other in
+   * this way, so pairs of them are still checked.
+   *
+   * @param s
+   *          the executable sequence
+   * @return the checked input sequence of each statement, or 0
+   */
+  private int[] checkedInputSequences(ExecutableSequence s) {
+    int[] checked = s.getUnchangedInputSequences();
+    List<Sequence> inputSequences = s.getInputSequences();
+    for (int i = 0; i < checked.length; i++) {
+      if (checked[i] != 0 && !checkedSequences.contains(inputSequences.get(checked[i] - 1))) {
+        checked[i] = 0;
+      }
     }
+    return checked;
   }
 
   /**
@@ -1,6 +1,10 @@
 package main.java.randoop.test;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import main.java.randoop.ExceptionalExecution;
 import main.java.randoop.ExecutionOutcome;
@@ -14,6 +18,7 @@ import main.java.randoop.contract.PrimValue;
 import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
 import main.java.randoop.sequence.Statement;
 import main.java.randoop.sequence.Variable;
 import main.java.randoop.types.ConcreteType;
@@ -35,6 +40,10 @@ import main.java.randoop.util.MultiMap;
  * is a good indication that at least part of the String came from a call of
  * Object.toString() (e.g. "[[Ljava.lang.Object;@5780d9]" is the string
  * representation of a list containing one Object).
+ * <li>Remembers the observer values of each normally executed sequence, and
+ * reuses them for the values of an input sequence that the visited sequence
+ * leaves unchanged (see {@link ExecutableSequence#getUnchangedInputSequences()})
+ * instead of calling the observers again.
  * </ul>
  */
 public final class RegressionCaptureVisitor implements TestCheckGenerator {
@@ -44,6 +53,13 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
   private final Set<ConcreteOperation> excludeSet;
   private boolean includeAssertions;
 
+  // The observer values of the sequences this visitor visited, indexed by
+  // statement and then by observer, in the order of observerMap; null for a
+  // statement without observer values. Shared by all generation threads; the
+  // sequences are kept alive by the component pool.
+  private final Map<Sequence, Object[][]> observerValues =
+      Collections.synchronizedMap(new WeakHashMap<Sequence, Object[][]>());
+
   public RegressionCaptureVisitor(
       ExpectedExceptionCheckGen exceptionExpectation, MultiMap<ConcreteType, ConcreteOperation> observerMap, Set<ConcreteOperation> excludeSet, boolean includeAssertions) {
     this.exceptionExpectation = exceptionExpectation;
@@ -71,6 +87,9 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
 
     int finalIndex = s.sequence.size() - 1;
 
+    Object[][] values = new Object[s.sequence.size()][];
+    Object[][] reusedValues = includeAssertions ? reusableObserverValues(s) : values;
+
     // Capture checks for each value created.
     // Recall there are as many values as statements in the sequence.
     for (int i = 0; i < s.sequence.size(); i++) {
@@ -125,8 +144,9 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
               // unreadable and/or non-compilable due to Java
               // restrictions on String constants.
               if (!PrimitiveTypes.stringLengthOK(str)) {
-                if (Log.isLoggingOn()) {
+                if (Log.isLoggingOn(Log.Category.CHECKS)) {
                   Log.logLine(
+                      Log.Category.CHECKS,
                       "Ignoring a string that exceeds the maximum length of "
                           + GenInputsAbstract.string_maxlen);
                 }
@@ -172,26 +192,15 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
             Variable var0 = s.sequence.getVariable(i);
             Set<ConcreteOperation> observers = observerMap.getValues(var0.getType());
             if (observers != null) {
+              Object[] observed = reusedValues[i];
+              if (observed == null || observed.length != observers.size()) {
+                observed = observe(observers, o, var);
+              }
+              values[i] = observed;
+              int k = 0;
               for (ConcreteOperation m : observers) {
 
-                ExecutionOutcome outcome = m.execute(new Object[]{o}, null);
-                if (outcome instanceof ExceptionalExecution) {
-                  String msg = "unexpected error invoking observer "
-                          + m
-                          + " on "
-                          + var
-                          + "["
-                          + var.getType()
-                          + "]"
-                          + " with value "
-                          + o
-                          + " ["
-                          + o.getClass()
-                          + "]";
-                  throw new RuntimeException(msg, ((ExceptionalExecution) outcome).getException());
-                }
-
-                Object value = ((NormalExecution) outcome).getRuntimeValue();
+                Object value = observed[k++];
 
                 // Don't create assertions over string that look like raw object
                 // references.
@@ -203,8 +212,10 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
                 ObjectContract observerEqValue = new ObserverEqValue(m, value);
                 ObjectCheck observerCheck = new ObjectCheck(observerEqValue, i, var);
 
-                if (Log.isLoggingOn()) {
-                  Log.logLine(String.format("Adding observer %s%n", observerCheck));
+                if (Log.isLoggingOn(Log.Category.CHECKS)) {
+                  Log.logLine(
+                      Log.Category.CHECKS,
+                      String.format("Adding observer %s%n", observerCheck));
                 }
 
                 checks.add(observerCheck);
@@ -228,6 +239,81 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
         throw new Error("Unexecuted statement in sequence");
       }
     }
+    if (includeAssertions && s.getResult(finalIndex) instanceof NormalExecution) {
+      observerValues.put(s.sequence, values);
+    }
     return checks;
   }
+
+  /**
+   * Calls the given observers on a value.
+   *
+   * @param observers
+   *          the observers for the type of the value
+   * @param o
+   *          the non-null value
+   * @param var
+   *          the variable of the value
+   * @return the value returned by each observer, in order
+   * @throws RuntimeException
+   *           if an observer throws an exception
+   */
+  private static Object[] observe(Set<ConcreteOperation> observers, Object o, Variable var) {
+    Object[] observed = new Object[observers.size()];
+    int k = 0;
+    for (ConcreteOperation m : observers) {
+      ExecutionOutcome outcome = m.execute(new Object[] {o}, null);
+      if (outcome instanceof ExceptionalExecution) {
+        String msg = "unexpected error invoking observer "
+                + m
+                + " on "
+                + var
+                + "["
+                + var.getType()
+                + "]"
+                + " with value "
+                + o
+                + " ["
+                + o.getClass()
+                + "]";
+        throw new RuntimeException(msg, ((ExceptionalExecution) outcome).getException());
+      }
+      observed[k++] = ((NormalExecution) outcome).getRuntimeValue();
+    }
+    return observed;
+  }
+
+  /**
+   * Returns, for each statement of the sequence, the observer values recorded
+   * for the same statement of an unchanged input sequence, or null if there
+   * are none. The statements of an unchanged input sequence create values in
+   * the same state as when this visitor visited the input sequence, so the
+   * observers would return the same values again.
+   *
+   * @param s
+   *          the executable sequence
+   * @return the reusable observer values of each statement, or null
+   */
+  private Object[][] reusableObserverValues(ExecutableSequence s) {
+    Object[][] reused = new Object[s.sequence.size()][];
+    List<Sequence> inputSequences = s.getInputSequences();
+    if (inputSequences == null) {
+      return reused;
+    }
+    int[] unchanged = s.getUnchangedInputSequences();
+    int start = 0;
+    for (int k = 0; k < inputSequences.size(); k++) {
+      Sequence is = inputSequences.get(k);
+      Object[][] inputValues = observerValues.get(is);
+      if (inputValues != null && inputValues.length == is.size()) {
+        for (int i = 0; i < is.size(); i++) {
+          if (unchanged[start + i] == k + 1) {
+            reused[start + i] = inputValues[i];
+          }
+        }
+      }
+      start += is.size();
+    }
+    return reused;
+  }
 }
@@ -29,6 +29,9 @@ public class ConcreteArrayType extends ConcreteType {
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof ConcreteArrayType)) {
       return false;
     }
@@ -65,7 +68,7 @@ public class ConcreteArrayType extends ConcreteType {
    * of raw type if element type is parameterized.
    */
   @Override
-  public boolean isAssignableFrom(ConcreteType sourceType) {
+  protected boolean checkAssignableFrom(ConcreteType sourceType) {
     if (!sourceType.isArray()) {
       return false;
     }
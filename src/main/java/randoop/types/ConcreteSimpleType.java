@@ -26,6 +26,9 @@ public class ConcreteSimpleType extends ConcreteType {
    */
   @Override
   public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof ConcreteSimpleType)) {
       return false;
     }
@@ -113,7 +116,7 @@ public class ConcreteSimpleType extends ConcreteType {
    *         assignment conversion, false otherwise
    */
   @Override
-  public boolean isAssignableFrom(ConcreteType sourceType) {
+  protected boolean checkAssignableFrom(ConcreteType sourceType) {
 
     // cannot assign to/from void
     if (this.isVoid() || sourceType.isVoid()) {
@@ -132,7 +135,8 @@ public class ConcreteSimpleType extends ConcreteType {
     }
 
     // to be assignable, other cases must be ConcreteSimpleType to ConcreteSimpleType
-    return sourceType instanceof ConcreteSimpleType && isAssignableFrom((ConcreteSimpleType) sourceType);
+    return sourceType instanceof ConcreteSimpleType
+        && checkAssignableFrom((ConcreteSimpleType) sourceType);
 
   }
 
@@ -146,7 +150,7 @@ public class ConcreteSimpleType extends ConcreteType {
    * @return true if a value of {@code sourceType} can be assigned to a variable
    *         of this type
    */
-  private boolean isAssignableFrom(ConcreteSimpleType sourceType) {
+  private boolean checkAssignableFrom(ConcreteSimpleType sourceType) {
     // test for identity and reference widening conversions
     if (this.runtimeClass.isAssignableFrom(sourceType.runtimeClass)) {
       return true;
@@ -176,7 +180,7 @@ public class ConcreteSimpleType extends ConcreteType {
     if (this.equals(ConcreteTypes.OBJECT_TYPE)) {
       return this;
     }
-    return new ConcreteSimpleType(this.runtimeClass.getSuperclass());
+    return intern(new ConcreteSimpleType(this.runtimeClass.getSuperclass()));
   }
 
   @Override
@@ -184,7 +188,7 @@ public class ConcreteSimpleType extends ConcreteType {
     if (this.isPrimitive()) {
       return this;
     } else if (this.isBoxedPrimitive()) {
-      return new ConcreteSimpleType(PrimitiveTypes.toUnboxedType(this.getRuntimeClass()));
+      return intern(new ConcreteSimpleType(PrimitiveTypes.toUnboxedType(this.getRuntimeClass())));
     }
     throw new IllegalArgumentException("Type must be primitive");
   }
@@ -1,6 +1,8 @@
 package main.java.randoop.types;
 
 import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import main.java.randoop.BugInRandoopException;
 
@@ -8,12 +10,28 @@ import main.java.randoop.BugInRandoopException;
  * {@code ConcreteType} represents any type that does not have a type variable:
  * a primitive type, a non-generic class, an enum, a parameterized type, or a
  * rawtype.
+ * <p>
+ * The factory methods of the types package return interned types, one
+ * instance for each type, so that comparing them is usually a comparison of
+ * references. The results of {@link #isAssignableFrom(ConcreteType)} are
+ * memoized, so that the type checks made while generating tests are map
+ * lookups.
  * @see randoop.types.ConcreteSimpleType
  * @see randoop.types.ConcreteArrayType
  * @see randoop.types.ParameterizedType
  */
 public abstract class ConcreteType extends GeneralType {
 
+  /** The interned types. */
+  private static final ConcurrentMap<ConcreteType, ConcreteType> interned =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Whether a value of each type checked so far can be assigned to this type,
+   * or null if none was checked.
+   */
+  private volatile ConcurrentMap<ConcreteType, Boolean> assignableFrom = null;
+
   /**
    * Indicates whether a value of a {@code ConcreteType} can be assigned to a
    * variable of this type:
@@ -45,10 +63,48 @@ public abstract class ConcreteType extends GeneralType {
    * @param sourceType  the type to test for assignability
    * @return true if this type can be assigned from the source type, and false otherwise
    */
-  public boolean isAssignableFrom(ConcreteType sourceType) {
+  public final boolean isAssignableFrom(ConcreteType sourceType) {
+    if (sourceType == null) {
+      throw new IllegalArgumentException("source type must be non-null");
+    }
+    ConcurrentMap<ConcreteType, Boolean> results = assignableFrom;
+    if (results == null) {
+      // a race may lose the results of the other thread, which is harmless
+      results = new ConcurrentHashMap<>();
+      assignableFrom = results;
+    }
+    Boolean result = results.get(sourceType);
+    if (result == null) {
+      result = checkAssignableFrom(sourceType);
+      results.put(sourceType, result);
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether a value of the given type can be assigned to a variable of
+   * this type, as specified by {@link #isAssignableFrom(ConcreteType)}, which
+   * memoizes the result.
+   *
+   * @param sourceType  the non-null type to test for assignability
+   * @return true if this type can be assigned from the source type, and false otherwise
+   */
+  protected boolean checkAssignableFrom(ConcreteType sourceType) {
     return false;
   }
 
+  /**
+   * Returns the interned instance of the given type: the first instance equal
+   * to it that was interned.
+   *
+   * @param type  the type
+   * @return the interned type equal to {@code type}
+   */
+  public static ConcreteType intern(ConcreteType type) {
+    ConcreteType existing = interned.putIfAbsent(type, type);
+    return existing == null ? type : existing;
+  }
+
   /**
    * Indicates whether this is an enum type.
    *
@@ -145,9 +201,9 @@ public abstract class ConcreteType extends GeneralType {
 
     if (typeClass.isArray()) {
       ConcreteType elementType = ConcreteType.forClass(typeClass.getComponentType(), arguments);
-      return new ConcreteArrayType(elementType);
+      return forArrayOf(elementType);
     }
-    return new ConcreteSimpleType(typeClass);
+    return intern(new ConcreteSimpleType(typeClass));
   }
 
   /**
@@ -178,7 +234,7 @@ public abstract class ConcreteType extends GeneralType {
    * @return a type object representing the array type with the given element type
    */
   public static ConcreteArrayType forArrayOf(ConcreteType elementType) {
-    return new ConcreteArrayType(elementType);
+    return (ConcreteArrayType) intern(new ConcreteArrayType(elementType));
   }
 
   /**
@@ -4,17 +4,29 @@ package main.java.randoop.types;
  * Created by bjkeller on 4/8/16.
  */
 public class ConcreteTypes {
-  public static final ConcreteType BOOLEAN_TYPE = new ConcreteSimpleType(boolean.class);
-  public static final ConcreteType BYTE_TYPE = new ConcreteSimpleType(byte.class);
-  public static final ConcreteType CHAR_TYPE = new ConcreteSimpleType(char.class);
-  public static final ConcreteType CLASS_TYPE = new ConcreteSimpleType(Class.class);
-  public static final ConcreteType DOUBLE_TYPE = new ConcreteSimpleType(double.class);
-  public static final ConcreteType FLOAT_TYPE = new ConcreteSimpleType(float.class);
-  public static final ConcreteType INT_TYPE = new ConcreteSimpleType(int.class);
-  public static final ConcreteType LONG_TYPE = new ConcreteSimpleType(long.class);
-  public static final ConcreteType OBJECT_TYPE = new ConcreteSimpleType(Object.class);
-  public static final ConcreteType SHORT_TYPE = new ConcreteSimpleType(short.class);
-  public static final ConcreteType STRING_TYPE = new ConcreteSimpleType(String.class);
-  public static final ConcreteType VOID_TYPE = new ConcreteSimpleType(void.class);
+  public static final ConcreteType BOOLEAN_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(boolean.class));
+  public static final ConcreteType BYTE_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(byte.class));
+  public static final ConcreteType CHAR_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(char.class));
+  public static final ConcreteType CLASS_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(Class.class));
+  public static final ConcreteType DOUBLE_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(double.class));
+  public static final ConcreteType FLOAT_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(float.class));
+  public static final ConcreteType INT_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(int.class));
+  public static final ConcreteType LONG_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(long.class));
+  public static final ConcreteType OBJECT_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(Object.class));
+  public static final ConcreteType SHORT_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(short.class));
+  public static final ConcreteType STRING_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(String.class));
+  public static final ConcreteType VOID_TYPE =
+      ConcreteType.intern(new ConcreteSimpleType(void.class));
 
 }
@@ -224,7 +224,7 @@ public abstract class GeneralType {
     if (elementType.isGeneric()) {
       return new GenericArrayType((GenericType) elementType);
     } else {
-      return new ConcreteArrayType((ConcreteType) elementType);
+      return ConcreteType.forArrayOf((ConcreteType) elementType);
     }
   }
 
@@ -60,7 +60,7 @@ public class GenericArrayType extends GenericType {
    */
   @Override
   public ConcreteType instantiate(ConcreteType... typeArguments) throws RandoopTypeException {
-    return new ConcreteArrayType(elementType.instantiate(typeArguments));
+    return ConcreteType.forArrayOf(elementType.instantiate(typeArguments));
   }
 
   /**
@@ -72,7 +72,7 @@ public class GenericArrayType extends GenericType {
   public GeneralType apply(Substitution substitution) throws RandoopTypeException {
     GeneralType type = elementType.apply(substitution);
     if (type != null && ! type.isGeneric()) {
-      return new ConcreteArrayType((ConcreteType)type);
+      return ConcreteType.forArrayOf((ConcreteType)type);
     } else {
       return this;
     }
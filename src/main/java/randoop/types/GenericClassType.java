@@ -137,7 +137,7 @@ public class GenericClassType extends GenericType {
       }
       argumentList.add(new ConcreteArgument(typeArguments[i]));
     }
-    return new ParameterizedType(this, substitution, argumentList);
+    return ConcreteType.intern(new ParameterizedType(this, substitution, argumentList));
   }
 
   /**
@@ -172,7 +172,7 @@ public class GenericClassType extends GenericType {
     if (isPartial) {
       return new GenericParameterizedType(this, substitution, argumentList);
     }
-    return new ParameterizedType(this, substitution, argumentList);
+    return ConcreteType.intern(new ParameterizedType(this, substitution, argumentList));
   }
 
   /**
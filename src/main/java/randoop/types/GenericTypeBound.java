@@ -85,6 +85,21 @@ public class GenericTypeBound extends TypeBound {
     return b.isSatisfiedBy(argType, substitution);
   }
 
+  /**
+   * {@inheritDoc}
+   * Arguments of this bound that are not type variables are ignored, since
+   * no substitution can instantiate them.
+   */
+  @Override
+  public boolean isInstantiatedBy(Substitution substitution) {
+    for (Type parameter : parameters) {
+      if (parameter instanceof TypeVariable && substitution.get(parameter) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Creates concrete type bound from this bound by instantiating the type
    * variables of this bound with the given substitution. The substitution must
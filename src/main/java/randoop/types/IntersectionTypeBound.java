@@ -68,6 +68,16 @@ public class IntersectionTypeBound extends TypeBound {
     return true;
   }
 
+  @Override
+  public boolean isInstantiatedBy(Substitution substitution) {
+    for (TypeBound b : boundList) {
+      if (!b.isInstantiatedBy(substitution)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    * It is not possible to create a {@code Class} object for an intersection
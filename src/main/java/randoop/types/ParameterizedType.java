@@ -26,6 +26,9 @@ public class ParameterizedType extends ConcreteType {
   /** The instantiating type substitution */
   private Substitution substitution;
 
+  /** The hash code of this type, or 0 if not computed yet */
+  private int hashCode = 0;
+
   /**
    * Create a parameterized type from the generic class type.
    *
@@ -55,6 +58,9 @@ public class ParameterizedType extends ConcreteType {
    */
   @Override
   public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof ParameterizedType)) {
       return false;
     }
@@ -80,7 +86,15 @@ public class ParameterizedType extends ConcreteType {
 
   @Override
   public int hashCode() {
-    return Objects.hash(instantiatedType, substitution, argumentList);
+    if (hashCode == 0) {
+      // hash what equals() compares: the class, and the type of each parameter
+      List<ConcreteType> argumentTypes = new ArrayList<>();
+      for (TypeParameter parameter : instantiatedType.getTypeParameters()) {
+        argumentTypes.add(substitution.get(parameter.getParameter()));
+      }
+      hashCode = Objects.hash(instantiatedType, argumentTypes);
+    }
+    return hashCode;
   }
 
   /**
@@ -99,11 +113,7 @@ public class ParameterizedType extends ConcreteType {
    * relation.
    */
   @Override
-  public boolean isAssignableFrom(ConcreteType sourceType) {
-    if (sourceType == null) {
-      throw new IllegalArgumentException("source type must be non-null");
-    }
-
+  protected boolean checkAssignableFrom(ConcreteType sourceType) {
     // do a couple of quick checks for things that don't work
     // first, can't assign an array to a parameterized type
     if (sourceType.isArray()) {
@@ -298,7 +308,7 @@ public class ParameterizedType extends ConcreteType {
     assert (superclass instanceof GenericClassType) || (superclass instanceof ConcreteType) : "unexpected type: " + superclass;
 
     if (superclass instanceof GenericClassType) {
-      return new ParameterizedType((GenericClassType)superclass, this.substitution, argumentList);
+      return intern(new ParameterizedType((GenericClassType)superclass, this.substitution, argumentList));
     }
 
     return (ConcreteType)superclass;
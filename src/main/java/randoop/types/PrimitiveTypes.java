@@ -101,13 +101,13 @@ public final class PrimitiveTypes {
   }
 
   public static ConcreteType getPrimitiveOrStringType(String typeName) {
-    return new ConcreteSimpleType(typeNameToPrimitiveOrString.get(typeName));
+    return ConcreteType.intern(new ConcreteSimpleType(typeNameToPrimitiveOrString.get(typeName)));
   }
 
   public static Set<ConcreteType> getPrimitiveOrStringTypes() {
     Set<ConcreteType> s = new LinkedHashSet<>();
     for (Class<?> c : primitiveAndStringToBoxed.keySet()) {
-      s.add(new ConcreteSimpleType(c));
+      s.add(ConcreteType.intern(new ConcreteSimpleType(c)));
     }
     return Collections.unmodifiableSet(s);
   }
@@ -115,13 +115,13 @@ public final class PrimitiveTypes {
   public static Set<ConcreteType> getBoxedTypesAndString() {
     Set<ConcreteType> s = new LinkedHashSet<>();
     for (Class<?> c : boxedToPrimitiveAndString.keySet()) {
-      s.add(new ConcreteSimpleType(c));
+      s.add(ConcreteType.intern(new ConcreteSimpleType(c)));
     }
     return Collections.unmodifiableSet(s);
   }
 
   public static ConcreteType toBoxedType(Class<?> cls) {
-    return new ConcreteSimpleType(primitiveAndStringToBoxed.get(cls));
+    return ConcreteType.intern(new ConcreteSimpleType(primitiveAndStringToBoxed.get(cls)));
   }
 
   public static boolean isBoxedPrimitiveTypeOrString(Class<?> c) {
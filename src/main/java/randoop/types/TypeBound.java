@@ -29,6 +29,20 @@ public abstract class TypeBound {
     return false;
   }
 
+  /**
+   * Indicates whether the substitution has a type for each type variable
+   * that occurs in this bound, so that
+   * {@link #isSatisfiedBy(ConcreteType, Substitution)} can be evaluated with
+   * it. A bound without type variables is instantiated by any substitution.
+   *
+   * @param substitution  the substitution, possibly for only some of the
+   *          type parameters of a class
+   * @return true if the substitution instantiates this bound, false otherwise
+   */
+  public boolean isInstantiatedBy(Substitution substitution) {
+    return true;
+  }
+
   /**
    * Creates a {@code TypeBound} object from the given array of bounds.
    * If there is more than one type, the returned bound is an intersection type.
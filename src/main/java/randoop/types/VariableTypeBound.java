@@ -44,6 +44,11 @@ public class VariableTypeBound extends TypeBound {
     return b.isSatisfiedBy(argType, substitution);
   }
 
+  @Override
+  public boolean isInstantiatedBy(Substitution substitution) {
+    return substitution.get(typeVariable) != null;
+  }
+
   public TypeBound apply(Substitution substitution) {
     ConcreteType type = substitution.get(typeVariable);
     if (type == null) {
@@ -0,0 +1,81 @@
+package main.java.randoop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A list that only supports adding elements at the end, and that can be read
+ * by other threads while it is being extended.
+ *
+ * Elements are never overwritten once added, so a reader that has observed a
+ * given {@link #size()} can access every index below that size without
+ * synchronization, even while another thread adds more elements. This makes it
+ * possible to hand out {@link ListOfLists} views over the component pool to
+ * several generation threads without copying the lists.
+ */
+public final class AppendOnlyList<T> extends SimpleList<T> {
+
+  // Replaced (never modified below size) when the list grows.
+  private volatile Object[] elements;
+
+  // Written after the element it covers, so reading size first guarantees
+  // the elements below it are visible.
+  private volatile int size;
+
+  public AppendOnlyList() {
+    this.elements = new Object[10];
+    this.size = 0;
+  }
+
+  /**
+   * Adds an element to the end of this list.
+   *
+   * @param element  the element to add
+   * @return true (as specified by {@link java.util.Collection#add})
+   */
+  public synchronized boolean add(T element) {
+    Object[] current = elements;
+    if (size == current.length) {
+      current = Arrays.copyOf(current, current.length + (current.length >> 1) + 1);
+      elements = current;
+    }
+    current[size] = element;
+    size = size + 1;
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No such element: " + index);
+    }
+    return (T) elements[index];
+  }
+
+  @Override
+  public SimpleList<T> getSublist(int index) {
+    return this;
+  }
+
+  @Override
+  public List<T> toJDKList() {
+    int n = size;
+    List<T> result = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      result.add(get(i));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
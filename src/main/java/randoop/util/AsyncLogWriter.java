@@ -0,0 +1,186 @@
+package main.java.randoop.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes strings to writers on a background thread, so that the threads that
+ * log do not wait for the file system.
+ *
+ * <p>
+ * IMPLEMENTATION NOTE.
+ * <p>
+ *
+ * Messages go through a fixed-size ring buffer. A logging thread claims the
+ * next slot by incrementing {@code tail} and stores its message in the slot;
+ * it never takes a lock. The writer thread removes messages in slot order,
+ * writes them, and flushes a writer only when the buffer is empty, so a burst
+ * of messages costs one flush. When the buffer is empty, the writer thread
+ * sleeps for a millisecond rather than being woken for each message. A
+ * logging thread waits only if the buffer is full. Messages of one thread are written in the order they were logged.
+ */
+public final class AsyncLogWriter {
+
+  /** A message and the writer it goes to. */
+  private static final class Entry {
+    final Writer writer;
+    final String message;
+
+    Entry(Writer writer, String message) {
+      this.writer = writer;
+      this.message = message;
+    }
+  }
+
+  // How long the writer thread waits for messages when the buffer is empty.
+  private static final long WAIT_NANOS = 1000000L;
+
+  private final AtomicReferenceArray<Entry> slots;
+
+  private final int mask;
+
+  // The number of claimed slots.
+  private final AtomicLong tail = new AtomicLong();
+
+  // The number of removed slots. Only changed by the thread that holds
+  // drainLock.
+  private volatile long head = 0;
+
+  private final Object drainLock = new Object();
+
+  // The last writer written to that has not been flushed, or null.
+  private Writer unflushed = null;
+
+  private final Thread writerThread;
+
+  // Whether writing failed; later messages are discarded.
+  private volatile boolean failed = false;
+
+  /**
+   * Creates a writer with a buffer of the given size and starts its
+   * background thread.
+   *
+   * @param capacity  the number of buffered messages, a power of 2
+   */
+  public AsyncLogWriter(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("capacity must be a power of 2: " + capacity);
+    }
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+    this.writerThread =
+        new Thread("randoop-log-writer") {
+          @Override
+          public void run() {
+            writeLoop();
+          }
+        };
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Adds a message to the buffer, to be written to the given writer. Waits if
+   * the buffer is full.
+   *
+   * @param writer  the writer to write to
+   * @param message  the message
+   */
+  public void write(Writer writer, String message) {
+    long t;
+    while (true) {
+      t = tail.get();
+      if (t - head >= slots.length()) {
+        LockSupport.unpark(writerThread);
+        Thread.yield();
+      } else if (tail.compareAndSet(t, t + 1)) {
+        break;
+      }
+    }
+    slots.set((int) t & mask, new Entry(writer, message));
+  }
+
+  /**
+   * Writes and flushes all messages added to the buffer before this call, on
+   * the calling thread.
+   */
+  public void flush() {
+    long end = tail.get();
+    while (head < end) {
+      if (!drain()) {
+        // A logging thread claimed a slot but has not filled it yet.
+        Thread.yield();
+      }
+    }
+    synchronized (drainLock) {
+      flushWriter();
+    }
+  }
+
+  private void writeLoop() {
+    while (true) {
+      boolean wrote = drain();
+      if (failed) {
+        // As when logging was synchronous, a log that cannot be written ends
+        // the run. Exit outside of drainLock, so shutdown hooks can flush.
+        System.exit(1);
+      }
+      if (!wrote) {
+        synchronized (drainLock) {
+          flushWriter();
+        }
+        // Logging threads do not wake this thread unless the buffer is full,
+        // so that it writes messages in batches.
+        LockSupport.parkNanos(WAIT_NANOS);
+      }
+    }
+  }
+
+  // Writes the filled slots at the head of the buffer. Returns whether it
+  // wrote anything.
+  private boolean drain() {
+    synchronized (drainLock) {
+      boolean wrote = false;
+      while (true) {
+        int index = (int) head & mask;
+        Entry entry = slots.get(index);
+        if (entry == null) {
+          return wrote;
+        }
+        slots.set(index, null);
+        head = head + 1;
+        wrote = true;
+        if (failed) {
+          continue;
+        }
+        try {
+          if (unflushed != null && unflushed != entry.writer) {
+            flushWriter();
+          }
+          entry.writer.write(entry.message);
+          unflushed = entry.writer;
+        } catch (IOException e) {
+          e.printStackTrace();
+          failed = true;
+        }
+      }
+    }
+  }
+
+  // Flushes the last writer written to. Called with drainLock held.
+  private void flushWriter() {
+    if (unflushed == null || failed) {
+      return;
+    }
+    try {
+      unflushed.flush();
+    } catch (IOException e) {
+      e.printStackTrace();
+      failed = true;
+    }
+    unflushed = null;
+  }
+}
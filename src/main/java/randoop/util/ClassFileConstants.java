@@ -1,15 +1,28 @@
 package main.java.randoop.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.apache.commons.bcel6.Const;
 import org.apache.commons.bcel6.classfile.ClassParser;
+import org.apache.commons.bcel6.classfile.Code;
 import org.apache.commons.bcel6.classfile.Constant;
 import org.apache.commons.bcel6.classfile.ConstantClass;
 import org.apache.commons.bcel6.classfile.ConstantDouble;
@@ -25,12 +38,9 @@ import org.apache.commons.bcel6.classfile.ConstantString;
 import org.apache.commons.bcel6.classfile.ConstantUtf8;
 import org.apache.commons.bcel6.classfile.JavaClass;
 import org.apache.commons.bcel6.classfile.Method;
-import org.apache.commons.bcel6.generic.ClassGen;
-import org.apache.commons.bcel6.generic.ConstantPoolGen;
 import org.apache.commons.bcel6.generic.ConstantPushInstruction;
 import org.apache.commons.bcel6.generic.Instruction;
 import org.apache.commons.bcel6.generic.InstructionList;
-import org.apache.commons.bcel6.generic.MethodGen;
 import org.apache.commons.bcel6.util.ClassPath;
 
 import main.java.randoop.operation.NonreceiverTerm;
@@ -62,6 +72,10 @@ public class ClassFileConstants {
   static short s = 32000;
   static char c = 'a';
 
+  // The version of the format of cached constants. Change it when the
+  // extraction or the cache format changes, so that old entries are ignored.
+  private static final int CACHE_VERSION = 1;
+
   public static class ConstantSet {
     public String classname;
     public Set<Integer> ints = new TreeSet<>();
@@ -138,13 +152,164 @@ public class ClassFileConstants {
    * @return the set of constants with new constants of given type added
    */
   public static ConstantSet getConstants(String classname, ConstantSet result) {
+    return getConstants(classname, readClassFile(classname), result);
+  }
+
+  /**
+   * Returns all the constants found in the given class. If a cache directory
+   * is given, the constants are read from the cache if a class file with the
+   * same contents was scanned before, and are stored in the cache otherwise.
+   *
+   * @param classname  the name of the type
+   * @param cacheDirectory  the directory of the cache, or null for no cache
+   * @return the set of constants of the given type
+   */
+  public static ConstantSet getConstants(String classname, File cacheDirectory) {
+    byte[] classFile = readClassFile(classname);
+    if (cacheDirectory == null) {
+      return getConstants(classname, classFile, new ConstantSet());
+    }
+    File cacheFile = new File(cacheDirectory, cacheKey(classFile));
+    ConstantSet result = readCache(cacheFile);
+    if (result == null) {
+      result = getConstants(classname, classFile, new ConstantSet());
+      writeCache(cacheFile, result);
+    }
+    return result;
+  }
+
+  // Reads the class file of the given class from the class path.
+  private static byte[] readClassFile(String classname) {
+    String classfileBase = classname.replace('.', '/');
+    try (InputStream is = ClassPath.SYSTEM_CLASS_PATH.getInputStream(classfileBase, ".class")) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = is.read(buffer)) != -1) {
+        bytes.write(buffer, 0, n);
+      }
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new Error("IOException while reading '" + classname + "': " + e.getMessage());
+    }
+  }
+
+  // The name of the cache file for a class file: the version of the cache
+  // format and the SHA-1 hash of the class file.
+  private static String cacheKey(byte[] classFile) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      throw new Error("SHA-1 is not available", e);
+    }
+    StringBuilder key = new StringBuilder("v").append(CACHE_VERSION).append('-');
+    for (byte b : digest.digest(classFile)) {
+      key.append(String.format("%02x", b & 0xff));
+    }
+    return key.append(".literals").toString();
+  }
+
+  // Returns the constants in the given cache file, or null if the file does
+  // not exist or cannot be read.
+  private static ConstantSet readCache(File cacheFile) {
+    if (!cacheFile.exists()) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+      ConstantSet result = new ConstantSet();
+      result.classname = in.readUTF();
+      for (int n = in.readInt(); n > 0; n--) {
+        result.ints.add(in.readInt());
+      }
+      for (int n = in.readInt(); n > 0; n--) {
+        result.longs.add(in.readLong());
+      }
+      for (int n = in.readInt(); n > 0; n--) {
+        result.floats.add(in.readFloat());
+      }
+      for (int n = in.readInt(); n > 0; n--) {
+        result.doubles.add(in.readDouble());
+      }
+      for (int n = in.readInt(); n > 0; n--) {
+        result.strings.add(in.readUTF());
+      }
+      for (int n = in.readInt(); n > 0; n--) {
+        result.classes.add(TypeNames.getTypeForName(in.readUTF()));
+      }
+      return result;
+    } catch (IOException | ClassNotFoundException e) {
+      // A damaged or outdated entry is scanned again and replaced.
+      return null;
+    }
+  }
+
+  // Writes the constants to the given cache file. The file is written under
+  // another name and then renamed, so that concurrent runs never read a
+  // partly written file. Failing to write the cache is not an error.
+  private static void writeCache(File cacheFile, ConstantSet constants) {
+    File directory = cacheFile.getParentFile();
+    if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      return;
+    }
+    File tmpFile = null;
+    try {
+      tmpFile = File.createTempFile(cacheFile.getName(), ".tmp", directory);
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+        out.writeUTF(constants.classname);
+        out.writeInt(constants.ints.size());
+        for (int x : constants.ints) {
+          out.writeInt(x);
+        }
+        out.writeInt(constants.longs.size());
+        for (long x : constants.longs) {
+          out.writeLong(x);
+        }
+        out.writeInt(constants.floats.size());
+        for (float x : constants.floats) {
+          out.writeFloat(x);
+        }
+        out.writeInt(constants.doubles.size());
+        for (double x : constants.doubles) {
+          out.writeDouble(x);
+        }
+        out.writeInt(constants.strings.size());
+        for (String x : constants.strings) {
+          out.writeUTF(x);
+        }
+        out.writeInt(constants.classes.size());
+        for (Class<?> x : constants.classes) {
+          out.writeUTF(x.getName());
+        }
+      }
+      Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      tmpFile = null;
+    } catch (IOException e) {
+      // ignore: the constants are extracted again next time
+    } finally {
+      if (tmpFile != null) {
+        tmpFile.delete();
+      }
+    }
+  }
+
+  /**
+   * Adds all the constants found in the given class file into the given
+   * ConstantSet, and returns it.
+   *
+   * @param classname  the name of the type
+   * @param classFile  the contents of the class file of the type
+   * @param result  the set of constants to which constants are added
+   * @return the set of constants with new constants of given type added
+   */
+  private static ConstantSet getConstants(String classname, byte[] classFile, ConstantSet result) {
 
     ClassParser cp;
     JavaClass jc;
     try {
-      String classfileBase = classname.replace('.', '/');
-      InputStream is = ClassPath.SYSTEM_CLASS_PATH.getInputStream(classfileBase, ".class");
-      cp = new ClassParser(is, classname);
+      cp = new ClassParser(new ByteArrayInputStream(classFile), classname);
       jc = cp.parse();
     } catch (java.io.IOException e) {
       throw new Error("IOException while reading '" + classname + "': " + e.getMessage());
@@ -179,14 +344,13 @@ public class ClassFileConstants {
       }
     }
 
-    ClassGen gen = new ClassGen(jc);
-    ConstantPoolGen pool = gen.getConstantPool();
-
-    // Process the code in each method looking for literals
+    // Process the code in each method looking for literals. Only the
+    // instructions are needed, so they are decoded directly from the code
+    // attribute rather than through a MethodGen.
     for (Method m : jc.getMethods()) {
-      MethodGen mg = new MethodGen(m, jc.getClassName(), pool);
-      InstructionList il = mg.getInstructionList();
-      if (il != null) {
+      Code code = m.getCode();
+      if (code != null) {
+        InstructionList il = new InstructionList(code.getCode());
         for (Instruction inst : il.getInstructions()) {
           switch (inst.getOpcode()) {
 
@@ -0,0 +1,140 @@
+package main.java.randoop.util;
+
+import java.util.Arrays;
+
+/**
+ * A list of positive weights that supports appending a weight, changing a
+ * weight, and finding the element at a given point of the cumulative weight,
+ * each in O(log n) time. Used to select elements at random with probability
+ * proportional to their weight, without summing all the weights on every
+ * selection.
+ */
+public final class FenwickTree {
+
+  // tree[i] is the sum of the weights at positions (i - lowbit(i), i],
+  // counting positions from 1.
+  private double[] tree;
+
+  private double[] weights;
+
+  private int size;
+
+  private double total;
+
+  public FenwickTree() {
+    this.tree = new double[11];
+    this.weights = new double[10];
+    this.size = 0;
+    this.total = 0;
+  }
+
+  /**
+   * Return the number of weights in this tree.
+   *
+   * @return the number of weights
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Return the sum of all weights in this tree.
+   *
+   * @return the sum of the weights
+   */
+  public double total() {
+    return total;
+  }
+
+  /**
+   * Return the weight at the given position.
+   *
+   * @param index  the position of the weight
+   * @return the weight at the position
+   */
+  public double get(int index) {
+    checkIndex(index);
+    return weights[index];
+  }
+
+  /**
+   * Adds a weight at the end of this tree.
+   *
+   * @param weight  the positive weight to add
+   */
+  public void add(double weight) {
+    checkWeight(weight);
+    if (size == weights.length) {
+      int capacity = weights.length + (weights.length >> 1) + 1;
+      weights = Arrays.copyOf(weights, capacity);
+      tree = Arrays.copyOf(tree, capacity + 1);
+    }
+    weights[size] = weight;
+    size++;
+    int i = size;
+    tree[i] = weight + prefixSum(i - 1) - prefixSum(i - (i & -i));
+    total += weight;
+  }
+
+  /**
+   * Replaces the weight at the given position.
+   *
+   * @param index  the position of the weight
+   * @param weight  the new positive weight
+   */
+  public void set(int index, double weight) {
+    checkIndex(index);
+    checkWeight(weight);
+    double delta = weight - weights[index];
+    weights[index] = weight;
+    for (int i = index + 1; i <= size; i += i & -i) {
+      tree[i] += delta;
+    }
+    total += delta;
+  }
+
+  /**
+   * Returns the position of the element at the given point of the cumulative
+   * weight: the first position whose weight, added to the weights before it,
+   * exceeds the point.
+   *
+   * @param point  a value between 0 (inclusive) and {@link #total()}
+   *          (exclusive)
+   * @return the position of the element that covers the point
+   */
+  public int find(double point) {
+    if (size == 0) throw new IllegalStateException("tree is empty");
+    int position = 0;
+    double remaining = point;
+    for (int bit = Integer.highestOneBit(size); bit > 0; bit >>= 1) {
+      int next = position + bit;
+      if (next <= size && tree[next] <= remaining) {
+        position = next;
+        remaining -= tree[next];
+      }
+    }
+    // Rounding can make the point reach the total.
+    return Math.min(position, size - 1);
+  }
+
+  // The sum of the weights at positions 1 to i.
+  private double prefixSum(int i) {
+    double sum = 0;
+    for (; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No such element: " + index);
+    }
+  }
+
+  private static void checkWeight(double weight) {
+    if (!(weight > 0) || Double.isInfinite(weight)) {
+      throw new IllegalArgumentException("weight must be positive but was " + weight);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package main.java.randoop.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A list whose elements are stored in an array, so that {@link #get(int)}
+ * takes constant time however the list was built.
+ * <p>
+ * Lists made by {@link #append(Object)} share the array of the list they
+ * extend when possible: the first list to append to an array writes into its
+ * free capacity, and only later appends to the same list copy the elements,
+ * into an array with room to grow. A chain of appends therefore takes
+ * amortized constant time per element, like an array list.
+ * <p>
+ * For {@link #getSublist(int)}, each element records where the part of the
+ * list that ends with it starts: the whole list for an appended element, and
+ * the position of the part in a concatenation otherwise. The sublist is built
+ * from these positions when needed, so the given lists are not kept.
+ */
+public final class FlattenedList<T> extends SimpleList<T> implements Serializable {
+
+  private static final long serialVersionUID = -2637423513926427853L;
+
+  // The array shared by this list and the lists that extend or are prefixes
+  // of it. Elements beyond size may belong to other lists.
+  private final Storage storage;
+
+  private final int size;
+
+  /**
+   * The elements of a list and of the lists that share them, with the start
+   * of the sublist that ends at each element.
+   */
+  private static final class Storage implements Serializable {
+
+    private static final long serialVersionUID = 5094616307633174816L;
+
+    final Object[] elements;
+
+    final int[] sublistStarts;
+
+    // The number of positions written, claimed by the list that appends first.
+    final AtomicInteger used;
+
+    Storage(int capacity, int used) {
+      this.elements = new Object[capacity];
+      this.sublistStarts = new int[capacity];
+      this.used = new AtomicInteger(used);
+    }
+  }
+
+  private FlattenedList(Storage storage, int size) {
+    this.storage = storage;
+    this.size = size;
+  }
+
+  /**
+   * Creates the concatenation of the given lists.
+   *
+   * @param lists
+   *          the lists to concatenate
+   */
+  public FlattenedList(List<SimpleList<T>> lists) {
+    int total = 0;
+    for (SimpleList<T> l : lists) {
+      total += l.size();
+    }
+    this.storage = new Storage(grow(total), total);
+    this.size = total;
+    int offset = 0;
+    for (SimpleList<T> l : lists) {
+      copyInto(l, offset);
+      offset += l.size();
+    }
+  }
+
+  /**
+   * Returns the capacity of a new array for the given number of elements,
+   * which leaves room for the elements appended next.
+   */
+  private static int grow(int size) {
+    return size + (size >> 1) + 1;
+  }
+
+  private void copyInto(SimpleList<T> list, int offset) {
+    Object[] elements = storage.elements;
+    int[] starts = storage.sublistStarts;
+    if (list instanceof FlattenedList) {
+      Storage other = ((FlattenedList<T>) list).storage;
+      System.arraycopy(other.elements, 0, elements, offset, list.size());
+      for (int i = 0; i < list.size(); i++) {
+        starts[offset + i] = offset + other.sublistStarts[i];
+      }
+      return;
+    }
+    for (int i = 0; i < list.size(); i++) {
+      elements[offset + i] = list.get(i);
+      // Sublists end with the element, so keep only the part up to it.
+      int length = Math.min(list.getSublist(i).size(), i + 1);
+      starts[offset + i] = offset + i + 1 - length;
+    }
+  }
+
+  /**
+   * Returns a list of the elements of this list followed by the given element.
+   * This list is not modified.
+   *
+   * @param element
+   *          the element to append
+   * @return the extended list, whose sublist for the appended element is the
+   *         whole list
+   */
+  public FlattenedList<T> append(T element) {
+    Storage s = storage;
+    if (size == s.elements.length || !s.used.compareAndSet(size, size + 1)) {
+      // Another list already extends this array, or it is full.
+      s = new Storage(grow(size + 1), size + 1);
+      System.arraycopy(storage.elements, 0, s.elements, 0, size);
+      System.arraycopy(storage.sublistStarts, 0, s.sublistStarts, 0, size);
+    }
+    s.elements[size] = element;
+    s.sublistStarts[size] = 0;
+    return new FlattenedList<>(s, size + 1);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    if (index < 0 || index > size - 1)
+      throw new IllegalArgumentException("index must be between 0 and size()-1");
+    return (T) storage.elements[index];
+  }
+
+  @Override
+  public SimpleList<T> getSublist(int index) {
+    if (index < 0 || index > size - 1)
+      throw new IllegalArgumentException("index must be between 0 and size()-1");
+    int start = storage.sublistStarts[index];
+    int end = index + 1;
+    if (start == 0) {
+      // A prefix shares the elements of this list.
+      return end == size ? this : new FlattenedList<T>(storage, end);
+    }
+    Storage s = new Storage(end - start, end - start);
+    System.arraycopy(storage.elements, start, s.elements, 0, end - start);
+    for (int i = start; i < end; i++) {
+      s.sublistStarts[i - start] = storage.sublistStarts[i] - start;
+    }
+    return new FlattenedList<>(s, end - start);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<T> toJDKList() {
+    List<T> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add((T) storage.elements[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+
+  // Serialize only the elements of this list, not those of the lists that
+  // share its array.
+  private Object writeReplace() {
+    if (storage.elements.length == size) {
+      return this;
+    }
+    Storage s = new Storage(size, size);
+    System.arraycopy(storage.elements, 0, s.elements, 0, size);
+    System.arraycopy(storage.sublistStarts, 0, s.sublistStarts, 0, size);
+    return new FlattenedList<T>(s, size);
+  }
+}
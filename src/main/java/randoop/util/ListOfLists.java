@@ -78,26 +78,40 @@ public class ListOfLists<T> extends SimpleList<T> implements Serializable {
   public T get(int index) {
     if (index < 0 || index > this.totalelements - 1)
       throw new IllegalArgumentException("index must be between 0 and size()-1");
-    int previousListSize = 0;
-    for (int i = 0; i < this.accumulatedSize.length; i++) {
-      if (index < this.accumulatedSize[i]) return this.lists.get(i).get(index - previousListSize);
-      previousListSize = this.accumulatedSize[i];
-    }
-    throw new BugInRandoopException("Indexing error in ListOfLists");
+    int i = listIndex(index);
+    int previousListSize = i == 0 ? 0 : this.accumulatedSize[i - 1];
+    return this.lists.get(i).get(index - previousListSize);
   }
 
   @Override
   public SimpleList<T> getSublist(int index) {
     if (index < 0 || index > this.totalelements - 1)
       throw new IllegalArgumentException("index must be between 0 and size()-1");
-    int previousListSize = 0;
-    for (int i = 0; i < this.accumulatedSize.length; i++) {
-      if (index < this.accumulatedSize[i]) {
-        return lists.get(i).getSublist(index - previousListSize);
+    int i = listIndex(index);
+    int previousListSize = i == 0 ? 0 : this.accumulatedSize[i - 1];
+    return lists.get(i).getSublist(index - previousListSize);
+  }
+
+  /**
+   * Returns the position of the list that holds the element at the given
+   * index, that is, the first i such that index &lt; accumulatedSize[i].
+   * Uses binary search, since a sequence can be built from many lists.
+   */
+  private int listIndex(int index) {
+    int low = 0;
+    int high = this.accumulatedSize.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (index < this.accumulatedSize[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
       }
-      previousListSize = accumulatedSize[i];
     }
-    throw new BugInRandoopException("indexing error in ListOfLists");
+    if (index >= this.accumulatedSize[low]) {
+      throw new BugInRandoopException("Indexing error in ListOfLists");
+    }
+    return low;
   }
 
   @Override
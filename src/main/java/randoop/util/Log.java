@@ -6,10 +6,21 @@ import main.java.randoop.operation.ConcreteOperation;
 import main.java.randoop.sequence.Sequence;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.FileWriter;
 import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * The log of a Randoop run, written to the file given by the option
+ * {@link GenInputsAbstract#log}.
+ *
+ * Messages are written by a background thread (see {@link AsyncLogWriter}),
+ * so logging does not wait for the file system. Each message belongs to a
+ * {@link Category}, and messages of categories that are not logged cost only
+ * the test of {@link #isLoggingOn(Category)}.
+ */
 public final class Log {
 
   private Log() {
@@ -28,62 +39,137 @@ public final class Log {
     out = System.out;
   }
 
-  public static void log(String s) {
-    if (!isLoggingOn()) return;
+  /**
+   * The kinds of messages in the log. The option
+   * {@link GenInputsAbstract#log_category} selects the kinds that are logged.
+   */
+  public enum Category {
+    /** messages that belong to no other category */
+    GENERAL,
+    /** calls of the random number generator */
+    RANDOMNESS,
+    /** the component pool: adding and selecting sequences */
+    COMPONENTS,
+    /** executing sequences */
+    EXECUTION,
+    /** generating checks for executed sequences */
+    CHECKS
+  }
 
-    try {
-      GenInputsAbstract.log.write(s);
-      GenInputsAbstract.log.flush();
-    } catch (IOException e) {
-      e.printStackTrace();
-      System.exit(1);
+  // Whether each category is logged, indexed by ordinal.
+  private static volatile boolean[] enabled = all(true);
+
+  // Created when the first message is logged.
+  private static volatile AsyncLogWriter writer = null;
+
+  private static AsyncLogWriter writer() {
+    AsyncLogWriter w = writer;
+    if (w == null) {
+      synchronized (Log.class) {
+        w = writer;
+        if (w == null) {
+          w = new AsyncLogWriter(8192);
+          Runtime.getRuntime()
+              .addShutdownHook(
+                  new Thread() {
+                    @Override
+                    public void run() {
+                      flush();
+                    }
+                  });
+          writer = w;
+        }
+      }
     }
+    return w;
   }
 
-  public static void logLine(String s) {
-    if (!isLoggingOn()) return;
+  private static boolean[] all(boolean value) {
+    boolean[] result = new boolean[Category.values().length];
+    Arrays.fill(result, value);
+    return result;
+  }
 
-    try {
-      GenInputsAbstract.log.write(s);
-      GenInputsAbstract.log.write(Globals.lineSep);
-      GenInputsAbstract.log.flush();
-    } catch (IOException e) {
-      e.printStackTrace();
-      System.exit(1);
+  /**
+   * Logs only messages of the given categories. All categories are logged by
+   * default.
+   *
+   * @param categories  the categories to log
+   */
+  public static void setCategories(Collection<Category> categories) {
+    boolean[] newEnabled = all(false);
+    for (Category c : categories) {
+      newEnabled[c.ordinal()] = true;
     }
+    enabled = newEnabled;
   }
 
-  public static void log(Sequence s) {
+  /**
+   * Writes all messages logged so far to the log file. Messages are otherwise
+   * written by a background thread, shortly after they are logged.
+   */
+  public static void flush() {
+    AsyncLogWriter w = writer;
+    if (w != null) {
+      w.flush();
+    }
+  }
+
+  private static void write(String s) {
+    FileWriter log = GenInputsAbstract.log;
+    if (log != null) {
+      writer().write(log, s);
+    }
+  }
+
+  public static void log(String s) {
     if (!isLoggingOn()) return;
+    write(s);
+  }
 
-    try {
-      GenInputsAbstract.log.write(Globals.lineSep + Globals.lineSep);
-      GenInputsAbstract.log.write(s.toString());
-      GenInputsAbstract.log.flush();
+  public static void logLine(String s) {
+    if (!isLoggingOn()) return;
+    write(s + Globals.lineSep);
+  }
 
-    } catch (IOException e) {
-      e.printStackTrace();
-      System.exit(1);
-    }
+  /**
+   * Logs a line in the given category.
+   *
+   * @param category  the category of the line
+   * @param s  the line
+   */
+  public static void logLine(Category category, String s) {
+    if (!isLoggingOn(category)) return;
+    write(s + Globals.lineSep);
+  }
+
+  public static void log(Sequence s) {
+    if (!isLoggingOn()) return;
+    write(Globals.lineSep + Globals.lineSep + s.toString());
   }
 
   public static void log(List<ConcreteOperation> model) {
     if (!isLoggingOn()) return;
 
-    try {
-      GenInputsAbstract.log.write("Statements : " + Globals.lineSep);
-      for (ConcreteOperation t : model) {
-        GenInputsAbstract.log.write(t.toString());
-        GenInputsAbstract.log.write(Globals.lineSep);
-        GenInputsAbstract.log.flush();
-      }
-    } catch (IOException e) {
-      e.printStackTrace();
-      System.exit(1);
+    StringBuilder b = new StringBuilder();
+    b.append("Statements : ").append(Globals.lineSep);
+    for (ConcreteOperation t : model) {
+      b.append(t.toString()).append(Globals.lineSep);
     }
+    write(b.toString());
   }
 
   public static boolean isLoggingOn() {
-    return GenInputsAbstract.log != null;
+    return isLoggingOn(Category.GENERAL);
+  }
+
+  /**
+   * Returns whether messages of the given category are logged.
+   *
+   * @param category  the category
+   * @return true if there is a log file and the category is logged
+   */
+  public static boolean isLoggingOn(Category category) {
+    return GenInputsAbstract.log != null && enabled[category.ordinal()];
   }
 }
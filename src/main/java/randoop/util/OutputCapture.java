@@ -0,0 +1,169 @@
+package main.java.randoop.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Captures what a thread prints to <code>System.out</code> and
+ * <code>System.err</code>, without affecting what other threads print.
+ *
+ * <p>
+ * IMPLEMENTATION NOTE.
+ * <p>
+ *
+ * The first capture replaces <code>System.out</code> and
+ * <code>System.err</code>, once, with print streams that route each write
+ * according to the writing thread: to the buffer of the capture that the
+ * thread has begun, or otherwise to the original stream. Threads started
+ * while a capture is in progress, such as the threads that
+ * {@link ReflectionExecutor} runs code in, inherit the capture of the thread
+ * that started them; a long-lived executor thread {@link #adopt adopts} the
+ * capture of each caller instead. Each thread keeps one capture and reuses
+ * its buffer, so capturing a statement that prints nothing allocates nothing.
+ */
+public final class OutputCapture {
+
+  private static final byte[] NO_OUTPUT = new byte[0];
+
+  // The capture of each thread, inherited by the threads it starts while
+  // the capture is in progress.
+  private static final InheritableThreadLocal<OutputCapture> current =
+      new InheritableThreadLocal<OutputCapture>() {
+        @Override
+        protected OutputCapture childValue(OutputCapture parent) {
+          return parent != null && parent.isCapturing() ? parent : null;
+        }
+      };
+
+  // The installed routing streams, or null before the first capture.
+  private static PrintStream routedOut = null;
+  private static PrintStream routedErr = null;
+
+  private byte[] buffer = new byte[256];
+  private int count = 0;
+  private boolean capturing = false;
+
+  private OutputCapture() {}
+
+  /**
+   * Begins capturing the output of the current thread, and of the threads it
+   * starts, until {@link #end()} is called.
+   *
+   * @return the capture of the current thread
+   */
+  public static OutputCapture begin() {
+    install();
+    OutputCapture capture = current.get();
+    if (capture == null) {
+      capture = new OutputCapture();
+      current.set(capture);
+    }
+    synchronized (capture) {
+      capture.count = 0;
+      capture.capturing = true;
+    }
+    return capture;
+  }
+
+  /**
+   * Ends this capture.
+   *
+   * @return the bytes printed since {@link #begin()}, in the platform's
+   *         default encoding
+   */
+  public synchronized byte[] end() {
+    capturing = false;
+    if (count == 0) {
+      return NO_OUTPUT;
+    }
+    return Arrays.copyOf(buffer, count);
+  }
+
+  /**
+   * Returns the capture of the current thread, to be passed to
+   * {@link #adopt(OutputCapture)} by a thread that runs code on its behalf.
+   *
+   * @return the capture of the current thread, or null if it has none
+   */
+  public static OutputCapture current() {
+    return current.get();
+  }
+
+  /**
+   * Sends the output of the current thread to the given capture, while that
+   * capture is in progress.
+   *
+   * @param capture  the capture of the thread on whose behalf the current
+   *          thread runs code, or null to stop capturing its output
+   */
+  public static void adopt(OutputCapture capture) {
+    if (capture == null) {
+      current.remove();
+    } else {
+      current.set(capture);
+    }
+  }
+
+  private synchronized boolean isCapturing() {
+    return capturing;
+  }
+
+  // Appends the given bytes if this capture is in progress.
+  private synchronized boolean append(byte[] bytes, int offset, int length) {
+    if (!capturing) {
+      return false;
+    }
+    if (count + length > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + length));
+    }
+    System.arraycopy(bytes, offset, buffer, count, length);
+    count += length;
+    return true;
+  }
+
+  // Installs the routing streams, or reinstalls them if another class
+  // replaced System.out or System.err since.
+  private static synchronized void install() {
+    if (System.out != routedOut) {
+      routedOut = new PrintStream(new RoutingOutputStream(System.out), true);
+      System.setOut(routedOut);
+    }
+    if (System.err != routedErr) {
+      routedErr = new PrintStream(new RoutingOutputStream(System.err), true);
+      System.setErr(routedErr);
+    }
+  }
+
+  /**
+   * Writes to the capture of the writing thread, if it has one in progress,
+   * and otherwise to the original stream.
+   */
+  private static final class RoutingOutputStream extends OutputStream {
+
+    private final PrintStream original;
+
+    RoutingOutputStream(PrintStream original) {
+      this.original = original;
+    }
+
+    @Override
+    public void write(int b) {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+      OutputCapture capture = current.get();
+      if (capture == null || !capture.append(bytes, offset, length)) {
+        original.write(bytes, offset, length);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      original.flush();
+    }
+  }
+}
@@ -7,6 +7,9 @@ import main.java.randoop.Globals;
 import main.java.randoop.generation.RandoopListenerManager;
 import main.java.randoop.main.GenInputsAbstract;
 import main.java.randoop.generation.AbstractGenerator;
+import main.java.randoop.instrument.BranchCoverageMap;
+import main.java.randoop.sequence.PrefixStateCache;
+import main.java.randoop.sequence.Sequence;
 
 import plume.UtilMDE;
 
@@ -60,6 +63,14 @@ public class ProgressDisplay extends Thread {
     StringBuilder b = new StringBuilder();
     b.append("Progress update: test inputs generated=" + generator.num_sequences_generated);
     b.append(", failing inputs=" + generator.num_failing_sequences);
+    if (PrefixStateCache.prefix_cache) {
+      b.append(", prefix cache hits=" + PrefixStateCache.hits());
+      b.append(", misses=" + PrefixStateCache.misses());
+    }
+    if (BranchCoverageMap.size() > 0) {
+      b.append(
+          ", blocks covered=" + BranchCoverageMap.getCoveredCount() + "/" + BranchCoverageMap.size());
+    }
     b.append("      (" + new Date() + ")");
     return b.toString();
   }
@@ -113,8 +124,10 @@ public class ProgressDisplay extends Thread {
     System.out.println("that leads to nonterminating behavior.");
     System.out.println("Last sequence generated:");
     System.out.println();
-    System.out.println(AbstractGenerator.currSeq);
-    System.out.println();
+    for (Sequence s : AbstractGenerator.getCurrentSequences()) {
+      System.out.println(s);
+      System.out.println();
+    }
     System.out.println("Will print all thread stack traces and exit with code 1.");
 
     for (Map.Entry<Thread, StackTraceElement[]> trace : Thread.getAllStackTraces().entrySet()) {
@@ -17,20 +17,56 @@ public final class Randomness {
   /**
    * The random number used any testtime a random choice is made. (Developer
    * note: do not declare new Random objects; use this one instead).
+   *
+   * Each thread has its own generator, so that the choices made by one
+   * generation thread do not depend on how its calls interleave with the calls
+   * of other threads.
    */
-  static Random random = new Random(SEED);
+  static final ThreadLocal<Random> random =
+      new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+          return new Random(seed);
+        }
+      };
+
+  /** The seed most recently passed to {@link #reset(long)}. */
+  private static volatile long seed = SEED;
 
   public static void reset(long newSeed) {
-    random = new Random(newSeed);
+    seed = newSeed;
+    random.set(new Random(newSeed));
+  }
+
+  /**
+   * Resets the random generator of the calling thread for use by the given
+   * generation worker. The random numbers drawn by a worker depend only on
+   * the seed last passed to {@link #reset(long)} and on the worker id, and
+   * worker 0 draws the same numbers as sequential generation. The choices a
+   * worker makes with them also depend on the sequences the other workers
+   * have added to the shared pool, so they are not reproducible.
+   *
+   * @param workerId  the non-negative id of the worker
+   */
+  public static void resetForWorker(int workerId) {
+    if (workerId < 0) throw new IllegalArgumentException("workerId must be non-negative");
+    random.set(new Random(seed + workerId * 0x9E3779B97F4A7C15L));
   }
 
+  /**
+   * The number of random choices made so far, reported in the log. The count
+   * is updated without synchronization, so with several generation threads it
+   * is approximate: concurrent increments may be lost.
+   */
   public static int totalCallsToRandom = 0;
 
   public static boolean nextRandomBool() {
     totalCallsToRandom++;
-    if (Log.isLoggingOn())
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    return random.nextBoolean();
+    if (Log.isLoggingOn(Log.Category.RANDOMNESS))
+      Log.logLine(
+          Log.Category.RANDOMNESS,
+          "randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+    return random.get().nextBoolean();
   }
 
   /**
@@ -38,9 +74,23 @@ public final class Randomness {
    */
   public static int nextRandomInt(int i) {
     totalCallsToRandom++;
-    if (Log.isLoggingOn())
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    return random.nextInt(i);
+    if (Log.isLoggingOn(Log.Category.RANDOMNESS))
+      Log.logLine(
+          Log.Category.RANDOMNESS,
+          "randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+    return random.get().nextInt(i);
+  }
+
+  /**
+   * Uniformly random double from [0, 1)
+   */
+  public static double nextRandomDouble() {
+    totalCallsToRandom++;
+    if (Log.isLoggingOn(Log.Category.RANDOMNESS))
+      Log.logLine(
+          Log.Category.RANDOMNESS,
+          "randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+    return random.get().nextDouble();
   }
 
   public static <T> T randomMember(List<T> list) {
@@ -70,9 +120,11 @@ public final class Randomness {
 
     // Select a random point in interval and find its corresponding element.
     totalCallsToRandom++;
-    if (Log.isLoggingOn())
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    double randomPoint = Randomness.random.nextDouble() * max;
+    if (Log.isLoggingOn(Log.Category.RANDOMNESS))
+      Log.logLine(
+          Log.Category.RANDOMNESS,
+          "randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+    double randomPoint = Randomness.random.get().nextDouble() * max;
     double currentPoint = 0;
     for (int i = 0; i < list.size(); i++) {
       currentPoint += list.get(i).getWeight();
@@ -93,16 +145,20 @@ public final class Randomness {
       throw new IllegalArgumentException("arg must be between 0 and 1.");
     double falseProb = 1 - trueProb;
     totalCallsToRandom++;
-    if (Log.isLoggingOn())
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    return (Randomness.random.nextDouble() >= falseProb);
+    if (Log.isLoggingOn(Log.Category.RANDOMNESS))
+      Log.logLine(
+          Log.Category.RANDOMNESS,
+          "randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+    return (Randomness.random.get().nextDouble() >= falseProb);
   }
 
   public static boolean randomBoolFromDistribution(double falseProb_, double trueProb_) {
     double falseProb = falseProb_ / (falseProb_ + trueProb_);
     totalCallsToRandom++;
-    if (Log.isLoggingOn())
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    return (Randomness.random.nextDouble() >= falseProb);
+    if (Log.isLoggingOn(Log.Category.RANDOMNESS))
+      Log.logLine(
+          Log.Category.RANDOMNESS,
+          "randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+    return (Randomness.random.get().nextDouble() >= falseProb);
   }
 }
@@ -11,8 +11,13 @@ import plume.UtilMDE;
  *
  * This class maintains an "executor" thread. Code is executed on that thread.
  * If the code takes longer than the specified timeout, the thread is killed and
- * a TimeoutExceededException exception is reported.
+ * a TimeoutExceededException exception is reported. By default a new thread is
+ * started for each call; with --reuse-threads a single long-lived thread is
+ * reused until it has to be killed.
  *
+ * Several generation threads may execute code at the same time. Each of them
+ * uses its own executor thread, and the execution statistics are updated
+ * under the class lock.
  */
 public final class ReflectionExecutor {
 
@@ -36,40 +41,89 @@ public final class ReflectionExecutor {
   @Option("Maximum number of milliseconds a test may run. Only meaningful with --usethreads")
   public static int timeout = 5000;
 
+  /**
+   * Reuse a long-lived executor thread across calls instead of starting a new
+   * thread for every method, constructor, and contract invocation. The
+   * executor thread is only replaced when a call exceeds the timeout. Only
+   * meaningful if --usethreads is also specified.
+   */
+  @Option("Reuse executor threads across calls. Only meaningful with --usethreads")
+  public static boolean reuse_threads = false;
+
+  // The executor thread used by each calling thread when reuse_threads is
+  // set, or null if none has been started yet or the last one was killed.
+  private static final ThreadLocal<ReusableRunnerThread> worker = new ThreadLocal<>();
+
   // Execution statistics.
   private static long normal_exec_accum = 0;
   private static int normal_exec_count = 0;
   private static long excep_exec_accum = 0;
   private static int excep_exec_count = 0;
 
-  public static int normalExecs() {
+  // Time spent outside of the code itself (thread creation and handoff).
+  private static long overhead_accum = 0;
+  private static int overhead_count = 0;
+  private static int threads_started = 0;
+
+  // Time spent in the code itself during the most recent call of each calling
+  // thread, or -1 if unknown (e.g., the call timed out).
+  private static final ThreadLocal<long[]> last_code_nanos =
+      new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+          return new long[] {-1};
+        }
+      };
+
+  public static synchronized int normalExecs() {
     return normal_exec_count;
   }
 
-  public static int excepExecs() {
+  public static synchronized int excepExecs() {
     return excep_exec_count;
   }
 
-  public static double normalExecAvgMillis() {
+  public static synchronized double normalExecAvgMillis() {
     return ((normal_exec_accum / (double) normal_exec_count) / Math.pow(10, 6));
   }
 
-  public static double excepExecAvgMillis() {
+  public static synchronized double excepExecAvgMillis() {
     return ((excep_exec_accum / (double) excep_exec_count) / Math.pow(10, 6));
   }
 
-  public static Throwable executeReflectionCode(ReflectionCode code, PrintStream out) {
-    Throwable ret;
+  /**
+   * Returns the average time per call spent outside of the executed code
+   * itself, such as creating an executor thread and handing the code to it.
+   * This time is included in {@link #normalExecAvgMillis()} and
+   * {@link #excepExecAvgMillis()}.
+   *
+   * @return the average per-call executor overhead in milliseconds
+   */
+  public static synchronized double overheadAvgMillis() {
+    return ((overhead_accum / (double) overhead_count) / Math.pow(10, 6));
+  }
 
-    long start = System.nanoTime();
-    if (usethreads) {
-      ret = executeReflectionCodeThreaded(code, out);
-    } else {
-      ret = executeReflectionCodeUnThreaded(code, out);
+  /**
+   * Returns the number of executor threads started so far.
+   *
+   * @return the number of threads started to execute code
+   */
+  public static synchronized int threadsStarted() {
+    return threads_started;
+  }
+
+  private static synchronized int countThreadStarted() {
+    return threads_started++;
+  }
+
+  private static synchronized void recordExecution(
+      long duration, long codeNanos, boolean normal) {
+    if (codeNanos >= 0) {
+      overhead_accum += Math.max(0, duration - codeNanos);
+      overhead_count++;
     }
-    long duration = System.nanoTime() - start;
 
-    if (ret == null) {
+    if (normal) {
       // Add duration to running average for normal execution.
       normal_exec_accum += duration;
       assert normal_exec_accum > 0; // check no overflow.
@@ -80,6 +134,26 @@ public final class ReflectionExecutor {
       assert excep_exec_accum > 0; // check no overflow.
       excep_exec_count++;
     }
+  }
+
+  public static Throwable executeReflectionCode(ReflectionCode code, PrintStream out) {
+    Throwable ret;
+
+    long[] codeNanos = last_code_nanos.get();
+    codeNanos[0] = -1;
+    long start = System.nanoTime();
+    if (usethreads) {
+      if (reuse_threads) {
+        ret = executeReflectionCodeReusedThread(code, out);
+      } else {
+        ret = executeReflectionCodeThreaded(code, out);
+      }
+    } else {
+      ret = executeReflectionCodeUnThreaded(code, out);
+    }
+    long duration = System.nanoTime() - start;
+
+    recordExecution(duration, codeNanos[0], ret == null);
 
     return ret;
   }
@@ -103,13 +177,14 @@ public final class ReflectionExecutor {
 
       // Start the test.
       runnerThread.start();
+      countThreadStarted();
 
       // If test doesn't finish in time, suspend it.
       runnerThread.join(timeout);
 
       if (!runnerThread.runFinished) {
-        if (Log.isLoggingOn()) {
-          Log.log("Exceeded max wait: aborting test input.");
+        if (Log.isLoggingOn(Log.Category.EXECUTION)) {
+          Log.logLine(Log.Category.EXECUTION, "Exceeded max wait: aborting test input.");
         }
 
         // We use this deprecated method because it's the only way to
@@ -119,6 +194,7 @@ public final class ReflectionExecutor {
         return new TimeoutExceededException();
       }
 
+      last_code_nanos.get()[0] = runnerThread.codeNanos;
       return runnerThread.exceptionThrown;
 
     } catch (java.lang.InterruptedException e) {
@@ -128,12 +204,67 @@ public final class ReflectionExecutor {
     }
   }
 
+  /**
+   * Executes code.runReflectionCode() on the long-lived executor thread,
+   * starting one if necessary. If the code does not finish within the timeout,
+   * the executor thread is killed and a new one will be started on the next
+   * call. If no exception is thrown, returns null. Otherwise, returns the
+   * exception thrown.
+   *
+   * @param code  the {@link ReflectionCode} to be executed
+   * @param out
+   *          stream to print message to or null if message is to be ignored.
+   * @return null or the exception thrown
+   */
+  @SuppressWarnings("deprecation")
+  private static Throwable executeReflectionCodeReusedThread(ReflectionCode code, PrintStream out) {
+
+    ReusableRunnerThread runner = worker.get();
+    if (runner == null || !runner.isAlive()) {
+      runner = new ReusableRunnerThread("RandoopExecutor-" + countThreadStarted());
+      runner.start();
+      worker.set(runner);
+    }
+
+    try {
+
+      ReusableRunnerThread.Result result = runner.execute(code, timeout);
+
+      if (result == null) {
+        if (Log.isLoggingOn(Log.Category.EXECUTION)) {
+          Log.logLine(Log.Category.EXECUTION, "Exceeded max wait: aborting test input.");
+        }
+
+        // We use this deprecated method because it's the only way to
+        // stop a thread no matter what it's doing.
+        runner.stop();
+        worker.remove();
+
+        return new TimeoutExceededException();
+      }
+
+      if (result.internalError != null) {
+        throw result.internalError;
+      }
+
+      last_code_nanos.get()[0] = result.codeNanos;
+      return result.exceptionThrown;
+
+    } catch (java.lang.InterruptedException e) {
+      throw new IllegalStateException(
+          "A Randoop executor thread shouldn't be interrupted by anyone! "
+              + "(this may be a bug in Randoop; please report it.)");
+    }
+  }
+
   /**
    * without threads.
    */
   private static Throwable executeReflectionCodeUnThreaded(ReflectionCode code, PrintStream out) {
+    long start = System.nanoTime();
     try {
       code.runReflectionCode();
+      last_code_nanos.get()[0] = System.nanoTime() - start;
       return null;
     } catch (ThreadDeath e) { // can't stop these guys
       throw e;
@@ -141,6 +272,7 @@ public final class ReflectionExecutor {
       // randoop code
       throw e;
     } catch (Throwable e) {
+      last_code_nanos.get()[0] = System.nanoTime() - start;
       Throwable orig_e = null;
       if (e instanceof java.lang.reflect.InvocationTargetException) {
         orig_e = e;
@@ -0,0 +1,107 @@
+package main.java.randoop.util;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-lived executor thread that runs {@link ReflectionCode} objects handed
+ * to it by {@link ReflectionExecutor}.
+ *
+ * Unlike {@link RunnerThread}, which is started for a single call, this thread
+ * loops waiting for work on a handoff queue, so the cost of creating and
+ * starting a thread is only paid when a previous worker had to be killed
+ * because it exceeded the timeout.
+ */
+public final class ReusableRunnerThread extends Thread {
+
+  /** The result of running one {@link ReflectionCode} object. */
+  static final class Result {
+
+    /** The exception thrown by the code under test, or null. */
+    final Throwable exceptionThrown;
+
+    /** An exception indicating a bug in Randoop, or null. */
+    final RuntimeException internalError;
+
+    /** Time spent in the code itself, in nanoseconds. */
+    final long codeNanos;
+
+    Result(Throwable exceptionThrown, RuntimeException internalError, long codeNanos) {
+      this.exceptionThrown = exceptionThrown;
+      this.internalError = internalError;
+      this.codeNanos = codeNanos;
+    }
+  }
+
+  private final SynchronousQueue<ReflectionCode> work = new SynchronousQueue<>();
+  private final SynchronousQueue<Result> results = new SynchronousQueue<>();
+
+  // The output capture of the thread that handed over the current code.
+  // Written before the handoff, so visible to this thread after it.
+  private OutputCapture callerCapture = null;
+
+  /**
+   * Create a new worker thread. The thread is a daemon so that a worker
+   * blocked waiting for work does not keep the JVM alive.
+   *
+   * @param name  the name of the thread
+   */
+  public ReusableRunnerThread(String name) {
+    super(name);
+    setDaemon(true);
+    setUncaughtExceptionHandler(RandoopUncaughtRunnerThreadExceptionHandler.getHandler());
+  }
+
+  /**
+   * Hands the code to this thread and waits at most {@code timeoutMillis} for
+   * it to finish.
+   *
+   * @param code  the code to run
+   * @param timeoutMillis  the maximum time to wait for the result
+   * @return the result of running the code, or null if it did not finish in
+   *         time (in which case this thread must not be reused)
+   * @throws InterruptedException if the calling thread is interrupted
+   */
+  Result execute(ReflectionCode code, long timeoutMillis) throws InterruptedException {
+    if (code == null) throw new IllegalArgumentException("code cannot be null.");
+    callerCapture = OutputCapture.current();
+    work.put(code);
+    return results.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void run() {
+    while (true) {
+      ReflectionCode code;
+      try {
+        code = work.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      OutputCapture.adopt(callerCapture);
+      Result result = executeReflectionCode(code);
+      try {
+        results.put(result);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private static Result executeReflectionCode(ReflectionCode code) {
+    long start = System.nanoTime();
+    try {
+      code.runReflectionCode();
+      return new Result(null, null, System.nanoTime() - start);
+    } catch (ThreadDeath e) { // can't stop these guys
+      throw e;
+    } catch (ReflectionCode.NotCaughtIllegalStateException e) { // bug in randoop
+      // code
+      return new Result(null, e, System.nanoTime() - start);
+    } catch (Throwable e) {
+      long codeNanos = System.nanoTime() - start;
+      if (e instanceof java.lang.reflect.InvocationTargetException) e = e.getCause();
+      return new Result(e, null, codeNanos);
+    }
+  }
+}
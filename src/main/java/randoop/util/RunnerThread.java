@@ -9,6 +9,9 @@ public class RunnerThread extends Thread {
   public boolean runFinished;
   public Throwable exceptionThrown;
 
+  // Time spent in the code itself (excluding thread startup), in nanoseconds.
+  public long codeNanos;
+
   // The state of the thread.
   private NextCallMustBe state;
 
@@ -43,7 +46,9 @@ public class RunnerThread extends Thread {
   public final void run() {
     if (state != NextCallMustBe.RUN) throw new IllegalArgumentException();
     runFinished = false;
+    long start = System.nanoTime();
     executeReflectionCode();
+    codeNanos = System.nanoTime() - start;
     runFinished = true;
     this.state = NextCallMustBe.SETUP;
   }
@@ -25,7 +25,7 @@ import java.util.List;
  * <p>
  * To improve memory and time efficiency, we now do concatenation differently.
  * We store the list of statements in a Sequence in a SimpleList, an abstract
- * class that has three subclasses:
+ * class that has several subclasses:
  *
  * <ul>
  * <li>{@link ArrayListSimpleList}: a typical list is stored as an array list.
@@ -33,15 +33,18 @@ import java.util.List;
  * sub-lists.
  * <li>{@link OneMoreElementList}: stores a SimpleList plus one additional final
  * element.
+ * <li>{@link AppendOnlyList}: an array-backed list that can be read by other
+ * threads while elements are appended; used for the shared component pool.
+ * <li>{@link FlattenedList}: an array-backed list whose extensions share its
+ * array; used for the statements of a Sequence.
  * </ul>
  * <p>
- * When concatenating N Sequences to create a new sequence, we store the
- * concatenated sequence statements in a ListofLists, which takes space (and
- * creation time) proportional to N, not to the length of the new sequence.
- * <p>
- * When extending a Sequence with a new statement, we store the old sequence's
- * statements plus the new statement in a {@code OneMoreElementList}, which
- * takes up only 2 references in memory (and constant creation time).
+ * Nested ListOfLists and OneMoreElementList make element access slower with
+ * each generation of sequences, so sequences now copy the statement
+ * references of concatenated sequences into a FlattenedList. When extending a
+ * Sequence with a new statement, the new statement is written into the free
+ * capacity of the old sequence's array if no other sequence has extended it
+ * yet, which takes constant time.
  */
 public abstract class SimpleList<T> {
 
@@ -34,7 +34,7 @@ public class WeightedList {
     assert max > 0;
 
     // Select a random point in interval and find its corresponding element.
-    double randomPoint = Randomness.random.nextDouble() * max;
+    double randomPoint = Randomness.random.get().nextDouble() * max;
     double currentPoint = 0;
     for (int i = 0; i < theList.size(); i++) {
       currentPoint += theList.get(i).getWeight();
@@ -0,0 +1,182 @@
+package test.java.randoop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import main.java.randoop.BugInRandoopException;
+import main.java.randoop.Globals;
+import main.java.randoop.JunitFileWriter;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.operation.ConstructorCall;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Execution;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.Variable;
+import main.java.randoop.test.Check;
+import main.java.randoop.test.ExpectedExceptionCheck;
+import main.java.randoop.test.RegressionChecks;
+import main.java.randoop.types.ConcreteTypeTuple;
+import main.java.randoop.types.ConcreteTypes;
+import org.junit.Test;
+
+/**
+ * Tests that test classes written together, possibly in parallel, are the
+ * same as test classes written one at a time.
+ */
+public class JunitFileWriterTest {
+
+  private static final String SEP = Globals.lineSep;
+
+  @Test
+  public void partitionedSuiteMatchesSerialSuite() throws IOException {
+    List<List<ExecutableSequence>> partitions = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      List<ExecutableSequence> partition = new ArrayList<>();
+      partition.add(new ExecutableSequence(Sequence.createSequenceForPrimitive(i)));
+      partition.add(checkedSequence(i));
+      partition.add(new ExecutableSequence(Sequence.createSequenceForPrimitive("s" + i)));
+      partitions.add(partition);
+    }
+
+    File serialDir = Files.createTempDirectory("randoop-serial").toFile();
+    File partitionedDir = Files.createTempDirectory("randoop-partitioned").toFile();
+    try {
+      JunitFileWriter serial = new JunitFileWriter(serialDir.getPath(), "", "RegressionTest");
+      List<File> serialFiles = new ArrayList<>();
+      for (List<ExecutableSequence> partition : partitions) {
+        serialFiles.add(serial.writeNextJUnitTestFile(partition));
+      }
+      serialFiles.add(serial.writeDriverFile());
+
+      // Written by several threads when more than one processor is available.
+      JunitFileWriter partitioned =
+          new JunitFileWriter(partitionedDir.getPath(), "", "RegressionTest");
+      List<File> partitionedFiles = partitioned.writeJUnitTestFiles(partitions);
+      partitionedFiles.add(partitioned.writeDriverFile());
+
+      assertEquals(serialFiles.size(), partitionedFiles.size());
+      for (int i = 0; i < serialFiles.size(); i++) {
+        assertEquals(serialFiles.get(i).getName(), partitionedFiles.get(i).getName());
+        assertArrayEquals(
+            "contents of " + serialFiles.get(i).getName(),
+            Files.readAllBytes(serialFiles.get(i).toPath()),
+            Files.readAllBytes(partitionedFiles.get(i).toPath()));
+      }
+
+      String code = new String(Files.readAllBytes(serialFiles.get(0).toPath()));
+      ExecutableSequence checked = partitions.get(0).get(1);
+      assertTrue(
+          "each line of the test indented, with blank lines kept and trailing ones dropped",
+          code.contains(indentLines(checked.toCodeString())));
+    } finally {
+      delete(serialDir);
+      delete(partitionedDir);
+    }
+  }
+
+  @Test
+  public void checksWrapStatement() {
+    ExecutableSequence checked = checkedSequence(0);
+    Check exception = checked.getChecks().getExceptionCheck();
+    String expected =
+        "// second" + SEP + SEP
+            + "// first" + SEP + SEP
+            + exception.toCodeStringPreStatement()
+            + checked.statementToCodeString(0)
+            + exception.toCodeStringPostStatement() + SEP
+            + SEP + "assert first;" + SEP + SEP + SEP
+            + SEP + "assert second;" + SEP + SEP + SEP;
+    assertEquals(expected, checked.toCodeString());
+  }
+
+  /**
+   * Returns a sequence that creates an object, with an exception check and
+   * two other checks whose code has blank lines and trailing line separators.
+   */
+  private static ExecutableSequence checkedSequence(int index) {
+    ConstructorCall objectConstructor;
+    try {
+      objectConstructor = new ConstructorCall(Object.class.getConstructor());
+    } catch (Exception e) {
+      throw new BugInRandoopException(e); // Should never reach here!
+    }
+    ConcreteOperation op =
+        new ConcreteOperation(
+            objectConstructor,
+            ConcreteTypes.OBJECT_TYPE,
+            new ConcreteTypeTuple(),
+            ConcreteTypes.OBJECT_TYPE);
+    Sequence sequence = new Sequence().extend(op, new ArrayList<Variable>());
+    RegressionChecks checks = new RegressionChecks();
+    checks.add(new ExpectedExceptionCheck(new IllegalStateException("" + index), 0, null));
+    checks.add(new CodeCheck("first"));
+    checks.add(new CodeCheck("second"));
+    return new ExecutableSequence(sequence, new Execution(sequence), checks);
+  }
+
+  /**
+   * Indents each line of the code as test methods are written, splitting it
+   * as {@code String.split} does.
+   */
+  private static String indentLines(String code) {
+    StringBuilder b = new StringBuilder();
+    for (String line : code.split(SEP)) {
+      b.append("    ").append(line).append(SEP);
+    }
+    return b.toString();
+  }
+
+  private static void delete(File dir) {
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+  }
+
+  /** A check whose code is a comment before the statement and an assertion after it. */
+  private static class CodeCheck implements Check {
+
+    private final String name;
+
+    CodeCheck(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toCodeStringPreStatement() {
+      return "// " + name + SEP + SEP;
+    }
+
+    @Override
+    public String toCodeStringPostStatement() {
+      return SEP + "assert " + name + ";" + SEP + SEP;
+    }
+
+    @Override
+    public String getValue() {
+      return name;
+    }
+
+    @Override
+    public String getID() {
+      return "CodeCheck " + name;
+    }
+
+    @Override
+    public int getStatementIndex() {
+      return 0;
+    }
+
+    @Override
+    public boolean evaluate(Execution execution) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package test.java.randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import main.java.randoop.generation.ComponentEvictionPolicy;
+import main.java.randoop.generation.ComponentManager;
+import main.java.randoop.generation.LeastFrequentlyUsedEvictionPolicy;
+import main.java.randoop.generation.LeastRecentlyUsedEvictionPolicy;
+import main.java.randoop.generation.LowestYieldEvictionPolicy;
+import main.java.randoop.main.GenInputsAbstract.ClassLiteralsMode;
+import main.java.randoop.main.ThrowClassNameError;
+import main.java.randoop.operation.OperationParseException;
+import main.java.randoop.reflection.DefaultReflectionPredicate;
+import main.java.randoop.reflection.OperationModel;
+import main.java.randoop.reflection.PublicVisibilityPredicate;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.types.ConcreteTypes;
+import main.java.randoop.types.RandoopTypeException;
+import org.junit.Test;
+
+public class ComponentEvictionPolicyTest {
+
+  @Test
+  public void boundedPoolKeepsSeeds() {
+    List<Sequence> seeds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      seeds.add(Sequence.createSequenceForPrimitive(i));
+    }
+    ComponentManager manager = new ComponentManager(seeds);
+    manager.setEvictionPolicy(new LeastRecentlyUsedEvictionPolicy(), 10, 0);
+
+    List<Sequence> generated = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Sequence sequence = Sequence.createSequenceForPrimitive(100 + i);
+      sequence.lastTimeUsed = i;
+      generated.add(sequence);
+      manager.addGeneratedSequence(sequence);
+      int size = manager.getSequencesForType(ConcreteTypes.INT_TYPE, true).size();
+      assertTrue("pool of size " + size, size <= 10);
+    }
+
+    Set<Sequence> pool = manager.getAllGeneratedSequences();
+    assertTrue(pool.containsAll(seeds));
+    assertTrue("newest sequence kept", pool.contains(generated.get(49)));
+    assertFalse("oldest sequence evicted", pool.contains(generated.get(0)));
+  }
+
+  @Test
+  public void evictsDownToHalfTheBound() {
+    final int[] evictions = {0};
+    ComponentManager manager = new ComponentManager(Arrays.<Sequence>asList());
+    manager.setEvictionPolicy(
+        new LeastRecentlyUsedEvictionPolicy() {
+          @Override
+          public synchronized List<Sequence> selectVictims(
+              Collection<Sequence> candidates, int count) {
+            evictions[0]++;
+            return super.selectVictims(candidates, count);
+          }
+        },
+        10,
+        0);
+    for (int i = 0; i < 100; i++) {
+      manager.addGeneratedSequence(Sequence.createSequenceForPrimitive(i));
+    }
+    // The 11th addition exceeds the bound, and leaves 5 components, so every
+    // sixth addition after it exceeds the bound again.
+    assertEquals(15, evictions[0]);
+  }
+
+  @Test
+  public void budgetBoundsAllTypes() {
+    ComponentManager manager = new ComponentManager(Arrays.<Sequence>asList());
+    manager.setEvictionPolicy(new LeastRecentlyUsedEvictionPolicy(), 0, 20);
+    for (int i = 0; i < 30; i++) {
+      manager.addGeneratedSequence(Sequence.createSequenceForPrimitive(i));
+      manager.addGeneratedSequence(Sequence.createSequenceForPrimitive("s" + i));
+      assertTrue(manager.numGeneratedSequences() <= 20);
+    }
+  }
+
+  @Test
+  public void pinnedSequencesAreKept() {
+    ComponentManager manager = new ComponentManager(Arrays.<Sequence>asList());
+    manager.setEvictionPolicy(new LeastRecentlyUsedEvictionPolicy(), 10, 0);
+
+    // As in GenTests, literals for all classes are added after the policy is set.
+    List<Sequence> literals = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Sequence literal = Sequence.createSequenceForPrimitive(i);
+      literals.add(literal);
+      manager.addPinnedSequence(literal);
+    }
+    for (int i = 0; i < 50; i++) {
+      Sequence sequence = Sequence.createSequenceForPrimitive(100 + i);
+      sequence.lastTimeUsed = System.currentTimeMillis() + 1000 + i;
+      manager.addGeneratedSequence(sequence);
+    }
+    assertTrue(manager.getAllGeneratedSequences().containsAll(literals));
+
+    manager.clearGeneratedSequences();
+    assertEquals(
+        new LinkedHashSet<>(literals), new LinkedHashSet<>(manager.getAllGeneratedSequences()));
+  }
+
+  @Test
+  public void literalsForAllClassesAreKept() throws IOException {
+    File literalsFile = File.createTempFile("literals", ".txt");
+    try {
+      try (PrintWriter out = new PrintWriter(literalsFile, "UTF-8")) {
+        out.println("START CLASSLITERALS");
+        out.println("CLASSNAME");
+        out.println("java.lang.String");
+        out.println("LITERALS");
+        out.println("int:-7");
+        out.println("int:-8");
+        out.println("END CLASSLITERALS");
+      }
+      OperationModel model = null;
+      try {
+        model =
+            OperationModel.createModel(
+                new PublicVisibilityPredicate(),
+                new DefaultReflectionPredicate(),
+                new LinkedHashSet<String>(),
+                new LinkedHashSet<String>(),
+                new LinkedHashSet<String>(),
+                new ThrowClassNameError(),
+                new ArrayList<String>());
+      } catch (OperationParseException | NoSuchMethodException e) {
+        fail("could not create model: " + e);
+      } catch (RandoopTypeException e) {
+        fail("type error: " + e);
+      }
+
+      ComponentManager manager = new ComponentManager(Arrays.<Sequence>asList());
+      manager.setEvictionPolicy(new LeastRecentlyUsedEvictionPolicy(), 5, 0);
+      model.addClassLiterals(
+          manager, Arrays.asList(literalsFile.getPath()), ClassLiteralsMode.ALL);
+      for (int i = 0; i < 20; i++) {
+        // Used more recently than the literals, which are evicted first unless pinned.
+        Sequence sequence = Sequence.createSequenceForPrimitive(i);
+        sequence.lastTimeUsed = System.currentTimeMillis() + 1000 + i;
+        manager.addGeneratedSequence(sequence);
+      }
+
+      Set<Sequence> pool = manager.getAllGeneratedSequences();
+      assertTrue(pool.contains(Sequence.createSequenceForPrimitive(-7)));
+      assertTrue(pool.contains(Sequence.createSequenceForPrimitive(-8)));
+    } finally {
+      literalsFile.delete();
+    }
+  }
+
+  @Test
+  public void frequentlyUsedComponentsAreKept() {
+    ComponentEvictionPolicy policy = new LeastFrequentlyUsedEvictionPolicy();
+    Sequence used = Sequence.createSequenceForPrimitive(1);
+    Sequence unused = Sequence.createSequenceForPrimitive(2);
+    policy.sequenceAdded(used);
+    policy.sequenceAdded(unused);
+    for (int i = 0; i < 5; i++) {
+      policy.sequenceUsed(used);
+    }
+    Sequence fresh = Sequence.createSequenceForPrimitive(3);
+    policy.sequenceAdded(fresh);
+
+    assertEquals(Arrays.asList(unused), policy.selectVictims(Arrays.asList(used, unused, fresh), 1));
+  }
+
+  @Test
+  public void productiveComponentsAreKept() {
+    ComponentEvictionPolicy policy = new LowestYieldEvictionPolicy();
+    Sequence productive = Sequence.createSequenceForPrimitive(1);
+    Sequence barren = Sequence.createSequenceForPrimitive(2);
+    policy.sequenceAdded(productive);
+    policy.sequenceAdded(barren);
+    for (int i = 0; i < 5; i++) {
+      policy.sequenceUsed(productive);
+      policy.sequenceYielded(productive);
+      policy.sequenceUsed(barren);
+    }
+
+    assertEquals(Arrays.asList(barren), policy.selectVictims(Arrays.asList(productive, barren), 1));
+  }
+}
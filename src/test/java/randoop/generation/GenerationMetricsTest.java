@@ -0,0 +1,128 @@
+package test.java.randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import main.java.randoop.generation.ComponentManager;
+import main.java.randoop.generation.ForwardGenerator;
+import main.java.randoop.generation.GenerationMetrics;
+import main.java.randoop.generation.SeedSequences;
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.reflection.DefaultReflectionPredicate;
+import main.java.randoop.reflection.ModelCollections;
+import main.java.randoop.reflection.OperationExtractor;
+import main.java.randoop.reflection.PublicVisibilityPredicate;
+import main.java.randoop.reflection.ReflectionManager;
+import main.java.randoop.reflection.TypedOperationManager;
+import main.java.randoop.test.DummyCheckGenerator;
+import main.java.randoop.types.ConcreteType;
+import org.junit.Test;
+
+public class GenerationMetricsTest {
+
+  @Test
+  public void metricsAccountForEveryStep() throws Exception {
+    boolean oldJmxMetrics = GenInputsAbstract.jmx_metrics;
+    ForwardGenerator explorer;
+    try {
+      GenInputsAbstract.jmx_metrics = true;
+      explorer = newExplorer();
+    } finally {
+      GenInputsAbstract.jmx_metrics = oldJmxMetrics;
+    }
+    explorer.explore();
+
+    GenerationMetrics metrics = explorer.getMetrics();
+    assertEquals(explorer.num_steps, metrics.getSteps());
+    long outcomes = 0;
+    for (long count : metrics.getOutcomeCounts().values()) {
+      outcomes += count;
+    }
+    assertEquals("each step has one outcome", metrics.getSteps(), outcomes);
+
+    Map<String, Long> counts = metrics.getOutcomeCounts();
+    long executions = counts.get("NORMAL") + counts.get("EXCEPTION") + counts.get("FAILURE")
+        + counts.get("INVALID");
+    long histogrammed = 0;
+    for (long[] histogram : metrics.getExecutionLatencyHistograms().values()) {
+      for (long count : histogram) {
+        histogrammed += count;
+      }
+    }
+    assertEquals("each execution is in a histogram", executions, histogrammed);
+    assertFalse(metrics.getPoolSizes().isEmpty());
+    assertTrue(metrics.getGenerationSeconds() > 0);
+    assertTrue(metrics.getExecutionSeconds() > 0);
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(GenerationMetrics.OBJECT_NAME);
+    assertFalse("unregistered after exploration", server.isRegistered(name));
+    assertTrue(metrics.register());
+    try {
+      assertEquals(metrics.getSteps(), server.getAttribute(name, "Steps"));
+      server.getAttribute(name, "ExecutionLatencyHistograms");
+      server.getAttribute(name, "PoolSizes");
+    } finally {
+      metrics.unregister();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void noMetricsWithoutOption() {
+    boolean oldJmxMetrics = GenInputsAbstract.jmx_metrics;
+    try {
+      GenInputsAbstract.jmx_metrics = false;
+      ForwardGenerator explorer = newExplorer();
+      explorer.explore();
+      assertNull(explorer.getMetrics());
+      assertTrue(explorer.num_steps > 0);
+    } finally {
+      GenInputsAbstract.jmx_metrics = oldJmxMetrics;
+    }
+  }
+
+  private static ForwardGenerator newExplorer() {
+    ForwardGenerator explorer =
+        new ForwardGenerator(
+            getConcreteOperations(Long.class),
+            new LinkedHashSet<ConcreteOperation>(),
+            Long.MAX_VALUE,
+            300,
+            300,
+            new ComponentManager(SeedSequences.defaultSeeds()),
+            null,
+            null);
+    explorer.addTestCheckGenerator(new DummyCheckGenerator());
+    return explorer;
+  }
+
+  private static List<ConcreteOperation> getConcreteOperations(Class<?> c) {
+    final List<ConcreteOperation> model = new ArrayList<>();
+    TypedOperationManager operationManager =
+        new TypedOperationManager(
+            new ModelCollections() {
+              @Override
+              public void addConcreteOperation(
+                  ConcreteType declaringType, ConcreteOperation operation) {
+                model.add(operation);
+              }
+            });
+    ReflectionManager mgr = new ReflectionManager(new PublicVisibilityPredicate());
+    mgr.add(new OperationExtractor(operationManager, new DefaultReflectionPredicate()));
+    mgr.apply(c);
+    return model;
+  }
+}
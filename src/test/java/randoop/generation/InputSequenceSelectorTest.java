@@ -0,0 +1,129 @@
+package test.java.randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import main.java.randoop.generation.CoverageInputSequenceSelector;
+import main.java.randoop.generation.InputSequenceSelector;
+import main.java.randoop.generation.RecencyInputSequenceSelector;
+import main.java.randoop.generation.SmallTestsInputSequenceSelector;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.util.AppendOnlyList;
+import main.java.randoop.util.ListOfLists;
+import main.java.randoop.util.Randomness;
+import main.java.randoop.util.SimpleList;
+import org.junit.Test;
+
+public class InputSequenceSelectorTest {
+
+  private static final int DRAWS = 3000;
+
+  @Test
+  public void smallTestsFavorsShortSequences() {
+    Randomness.reset(Randomness.SEED);
+    Sequence one = Sequence.createSequenceForPrimitive(1);
+    Sequence two = Sequence.concatenate(Arrays.asList(one, Sequence.createSequenceForPrimitive(2)));
+    AppendOnlyList<Sequence> shortList = new AppendOnlyList<>();
+    shortList.add(one);
+    AppendOnlyList<Sequence> longList = new AppendOnlyList<>();
+    longList.add(two);
+    List<SimpleList<Sequence>> lists = new ArrayList<>();
+    lists.add(shortList);
+    lists.add(longList);
+    SimpleList<Sequence> candidates = candidates(lists);
+
+    int shortCount = count(new SmallTestsInputSequenceSelector(), candidates, one);
+    // one has weight 1 and two has weight 1/2.
+    assertEquals(2.0 / 3, shortCount / (double) DRAWS, 0.05);
+  }
+
+  @Test
+  public void selectsAppendedSequences() {
+    Randomness.reset(Randomness.SEED);
+    AppendOnlyList<Sequence> list = new AppendOnlyList<>();
+    list.add(Sequence.createSequenceForPrimitive(1));
+    SmallTestsInputSequenceSelector selector = new SmallTestsInputSequenceSelector();
+    selector.selectSequence(candidates(list));
+
+    Sequence added = Sequence.createSequenceForPrimitive(2);
+    list.add(added);
+    int count = count(selector, candidates(list), added);
+    assertEquals(0.5, count / (double) DRAWS, 0.05);
+  }
+
+  @Test
+  public void coverageFavorsNewCoverage() {
+    Randomness.reset(Randomness.SEED);
+    Sequence covering = Sequence.createSequenceForPrimitive(1);
+    Sequence other = Sequence.createSequenceForPrimitive(2);
+    CoverageInputSequenceSelector selector = new CoverageInputSequenceSelector();
+    selector.createdSequence(covering, 3);
+    selector.createdSequence(other, 0);
+    AppendOnlyList<Sequence> list = new AppendOnlyList<>();
+    list.add(covering);
+    list.add(other);
+
+    int count = count(selector, candidates(list), covering);
+    assertEquals(0.8, count / (double) DRAWS, 0.05);
+  }
+
+  @Test
+  public void recencyDisfavorsUsedSequences() {
+    Randomness.reset(Randomness.SEED);
+    RecencyInputSequenceSelector selector = new RecencyInputSequenceSelector();
+    Sequence used = Sequence.createSequenceForPrimitive(1);
+    Sequence unused = Sequence.createSequenceForPrimitive(2);
+    AppendOnlyList<Sequence> list = new AppendOnlyList<>();
+    list.add(used);
+    list.add(unused);
+    SimpleList<Sequence> candidates = candidates(list);
+    selector.selectSequence(candidates);
+
+    // The weights are stored; using a sequence must lower its weight anyway.
+    used.lastTimeUsed = System.currentTimeMillis() + 99000;
+    int count = count(selector, candidates, used);
+    assertTrue("used sequence selected " + count + " times", count < DRAWS / 20);
+  }
+
+  @Test
+  public void recencyComparesTimesOfUse() {
+    Randomness.reset(Randomness.SEED);
+    RecencyInputSequenceSelector selector = new RecencyInputSequenceSelector();
+    Sequence earlier = Sequence.createSequenceForPrimitive(1);
+    Sequence later = Sequence.createSequenceForPrimitive(2);
+    double now = System.currentTimeMillis();
+    earlier.lastTimeUsed = now - 5000;
+    later.lastTimeUsed = now;
+    AppendOnlyList<Sequence> list = new AppendOnlyList<>();
+    list.add(earlier);
+    list.add(later);
+
+    // Five seconds apart, the weights differ by a factor of 32.
+    int count = count(selector, candidates(list), earlier);
+    assertEquals(32.0 / 33, count / (double) DRAWS, 0.03);
+  }
+
+  private static SimpleList<Sequence> candidates(List<SimpleList<Sequence>> lists) {
+    return new ListOfLists<>(new ArrayList<>(lists));
+  }
+
+  private static SimpleList<Sequence> candidates(SimpleList<Sequence> list) {
+    return candidates(Collections.singletonList(list));
+  }
+
+  private static int count(
+      InputSequenceSelector selector, SimpleList<Sequence> candidates, Sequence expected) {
+    int count = 0;
+    for (int i = 0; i < DRAWS; i++) {
+      if (selector.selectSequence(candidates).equals(expected)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,127 @@
+package test.java.randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import main.java.randoop.generation.BanditOperationSelector;
+import main.java.randoop.generation.ComponentManager;
+import main.java.randoop.generation.ForwardGenerator;
+import main.java.randoop.generation.OperationStatistics;
+import main.java.randoop.generation.OperationStatistics.Outcome;
+import main.java.randoop.generation.SeedSequences;
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.reflection.DefaultReflectionPredicate;
+import main.java.randoop.reflection.ModelCollections;
+import main.java.randoop.reflection.OperationExtractor;
+import main.java.randoop.reflection.PublicVisibilityPredicate;
+import main.java.randoop.reflection.ReflectionManager;
+import main.java.randoop.reflection.TypedOperationManager;
+import main.java.randoop.test.DummyCheckGenerator;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.util.Randomness;
+import org.junit.Test;
+
+public class OperationSelectorTest {
+
+  @Test
+  public void banditFavorsProductiveOperations() {
+    Randomness.reset(Randomness.SEED);
+    List<ConcreteOperation> operations = getConcreteOperations(Long.class);
+    assertTrue("need two operations", operations.size() >= 2);
+    ConcreteOperation productive = operations.get(0);
+    ConcreteOperation throwing = operations.get(1);
+
+    OperationStatistics statistics = new OperationStatistics();
+    BanditOperationSelector selector = new BanditOperationSelector(statistics);
+    List<ConcreteOperation> pair = new ArrayList<>();
+    pair.add(productive);
+    pair.add(throwing);
+    selector.selectOperation(pair);
+    for (int i = 0; i < 100; i++) {
+      statistics.selected(productive);
+      statistics.recordExecution(productive, Outcome.NORMAL, 1000, true);
+      selector.outcomeRecorded(productive);
+      statistics.selected(throwing);
+      statistics.recordExecution(throwing, Outcome.EXCEPTION, 1000, false);
+      selector.outcomeRecorded(throwing);
+    }
+
+    int count = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (selector.selectOperation(pair).equals(productive)) {
+        count++;
+      }
+    }
+    assertTrue("productive operation selected " + count + " times", count > 900);
+  }
+
+  @Test
+  public void recordsEveryAttempt() {
+    List<ConcreteOperation> operations = getConcreteOperations(Long.class);
+    GenInputsAbstract.OperationSelectionMode oldMode = GenInputsAbstract.operation_selection;
+    GenInputsAbstract.operation_selection = GenInputsAbstract.OperationSelectionMode.BANDIT;
+    try {
+      ForwardGenerator explorer =
+          new ForwardGenerator(
+              operations,
+              new LinkedHashSet<ConcreteOperation>(),
+              Long.MAX_VALUE,
+              500,
+              500,
+              new ComponentManager(SeedSequences.defaultSeeds()),
+              null,
+              null);
+      explorer.addTestCheckGenerator(new DummyCheckGenerator());
+      explorer.explore();
+
+      OperationStatistics statistics = explorer.getOperationStatistics();
+      long newComponents = 0;
+      int selected = 0;
+      for (ConcreteOperation operation : operations) {
+        OperationStatistics.Entry entry = statistics.getEntry(operation);
+        long outcomes = 0;
+        for (Outcome outcome : Outcome.values()) {
+          outcomes += entry.getCount(outcome);
+        }
+        assertEquals("each selection has one outcome", entry.getSelections(), outcomes);
+        newComponents += entry.getNewComponents();
+        if (entry.getSelections() > 0) {
+          selected++;
+        }
+      }
+      assertTrue("should add sequences to the component pool", newComponents > 0);
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      statistics.write(new PrintStream(bytes));
+      String[] lines = bytes.toString().split("\\r?\\n");
+      assertTrue(lines[0].startsWith("operation,selections,inputs_not_found"));
+      assertEquals("one line per selected operation", selected + 1, lines.length);
+    } finally {
+      GenInputsAbstract.operation_selection = oldMode;
+    }
+  }
+
+  private static List<ConcreteOperation> getConcreteOperations(Class<?> c) {
+    final List<ConcreteOperation> model = new ArrayList<>();
+    TypedOperationManager operationManager =
+        new TypedOperationManager(
+            new ModelCollections() {
+              @Override
+              public void addConcreteOperation(
+                  ConcreteType declaringType, ConcreteOperation operation) {
+                model.add(operation);
+              }
+            });
+    ReflectionManager mgr = new ReflectionManager(new PublicVisibilityPredicate());
+    mgr.add(new OperationExtractor(operationManager, new DefaultReflectionPredicate()));
+    mgr.apply(c);
+    return model;
+  }
+}
@@ -0,0 +1,72 @@
+package test.java.randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import main.java.randoop.generation.SequenceSet;
+import main.java.randoop.main.GenInputsAbstract.DuplicateDetectionMode;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.types.ConcreteTypes;
+import org.junit.Test;
+
+public class SequenceSetTest {
+
+  @Test
+  public void equalSequencesHaveEqualFingerprints() {
+    Sequence one = Sequence.createSequenceForPrimitive(1);
+    Sequence two = Sequence.createSequenceForPrimitive(2);
+
+    Sequence concatenated = Sequence.concatenate(Arrays.asList(one, two));
+    Sequence extended =
+        one.extend(ConcreteOperation.createPrimitiveInitialization(ConcreteTypes.INT_TYPE, 2));
+    Sequence nested =
+        Sequence.concatenate(
+            Arrays.asList(Sequence.concatenate(Arrays.asList(new Sequence(), one)), two));
+    assertEquals(concatenated, extended);
+    assertEquals(concatenated.getFingerprint(), extended.getFingerprint());
+    assertEquals(concatenated.getFingerprint(), nested.getFingerprint());
+
+    Sequence reversed = Sequence.concatenate(Arrays.asList(two, one));
+    assertEquals("hashCode ignores the order", concatenated.hashCode(), reversed.hashCode());
+    assertNotEquals(concatenated.getFingerprint(), reversed.getFingerprint());
+    assertNotEquals(one.getFingerprint(), two.getFingerprint());
+    assertNotEquals(
+        one.getFingerprint(), Sequence.concatenate(Arrays.asList(one, one)).getFingerprint());
+  }
+
+  @Test
+  public void allModesRecognizeDuplicates() {
+    List<Sequence> sequences = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      sequences.add(Sequence.createSequenceForPrimitive(i));
+    }
+    for (int i = 0; i < 100; i++) {
+      sequences.add(Sequence.concatenate(Arrays.asList(sequences.get(i), sequences.get(99 - i))));
+    }
+
+    for (DuplicateDetectionMode mode : DuplicateDetectionMode.values()) {
+      for (boolean concurrent : new boolean[] {false, true}) {
+        SequenceSet set = SequenceSet.create(mode, concurrent);
+        for (Sequence s : sequences.subList(0, 150)) {
+          assertTrue(mode + ": new sequence", set.add(s));
+        }
+        for (Sequence s : sequences.subList(0, 150)) {
+          Sequence copy = Sequence.concatenate(Arrays.asList(s));
+          assertTrue(mode + ": added sequence", set.contains(copy));
+          assertFalse(mode + ": duplicate", set.add(copy));
+        }
+        for (Sequence s : sequences.subList(150, 200)) {
+          assertFalse(mode + ": sequence not added", set.contains(s));
+        }
+        assertEquals(150, set.size());
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package test.java.randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import main.java.randoop.generation.EqualsMethodMatcher;
+import main.java.randoop.generation.HeapShapeMatcher;
+import main.java.randoop.generation.StateMatcher;
+import main.java.randoop.util.ReflectionExecutor;
+import org.junit.Test;
+
+public class StateMatcherTest {
+
+  /** A class without an equals method. */
+  public static class Node {
+    int value;
+    Node next;
+
+    Node(int value, Node next) {
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  @Test
+  public void equalsMatcherComparesObjectsOfTheSameClass() {
+    StateMatcher matcher = new EqualsMethodMatcher();
+    assertTrue(matcher.add(new ArrayList<>(Arrays.asList(1, 2))));
+    assertFalse(matcher.add(new ArrayList<>(Arrays.asList(1, 2))));
+    assertTrue("equal list of another class", matcher.add(new LinkedList<>(Arrays.asList(1, 2))));
+    assertTrue(matcher.add(new ArrayList<>(Arrays.asList(2, 1))));
+  }
+
+  /** A class whose equals and hashCode methods throw. */
+  public static class Unhashable {
+    @Override
+    public boolean equals(Object o) {
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public int hashCode() {
+      throw new IllegalStateException();
+    }
+  }
+
+  /** A class whose hashCode method does not terminate. */
+  public static class Looping {
+    @Override
+    public int hashCode() {
+      while (true) {
+        Thread.yield();
+      }
+    }
+  }
+
+  @Test
+  public void equalsMatcherConsidersFailingObjectsNew() {
+    StateMatcher matcher = new EqualsMethodMatcher();
+    assertTrue("equals throws", matcher.add(new Unhashable()));
+    assertTrue("equals throws", matcher.add(new Unhashable()));
+    assertEquals("throwing objects are not kept", 0, matcher.size());
+  }
+
+  @Test
+  public void equalsMatcherTimesOutHashCode() {
+    int timeout = ReflectionExecutor.timeout;
+    ReflectionExecutor.timeout = 500;
+    try {
+      StateMatcher matcher = new EqualsMethodMatcher();
+      assertTrue("hashCode loops", matcher.add(new Looping()));
+      assertTrue(matcher.add(new ArrayList<>(Arrays.asList(1, 2))));
+      assertFalse(matcher.add(new ArrayList<>(Arrays.asList(1, 2))));
+    } finally {
+      ReflectionExecutor.timeout = timeout;
+    }
+  }
+
+  @Test
+  public void heapShapeMatcherComparesFields() {
+    StateMatcher matcher = new HeapShapeMatcher(3);
+    assertTrue(matcher.add(new Node(1, new Node(2, null))));
+    assertFalse(matcher.add(new Node(1, new Node(2, null))));
+    assertTrue(matcher.add(new Node(1, new Node(3, null))));
+    assertTrue(matcher.add(new Node(1, null)));
+
+    // Aliasing is part of the shape.
+    Node cycle = new Node(1, null);
+    cycle.next = cycle;
+    assertTrue(matcher.add(cycle));
+    Node other = new Node(1, null);
+    other.next = other;
+    assertFalse(matcher.add(other));
+
+    List<Node> nodes = new ArrayList<>();
+    nodes.add(new Node(5, null));
+    assertTrue(matcher.add(new Node[] {nodes.get(0)}));
+    assertFalse(matcher.add(new Node[] {new Node(5, null)}));
+  }
+
+  @Test
+  public void heapShapeMatcherStopsAtDepth() {
+    StateMatcher matcher = new HeapShapeMatcher(1);
+    assertTrue(matcher.add(new Node(1, new Node(2, null))));
+    assertFalse("differs beyond the depth", matcher.add(new Node(1, new Node(3, null))));
+    assertTrue(matcher.add(new Node(2, new Node(3, null))));
+  }
+}
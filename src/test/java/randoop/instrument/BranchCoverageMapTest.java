@@ -0,0 +1,89 @@
+package test.java.randoop.instrument;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import main.java.randoop.instrument.BranchCoverageMap;
+import org.junit.Test;
+
+public class BranchCoverageMapTest {
+
+  @Test
+  public void assignsConsecutiveIds() {
+    int first = BranchCoverageMap.register(3);
+    int next = BranchCoverageMap.register(2);
+    assertEquals(first + 3, next);
+    assertTrue(BranchCoverageMap.size() >= next + 2);
+  }
+
+  @Test
+  public void countsEachBlockOnce() {
+    int first = BranchCoverageMap.register(4);
+    long before = BranchCoverageMap.getCoveredCount();
+
+    BranchCoverageMap.hit(first + 1);
+    BranchCoverageMap.hit(first + 3);
+    BranchCoverageMap.hit(first + 1);
+    assertEquals(before + 2, BranchCoverageMap.getCoveredCount());
+    assertTrue(BranchCoverageMap.isCovered(first + 1));
+    assertFalse(BranchCoverageMap.isCovered(first + 2));
+  }
+
+  @Test
+  public void growsAcrossPages() {
+    int first = BranchCoverageMap.register(100000);
+    long before = BranchCoverageMap.getCoveredCount();
+    BranchCoverageMap.hit(first + 99999);
+    assertEquals(before + 1, BranchCoverageMap.getCoveredCount());
+    assertTrue(BranchCoverageMap.isCovered(first + 99999));
+  }
+
+  /** A generation thread: covers a block itself and in a thread it starts. */
+  private static final class Worker extends Thread {
+    private final int block;
+    long count;
+
+    Worker(int block) {
+      this.block = block;
+    }
+
+    @Override
+    public void run() {
+      BranchCoverageMap.startThreadCount();
+      long before = BranchCoverageMap.getThreadCoveredCount();
+      BranchCoverageMap.hit(block);
+      Thread executor =
+          new Thread() {
+            @Override
+            public void run() {
+              BranchCoverageMap.hit(block + 1);
+            }
+          };
+      executor.start();
+      try {
+        executor.join();
+      } catch (InterruptedException e) {
+        throw new Error(e);
+      }
+      count = BranchCoverageMap.getThreadCoveredCount() - before;
+    }
+  }
+
+  @Test
+  public void creditsTheCoveringThread() throws InterruptedException {
+    int first = BranchCoverageMap.register(4);
+    long before = BranchCoverageMap.getThreadCoveredCount();
+
+    Worker one = new Worker(first);
+    Worker two = new Worker(first + 2);
+    one.start();
+    two.start();
+    one.join();
+    two.join();
+
+    assertEquals("blocks of the worker and its executor", 2, one.count);
+    assertEquals("blocks of the worker and its executor", 2, two.count);
+    assertEquals("blocks of the workers", before, BranchCoverageMap.getThreadCoveredCount());
+  }
+}
@@ -0,0 +1,69 @@
+package test.java.randoop.instrument;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import main.java.randoop.instrument.ExercisedClassRegistry;
+import main.java.randoop.instrument.ExercisedClassVisitor;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
+import org.junit.Test;
+
+public class ExercisedClassRegistryTest {
+
+  @Test
+  public void assignsDenseIdsOnce() {
+    int first = ExercisedClassRegistry.register("registry.test.First");
+    int second = ExercisedClassRegistry.register("registry.test.Second");
+    assertEquals(first + 1, second);
+    assertEquals(first, ExercisedClassRegistry.register("registry.test.First"));
+    assertEquals(second, ExercisedClassRegistry.getId("registry.test.Second"));
+    assertEquals(-1, ExercisedClassRegistry.getId("registry.test.Unknown"));
+  }
+
+  @Test
+  public void checkAndResetClearsOnlyMaskedBits() {
+    int id = ExercisedClassRegistry.register("registry.test.Marked");
+    int other = ExercisedClassRegistry.register("registry.test.Other");
+    int word = id >>> 6;
+    long bit = 1L << id;
+    long otherBit = 1L << other;
+    ExercisedClassRegistry.checkAndReset(word, bit);
+    ExercisedClassRegistry.checkAndReset(other >>> 6, otherBit);
+
+    ExercisedClassRegistry.mark(id);
+    ExercisedClassRegistry.mark(other);
+    ExercisedClassRegistry.mark(id);
+    assertEquals(bit, ExercisedClassRegistry.checkAndReset(word, bit));
+    assertEquals(0, ExercisedClassRegistry.checkAndReset(word, bit));
+    assertEquals(otherBit, ExercisedClassRegistry.checkAndReset(other >>> 6, otherBit));
+  }
+
+  @Test
+  public void visitorReportsMarkedClasses() {
+    int stringId = ExercisedClassRegistry.register(String.class.getName());
+    int integerId = ExercisedClassRegistry.register(Integer.class.getName());
+    Set<Class<?>> classes = new LinkedHashSet<>();
+    classes.add(String.class);
+    classes.add(Integer.class);
+    ExercisedClassVisitor visitor = new ExercisedClassVisitor(classes);
+
+    ExecutableSequence sequence = new ExecutableSequence(new Sequence());
+    visitor.visitAfterSequence(sequence);
+    ExercisedClassRegistry.mark(integerId);
+    visitor.visitAfterSequence(sequence);
+    assertTrue(sequence.coversClass(Integer.class));
+    assertFalse(sequence.coversClass(String.class));
+
+    // The bits were cleared by the previous visit.
+    sequence = new ExecutableSequence(new Sequence());
+    ExercisedClassRegistry.mark(stringId);
+    visitor.visitAfterSequence(sequence);
+    assertTrue(sequence.coversClass(String.class));
+    assertFalse(sequence.coversClass(Integer.class));
+  }
+}
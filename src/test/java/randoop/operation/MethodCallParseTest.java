@@ -0,0 +1,103 @@
+package test.java.randoop.operation;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.operation.GenericOperation;
+import main.java.randoop.operation.MethodCall;
+import main.java.randoop.operation.OperationParseException;
+import main.java.randoop.operation.OperationParser;
+import main.java.randoop.reflection.ModelCollections;
+import main.java.randoop.reflection.TypedOperationManager;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.types.ConcreteTypeTuple;
+import main.java.randoop.types.GenericClassType;
+import main.java.randoop.types.RandoopTypeException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that method calls survive a round trip through
+ * {@link ConcreteOperation#toParseableString()} and {@link OperationParser}.
+ */
+public class MethodCallParseTest {
+
+  @Test
+  public void testInheritedMethod() {
+    ConcreteType declaringType = null;
+    try {
+      declaringType = ConcreteType.forClass(StringReader.class);
+    } catch (RandoopTypeException e) {
+      fail("Type error declaring class: " + e);
+    }
+    for (Method m : StringReader.class.getMethods()) {
+      if (m.getDeclaringClass().equals(StringReader.class)
+          || m.getDeclaringClass().equals(Object.class)
+          || Modifier.isStatic(m.getModifiers())) {
+        continue;
+      }
+      List<ConcreteType> paramTypes = new ArrayList<>();
+      paramTypes.add(declaringType);
+      for (Type t : m.getGenericParameterTypes()) {
+        try {
+          paramTypes.add(ConcreteType.forType(t));
+        } catch (RandoopTypeException e) {
+          fail("Type error parameter: " + e);
+        }
+      }
+      ConcreteType outputType = null;
+      try {
+        outputType = ConcreteType.forType(m.getGenericReturnType());
+      } catch (RandoopTypeException e) {
+        fail("Type error return type: " + e);
+      }
+      checkRoundTrip(
+          new ConcreteOperation(
+              new MethodCall(m), declaringType, new ConcreteTypeTuple(paramTypes), outputType));
+    }
+  }
+
+  private void checkRoundTrip(ConcreteOperation operation) {
+    String parseable = operation.toParseableString();
+    final List<ConcreteOperation> concreteOperations = new ArrayList<>();
+    TypedOperationManager operationManager = new TypedOperationManager(new ModelCollections() {
+
+      @Override
+      public void addGenericClassType(GenericClassType type) {
+        fail("not expecting generic class type: " + type.getName());
+      }
+
+      @Override
+      public void addGenericOperation(GenericClassType declaringType, GenericOperation operation) {
+        fail("not expecting generic operation: " + operation.toString());
+      }
+
+      @Override
+      public void addGenericOperation(ConcreteType declaringType, GenericOperation operation) {
+        fail("not expecting generic operation: " + operation.toString());
+      }
+
+      @Override
+      public void addConcreteOperation(ConcreteType declaringType, ConcreteOperation operation) {
+        concreteOperations.add(operation);
+      }
+    });
+
+    try {
+      OperationParser.parse(OperationParser.getId(operation) + ":" + parseable, operationManager);
+    } catch (OperationParseException e) {
+      fail("failed to parse " + parseable + ": " + e.getMessage());
+    }
+    assertEquals("collected one operation for " + parseable, 1, concreteOperations.size());
+    assertEquals("parsed operation", operation, concreteOperations.get(0));
+    assertEquals("parseable string", parseable, concreteOperations.get(0).toParseableString());
+  }
+}
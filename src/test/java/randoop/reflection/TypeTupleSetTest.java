@@ -0,0 +1,84 @@
+package test.java.randoop.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import main.java.randoop.reflection.TypeTupleSet;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.types.GenericClassType;
+import main.java.randoop.types.RandoopTypeException;
+import main.java.randoop.types.Substitution;
+import main.java.randoop.types.TypeParameter;
+import org.junit.Test;
+
+public class TypeTupleSetTest {
+
+  @Test
+  public void filterKeepsTuplesSatisfyingBounds()
+      throws ClassNotFoundException, RandoopTypeException {
+    GenericClassType classType =
+        new GenericClassType(Class.forName("test.java.randoop.types.generics.Class1"));
+    List<TypeParameter> parameters = classType.getTypeParameters();
+    ConcreteType integerType = ConcreteType.forClass(Integer.class);
+    ConcreteType stringType = ConcreteType.forClass(String.class);
+    ConcreteType doubleType = ConcreteType.forClass(Double.class);
+
+    TypeTupleSet set = new TypeTupleSet();
+    set.extend(Arrays.asList(integerType, stringType, doubleType));
+    List<Substitution> substitutions = set.filter(parameters);
+    assertEquals(
+        Arrays.asList(
+            Substitution.forArgs(parameters, integerType),
+            Substitution.forArgs(parameters, doubleType)),
+        substitutions);
+
+    for (int i = 0; i < 20; i++) {
+      assertTrue(substitutions.contains(set.sample(parameters)));
+    }
+
+    TypeTupleSet empty = new TypeTupleSet();
+    empty.extend(Arrays.asList(stringType));
+    assertNull(empty.sample(parameters));
+  }
+
+  @Test
+  public void checksBoundsOnLaterParameters()
+      throws ClassNotFoundException, RandoopTypeException {
+    GenericClassType classType =
+        new GenericClassType(
+            Class.forName("test.java.randoop.types.generics.MutuallyRecursive1"));
+    List<TypeParameter> parameters = classType.getTypeParameters();
+    List<ConcreteType> types = new ArrayList<>();
+    types.add(
+        ConcreteType.forClass(Class.forName("test.java.randoop.types.generics.Variable1Ext3")));
+    types.add(
+        ConcreteType.forClass(Class.forName("test.java.randoop.types.generics.Variable1Ext4")));
+    types.add(ConcreteType.forClass(String.class));
+
+    TypeTupleSet set = new TypeTupleSet();
+    set.extend(types);
+    set.extend(types);
+    assertEquals(bruteForce(parameters, types), set.filter(parameters));
+  }
+
+  // Filters the full product of the candidates, as TypeTupleSet used to.
+  private static List<Substitution> bruteForce(
+      List<TypeParameter> parameters, List<ConcreteType> types) throws RandoopTypeException {
+    List<Substitution> substitutions = new ArrayList<>();
+    for (ConcreteType first : types) {
+      for (ConcreteType second : types) {
+        Substitution substitution = Substitution.forArgs(parameters, first, second);
+        if (parameters.get(0).getBound().isSatisfiedBy(first, substitution)
+            && parameters.get(1).getBound().isSatisfiedBy(second, substitution)) {
+          substitutions.add(substitution);
+        }
+      }
+    }
+    return substitutions;
+  }
+}
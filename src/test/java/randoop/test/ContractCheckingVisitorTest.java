@@ -0,0 +1,154 @@
+package test.java.randoop.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import main.java.randoop.DummyVisitor;
+import main.java.randoop.ExceptionalExecution;
+import main.java.randoop.ExecutionOutcome;
+import main.java.randoop.NormalExecution;
+import main.java.randoop.contract.ObjectContract;
+import main.java.randoop.contract.ObjectContractUtils;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.operation.ConstructorCall;
+import main.java.randoop.operation.MethodCall;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.Variable;
+import main.java.randoop.test.ContractCheckingVisitor;
+import main.java.randoop.test.predicate.AlwaysFalseExceptionPredicate;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.types.ConcreteTypeTuple;
+import main.java.randoop.types.ConcreteTypes;
+import main.java.randoop.util.ReflectionExecutor;
+import main.java.randoop.util.TimeoutExceededException;
+import org.junit.Test;
+
+public class ContractCheckingVisitorTest {
+
+  /** A unary contract that holds, and records the values it was checked on. */
+  private static class RecordingContract implements ObjectContract {
+    final List<Object> checked = Collections.synchronizedList(new ArrayList<Object>());
+
+    @Override
+    public int getArity() {
+      return 1;
+    }
+
+    @Override
+    public boolean evaluate(Object... objects) {
+      checked.add(objects[0]);
+      return true;
+    }
+
+    @Override
+    public boolean evalExceptionMeansFailure() {
+      return true;
+    }
+
+    @Override
+    public String toCommentString() {
+      return "recorded";
+    }
+
+    @Override
+    public String toCodeString() {
+      return "true";
+    }
+
+    @Override
+    public String get_observer_str() {
+      return "RecordingContract";
+    }
+  }
+
+  /** A unary contract that never returns. */
+  private static class LoopingContract extends RecordingContract {
+    @Override
+    public boolean evaluate(Object... objects) {
+      while (true) {
+        Thread.yield();
+      }
+    }
+  }
+
+  @Test
+  public void batchContinuesAfterTimeout() {
+    int oldTimeout = ReflectionExecutor.timeout;
+    ReflectionExecutor.timeout = 200;
+    try {
+      RecordingContract recording = new RecordingContract();
+      List<ObjectContract> contracts =
+          Arrays.<ObjectContract>asList(recording, new LoopingContract(), recording);
+      List<Object[]> values = new ArrayList<>();
+      values.add(new Object[] {"a"});
+      values.add(new Object[] {"b"});
+      values.add(new Object[] {"c"});
+
+      List<ExecutionOutcome> outcomes = ObjectContractUtils.execute(contracts, values);
+
+      assertEquals(3, outcomes.size());
+      assertEquals(true, ((NormalExecution) outcomes.get(0)).getRuntimeValue());
+      assertTrue(
+          ((ExceptionalExecution) outcomes.get(1)).getException()
+              instanceof TimeoutExceededException);
+      assertEquals(true, ((NormalExecution) outcomes.get(2)).getRuntimeValue());
+      assertEquals(Arrays.<Object>asList("a", "c"), recording.checked);
+    } finally {
+      ReflectionExecutor.timeout = oldTimeout;
+    }
+  }
+
+  @Test
+  public void skipsValuesOfCheckedInputSequences() throws Throwable {
+    ConcreteType builderType = ConcreteType.forClass(StringBuilder.class);
+    ConcreteOperation newBuilder =
+        new ConcreteOperation(
+            new ConstructorCall(StringBuilder.class.getConstructor()),
+            builderType,
+            new ConcreteTypeTuple(),
+            builderType);
+    ConcreteOperation reverse =
+        new ConcreteOperation(
+            new MethodCall(StringBuilder.class.getMethod("reverse")),
+            builderType,
+            new ConcreteTypeTuple(Collections.singletonList(builderType)),
+            builderType);
+
+    RecordingContract contract = new RecordingContract();
+    Set<ObjectContract> contracts = new LinkedHashSet<>();
+    contracts.add(contract);
+    ContractCheckingVisitor visitor =
+        new ContractCheckingVisitor(contracts, new AlwaysFalseExceptionPredicate());
+
+    Sequence input = new Sequence().extend(newBuilder, new ArrayList<Variable>());
+    new ExecutableSequence(input).execute(new DummyVisitor(), visitor);
+    assertEquals("input sequence is checked", 1, contract.checked.size());
+
+    // A new value that does not use the input sequence.
+    contract.checked.clear();
+    Sequence unused =
+        Sequence.concatenate(Collections.singletonList(input))
+            .extend(newBuilder, new ArrayList<Variable>());
+    ExecutableSequence es = new ExecutableSequence(unused);
+    es.setInputSequences(Collections.singletonList(input));
+    es.execute(new DummyVisitor(), visitor);
+    assertEquals("only the new value is checked", 1, contract.checked.size());
+
+    // A call that uses, and may change, the value of the input sequence.
+    contract.checked.clear();
+    Sequence concat = Sequence.concatenate(Collections.singletonList(input));
+    Sequence used = concat.extend(reverse, Collections.singletonList(concat.getVariable(0)));
+    es = new ExecutableSequence(used);
+    es.setInputSequences(Collections.singletonList(input));
+    es.execute(new DummyVisitor(), visitor);
+    assertEquals("the used value is checked again", 2, contract.checked.size());
+  }
+}
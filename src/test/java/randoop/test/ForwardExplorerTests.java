@@ -2,12 +2,16 @@ package test.java.randoop.test;
 
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import main.java.randoop.BugInRandoopException;
+import main.java.randoop.JunitFileWriter;
 import main.java.randoop.contract.ObjectContract;
 import main.java.randoop.generation.ComponentManager;
 import main.java.randoop.generation.ForwardGenerator;
@@ -39,6 +43,7 @@ import main.java.randoop.util.MultiMap;
 import main.java.randoop.util.ReflectionExecutor;
 import main.java.randoop.util.predicate.Predicate;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static main.java.randoop.main.GenInputsAbstract.include_if_classname_appears;
@@ -64,6 +69,73 @@ public class ForwardExplorerTests {
     assertTrue(explorer.numGeneratedSequences() != 0);
   }
 
+  @Test
+  public void testParallelGeneration() {
+    List<Class<?>> classes = new ArrayList<>();
+    classes.add(java.util.ArrayList.class);
+    classes.add(Long.class);
+
+    final List<ConcreteOperation> model = getConcreteOperations(classes);
+    assertTrue("model not empty", model.size() != 0);
+    int oldThreads = GenInputsAbstract.generation_threads;
+    GenInputsAbstract.generation_threads = 4;
+    try {
+      ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+      ForwardGenerator explorer =
+          new ForwardGenerator(model, new LinkedHashSet<ConcreteOperation>(), Long.MAX_VALUE, 1000, 1000, mgr, null, null);
+      explorer.addTestCheckGenerator(createChecker(new LinkedHashSet<ObjectContract>()));
+      explorer.addTestPredicate(createOutputTest());
+      explorer.explore();
+      assertTrue("should generate up to the limit", explorer.numGeneratedSequences() >= 1000);
+      Set<String> code = new LinkedHashSet<>();
+      for (Sequence s : explorer.getAllSequences()) {
+        assertTrue("sequences should be unique", code.add(s.toCodeString()));
+      }
+    } finally {
+      GenInputsAbstract.generation_threads = oldThreads;
+    }
+  }
+
+  @Test
+  public void testStreamedOutput() throws IOException {
+    List<Class<?>> classes = new ArrayList<>();
+    classes.add(Long.class);
+
+    final List<ConcreteOperation> model = getConcreteOperations(classes);
+    assertTrue("model not empty", model.size() != 0);
+    int oldTestsPerFile = GenInputsAbstract.testsperfile;
+    GenInputsAbstract.testsperfile = 20;
+    File dir = Files.createTempDirectory("randoop-stream").toFile();
+    try {
+      ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+      ForwardGenerator explorer =
+          new ForwardGenerator(model, new LinkedHashSet<ConcreteOperation>(), Long.MAX_VALUE, 200, 200, mgr, null, null);
+      explorer.addTestCheckGenerator(createChecker(new LinkedHashSet<ObjectContract>()));
+      explorer.addTestPredicate(createOutputTest());
+      explorer.streamTests(null, new JunitFileWriter(dir.getPath(), "", "RegressionTest"));
+      explorer.explore();
+
+      assertTrue("should keep less than a file of tests", explorer.outRegressionSeqs.size() < 20);
+      List<File> files = explorer.flushStreamedTests();
+      assertTrue("should write tests during generation", files.size() > 1);
+      assertTrue("should remove written tests", explorer.outRegressionSeqs.isEmpty());
+      assertEquals(
+          "should count written tests",
+          explorer.numStreamedRegressionTests(),
+          explorer.outputSequenceCount() - explorer.outErrorSeqs.size());
+      for (int i = 0; i < files.size(); i++) {
+        assertEquals("RegressionTest" + i + ".java", files.get(i).getName());
+        assertTrue(files.get(i).exists());
+      }
+    } finally {
+      GenInputsAbstract.testsperfile = oldTestsPerFile;
+      for (File f : dir.listFiles()) {
+        f.delete();
+      }
+      dir.delete();
+    }
+  }
+
   private static List<ConcreteOperation> getConcreteOperations(List<Class<?>> classes) {
     final List<ConcreteOperation> model = new ArrayList<>();
     TypedOperationManager operationManager = new TypedOperationManager(new ModelCollections() {
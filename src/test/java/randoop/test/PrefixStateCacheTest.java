@@ -0,0 +1,71 @@
+package test.java.randoop.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import main.java.randoop.DummyVisitor;
+import main.java.randoop.ExecutionOutcome;
+import main.java.randoop.NormalExecution;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.PrefixStateCache;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.SequenceParseException;
+import main.java.randoop.test.DummyCheckGenerator;
+
+import org.junit.Test;
+
+/**
+ * Tests reuse of component outcomes by {@link PrefixStateCache}.
+ */
+public class PrefixStateCacheTest {
+
+  @Test
+  public void cloneableValuesAreCopied() throws SequenceParseException {
+    Sequence date = Sequence.parse(Arrays.asList("var0 = cons : java.util.Date.<init>() :"));
+    Sequence setTime =
+        Sequence.parse(
+            Arrays.asList(
+                "var0 = cons : java.util.Date.<init>() :",
+                "var1 = prim : long:5 :",
+                "var2 = method : java.util.Date.setTime(long) : var0 var1"));
+
+    PrefixStateCache.prefix_cache_cloneable.add("java.util.Date");
+    PrefixStateCache.clear();
+    try {
+      assertNull("should miss before execution", PrefixStateCache.lookup(date));
+
+      ExecutableSequence es = new ExecutableSequence(date);
+      es.execute(new DummyVisitor(), new DummyCheckGenerator());
+      PrefixStateCache.add(es);
+      Date original = (Date) ((NormalExecution) es.getResult(0)).getRuntimeValue();
+      long originalTime = original.getTime();
+
+      List<ExecutionOutcome> outcomes = PrefixStateCache.lookup(date);
+      assertNotNull("should hit after execution", outcomes);
+      Object copy = ((NormalExecution) outcomes.get(0)).getRuntimeValue();
+      assertNotSame("should copy cloneable value", original, copy);
+      assertEquals("copy should be equal", original, copy);
+
+      ExecutableSequence extended = new ExecutableSequence(setTime);
+      extended.addKnownOutcomes(0, outcomes);
+      extended.execute(new DummyVisitor(), new DummyCheckGenerator());
+      assertSame(
+          "should use known outcome", copy, ((NormalExecution) extended.getResult(0)).getRuntimeValue());
+      assertEquals("should execute appended statements", 5, ((Date) copy).getTime());
+      assertEquals("cached value should be unchanged", originalTime, original.getTime());
+
+      assertEquals(1, PrefixStateCache.hits());
+      assertEquals(1, PrefixStateCache.misses());
+    } finally {
+      PrefixStateCache.prefix_cache_cloneable.remove("java.util.Date");
+      PrefixStateCache.clear();
+    }
+  }
+}
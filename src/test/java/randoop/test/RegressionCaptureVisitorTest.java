@@ -0,0 +1,175 @@
+package test.java.randoop.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import main.java.randoop.DummyVisitor;
+import main.java.randoop.contract.ObserverEqValue;
+import main.java.randoop.operation.ConcreteOperation;
+import main.java.randoop.operation.ConstructorCall;
+import main.java.randoop.operation.MethodCall;
+import main.java.randoop.reflection.PublicVisibilityPredicate;
+import main.java.randoop.sequence.ExecutableSequence;
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.Variable;
+import main.java.randoop.test.Check;
+import main.java.randoop.test.ExpectedExceptionCheckGen;
+import main.java.randoop.test.ObjectCheck;
+import main.java.randoop.test.RegressionCaptureVisitor;
+import main.java.randoop.test.predicate.AlwaysFalseExceptionPredicate;
+import main.java.randoop.types.ConcreteType;
+import main.java.randoop.types.ConcreteTypeTuple;
+import main.java.randoop.types.ConcreteTypes;
+import main.java.randoop.util.MultiMap;
+import org.junit.Test;
+
+public class RegressionCaptureVisitorTest {
+
+  /** A class with an observer that counts its calls. */
+  public static class Counted {
+    static int observations = 0;
+
+    static Counted instance;
+
+    private int state = 0;
+
+    public static Counted shared() {
+      return instance;
+    }
+
+    public int getState() {
+      observations++;
+      return state;
+    }
+
+    public void increment() {
+      state++;
+    }
+  }
+
+  @Test
+  public void reusesObserverValuesOfUnchangedInputSequences() throws Throwable {
+    ConcreteType countedType = ConcreteType.forClass(Counted.class);
+    ConcreteOperation newCounted =
+        new ConcreteOperation(
+            new ConstructorCall(Counted.class.getConstructor()),
+            countedType,
+            new ConcreteTypeTuple(),
+            countedType);
+    ConcreteOperation getState =
+        new ConcreteOperation(
+            new MethodCall(Counted.class.getMethod("getState")),
+            countedType,
+            new ConcreteTypeTuple(Collections.singletonList(countedType)),
+            ConcreteTypes.INT_TYPE);
+    ConcreteOperation increment =
+        new ConcreteOperation(
+            new MethodCall(Counted.class.getMethod("increment")),
+            countedType,
+            new ConcreteTypeTuple(Collections.singletonList(countedType)),
+            ConcreteTypes.VOID_TYPE);
+
+    MultiMap<ConcreteType, ConcreteOperation> observerMap = new MultiMap<>();
+    observerMap.add(countedType, getState);
+    RegressionCaptureVisitor visitor =
+        new RegressionCaptureVisitor(
+            new ExpectedExceptionCheckGen(
+                new PublicVisibilityPredicate(),
+                new AlwaysFalseExceptionPredicate()),
+            observerMap,
+            new LinkedHashSet<ConcreteOperation>(),
+            true);
+
+    Counted.observations = 0;
+    Sequence input = new Sequence().extend(newCounted, new ArrayList<Variable>());
+    new ExecutableSequence(input).execute(new DummyVisitor(), visitor);
+    assertEquals("input sequence is observed", 1, Counted.observations);
+
+    // A new value that does not use the input sequence.
+    Counted.observations = 0;
+    Sequence unused =
+        Sequence.concatenate(Collections.singletonList(input))
+            .extend(newCounted, new ArrayList<Variable>());
+    ExecutableSequence es = new ExecutableSequence(unused);
+    es.setInputSequences(Collections.singletonList(input));
+    es.execute(new DummyVisitor(), visitor);
+    assertEquals("only the new value is observed", 1, Counted.observations);
+    assertEquals("the reused value is still checked", 2, observerChecks(es, 0));
+
+    // A call that changes the value of the input sequence.
+    Counted.observations = 0;
+    Sequence concat = Sequence.concatenate(Collections.singletonList(input));
+    Sequence used = concat.extend(increment, Collections.singletonList(concat.getVariable(0)));
+    es = new ExecutableSequence(used);
+    es.setInputSequences(Collections.singletonList(input));
+    es.execute(new DummyVisitor(), visitor);
+    assertEquals("the used value is observed again", 1, Counted.observations);
+    assertEquals("the observer value reflects the change", 1, observerChecks(es, 1));
+  }
+
+  @Test
+  public void observesInputValuesSharedWithLaterStatements() throws Throwable {
+    ConcreteType countedType = ConcreteType.forClass(Counted.class);
+    ConcreteOperation shared =
+        new ConcreteOperation(
+            new MethodCall(Counted.class.getMethod("shared")),
+            countedType,
+            new ConcreteTypeTuple(),
+            countedType);
+    ConcreteOperation getState =
+        new ConcreteOperation(
+            new MethodCall(Counted.class.getMethod("getState")),
+            countedType,
+            new ConcreteTypeTuple(Collections.singletonList(countedType)),
+            ConcreteTypes.INT_TYPE);
+    ConcreteOperation increment =
+        new ConcreteOperation(
+            new MethodCall(Counted.class.getMethod("increment")),
+            countedType,
+            new ConcreteTypeTuple(Collections.singletonList(countedType)),
+            ConcreteTypes.VOID_TYPE);
+
+    MultiMap<ConcreteType, ConcreteOperation> observerMap = new MultiMap<>();
+    observerMap.add(countedType, getState);
+    RegressionCaptureVisitor visitor =
+        new RegressionCaptureVisitor(
+            new ExpectedExceptionCheckGen(
+                new PublicVisibilityPredicate(),
+                new AlwaysFalseExceptionPredicate()),
+            observerMap,
+            new LinkedHashSet<ConcreteOperation>(),
+            true);
+
+    Counted.instance = new Counted();
+    Sequence input = new Sequence().extend(shared, new ArrayList<Variable>());
+    new ExecutableSequence(input).execute(new DummyVisitor(), visitor);
+
+    // Gets the singleton again through another variable, and changes it.
+    Counted.instance = new Counted();
+    Counted.observations = 0;
+    Sequence concat = Sequence.concatenate(Collections.singletonList(input));
+    Sequence again = concat.extend(shared, new ArrayList<Variable>());
+    Sequence changed = again.extend(increment, Collections.singletonList(again.getVariable(1)));
+    ExecutableSequence es = new ExecutableSequence(changed);
+    es.setInputSequences(Collections.singletonList(input));
+    es.execute(new DummyVisitor(), visitor);
+    assertEquals("both values are observed", 2, Counted.observations);
+    assertEquals("both observer values reflect the change", 2, observerChecks(es, 1));
+    assertEquals("no stale observer value", 0, observerChecks(es, 0));
+  }
+
+  private static int observerChecks(ExecutableSequence es, int value) {
+    int count = 0;
+    for (Check check : es.getChecks().get().keySet()) {
+      if (check instanceof ObjectCheck
+          && ((ObjectCheck) check).contract instanceof ObserverEqValue
+          && ((ObserverEqValue) ((ObjectCheck) check).contract).value.equals(value)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
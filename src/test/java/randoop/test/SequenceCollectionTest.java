@@ -0,0 +1,83 @@
+package test.java.randoop.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import main.java.randoop.sequence.Sequence;
+import main.java.randoop.sequence.SequenceCollection;
+import main.java.randoop.types.ConcreteTypes;
+import main.java.randoop.util.SimpleList;
+
+import org.junit.Test;
+
+/**
+ * Tests the cached results of {@link SequenceCollection#getSequencesForType}.
+ */
+public class SequenceCollectionTest {
+
+  @Test
+  public void cachedResultsFollowAdditions() {
+    SequenceCollection collection = new SequenceCollection();
+    collection.add(Sequence.createSequenceForPrimitive("a"));
+
+    SimpleList<Sequence> strings = collection.getSequencesForType(ConcreteTypes.STRING_TYPE, false);
+    assertEquals(1, strings.size());
+    assertSame(
+        "should reuse cached result",
+        strings,
+        collection.getSequencesForType(ConcreteTypes.STRING_TYPE, false));
+
+    SimpleList<Sequence> objects = collection.getSequencesForType(ConcreteTypes.OBJECT_TYPE, false);
+    assertEquals(1, objects.size());
+
+    Sequence first = strings.get(0);
+    collection.add(Sequence.createSequenceForPrimitive("b"));
+    assertSame(
+        "should extend cached result",
+        strings,
+        collection.getSequencesForType(ConcreteTypes.STRING_TYPE, false));
+    assertEquals(2, strings.size());
+    assertSame("should only append", first, strings.get(0));
+    assertSame(objects, collection.getSequencesForType(ConcreteTypes.OBJECT_TYPE, false));
+    assertEquals(2, objects.size());
+
+    // A new type may be compatible with cached queries.
+    collection.add(Sequence.createSequenceForPrimitive(1));
+    assertSame(objects, collection.getSequencesForType(ConcreteTypes.OBJECT_TYPE, false));
+    assertEquals(collection.getAllSequences().size(), objects.size());
+    assertEquals(2, strings.size());
+  }
+
+  @Test
+  public void removalReplacesCachedResults() {
+    SequenceCollection collection = new SequenceCollection();
+    Sequence a = Sequence.createSequenceForPrimitive("a");
+    Sequence b = Sequence.createSequenceForPrimitive("b");
+    collection.add(a);
+    collection.add(b);
+    SimpleList<Sequence> strings = collection.getSequencesForType(ConcreteTypes.STRING_TYPE, false);
+
+    collection.removeAll(Arrays.asList(a));
+    SimpleList<Sequence> fewerStrings =
+        collection.getSequencesForType(ConcreteTypes.STRING_TYPE, false);
+    assertEquals(1, fewerStrings.size());
+    assertSame(b, fewerStrings.get(0));
+    assertEquals("old result should be unchanged", 2, strings.size());
+    assertEquals(1, collection.size());
+
+    // Additions after a removal extend the rebuilt result only.
+    Sequence c = Sequence.createSequenceForPrimitive("c");
+    collection.add(c);
+    assertEquals(2, fewerStrings.size());
+    assertSame(c, fewerStrings.get(1));
+    assertEquals(2, strings.size());
+    collection.removeAll(Arrays.asList(c));
+
+    // Without sequences, the type is no longer compatible with queries.
+    collection.removeAll(Arrays.asList(b));
+    assertEquals(0, collection.getSequencesForType(ConcreteTypes.OBJECT_TYPE, false).size());
+    assertEquals(0, collection.size());
+  }
+}
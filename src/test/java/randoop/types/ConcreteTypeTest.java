@@ -1,6 +1,9 @@
 package test.java.randoop.types;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Array;
@@ -56,4 +59,45 @@ public class ConcreteTypeTest {
       fail("type error: " + e);
     }
   }
+
+  @Test
+  public void testInterning() {
+    try {
+      assertSame(
+              "simple types interned",
+              ConcreteType.forClass(String.class),
+              ConcreteType.forClass(String.class));
+      assertSame(
+              "array types interned",
+              ConcreteType.forClass(int[].class),
+              ConcreteType.forClass(int[].class));
+      assertSame(
+              "parameterized types interned",
+              ConcreteType.forClass(BoxClass.class, new ConcreteSimpleType(String.class)),
+              ConcreteType.forClass(BoxClass.class, new ConcreteSimpleType(String.class)));
+      assertSame(
+              "intern returns equal type",
+              ConcreteType.forClass(String.class),
+              ConcreteType.intern(new ConcreteSimpleType(String.class)));
+    } catch (RandoopTypeException e) {
+      fail("type error: " + e);
+    }
+  }
+
+  @Test
+  public void testAssignabilityMemoized() {
+    try {
+      ConcreteType objectType = ConcreteType.forClass(Object.class);
+      ConcreteType stringType = ConcreteType.forClass(String.class);
+      for (int i = 0; i < 2; i++) {
+        assertTrue("Object assignable from String", objectType.isAssignableFrom(stringType));
+        assertFalse("String not assignable from Object", stringType.isAssignableFrom(objectType));
+        assertTrue(
+                "equal uninterned source",
+                objectType.isAssignableFrom(new ConcreteSimpleType(String.class)));
+      }
+    } catch (RandoopTypeException e) {
+      fail("type error: " + e);
+    }
+  }
 }
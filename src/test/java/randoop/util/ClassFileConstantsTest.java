@@ -0,0 +1,79 @@
+package test.java.randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import main.java.randoop.util.ClassFileConstants;
+import main.java.randoop.util.ClassFileConstants.ConstantSet;
+import org.junit.Test;
+
+public class ClassFileConstantsTest {
+
+  /** A class with known literals. */
+  public static class Literals {
+    public static String name() {
+      return "literal string";
+    }
+
+    public static long big() {
+      return 1234567890123L;
+    }
+
+    public static int small() {
+      return 314159;
+    }
+  }
+
+  @Test
+  public void cachedConstantsMatchScannedConstants() throws IOException {
+    File cacheDirectory = newDirectory();
+    String classname = Literals.class.getName();
+
+    ConstantSet scanned = ClassFileConstants.getConstants(classname);
+    assertTrue(scanned.strings.contains("literal string"));
+    assertTrue(scanned.longs.contains(1234567890123L));
+    assertTrue(scanned.ints.contains(314159));
+
+    ConstantSet first = ClassFileConstants.getConstants(classname, cacheDirectory);
+    File[] entries = cacheDirectory.listFiles();
+    assertEquals("one cache entry is written", 1, entries.length);
+    assertSameConstants(scanned, first);
+
+    ConstantSet cached = ClassFileConstants.getConstants(classname, cacheDirectory);
+    assertSameConstants(scanned, cached);
+
+    // A damaged entry is ignored and replaced.
+    try (FileWriter writer = new FileWriter(entries[0])) {
+      writer.write("damaged");
+    }
+    ConstantSet rescanned = ClassFileConstants.getConstants(classname, cacheDirectory);
+    assertSameConstants(scanned, rescanned);
+    assertSameConstants(scanned, ClassFileConstants.getConstants(classname, cacheDirectory));
+
+    for (File entry : cacheDirectory.listFiles()) {
+      entry.delete();
+    }
+    cacheDirectory.delete();
+  }
+
+  private static void assertSameConstants(ConstantSet expected, ConstantSet actual) {
+    assertEquals(expected.classname, actual.classname);
+    assertEquals(expected.ints, actual.ints);
+    assertEquals(expected.longs, actual.longs);
+    assertEquals(expected.floats, actual.floats);
+    assertEquals(expected.doubles, actual.doubles);
+    assertEquals(expected.strings, actual.strings);
+    assertEquals(expected.classes, actual.classes);
+  }
+
+  private static File newDirectory() throws IOException {
+    File directory = File.createTempFile("randoop-literals", "");
+    assertTrue(directory.delete());
+    assertTrue(directory.mkdir());
+    return directory;
+  }
+}
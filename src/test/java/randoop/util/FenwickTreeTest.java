@@ -0,0 +1,60 @@
+package test.java.randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import main.java.randoop.util.FenwickTree;
+import org.junit.Test;
+
+public class FenwickTreeTest {
+
+  @Test
+  public void findMatchesLinearScan() {
+    FenwickTree tree = new FenwickTree();
+    double[] weights = new double[100];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = 1 + (i * 7) % 5;
+      tree.add(weights[i]);
+    }
+    tree.set(17, 0.5);
+    weights[17] = 0.5;
+    tree.set(64, 20);
+    weights[64] = 20;
+
+    double total = 0;
+    for (double w : weights) total += w;
+    assertEquals(total, tree.total(), 1e-9);
+
+    for (double point = 0; point < total; point += 0.25) {
+      assertEquals("element at point " + point, linearFind(weights, point), tree.find(point));
+    }
+  }
+
+  @Test
+  public void rejectsNonPositiveWeights() {
+    FenwickTree tree = new FenwickTree();
+    try {
+      tree.add(0);
+      fail("should reject zero weight");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    tree.add(1);
+    try {
+      tree.set(0, -1);
+      fail("should reject negative weight");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals(1, tree.get(0), 0);
+  }
+
+  private static int linearFind(double[] weights, double point) {
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      sum += weights[i];
+      if (sum > point) return i;
+    }
+    return weights.length - 1;
+  }
+}
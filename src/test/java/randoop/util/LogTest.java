@@ -0,0 +1,85 @@
+package test.java.randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import main.java.randoop.main.GenInputsAbstract;
+import main.java.randoop.util.AsyncLogWriter;
+import main.java.randoop.util.Log;
+import org.junit.Test;
+
+public class LogTest {
+
+  @Test
+  public void writesAllMessagesInOrderPerThread() throws InterruptedException {
+    // A small buffer, so that writing threads have to wait for the writer.
+    final AsyncLogWriter writer = new AsyncLogWriter(4);
+    final StringWriter out = new StringWriter();
+    final int messages = 2000;
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int thread = t;
+      threads.add(
+          new Thread() {
+            @Override
+            public void run() {
+              for (int i = 0; i < messages; i++) {
+                writer.write(out, thread + " " + i + "\n");
+              }
+            }
+          });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    writer.flush();
+
+    String[] lines = out.toString().split("\n");
+    assertEquals(4 * messages, lines.length);
+    int[] next = new int[4];
+    for (String line : lines) {
+      String[] parts = line.split(" ");
+      int thread = Integer.parseInt(parts[0]);
+      assertEquals("messages of a thread are in order", next[thread], Integer.parseInt(parts[1]));
+      next[thread]++;
+    }
+  }
+
+  @Test
+  public void logsOnlySelectedCategories() throws Exception {
+    File file = File.createTempFile("randoop-log", ".txt");
+    file.deleteOnExit();
+    FileWriter oldLog = GenInputsAbstract.log;
+    try {
+      GenInputsAbstract.log = new FileWriter(file);
+      Log.setCategories(EnumSet.of(Log.Category.CHECKS));
+      assertTrue(Log.isLoggingOn(Log.Category.CHECKS));
+      assertFalse(Log.isLoggingOn(Log.Category.RANDOMNESS));
+
+      Log.logLine(Log.Category.RANDOMNESS, "random");
+      Log.logLine(Log.Category.CHECKS, "check 1");
+      Log.logLine("general");
+      Log.flush();
+
+      String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+      assertEquals("check 1", contents.trim());
+    } finally {
+      GenInputsAbstract.log.close();
+      GenInputsAbstract.log = oldLog;
+      Log.setCategories(EnumSet.allOf(Log.Category.class));
+    }
+  }
+}
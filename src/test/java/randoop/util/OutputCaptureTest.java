@@ -0,0 +1,109 @@
+package test.java.randoop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import main.java.randoop.util.OutputCapture;
+import org.junit.Test;
+
+public class OutputCaptureTest {
+
+  private PrintStream savedOut;
+  private PrintStream savedErr;
+  private ByteArrayOutputStream uncaptured;
+
+  private void redirect() {
+    savedOut = System.out;
+    savedErr = System.err;
+    uncaptured = new ByteArrayOutputStream();
+    PrintStream ps = new PrintStream(uncaptured, true);
+    System.setOut(ps);
+    System.setErr(ps);
+  }
+
+  private void restore() {
+    System.setOut(savedOut);
+    System.setErr(savedErr);
+  }
+
+  @Test
+  public void capturesOutAndErrOfCurrentThread() {
+    redirect();
+    try {
+      OutputCapture capture = OutputCapture.begin();
+      System.out.print("out ");
+      System.err.print("err");
+      assertEquals("out err", new String(capture.end()));
+      assertEquals("", uncaptured.toString());
+
+      System.out.print("after");
+      assertEquals("after", uncaptured.toString());
+
+      // The buffer is reused, and starts empty.
+      capture = OutputCapture.begin();
+      assertEquals(0, capture.end().length);
+    } finally {
+      restore();
+    }
+  }
+
+  @Test
+  public void capturesThreadsStartedDuringCapture() throws InterruptedException {
+    redirect();
+    try {
+      OutputCapture capture = OutputCapture.begin();
+      Thread child =
+          new Thread() {
+            @Override
+            public void run() {
+              System.out.print("child");
+            }
+          };
+      child.start();
+      child.join();
+      assertEquals("child", new String(capture.end()));
+    } finally {
+      restore();
+    }
+  }
+
+  @Test
+  public void otherThreadsAreNotCaptured() throws InterruptedException {
+    redirect();
+    try {
+      final OutputCapture[] other = new OutputCapture[1];
+      Thread printer =
+          new Thread() {
+            @Override
+            public void run() {
+              other[0] = OutputCapture.begin();
+              System.out.print("other");
+            }
+          };
+      OutputCapture capture = OutputCapture.begin();
+      capture.end();
+      printer.start();
+      printer.join();
+
+      capture = OutputCapture.begin();
+      System.out.print("mine");
+      Thread bystander =
+          new Thread() {
+            @Override
+            public void run() {
+              OutputCapture.adopt(null);
+              System.out.print("bystander");
+            }
+          };
+      bystander.start();
+      bystander.join();
+      assertEquals("mine", new String(capture.end()));
+      assertEquals("other", new String(other[0].end()));
+      assertEquals("bystander", uncaptured.toString());
+    } finally {
+      restore();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package test.java.randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import main.java.randoop.util.MethodReflectionCode;
+import main.java.randoop.util.ReflectionExecutor;
+
+import org.junit.Test;
+
+/**
+ * Tests execution of reflection code on a reused executor thread.
+ */
+public class ReflectionExecutorTest {
+
+  public static int identity(int i) {
+    return i;
+  }
+
+  public static int fail(int i) {
+    throw new IllegalArgumentException("fail " + i);
+  }
+
+  @Test
+  public void reusedThreadExecutesCode() throws NoSuchMethodException {
+    boolean oldUseThreads = ReflectionExecutor.usethreads;
+    boolean oldReuse = ReflectionExecutor.reuse_threads;
+    ReflectionExecutor.usethreads = true;
+    ReflectionExecutor.reuse_threads = true;
+    try {
+      Method identity = ReflectionExecutorTest.class.getMethod("identity", int.class);
+      Method fail = ReflectionExecutorTest.class.getMethod("fail", int.class);
+
+      int threadsBefore = ReflectionExecutor.threadsStarted();
+      for (int i = 0; i < 100; i++) {
+        MethodReflectionCode code = new MethodReflectionCode(identity, null, new Object[] {i});
+        assertNull("should execute normally", ReflectionExecutor.executeReflectionCode(code, null));
+        assertEquals("should return input", i, code.getReturnVariable());
+
+        code = new MethodReflectionCode(fail, null, new Object[] {i});
+        Throwable thrown = ReflectionExecutor.executeReflectionCode(code, null);
+        assertTrue(
+            "should return exception thrown by method",
+            thrown instanceof IllegalArgumentException);
+      }
+      assertTrue(
+          "should start at most one thread for calls that do not time out",
+          ReflectionExecutor.threadsStarted() - threadsBefore <= 1);
+    } finally {
+      ReflectionExecutor.usethreads = oldUseThreads;
+      ReflectionExecutor.reuse_threads = oldReuse;
+    }
+  }
+}
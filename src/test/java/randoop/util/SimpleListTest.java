@@ -1,5 +1,7 @@
 package test.java.randoop.util;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -8,6 +10,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import main.java.randoop.util.ArrayListSimpleList;
+import main.java.randoop.util.FlattenedList;
 import main.java.randoop.util.ListOfLists;
 import main.java.randoop.util.OneMoreElementList;
 import main.java.randoop.util.SimpleList;
@@ -115,4 +118,71 @@ public class SimpleListTest {
 
     assertTrue("should be no elements", sl.isEmpty());
   }
+
+  @Test
+  public void flattened() {
+    List<SimpleList<String>> lists = new ArrayList<>();
+    ArrayList<String> al = new ArrayList<>();
+    SimpleList<String> base = new ArrayListSimpleList<>(new ArrayList<String>());
+    for (int i = 0; i < 10; i++) {
+      String v = "str" + i;
+      base = new OneMoreElementList<>(base, v);
+      al.add(v);
+    }
+    lists.add(base);
+    ArrayList<String> sub = new ArrayList<>();
+    for (int i = 10; i < 20; i++) {
+      sub.add("str" + i);
+      al.add("str" + i);
+    }
+    SimpleList<String> second = new ArrayListSimpleList<>(sub);
+    lists.add(second);
+
+    SimpleList<String> sl = new FlattenedList<>(lists);
+
+    assertEquals("should have all elements", al.size(), sl.size());
+    for (int i = 0; i < sl.size(); i++) {
+      assertEquals("elements should be in order", al.get(i), sl.get(i));
+    }
+    assertEquals(al, sl.toJDKList());
+    assertEquals(
+        "sublist should be the part up to the element",
+        al.subList(10, 16),
+        sl.getSublist(15).toJDKList());
+    assertEquals(
+        "sublist of an extension should be its prefix", al.subList(0, 5), sl.getSublist(4).toJDKList());
+  }
+
+  @Test
+  public void flattenedAppend() {
+    List<SimpleList<String>> lists = new ArrayList<>();
+    lists.add(new ArrayListSimpleList<>(new ArrayList<String>()));
+    FlattenedList<String> base = new FlattenedList<>(lists);
+    ArrayList<String> al = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      base = base.append("str" + i);
+      al.add("str" + i);
+    }
+    assertEquals(al, base.toJDKList());
+    assertSame("sublist of the last element should be the list", base, base.getSublist(99));
+
+    // A second extension of the same list must not overwrite the first.
+    FlattenedList<String> prefix = (FlattenedList<String>) base.getSublist(49);
+    FlattenedList<String> first = prefix.append("a");
+    FlattenedList<String> second = prefix.append("b");
+    assertEquals("a", first.get(50));
+    assertEquals("b", second.get(50));
+    assertEquals("str50", base.get(50));
+    assertEquals(al.subList(0, 50), second.getSublist(49).toJDKList());
+
+    // Parts of a concatenation keep their own sublists.
+    lists.clear();
+    lists.add(second);
+    lists.add(first);
+    FlattenedList<String> both = new FlattenedList<>(lists).append("c");
+    assertEquals(103, both.size());
+    assertEquals(al.subList(0, 50), both.getSublist(49).toJDKList());
+    assertEquals(first.toJDKList(), both.getSublist(101).toJDKList());
+    assertEquals(both.toJDKList(), both.getSublist(102).toJDKList());
+  }
 }